@@ -0,0 +1,250 @@
+package com.quran.kerim;
+
+import android.content.Intent;
+import android.util.Log;
+import androidx.core.content.ContextCompat;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sure seslerini AudioDownloadService ile indirir ve ses önbelleğini (AudioCache)
+ * yönetir. Olaylar:
+ * "progress" { surah, completed, total, bytes } ve "complete" { surah, failed, cancelled }.
+ */
+@CapacitorPlugin(name = "AudioDownload")
+public class AudioDownloadPlugin extends Plugin {
+
+    private static final String TAG = "AudioDownloadPlugin";
+    private static final String SEGMENT_DIR = "ayah_segments";
+    private static final int MAX_SEGMENTS = 8;
+
+    // Önbelleğe alma ve indeks yazımı sırayla, tek iş parçacığında
+    private final ExecutorService cacheExecutor = Executors.newSingleThreadExecutor();
+    private final AudioDownloader prefetcher = new AudioDownloader(1, 2);
+
+    @Override
+    public void load() {
+        AudioDownloadService.setListener(new AudioDownloadService.Listener() {
+            @Override
+            public void onProgress(int surah, int completed, int total, long bytes) {
+                JSObject data = new JSObject();
+                data.put("surah", surah);
+                data.put("completed", completed);
+                data.put("total", total);
+                data.put("bytes", bytes);
+                notifyListeners("progress", data);
+            }
+
+            @Override
+            public void onComplete(int surah, int[] failed, boolean cancelled) {
+                JSObject data = new JSObject();
+                data.put("surah", surah);
+                data.put("failed", toArray(failed));
+                data.put("cancelled", cancelled);
+                notifyListeners("complete", data);
+            }
+        });
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        AudioDownloadService.setListener(null);
+    }
+
+    /** Parametreler: surah, ayahCount, reciter. Sıraya alır; sonuç "complete" olayıyla gelir. */
+    @PluginMethod
+    public void downloadSurah(PluginCall call) {
+        int surah = call.getInt("surah", 0);
+        int ayahCount = call.getInt("ayahCount", 0);
+        if (surah < 1 || surah > QuranCorpus.SURAH_COUNT || ayahCount < 1) {
+            call.reject("Geçersiz sure");
+            return;
+        }
+        Intent intent = new Intent(getContext(), AudioDownloadService.class);
+        intent.putExtra(AudioDownloadService.EXTRA_SURAH, surah);
+        intent.putExtra(AudioDownloadService.EXTRA_AYAH_COUNT, ayahCount);
+        intent.putExtra(AudioDownloadService.EXTRA_RECITER, getReciter(call));
+        ContextCompat.startForegroundService(getContext(), intent);
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void cancel(PluginCall call) {
+        Intent intent = new Intent(getContext(), AudioDownloadService.class)
+                .setAction(AudioDownloadService.ACTION_CANCEL);
+        getContext().startService(intent);
+        call.resolve();
+    }
+
+    /** Parametreler: reciter. Sonuç: { surahs: { "2": [1, 2, ...] } } (yalnızca indirilen sureler) */
+    @PluginMethod
+    public void list(PluginCall call) {
+        JSObject surahs = new JSObject();
+        for (Map.Entry<Integer, List<Integer>> entry
+                : AudioDownloadService.getCache(getContext()).pinnedAyahs(getReciter(call)).entrySet()) {
+            surahs.put(String.valueOf(entry.getKey()), new JSArray(entry.getValue()));
+        }
+        JSObject ret = new JSObject();
+        ret.put("surahs", surahs);
+        call.resolve(ret);
+    }
+
+    /** Sonuç: { bytes, pinnedBytes, budget }. İndeksten okunur, dosyalara dokunmaz. */
+    @PluginMethod
+    public void getTotalSize(PluginCall call) {
+        AudioCache cache = AudioDownloadService.getCache(getContext());
+        JSObject ret = new JSObject();
+        ret.put("bytes", cache.totalBytes());
+        ret.put("pinnedBytes", cache.pinnedBytes());
+        ret.put("budget", cache.budgetBytes());
+        call.resolve(ret);
+    }
+
+    /** Parametreler: bytes. İndirilmeyen (dinlerken alınan) ayetler bu sınıra göre silinir. */
+    @PluginMethod
+    public void setCacheBudget(PluginCall call) {
+        Long bytes = call.getLong("bytes");
+        if (bytes == null || bytes < 0) {
+            call.reject("bytes gerekli");
+            return;
+        }
+        AudioDownloadService.setBudget(getContext(), bytes);
+        flushLater();
+        call.resolve();
+    }
+
+    /**
+     * Parametreler: surah, ayah, reciter. Sonuç: { path } (önbellekte yoksa path yok).
+     * Paketlenmiş surelerde ayet, web oynatıcısı için geçici dosyaya çıkarılır.
+     */
+    @PluginMethod
+    public void getAyahPath(PluginCall call) {
+        String reciter = getReciter(call);
+        int surah = call.getInt("surah", 0);
+        int ayah = call.getInt("ayah", 0);
+        AudioCache cache = AudioDownloadService.getCache(getContext());
+        File file = cache.get(reciter, surah, ayah);
+        AudioPack pack = file == null ? cache.getPack(reciter, surah) : null;
+        if (pack != null && pack.has(ayah)) {
+            file = extractAyah(pack, reciter, surah, ayah);
+        }
+        JSObject ret = new JSObject();
+        if (file != null) {
+            ret.put("path", file.getAbsolutePath());
+        }
+        call.resolve(ret);
+    }
+
+    /** Son çıkarılan birkaç ayet saklanır; eskileri silinir. Hata olursa null (akıştan çalar). */
+    private File extractAyah(AudioPack pack, String reciter, int surah, int ayah) {
+        File dir = new File(getContext().getCacheDir(), SEGMENT_DIR);
+        File target = new File(dir, reciter + "_" + surah + "_" + ayah + ".mp3");
+        if (target.exists()) {
+            return target;
+        }
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Cannot create " + dir);
+            }
+            pack.copyAyah(ayah, target);
+        } catch (IOException e) {
+            Log.w(TAG, "Ayet paketten çıkarılamadı " + surah + ":" + ayah + ": " + e.getMessage());
+            return null;
+        }
+        File[] segments = dir.listFiles();
+        if (segments != null && segments.length > MAX_SEGMENTS) {
+            Arrays.sort(segments, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+            for (int i = 0; i < segments.length - MAX_SEGMENTS; i++) {
+                segments[i].delete();
+            }
+        }
+        return target;
+    }
+
+    /** Parametreler: surah, ayahs (dizi), reciter. Dinlenen ayetleri arka planda önbelleğe alır. */
+    @PluginMethod
+    public void prefetch(PluginCall call) {
+        String reciter = getReciter(call);
+        int surah = call.getInt("surah", 0);
+        JSArray ayahs = call.getArray("ayahs");
+        if (surah < 1 || surah > QuranCorpus.SURAH_COUNT || ayahs == null) {
+            call.reject("Geçersiz sure");
+            return;
+        }
+        AudioCache cache = AudioDownloadService.getCache(getContext());
+        for (int i = 0; i < ayahs.length(); i++) {
+            int ayah = ayahs.optInt(i);
+            if (ayah < 1 || ayah > QuranCorpus.ayahCount(surah) || cache.contains(reciter, surah, ayah)) {
+                continue;
+            }
+            cacheExecutor.execute(() -> {
+                if (cache.contains(reciter, surah, ayah)) {
+                    return;
+                }
+                try {
+                    long[] sizeAndCrc = prefetcher.downloadFile(AudioDownloadService.ayahUrl(reciter, surah, ayah),
+                            cache.fileFor(reciter, surah, ayah));
+                    cache.put(reciter, surah, ayah, (int) sizeAndCrc[0], false);
+                } catch (IOException e) {
+                    Log.w(TAG, "Önbelleğe alınamadı " + surah + ":" + ayah + ": " + e.getMessage());
+                }
+            });
+        }
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void deleteSurah(PluginCall call) {
+        int surah = call.getInt("surah", 0);
+        if (surah >= 1 && surah <= QuranCorpus.SURAH_COUNT) {
+            AudioDownloadService.getCache(getContext()).removeSurah(getReciter(call), surah);
+            flushLater();
+        }
+        call.resolve();
+    }
+
+    @Override
+    protected void handleOnPause() {
+        // Son kullanım sırası yalnızca burada kalıcı olur; her çalmada yazılmaz
+        flushLater();
+    }
+
+    private void flushLater() {
+        AudioCache cache = AudioDownloadService.getCache(getContext());
+        cacheExecutor.execute(() -> {
+            try {
+                cache.flush();
+            } catch (IOException e) {
+                Log.e(TAG, "Önbellek indeksi yazılamadı", e);
+            }
+        });
+    }
+
+    static String getReciter(PluginCall call) {
+        String reciter = call.getString("reciter");
+        // Dizin adı olarak kullanılır
+        if (reciter == null || reciter.isEmpty() || reciter.contains("/") || reciter.contains("..")) {
+            return AudioDownloadService.DEFAULT_RECITER;
+        }
+        return reciter;
+    }
+
+    private static JSArray toArray(int[] values) {
+        JSArray array = new JSArray();
+        for (int value : values) {
+            array.put(value);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,295 @@
+package com.quran.kerim;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.os.Build;
+import android.os.IBinder;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.ServiceCompat;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sure seslerini arka planda indiren ön plan servisi. Sureler sırayla, her surenin
+ * ayetleri AudioDownloader ile paralel indirilir. Süreç öldürülürse Android isteği
+ * yeniden teslim eder (START_REDELIVER_INTENT) ve indirme .part dosyalarından sürer.
+ * Eksiksiz inen sure tek bir AudioPack dosyasına dönüştürülür.
+ */
+public class AudioDownloadService extends Service {
+
+    static final String EXTRA_SURAH = "surah";
+    static final String EXTRA_AYAH_COUNT = "ayahCount";
+    static final String EXTRA_RECITER = "reciter";
+    static final String ACTION_CANCEL = "com.quran.kerim.AUDIO_DOWNLOAD_CANCEL";
+    static final String DEFAULT_RECITER = "Alafasy_128kbps";
+
+    private static final String TAG = "AudioDownloadService";
+    private static final int NOTIFICATION_ID = 2;
+    private static final String CHANNEL_ID = "audio_download_channel";
+    private static final String CHANNEL_NAME = "Ses İndirme";
+    private static final String AUDIO_URL = "https://everyayah.com/data/";
+    private static final int CONNECTIONS = 4;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long NOTIFY_INTERVAL_MS = 500;
+    private static final String PREFS_NAME = "audio_cache";
+    private static final String KEY_BUDGET = "budget";
+    /** Önbellek bütçesi; indirilen sureler bütçeye sayılır ama silinmez. */
+    static final long DEFAULT_BUDGET_BYTES = 500L * 1024 * 1024;
+
+    /**
+     * İlerleme olayları; eklenti yüklendiğinde kaydolur. Servis iş parçacığından (servis
+     * kapanırken sırada kalan istekler için ana iş parçacığından) çağrılır.
+     */
+    interface Listener {
+        void onProgress(int surah, int completed, int total, long bytes);
+
+        void onComplete(int surah, int[] failed, boolean cancelled);
+    }
+
+    private static volatile Listener listener;
+    private static AudioCache cache;
+
+    private final ExecutorService queue = Executors.newSingleThreadExecutor();
+    private NotificationCompat.Builder builder;
+    private volatile AudioDownloader current;
+    // İptal, o ana kadar alınmış istekleri geçersiz kılar; sonraki başlatmalar etkilenmez
+    private volatile int generation;
+    private long lastNotifyAt;
+
+    static void setListener(Listener value) {
+        listener = value;
+    }
+
+    static synchronized AudioCache getCache(Context context) {
+        if (cache == null) {
+            long budget = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                    .getLong(KEY_BUDGET, DEFAULT_BUDGET_BYTES);
+            cache = AudioCache.open(new File(context.getFilesDir(), "audio"), budget);
+        }
+        return cache;
+    }
+
+    static void setBudget(Context context, long budgetBytes) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .edit().putLong(KEY_BUDGET, budgetBytes).apply();
+        getCache(context).setBudget(budgetBytes);
+    }
+
+    static String ayahUrl(String reciter, int surah, int ayah) {
+        return AUDIO_URL + reciter + "/" + String.format(Locale.US, "%03d%03d.mp3", surah, ayah);
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        createNotificationChannel();
+        Intent cancel = new Intent(this, AudioDownloadService.class).setAction(ACTION_CANCEL);
+        PendingIntent cancelIntent = PendingIntent.getService(this, 0, cancel,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        builder = new NotificationCompat.Builder(this, CHANNEL_ID)
+                .setSmallIcon(android.R.drawable.stat_sys_download)
+                .setContentTitle("Sure sesleri indiriliyor")
+                .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .setShowWhen(false)
+                .addAction(0, "İptal", cancelIntent);
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        if (intent != null && ACTION_CANCEL.equals(intent.getAction())) {
+            generation++;
+            AudioDownloader downloader = current;
+            if (downloader != null) {
+                downloader.cancel();
+            }
+            stopSelf();
+            return START_NOT_STICKY;
+        }
+        // Her başlatmada startForeground: startForegroundService sözleşmesi
+        startForeground(builder.setProgress(0, 0, true).build());
+        if (intent == null) {
+            stopSelf(startId);
+            return START_NOT_STICKY;
+        }
+        String reciter = intent.getStringExtra(EXTRA_RECITER);
+        queue.execute(new Request(intent.getIntExtra(EXTRA_SURAH, 0), intent.getIntExtra(EXTRA_AYAH_COUNT, 0),
+                reciter != null ? reciter : DEFAULT_RECITER, startId, generation));
+        return START_REDELIVER_INTENT;
+    }
+
+    /** Sıradaki tek sure isteği; her istek iptal edilmiş olsa da onComplete ile yanıtlanır. */
+    private final class Request implements Runnable {
+        final int surah;
+        final int ayahCount;
+        final String reciter;
+        final int startId;
+        final int requestGeneration;
+
+        Request(int surah, int ayahCount, String reciter, int startId, int requestGeneration) {
+            this.surah = surah;
+            this.ayahCount = ayahCount;
+            this.reciter = reciter;
+            this.startId = startId;
+            this.requestGeneration = requestGeneration;
+        }
+
+        boolean isCancelled() {
+            return requestGeneration != generation;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (isCancelled()) {
+                    reportFailed(surah, ayahCount, true);
+                } else {
+                    download(this);
+                }
+            } finally {
+                stopSelf(startId);
+            }
+        }
+    }
+
+    private void download(Request request) {
+        int surah = request.surah;
+        int ayahCount = request.ayahCount;
+        String reciter = request.reciter;
+        if (surah < 1 || ayahCount < 1) {
+            // Eklenti geçersiz istekleri servise göndermez
+            return;
+        }
+        String[] urls = new String[ayahCount];
+        for (int ayah = 1; ayah <= ayahCount; ayah++) {
+            urls[ayah - 1] = ayahUrl(reciter, surah, ayah);
+        }
+        AudioDownloader downloader = new AudioDownloader(CONNECTIONS, MAX_ATTEMPTS);
+        current = downloader;
+        if (request.isCancelled()) {
+            // İptal, current atanmadan hemen önce geldiyse indirici onu görmedi
+            downloader.cancel();
+        }
+        builder.setContentText("Sure " + surah);
+        AudioCache audioCache = getCache(this);
+        File dir = audioCache.surahDir(reciter, surah);
+        try {
+            AudioDownloader.Result result = downloader.downloadSurah(dir, urls,
+                    (completed, total, bytes) -> onProgress(surah, completed, total, bytes));
+            // Tamamlanmasa da inen ayetler kullanıcı indirmesidir; silinmez
+            audioCache.pinSurah(reciter, surah,
+                    AudioManifest.readOrCreate(AudioDownloader.manifestFile(dir), ayahCount));
+            if (result.failed.length == 0 && !result.cancelled && audioCache.getPack(reciter, surah) == null) {
+                packSurah(audioCache, reciter, surah);
+            }
+            audioCache.flush();
+            Log.d(TAG, "Sure " + surah + ": " + result.completed + "/" + result.total
+                    + ", başarısız " + result.failed.length);
+            Listener target = listener;
+            if (target != null) {
+                target.onComplete(surah, result.failed, result.cancelled);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Sure " + surah + " indirilemedi", e);
+            reportFailed(surah, ayahCount, request.isCancelled());
+        } finally {
+            current = null;
+        }
+    }
+
+    /** İndirilmeden biten istek: tüm ayetler başarısız sayılır, JS beklemede kalmaz. */
+    private static void reportFailed(int surah, int ayahCount, boolean cancelled) {
+        Listener target = listener;
+        if (target != null) {
+            int[] all = new int[ayahCount];
+            for (int i = 0; i < ayahCount; i++) {
+                all[i] = i + 1;
+            }
+            target.onComplete(surah, all, cancelled);
+        }
+    }
+
+    /** Tamamlanan sure tek dosyaya paketlenir; olmazsa ayet dosyaları olduğu gibi kullanılır. */
+    private static void packSurah(AudioCache audioCache, String reciter, int surah) {
+        try {
+            audioCache.packSurah(reciter, surah);
+        } catch (IOException e) {
+            Log.w(TAG, "Sure " + surah + " paketlenemedi: " + e.getMessage());
+        }
+    }
+
+    private void onProgress(int surah, int completed, int total, long bytes) {
+        Listener target = listener;
+        if (target != null) {
+            target.onProgress(surah, completed, total, bytes);
+        }
+        long now = SystemClock.elapsedRealtime();
+        synchronized (this) {
+            // Bildirim güncellemesi sistem tarafından da sınırlandırılır; her ayette değil
+            if (completed < total && now - lastNotifyAt < NOTIFY_INTERVAL_MS) {
+                return;
+            }
+            lastNotifyAt = now;
+            NotificationManager manager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+            if (manager != null) {
+                manager.notify(NOTIFICATION_ID, builder
+                        .setProgress(total, completed, false)
+                        .setSubText(completed + "/" + total)
+                        .build());
+            }
+        }
+    }
+
+    private void startForeground(Notification notification) {
+        ServiceCompat.startForeground(this, NOTIFICATION_ID, notification,
+                Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q ? ServiceInfo.FOREGROUND_SERVICE_TYPE_DATA_SYNC : 0);
+    }
+
+    private void createNotificationChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                    CHANNEL_ID,
+                    CHANNEL_NAME,
+                    NotificationManager.IMPORTANCE_LOW
+            );
+            channel.setDescription("Sure seslerinin indirme durumu");
+            NotificationManager manager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+            if (manager != null) {
+                manager.createNotificationChannel(channel);
+            }
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        AudioDownloader downloader = current;
+        if (downloader != null) {
+            downloader.cancel();
+        }
+        // Sırada kalan istekler hiç çalışmayacak; bekleyen çağrılar iptal olarak yanıtlanır
+        for (Runnable dropped : queue.shutdownNow()) {
+            if (dropped instanceof Request) {
+                Request request = (Request) dropped;
+                reportFailed(request.surah, request.ayahCount, true);
+            }
+        }
+        stopForeground(true);
+        super.onDestroy();
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+}
@@ -1,133 +1,82 @@
 package com.quran.kerim;
 
-import android.app.AlarmManager;
-import android.app.PendingIntent;
 import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
 import android.content.Context;
-import android.content.Intent;
-import android.os.SystemClock;
-import android.widget.RemoteViews;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import android.util.SparseArray;
 
 public class LargeWidgetProvider extends AppWidgetProvider {
 
-    private static final String ACTION_AUTO_UPDATE = "com.quran.kerim.WIDGET_UPDATE_LARGE";
+    private static final int[] TIME_IDS = {
+        R.id.time_imsak_large, R.id.time_gunes_large, R.id.time_ogle_large,
+        R.id.time_ikindi_large, R.id.time_aksam_large, R.id.time_yatsi_large
+    };
 
     @Override
     public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
-        for (int appWidgetId : appWidgetIds) {
-            updateWidget(context, appWidgetManager, appWidgetId);
-        }
-        scheduleUpdates(context);
+        // Sistem tam içerik bekliyor; çizim arka planda, aynı anda gelen isteklerle birlikte
+        WidgetRenderer.invalidate(appWidgetIds);
+        WidgetWork.requestRefresh(context, goAsync());
     }
 
     @Override
-    public void onReceive(Context context, Intent intent) {
-        super.onReceive(context, intent);
-        if (ACTION_AUTO_UPDATE.equals(intent.getAction())) {
-            AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
-            int[] ids = appWidgetManager.getAppWidgetIds(
-                new android.content.ComponentName(context, LargeWidgetProvider.class));
-            for (int id : ids) {
-                updateWidget(context, appWidgetManager, id);
-            }
-        }
+    public void onDeleted(Context context, int[] appWidgetIds) {
+        super.onDeleted(context, appWidgetIds);
+        WidgetRenderer.invalidate(appWidgetIds);
+        Context app = context.getApplicationContext();
+        WidgetWork.run(this, () -> PrayerWidgetProvider.clearWidgetLocations(app, appWidgetIds));
     }
 
     @Override
     public void onDisabled(Context context) {
         super.onDisabled(context);
-        cancelUpdates(context);
+        Context app = context.getApplicationContext();
+        WidgetWork.run(this, () -> WidgetUpdateReceiver.scheduleNext(app));
     }
 
-    static void updateWidget(Context context, AppWidgetManager appWidgetManager, int appWidgetId) {
-        String[] times = PrayerWidgetProvider.getPrayerTimes(context);
-        String[] nextPrayer = PrayerWidgetProvider.getNextPrayerData(context);
-        String currentDate = new SimpleDateFormat("dd MMMM", new Locale("tr")).format(new Date());
+    static void updateWidgets(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        if (appWidgetIds.length == 0) {
+            return;
+        }
+        // Aynı konumu gösteren widget'lar tek çizimle güncellenir
+        SparseArray<int[]> groups = PrayerWidgetProvider.groupByLocation(context, appWidgetIds);
+        for (int g = 0; g < groups.size(); g++) {
+            PrayerSchedule schedule = PrayerWidgetProvider.getSchedule(context, groups.keyAt(g));
+            String label = PrayerWidgetProvider.getWidgetLocationLabel(context, groups.keyAt(g));
         
-        // Şu anki vakti bul
-        String currentPrayer = getCurrentPrayer(times);
+            // Şu anki ve sıradaki vakit aynı dakikadan çözülür
+            int minute = schedule.minuteOf(System.currentTimeMillis());
+            int current = schedule.currentIndex(minute);
+            String[] nextPrayer = schedule.describeNext(minute);
         
-        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_large);
-        views.setTextViewText(R.id.widget_date_large, currentDate);
-        views.setTextViewText(R.id.widget_next_prayer, nextPrayer[0]);
-        views.setTextViewText(R.id.widget_next_time, nextPrayer[1]);
-        views.setTextViewText(R.id.widget_remaining, nextPrayer[2] + " kaldı");
+            // Tarih TextClock'ta: gece yarısı sistem çevirir
+            WidgetRenderer.Frame frame = new WidgetRenderer.Frame(R.layout.widget_large, 16);
+            frame.clockFormat(R.id.widget_date_large, WidgetRenderer.datePattern(label))
+                .text(R.id.widget_next_prayer, nextPrayer[0])
+                .text(R.id.widget_next_time, nextPrayer[1]);
+            if (WidgetRenderer.SYSTEM_COUNTDOWN) {
+                // Saniyeleri sistem sayar; widget yalnızca vakit geçişinde yeniden çizilir
+                frame.countdown(R.id.widget_remaining, schedule.millisOf(schedule.nextIndex(minute)), "%s kaldı");
+            } else {
+                frame.text(R.id.widget_remaining, nextPrayer[2] + " kaldı");
+            }
         
-        // Tüm vakitleri göster ve aktif olanı vurgula
-        setTimeWithHighlight(views, R.id.time_imsak_large, times[0], currentPrayer.equals("İmsak"));
-        setTimeWithHighlight(views, R.id.time_gunes_large, times[1], currentPrayer.equals("Güneş"));
-        setTimeWithHighlight(views, R.id.time_ogle_large, times[2], currentPrayer.equals("Öğle"));
-        setTimeWithHighlight(views, R.id.time_ikindi_large, times[3], currentPrayer.equals("İkindi"));
-        setTimeWithHighlight(views, R.id.time_aksam_large, times[4], currentPrayer.equals("Akşam"));
-        setTimeWithHighlight(views, R.id.time_yatsi_large, times[5], currentPrayer.equals("Yatsı"));
+            // Tüm vakitleri göster ve aktif olanı vurgula
+            for (int i = 0; i < PrayerSchedule.COUNT; i++) {
+                setTimeWithHighlight(frame, TIME_IDS[i],
+                    PrayerTimeCalculator.formatMinutes(schedule.wallTime(i)), i == current);
+            }
         
-        appWidgetManager.updateAppWidget(appWidgetId, views);
+            WidgetRenderer.render(context, appWidgetManager, groups.valueAt(g), frame);
+        }
     }
     
-    private static void setTimeWithHighlight(RemoteViews views, int viewId, String time, boolean isActive) {
-        views.setTextViewText(viewId, time);
+    private static void setTimeWithHighlight(WidgetRenderer.Frame frame, int viewId, String time, boolean isActive) {
+        frame.text(viewId, time);
         if (isActive) {
-            views.setTextColor(viewId, 0xFFFFFFFF); // Beyaz - aktif
+            frame.setInt(viewId, "setTextColor", 0xFFFFFFFF); // Beyaz - aktif
         } else {
-            views.setTextColor(viewId, 0xFF10B981); // Yeşil - normal
+            frame.setInt(viewId, "setTextColor", 0xFF10B981); // Yeşil - normal
         }
     }
-    
-    private static String getCurrentPrayer(String[] times) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("HH:mm", Locale.getDefault());
-            String currentTime = sdf.format(new Date());
-            
-            // İmsak-Güneş arası
-            if (currentTime.compareTo(times[0]) >= 0 && currentTime.compareTo(times[1]) < 0) {
-                return "İmsak";
-            }
-            // Güneş-Öğle arası
-            else if (currentTime.compareTo(times[1]) >= 0 && currentTime.compareTo(times[2]) < 0) {
-                return "Güneş";
-            }
-            // Öğle-İkindi arası
-            else if (currentTime.compareTo(times[2]) >= 0 && currentTime.compareTo(times[3]) < 0) {
-                return "Öğle";
-            }
-            // İkindi-Akşam arası
-            else if (currentTime.compareTo(times[3]) >= 0 && currentTime.compareTo(times[4]) < 0) {
-                return "İkindi";
-            }
-            // Akşam-Yatsı arası
-            else if (currentTime.compareTo(times[4]) >= 0 && currentTime.compareTo(times[5]) < 0) {
-                return "Akşam";
-            }
-            // Yatsı-Gece yarısı veya Gece yarısı-İmsak arası
-            else {
-                return "Yatsı";
-            }
-        } catch (Exception e) {
-            return "";
-        }
-    }
-
-    private void scheduleUpdates(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(context, LargeWidgetProvider.class);
-        intent.setAction(ACTION_AUTO_UPDATE);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, 2, intent, 
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-
-        alarmManager.setRepeating(AlarmManager.ELAPSED_REALTIME,
-            SystemClock.elapsedRealtime() + 60000, 60000, pendingIntent);
-    }
-
-    private void cancelUpdates(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(context, LargeWidgetProvider.class);
-        intent.setAction(ACTION_AUTO_UPDATE);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, 2, intent,
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-        alarmManager.cancel(pendingIntent);
-    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.quran.kerim;
 import android.os.Bundle;
 import android.webkit.JavascriptInterface;
 import android.webkit.WebView;
+import android.content.Context;
 import android.content.Intent;
 import com.getcapacitor.BridgeActivity;
 
@@ -10,21 +11,40 @@ public class MainActivity extends BridgeActivity {
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
+        // Ana sayfa özeti WebView oluşturulurken paralel hazırlanır
+        StartupSnapshot.prepare(this);
+        // Yerel eklentiler bridge oluşmadan kaydedilmeli
+        registerPlugin(PrayerWidgetPlugin.class);
+        registerPlugin(OngoingNotificationPlugin.class);
+        registerPlugin(PrayerTimesPlugin.class);
+        registerPlugin(QuranSearchPlugin.class);
+        registerPlugin(QuranCorpusPlugin.class);
+        registerPlugin(AudioDownloadPlugin.class);
+        registerPlugin(UserDataPlugin.class);
+        registerPlugin(PrayerAlarmsPlugin.class);
+        registerPlugin(RecitationPlugin.class);
+        registerPlugin(QiblaPlugin.class);
+        registerPlugin(MetricsPlugin.class);
         super.onCreate(savedInstanceState);
 
         // WebView'e JavaScript interface ekle
         WebView webView = getBridge().getWebView();
         webView.addJavascriptInterface(new WebAppInterface(), "Android");
+        StartupSnapshot.mark("bridgeReady");
     }
 
     @Override
     public void onResume() {
         super.onResume();
-        // ÖRNEK prayerTimes JSON STRING! (Gerçek veriyi JS'den veya cache'den güncel olarak almalısın)
-        String prayerTimesJsonString = "{\"Fajr\":\"05:45\",\"Sunrise\":\"07:00\",\"Dhuhr\":\"12:30\",\"Asr\":\"15:45\",\"Maghrib\":\"18:10\",\"Isha\":\"19:30\"}";
-        Intent serviceIntent = new Intent(this, OngoingNotificationService.class);
-        serviceIntent.putExtra("prayerTimes", prayerTimesJsonString);
-        startService(serviceIntent);
+        // Servis vakitleri ve konumu kalıcı veriden kendisi okur; yalnızca
+        // çalışmıyorsa ya da gösterdiği içerik eskidiyse başlatılır. Kontrol tablo
+        // dosyasını okuyabilir: ana iş parçacığı dışında
+        Context app = getApplicationContext();
+        WidgetWork.execute(() -> {
+            if (!OngoingNotificationService.isUpToDate(app)) {
+                app.startService(new Intent(app, OngoingNotificationService.class));
+            }
+        });
     }
 
     public class WebAppInterface {
@@ -36,5 +56,24 @@ public class MainActivity extends BridgeActivity {
                     imsak, gunes, ogle, ikindi, aksam, yatsi
             );
         }
+
+        /** Ana sayfa özeti (JSON) ya da hazır değilse null; yalnızca ilk çağrıda verilir. */
+        @JavascriptInterface
+        public String getStartupSnapshot() {
+            return StartupSnapshot.take();
+        }
+
+        /** Açılış ölçümü; "Startup" etiketiyle logcat'e yazılır. */
+        @JavascriptInterface
+        public void markStartup(String name) {
+            StartupSnapshot.mark(name);
+        }
+
+        /** Ana sayfa anlamlı içerikle çizildi (logcat: "Fully drawn"). */
+        @JavascriptInterface
+        public void reportFullyDrawn() {
+            StartupSnapshot.mark("firstMeaningfulPaint");
+            runOnUiThread(MainActivity.this::reportFullyDrawn);
+        }
     }
 }
\ No newline at end of file
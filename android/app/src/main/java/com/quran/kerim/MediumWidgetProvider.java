@@ -1,118 +1,76 @@
 package com.quran.kerim;
 
-import android.app.AlarmManager;
-import android.app.PendingIntent;
 import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
 import android.content.Context;
-import android.content.Intent;
-import android.os.SystemClock;
-import android.widget.RemoteViews;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import android.util.SparseArray;
 
 public class MediumWidgetProvider extends AppWidgetProvider {
 
-    private static final String ACTION_AUTO_UPDATE = "com.quran.kerim.WIDGET_UPDATE_MEDIUM";
+    private static final int[] ROW_IDS = {
+        R.id.prayer_imsak, R.id.prayer_gunes, R.id.prayer_ogle,
+        R.id.prayer_ikindi, R.id.prayer_aksam, R.id.prayer_yatsi
+    };
+    private static final int[] TIME_IDS = {
+        R.id.time_imsak, R.id.time_gunes, R.id.time_ogle,
+        R.id.time_ikindi, R.id.time_aksam, R.id.time_yatsi
+    };
 
     @Override
     public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
-        for (int appWidgetId : appWidgetIds) {
-            updateWidget(context, appWidgetManager, appWidgetId);
-        }
-        scheduleUpdates(context);
+        // Sistem tam içerik bekliyor; çizim arka planda, aynı anda gelen isteklerle birlikte
+        WidgetRenderer.invalidate(appWidgetIds);
+        WidgetWork.requestRefresh(context, goAsync());
     }
 
     @Override
-    public void onReceive(Context context, Intent intent) {
-        super.onReceive(context, intent);
-        if (ACTION_AUTO_UPDATE.equals(intent.getAction())) {
-            AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
-            int[] ids = appWidgetManager.getAppWidgetIds(
-                new android.content.ComponentName(context, MediumWidgetProvider.class));
-            for (int id : ids) {
-                updateWidget(context, appWidgetManager, id);
-            }
-        }
+    public void onDeleted(Context context, int[] appWidgetIds) {
+        super.onDeleted(context, appWidgetIds);
+        WidgetRenderer.invalidate(appWidgetIds);
+        Context app = context.getApplicationContext();
+        WidgetWork.run(this, () -> PrayerWidgetProvider.clearWidgetLocations(app, appWidgetIds));
     }
 
     @Override
     public void onDisabled(Context context) {
         super.onDisabled(context);
-        cancelUpdates(context);
+        Context app = context.getApplicationContext();
+        WidgetWork.run(this, () -> WidgetUpdateReceiver.scheduleNext(app));
     }
 
-    static void updateWidget(Context context, AppWidgetManager appWidgetManager, int appWidgetId) {
-        String[] times = PrayerWidgetProvider.getPrayerTimes(context);
-        String currentDate = new SimpleDateFormat("dd MMMM", new Locale("tr")).format(new Date());
+    static void updateWidgets(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        if (appWidgetIds.length == 0) {
+            return;
+        }
+        // Aynı konumu gösteren widget'lar tek çizimle güncellenir
+        SparseArray<int[]> groups = PrayerWidgetProvider.groupByLocation(context, appWidgetIds);
+        for (int g = 0; g < groups.size(); g++) {
+            PrayerSchedule schedule = PrayerWidgetProvider.getSchedule(context, groups.keyAt(g));
+            String label = PrayerWidgetProvider.getWidgetLocationLabel(context, groups.keyAt(g));
         
-        // Şu anki vakti bul
-        String currentPrayer = getCurrentPrayer(times);
+            // Şu anki vakti bul
+            int current = schedule.currentIndex(schedule.minuteOf(System.currentTimeMillis()));
         
-        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_medium);
-        views.setTextViewText(R.id.widget_date, currentDate);
+            WidgetRenderer.Frame frame = new WidgetRenderer.Frame(R.layout.widget_medium, 13);
+            // Tarih TextClock'ta: gece yarısı sistem çevirir
+            frame.clockFormat(R.id.widget_date, WidgetRenderer.datePattern(label));
         
-        // Her namaz için arka plan rengini ayarla
-        setPrayerRow(views, R.id.prayer_imsak, R.id.time_imsak, times[0], currentPrayer.equals("İmsak"));
-        setPrayerRow(views, R.id.prayer_gunes, R.id.time_gunes, times[1], currentPrayer.equals("Güneş"));
-        setPrayerRow(views, R.id.prayer_ogle, R.id.time_ogle, times[2], currentPrayer.equals("Öğle"));
-        setPrayerRow(views, R.id.prayer_ikindi, R.id.time_ikindi, times[3], currentPrayer.equals("İkindi"));
-        setPrayerRow(views, R.id.prayer_aksam, R.id.time_aksam, times[4], currentPrayer.equals("Akşam"));
-        setPrayerRow(views, R.id.prayer_yatsi, R.id.time_yatsi, times[5], currentPrayer.equals("Yatsı"));
+            // Her namaz için arka plan rengini ayarla
+            for (int i = 0; i < PrayerSchedule.COUNT; i++) {
+                setPrayerRow(frame, ROW_IDS[i], TIME_IDS[i],
+                    PrayerTimeCalculator.formatMinutes(schedule.wallTime(i)), i == current);
+            }
         
-        appWidgetManager.updateAppWidget(appWidgetId, views);
+            WidgetRenderer.render(context, appWidgetManager, groups.valueAt(g), frame);
+        }
     }
     
-    private static void setPrayerRow(RemoteViews views, int rowId, int timeId, String time, boolean isActive) {
-        views.setTextViewText(timeId, time);
+    private static void setPrayerRow(WidgetRenderer.Frame frame, int rowId, int timeId, String time, boolean isActive) {
+        frame.text(timeId, time);
         if (isActive) {
-            views.setInt(rowId, "setBackgroundColor", 0xFF10B981); // Yeşil arka plan
+            frame.setInt(rowId, "setBackgroundColor", 0xFF10B981); // Yeşil arka plan
         } else {
-            views.setInt(rowId, "setBackgroundColor", 0x00000000); // Şeffaf
+            frame.setInt(rowId, "setBackgroundColor", 0x00000000); // Şeffaf
         }
     }
-    
-    private static String getCurrentPrayer(String[] times) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("HH:mm", Locale.getDefault());
-            String currentTime = sdf.format(new Date());
-            
-            if (currentTime.compareTo(times[0]) >= 0 && currentTime.compareTo(times[1]) < 0) {
-                return "İmsak";
-            } else if (currentTime.compareTo(times[1]) >= 0 && currentTime.compareTo(times[2]) < 0) {
-                return "Güneş";
-            } else if (currentTime.compareTo(times[2]) >= 0 && currentTime.compareTo(times[3]) < 0) {
-                return "Öğle";
-            } else if (currentTime.compareTo(times[3]) >= 0 && currentTime.compareTo(times[4]) < 0) {
-                return "İkindi";
-            } else if (currentTime.compareTo(times[4]) >= 0 && currentTime.compareTo(times[5]) < 0) {
-                return "Akşam";
-            } else {
-                return "Yatsı";
-            }
-        } catch (Exception e) {
-            return "";
-        }
-    }
-
-    private void scheduleUpdates(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(context, MediumWidgetProvider.class);
-        intent.setAction(ACTION_AUTO_UPDATE);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, 1, intent, 
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-
-        alarmManager.setRepeating(AlarmManager.ELAPSED_REALTIME,
-            SystemClock.elapsedRealtime() + 60000, 60000, pendingIntent);
-    }
-
-    private void cancelUpdates(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(context, MediumWidgetProvider.class);
-        intent.setAction(ACTION_AUTO_UPDATE);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, 1, intent,
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-        alarmManager.cancel(pendingIntent);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.quran.kerim;
+
+import android.content.Context;
+import android.util.Log;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONException;
+
+/**
+ * Performans ölçümlerini (Metrics) Ayarlar'daki hata ayıklama ekranına verir.
+ * Toplamlar en fazla {@link #FLUSH_INTERVAL_MS} aralıkla ve uygulama arka plana
+ * geçerken dosyaya yazılır; süreç yeniden başladığında dosyadakilere eklenir.
+ */
+@CapacitorPlugin(name = "Metrics")
+public class MetricsPlugin extends Plugin {
+
+    private static final String TAG = "MetricsPlugin";
+    private static final String METRICS_FILE = "metrics.bin";
+    private static final long FLUSH_INTERVAL_MS = 15 * 60 * 1000L;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static boolean loaded;
+    private static volatile long lastFlush;
+
+    /** { since, counters: { ad: { total, perDay } }, histograms: { ad: { count, mean, p50, p95, max, buckets } }, events } */
+    @PluginMethod
+    public void get(PluginCall call) {
+        Context context = getContext();
+        executor.execute(() -> {
+            ensureLoaded(context);
+            try {
+                call.resolve(new JSObject(Metrics.toJson(System.currentTimeMillis())));
+            } catch (JSONException e) {
+                call.reject("Ölçümler okunamadı: " + e.getMessage());
+            }
+        });
+    }
+
+    @PluginMethod
+    public void reset(PluginCall call) {
+        Context context = getContext();
+        executor.execute(() -> {
+            ensureLoaded(context);
+            Metrics.reset();
+            write(context);
+            call.resolve();
+        });
+    }
+
+    @Override
+    protected void handleOnPause() {
+        super.handleOnPause();
+        flush(getContext());
+    }
+
+    /** Son yazımdan bu yana yeterli süre geçtiyse toplamları arka planda yazar. */
+    static void flushIfDue(Context context) {
+        if (System.currentTimeMillis() - lastFlush >= FLUSH_INTERVAL_MS) {
+            flush(context);
+        }
+    }
+
+    static void flush(Context context) {
+        Context app = context.getApplicationContext();
+        lastFlush = System.currentTimeMillis();
+        executor.execute(() -> {
+            ensureLoaded(app);
+            write(app);
+        });
+    }
+
+    // Yalnızca executor iş parçacığında çağrılır
+    private static void ensureLoaded(Context context) {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        try {
+            Metrics.load(file(context));
+        } catch (IOException e) {
+            // Bozuk dosya: bu süreçten itibaren sayılır, bir sonraki yazımda değiştirilir
+            Log.w(TAG, "Ölçüm dosyası okunamadı: " + e.getMessage());
+        }
+    }
+
+    private static void write(Context context) {
+        try {
+            Metrics.write(file(context));
+        } catch (IOException e) {
+            Log.w(TAG, "Ölçümler yazılamadı: " + e.getMessage());
+        }
+    }
+
+    private static File file(Context context) {
+        return new File(context.getFilesDir(), METRICS_FILE);
+    }
+}
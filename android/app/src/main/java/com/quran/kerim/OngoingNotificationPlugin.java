@@ -11,7 +11,9 @@ public class OngoingNotificationPlugin extends Plugin {
 
     @PluginMethod
     public void start(PluginCall call) {
-        getActivity().startForegroundService(new Intent(getContext(), OngoingNotificationService.class));
+        Intent intent = new Intent(getContext(), OngoingNotificationService.class);
+        intent.putExtra(OngoingNotificationService.EXTRA_FOREGROUND, true);
+        getActivity().startForegroundService(intent);
         call.resolve();
     }
 
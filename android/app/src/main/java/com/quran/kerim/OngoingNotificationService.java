@@ -10,86 +10,152 @@ import android.content.Context;
 import android.content.Intent;
 import android.graphics.Color;
 import android.os.Build;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
 import android.widget.RemoteViews;
 import androidx.core.app.NotificationCompat;
-import org.json.JSONException;
-import org.json.JSONObject;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
 
+/**
+ * Kalıcı namaz vakti bildirimi. Vakitler ve konum adı PrayerWidgetProvider'daki
+ * kalıcı veriden okunur; bildirim yalnızca gösterilen içerik (gün, sıradaki vakit,
+ * vakit verisi) değiştiğinde yeniden gönderilir.
+ *
+ * Vakitlerin okunması (gerekirse yıllık tablonun üretilmesi) ve alarm planlama
+ * {@link WidgetWork} hattında yapılır; ana iş parçacığında yalnızca startForeground
+ * ve notify çağrıları kalır.
+ */
 public class OngoingNotificationService extends Service {
 
     private static final int NOTIFICATION_ID = 1;
     private static final String CHANNEL_ID = "prayer_times_channel";
     private static final String CHANNEL_NAME = "Namaz Vakitleri";
     private static final int ALARM_REQUEST_CODE = 1001;
-    private JSONObject prayerTimes = null;
+    /** startForegroundService ile başlatıldığında startForeground zorunludur. */
+    static final String EXTRA_FOREGROUND = "foreground";
+
+    private static final int[] TIME_IDS = {
+        R.id.imsak_time, R.id.gunes_time, R.id.ogle_time, R.id.ikindi_time, R.id.aksam_time, R.id.yatsi_time
+    };
+    private static final int HIGHLIGHT_COLOR = Color.RED;
+    private static final int TEXT_COLOR = Color.BLACK;
+
+    private static volatile boolean running = false;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private NotificationCompat.Builder builder;
+    // Yalnızca ana iş parçacığında
+    private Notification lastNotification;
+    private Notification placeholder;
+    private boolean foreground;
+    private boolean destroyed;
+    // Son gönderilen içeriğin anahtarı (veri sürümü, gün, sıradaki vakit)
+    private static volatile long renderedKey = Long.MIN_VALUE;
+
+    /** Ortak zamanlayıcı yalnızca servis ayaktayken bildirimi günceller. */
+    static boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Servis çalışıyor ve gösterdiği içerik güncel mi? Değilse başlatılmalı.
+     * Uygulama her öne geldiğinde servisi boşuna yeniden başlatmamak için.
+     */
+    static boolean isUpToDate(Context context) {
+        return running && renderedKey == contentKey(PrayerWidgetProvider.getSchedule(context));
+    }
+
+    private static long contentKey(PrayerSchedule schedule) {
+        int next = schedule.nextIndex(schedule.minuteOf(System.currentTimeMillis()));
+        return ((long) PrayerWidgetProvider.getDataVersion() << 40)
+                | ((long) schedule.getEpochDay() << 3) | next;
+    }
 
     @Override
-    public int onStartCommand(Intent intent, int flags, int startId) {
+    public void onCreate() {
+        super.onCreate();
+        running = true;
+        renderedKey = Long.MIN_VALUE;
         createNotificationChannel();
+        builder = new NotificationCompat.Builder(this, CHANNEL_ID)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .setShowWhen(false)
+                .setPriority(NotificationCompat.PRIORITY_HIGH);
+        // İlk içerik arka planda hazırlanırken startForeground beklemesin diye
+        placeholder = new NotificationCompat.Builder(this, CHANNEL_ID)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setContentTitle(CHANNEL_NAME)
+                .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .setShowWhen(false)
+                .build();
+    }
 
-        String prayerTimesJson = intent.getStringExtra("prayerTimes");
-        if (prayerTimesJson != null) {
-            try {
-                prayerTimes = new JSONObject(prayerTimesJson);
-            } catch (JSONException e) {
-                prayerTimes = null;
-            }
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        boolean foregroundRequired = !foreground
+                || (intent != null && intent.getBooleanExtra(EXTRA_FOREGROUND, false));
+        if (foregroundRequired) {
+            // startForegroundService süresi disk okumasını beklemez; içerik gelince aynı id güncellenir
+            startForeground(NOTIFICATION_ID, lastNotification != null ? lastNotification : placeholder);
+            foreground = true;
         }
-
-        updateNotification();
-        scheduleNextUpdate();
+        Context app = getApplicationContext();
+        WidgetWork.execute(() -> {
+            updateNotification();
+            WidgetUpdateReceiver.scheduleNext(app);
+        });
         return START_STICKY;
     }
 
-    private void scheduleNextUpdate() {
-        AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(this, OngoingNotificationService.class);
-        if (prayerTimes != null) {
-            intent.putExtra("prayerTimes", prayerTimes.toString());
-        }
-        PendingIntent pendingIntent = PendingIntent.getService(
-                this,
-                ALARM_REQUEST_CODE,
-                intent,
-                PendingIntent.FLAG_UPDATE_CURRENT | (Build.VERSION.SDK_INT >= 23 ? PendingIntent.FLAG_IMMUTABLE : 0)
-        );
-        long triggerAtMillis = System.currentTimeMillis() + 60 * 1000;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAtMillis, pendingIntent);
-        } else {
-            alarmManager.setExact(AlarmManager.RTC_WAKEUP, triggerAtMillis, pendingIntent);
+    /** WidgetWork iş parçacığında: içerik değiştiyse yeni bildirimi ana iş parçacığına gönderir. */
+    private void updateNotification() {
+        PrayerSchedule schedule = PrayerWidgetProvider.getSchedule(this);
+        int minute = schedule.minuteOf(System.currentTimeMillis());
+        int next = schedule.nextIndex(minute);
+        long key = contentKey(schedule);
+        if (key == renderedKey) {
+            return;
         }
-    }
 
-    private void updateNotification() {
-        android.util.Log.d("BILDIRIM_TEST", "Custom bildirim fonksiyonu ÇALIŞTI!");
+        Notification notification = builder
+                .setCustomContentView(buildContent(schedule, schedule.currentIndex(minute), next))
+                .build();
+        renderedKey = key;
+        mainHandler.post(() -> {
+            if (destroyed) {
+                return;
+            }
+            lastNotification = notification;
+            NotificationManager manager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+            if (manager != null) {
+                manager.notify(NOTIFICATION_ID, notification);
+            }
+            Metrics.count(Metrics.NOTIFICATION_POST);
+        });
+    }
 
+    private RemoteViews buildContent(PrayerSchedule schedule, int current, int next) {
         RemoteViews remoteViews = new RemoteViews(getPackageName(), R.layout.custom_notification);
-
-        // Örnek veri (bunları dinamik yapabilirsin)
-        remoteViews.setTextViewText(R.id.location, "Gaziantep");
+        remoteViews.setTextViewText(R.id.location, PrayerWidgetProvider.getLocationName(this));
         remoteViews.setTextViewText(R.id.date, getFormattedDate());
-        remoteViews.setTextViewText(R.id.hijri, "1442, Recep 8 - Sabaha : 07:17");
-        remoteViews.setTextViewText(R.id.imsak_time, prayerTimes != null ? prayerTimes.optString("Fajr", "--:--") : "05:47");
-        remoteViews.setTextViewText(R.id.sabah_time, prayerTimes != null ? prayerTimes.optString("Sunrise", "--:--") : "06:06");
-        remoteViews.setTextViewText(R.id.gunes_time, prayerTimes != null ? prayerTimes.optString("Sunrise", "--:--") : "07:06");
-        remoteViews.setTextViewText(R.id.ogle_time, prayerTimes != null ? prayerTimes.optString("Dhuhr", "--:--") : "12:49");
-        remoteViews.setTextViewText(R.id.ikindi_time, prayerTimes != null ? prayerTimes.optString("Asr", "--:--") : "15:53");
-        remoteViews.setTextViewText(R.id.aksam_time, prayerTimes != null ? prayerTimes.optString("Maghrib", "--:--") : "18:22");
-        remoteViews.setTextViewText(R.id.yatsi_time, prayerTimes != null ? prayerTimes.optString("Isha", "--:--") : "19:37");
-
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(this, CHANNEL_ID)
-                .setSmallIcon(R.mipmap.ic_launcher)
-                .setCustomContentView(remoteViews)
-                .setOngoing(true)
-                .setPriority(NotificationCompat.PRIORITY_HIGH);
+        remoteViews.setTextViewText(R.id.hijri, HijriDate.fromEpochDay(schedule.getEpochDay())
+                + " - " + PrayerSchedule.name(next) + ": "
+                + PrayerTimeCalculator.formatMinutes(schedule.wallTime(next)));
 
-        Notification notification = builder.build();
-        startForeground(NOTIFICATION_ID, notification);
+        for (int i = 0; i < TIME_IDS.length; i++) {
+            remoteViews.setTextViewText(TIME_IDS[i], PrayerTimeCalculator.formatMinutes(schedule.wallTime(i)));
+            remoteViews.setTextColor(TIME_IDS[i], i == current ? HIGHLIGHT_COLOR : TEXT_COLOR);
+        }
+        // "Sabah" sütunu önceki sürümlerdeki gibi Güneş vaktini gösterir
+        remoteViews.setTextViewText(R.id.sabah_time,
+                PrayerTimeCalculator.formatMinutes(schedule.wallTime(PrayerTimeCalculator.GUNES)));
+        return remoteViews;
     }
 
     private String getFormattedDate() {
@@ -117,6 +183,10 @@ public class OngoingNotificationService extends Service {
 
     @Override
     public void onDestroy() {
+        destroyed = true;
+        running = false;
+        renderedKey = Long.MIN_VALUE;
+        // Önceki sürümlerin dakikalık servis alarmı
         AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
         Intent intent = new Intent(this, OngoingNotificationService.class);
         PendingIntent pendingIntent = PendingIntent.getService(
@@ -129,6 +199,9 @@ public class OngoingNotificationService extends Service {
             alarmManager.cancel(pendingIntent);
         }
         stopForeground(true);
+        foreground = false;
+        Context app = getApplicationContext();
+        WidgetWork.execute(() -> WidgetUpdateReceiver.scheduleNext(app));
         super.onDestroy();
     }
 
@@ -0,0 +1,48 @@
+package com.quran.kerim;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * Vakit alarmlarını gösterir ve alarm penceresini canlı tutar. Açılışta, uygulama
+ * güncellendiğinde ve saat/saat dilimi değiştiğinde alarmlar WebView açılmadan
+ * yeniden kurulur.
+ */
+public class PrayerAlarmReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        // Bildirim ve alarm planlama dosya/tercih okur; ana iş parçacığı dışında yapılır
+        Context app = context.getApplicationContext();
+        WidgetWork.run(this, () -> handle(app, intent));
+    }
+
+    private static void handle(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (PrayerAlarmScheduler.ACTION_ALARM.equals(action)) {
+            PrayerAlarmScheduler.showAlarm(context, intent);
+            // Pencere bir vakit ileri kayar
+            PrayerAlarmScheduler.reschedule(context, false);
+            MetricsPlugin.flushIfDue(context);
+            return;
+        }
+        if (PrayerAlarmScheduler.getSettings(context) == null) {
+            // JS henüz ayar göndermedi; kurulacak alarm yok
+            return;
+        }
+        if (Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
+            // Tablo eski saat dilimiyle üretilmişse önce o yenilenir (WidgetUpdateReceiver ile aynı)
+            PrayerTimetable timetable = PrayerWidgetProvider.getTimetable(context);
+            if (timetable != null) {
+                PrayerWidgetProvider.updateLocation(context, timetable.latitude, timetable.longitude,
+                        timetable.method, timetable.school);
+            }
+        }
+        // Açılışta ve güncellemede sistem alarmları silmiştir
+        boolean rearmAll = Intent.ACTION_BOOT_COMPLETED.equals(action)
+                || Intent.ACTION_MY_PACKAGE_REPLACED.equals(action);
+        PrayerAlarmScheduler.reschedule(context, rearmAll);
+        MetricsPlugin.flushIfDue(context);
+    }
+}
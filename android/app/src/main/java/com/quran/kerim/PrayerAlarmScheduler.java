@@ -0,0 +1,243 @@
+package com.quran.kerim;
+
+import android.app.AlarmManager;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.media.AudioAttributes;
+import android.media.RingtoneManager;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Log;
+import androidx.core.app.NotificationCompat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Vakit bildirimleri için kayan pencereli alarm zamanlayıcı.
+ *
+ * Ayarlar JS'ten bir kez gelir ve tercih dosyasında saklanır; sonrası tamamen
+ * yereldir. Her alarm çaldığında, açılışta ve saat/saat dilimi değiştiğinde
+ * pencere yeniden planlanır ve yalnızca değişen alarmlar kurulur/iptal edilir.
+ */
+final class PrayerAlarmScheduler {
+
+    private static final String TAG = "PrayerAlarmScheduler";
+    private static final String PREFS_NAME = "prayer_alarms";
+    private static final String KEY_SETTINGS = "settings";
+    private static final String KEY_ARMED = "armed";
+    static final int DEFAULT_DAYS = 7;
+
+    static final String ACTION_ALARM = "com.quran.kerim.PRAYER_ALARM";
+    static final String EXTRA_ALARM_ID = "alarmId";
+    static final String EXTRA_PRAYER = "prayer";
+    static final String EXTRA_WALL_MINUTE = "wallMinute";
+    static final String EXTRA_ADJUSTMENT = "adjustment";
+    static final String EXTRA_TRIGGER_AT = "triggerAt";
+    /** Bildirime dokunulunca MainActivity'ye gelen işaret; PrayerAlarmsPlugin JS'e iletir. */
+    static final String EXTRA_OPENED_ALARM = "prayerAlarmId";
+
+    // Vakit indeksi → JS'teki anahtar (notificationStorage.prayerNotifications)
+    static final String[] PRAYER_KEYS = {"Fajr", "Sunrise", "Dhuhr", "Asr", "Maghrib", "Isha"};
+
+    // Cihaz kapalıyken kaçan bildirim bu kadar gecikmişse artık gösterilmez
+    private static final long STALE_AFTER_MILLIS = 30 * 60000L;
+
+    private PrayerAlarmScheduler() {
+    }
+
+    static void saveSettings(Context context, JSONObject settings) {
+        prefs(context).edit().putString(KEY_SETTINGS, settings.toString()).apply();
+    }
+
+    static JSONObject getSettings(Context context) {
+        String value = prefs(context).getString(KEY_SETTINGS, null);
+        if (value != null) {
+            try {
+                return new JSONObject(value);
+            } catch (JSONException e) {
+                Log.e(TAG, "Alarm ayarları okunamadı", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pencereyi yeniden planlar. {@code rearmAll} açılıştan sonra kullanılır:
+     * sistem alarmları silmiştir, kayıtlı durum geçersizdir.
+     *
+     * @return kurulu alarmlar (zaman sırasıyla)
+     */
+    static synchronized List<PrayerAlarmPlanner.Alarm> reschedule(Context context, boolean rearmAll) {
+        long started = Metrics.start();
+        Metrics.count(Metrics.ALARM_RESCHEDULE);
+        SharedPreferences prefs = prefs(context);
+        JSONObject settings = getSettings(context);
+        boolean[] enabled = new boolean[PrayerTimeCalculator.PRAYER_COUNT];
+        int[] adjustments = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        int days = DEFAULT_DAYS;
+        if (settings != null && settings.optBoolean("enabled", true)) {
+            JSONObject prayers = settings.optJSONObject("prayers");
+            for (int i = 0; i < PRAYER_KEYS.length && prayers != null; i++) {
+                JSONObject prayer = prayers.optJSONObject(PRAYER_KEYS[i]);
+                if (prayer != null) {
+                    enabled[i] = prayer.optBoolean("enabled", false);
+                    adjustments[i] = prayer.optInt("adjustment", 0);
+                }
+            }
+            days = settings.optInt("days", DEFAULT_DAYS);
+        }
+
+        List<PrayerAlarmPlanner.Alarm> planned = PrayerAlarmPlanner.plan(System.currentTimeMillis(),
+                TimeZone.getDefault(), (offset, out) -> PrayerWidgetProvider.getPrayerMinutes(context, offset, out),
+                enabled, adjustments, days);
+        Map<Integer, Long> armed = rearmAll ? new HashMap<>()
+                : PrayerAlarmPlanner.decode(prefs.getString(KEY_ARMED, null));
+        PrayerAlarmPlanner.Diff diff = PrayerAlarmPlanner.diff(armed, planned);
+
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        for (int id : diff.cancel) {
+            alarmManager.cancel(pendingIntent(context, id, null));
+        }
+        boolean exact = Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms();
+        for (PrayerAlarmPlanner.Alarm alarm : diff.arm) {
+            PendingIntent pendingIntent = pendingIntent(context, alarm.id, alarm);
+            // RTC_WAKEUP + allowWhileIdle: Doze'da da vaktinde çalar
+            if (exact) {
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, alarm.triggerAt, pendingIntent);
+            } else {
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, alarm.triggerAt, pendingIntent);
+            }
+        }
+        prefs.edit().putString(KEY_ARMED, PrayerAlarmPlanner.encode(planned)).apply();
+        Log.d(TAG, planned.size() + " alarm planlandı; " + diff.arm.size() + " kuruldu, "
+                + diff.cancel.size() + " iptal" + (exact ? "" : " (tam zamanlı alarm izni yok)"));
+        Metrics.stop(Metrics.ALARM_RESCHEDULE_MS, started);
+        return planned;
+    }
+
+    static synchronized void cancelAll(Context context) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        SharedPreferences prefs = prefs(context);
+        for (int id : PrayerAlarmPlanner.decode(prefs.getString(KEY_ARMED, null)).keySet()) {
+            alarmManager.cancel(pendingIntent(context, id, null));
+        }
+        prefs.edit().remove(KEY_ARMED).apply();
+    }
+
+    /** İptal için {@code alarm} null olabilir; PendingIntent eşitliğine ekstralar girmez. */
+    private static PendingIntent pendingIntent(Context context, int id, PrayerAlarmPlanner.Alarm alarm) {
+        Intent intent = new Intent(context, PrayerAlarmReceiver.class).setAction(ACTION_ALARM);
+        if (alarm != null) {
+            intent.putExtra(EXTRA_ALARM_ID, id)
+                    .putExtra(EXTRA_PRAYER, alarm.prayer)
+                    .putExtra(EXTRA_WALL_MINUTE, alarm.wallMinute)
+                    .putExtra(EXTRA_ADJUSTMENT, alarm.adjustment)
+                    .putExtra(EXTRA_TRIGGER_AT, alarm.triggerAt);
+        }
+        return PendingIntent.getBroadcast(context, id, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    /** Alarm çaldığında bildirimi gösterir. Çok gecikmiş (cihaz kapalıydı) alarmlar atlanır. */
+    static void showAlarm(Context context, Intent intent) {
+        int id = intent.getIntExtra(EXTRA_ALARM_ID, PrayerAlarmPlanner.BASE_ID);
+        long triggerAt = intent.getLongExtra(EXTRA_TRIGGER_AT, 0);
+        Metrics.count(Metrics.PRAYER_ALARM);
+        Metrics.record(Metrics.PRAYER_ALARM_LATENESS_MS, System.currentTimeMillis() - triggerAt);
+        if (System.currentTimeMillis() - triggerAt > STALE_AFTER_MILLIS) {
+            Log.d(TAG, "Gecikmiş alarm atlandı: " + id);
+            return;
+        }
+        int prayer = intent.getIntExtra(EXTRA_PRAYER, 0);
+        int adjustment = intent.getIntExtra(EXTRA_ADJUSTMENT, 0);
+        String prayerTime = PrayerTimeCalculator.formatMinutes(intent.getIntExtra(EXTRA_WALL_MINUTE, 0));
+
+        JSONObject settings = getSettings(context);
+        String template = settings != null && settings.optBoolean("customMessage", false)
+                ? settings.optString("messageTemplate", null) : null;
+        String channelId = ensureChannel(context, settings);
+
+        Intent open = new Intent(context, MainActivity.class)
+                .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_SINGLE_TOP)
+                .putExtra(EXTRA_OPENED_ALARM, id)
+                .putExtra(EXTRA_PRAYER, prayer)
+                .putExtra(EXTRA_WALL_MINUTE, intent.getIntExtra(EXTRA_WALL_MINUTE, 0));
+        PendingIntent contentIntent = PendingIntent.getActivity(context, id, open,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, channelId)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setContentTitle("🕌 " + PrayerSchedule.name(prayer) + " Vakti")
+                .setContentText(PrayerAlarmPlanner.message(prayer, adjustment, template))
+                .setSubText(prayerTime)
+                .setCategory(NotificationCompat.CATEGORY_ALARM)
+                .setPriority(NotificationCompat.PRIORITY_MAX)
+                .setAutoCancel(true)
+                .setContentIntent(contentIntent);
+        NotificationManager manager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (manager != null) {
+            manager.notify(id, builder.build());
+        }
+        PrayerAlarmsPlugin.onAlarm(id, prayer, prayerTime);
+    }
+
+    static void dismiss(Context context, int id) {
+        NotificationManager manager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (manager != null) {
+            manager.cancel(id);
+        }
+    }
+
+    /**
+     * Kanal sesi Android 8+'da sonradan değiştirilemez; bu yüzden her ses/titreşim
+     * seçimi için ayrı kanal kullanılır. Ses res/raw'da yoksa sistem sesi çalar.
+     */
+    private static String ensureChannel(Context context, JSONObject settings) {
+        boolean soundOn = settings == null || settings.optBoolean("sound", true);
+        boolean vibration = settings == null || settings.optBoolean("vibration", true);
+        String sound = null;
+        if (soundOn && settings != null && "notification".equals(settings.optString("soundType"))) {
+            sound = settings.optString("selectedNotification", "default");
+        } else if (soundOn) {
+            sound = settings != null ? settings.optString("selectedAdhan", "adhan1") : "adhan1";
+        }
+        String channelId = "prayer_alarm_" + (sound != null ? sound : "silent") + (vibration ? "_v" : "");
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return channelId;
+        }
+        NotificationManager manager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (manager == null || manager.getNotificationChannel(channelId) != null) {
+            return channelId;
+        }
+        NotificationChannel channel = new NotificationChannel(channelId, "Namaz Vakti Alarmı",
+                NotificationManager.IMPORTANCE_HIGH);
+        channel.setDescription("Namaz vakti bildirimleri");
+        channel.enableVibration(vibration);
+        if (sound == null) {
+            channel.setSound(null, null);
+        } else {
+            int resId = context.getResources().getIdentifier(sound, "raw", context.getPackageName());
+            Uri uri = resId != 0
+                    ? Uri.parse("android.resource://" + context.getPackageName() + "/" + resId)
+                    : RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION);
+            channel.setSound(uri, new AudioAttributes.Builder()
+                    .setUsage(AudioAttributes.USAGE_ALARM)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                    .build());
+        }
+        manager.createNotificationChannel(channel);
+        return channelId;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,123 @@
+package com.quran.kerim;
+
+import android.app.AlarmManager;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.List;
+
+/**
+ * Vakit bildirimlerini PrayerAlarmScheduler'a devreder. JS yalnızca ayarlar
+ * değiştiğinde configure çağırır; günlük yenileme gerekmez.
+ * Olaylar: "alarm" (uygulama açıkken çaldı) ve "alarmOpened" (bildirime dokunuldu),
+ * ikisi de { id, prayerName, prayerTime }.
+ */
+@CapacitorPlugin(name = "PrayerAlarms")
+public class PrayerAlarmsPlugin extends Plugin {
+
+    private static volatile PrayerAlarmsPlugin instance;
+
+    @Override
+    public void load() {
+        instance = this;
+        if (getActivity() != null) {
+            handleOpened(getActivity().getIntent());
+        }
+    }
+
+    @Override
+    protected void handleOnNewIntent(Intent intent) {
+        handleOpened(intent);
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        instance = null;
+    }
+
+    /**
+     * Parametreler notificationStorage ayarlarıyla aynıdır: enabled, prayers
+     * ({ Fajr: { enabled, adjustment }, ... }), sound, soundType, selectedAdhan,
+     * selectedNotification, vibration, customMessage, messageTemplate; ek olarak days (7)
+     * ve timings (bugünün vakitleri, Aladhan anahtarlarıyla).
+     * Sonuç: { scheduled, next } (next: ilk alarmın zamanı, ms).
+     */
+    @PluginMethod
+    public void configure(PluginCall call) {
+        JSObject settings = call.getData();
+        JSObject timings = call.getObject("timings");
+        if (timings != null) {
+            settings.remove("timings");
+            if (PrayerWidgetProvider.getTimetable(getContext()) == null) {
+                // Yıllık tablo yoksa (konum hiç gönderilmedi) bugünün vakitleri her gün için kullanılır
+                PrayerWidgetProvider.updatePrayerTimes(getContext(),
+                        timings.getString("Imsak", timings.getString("Fajr")), timings.getString("Sunrise"),
+                        timings.getString("Dhuhr"), timings.getString("Asr"),
+                        timings.getString("Maghrib"), timings.getString("Isha"));
+            }
+        }
+        PrayerAlarmScheduler.saveSettings(getContext(), settings);
+        List<PrayerAlarmPlanner.Alarm> planned = PrayerAlarmScheduler.reschedule(getContext(), false);
+        JSObject ret = new JSObject();
+        ret.put("scheduled", planned.size());
+        if (!planned.isEmpty()) {
+            ret.put("next", planned.get(0).triggerAt);
+        }
+        call.resolve(ret);
+    }
+
+    @PluginMethod
+    public void cancelAll(PluginCall call) {
+        PrayerAlarmScheduler.cancelAll(getContext());
+        call.resolve();
+    }
+
+    /** Parametreler: id. Gösterilen vakit bildirimini kapatır (ezan sesi de durur). */
+    @PluginMethod
+    public void dismiss(PluginCall call) {
+        PrayerAlarmScheduler.dismiss(getContext(), call.getInt("id", 0));
+        call.resolve();
+    }
+
+    /** Sonuç: { exact }. Android 12+'da "Alarmlar ve hatırlatıcılar" izni yoksa false. */
+    @PluginMethod
+    public void canScheduleExact(PluginCall call) {
+        AlarmManager alarmManager = (AlarmManager) getContext().getSystemService(Context.ALARM_SERVICE);
+        JSObject ret = new JSObject();
+        ret.put("exact", Build.VERSION.SDK_INT < Build.VERSION_CODES.S || alarmManager.canScheduleExactAlarms());
+        call.resolve(ret);
+    }
+
+    static void onAlarm(int id, int prayer, String prayerTime) {
+        PrayerAlarmsPlugin plugin = instance;
+        if (plugin != null) {
+            plugin.notifyListeners("alarm", event(id, prayer, prayerTime));
+        }
+    }
+
+    private void handleOpened(Intent intent) {
+        if (intent == null || !intent.hasExtra(PrayerAlarmScheduler.EXTRA_OPENED_ALARM)) {
+            return;
+        }
+        JSObject data = event(intent.getIntExtra(PrayerAlarmScheduler.EXTRA_OPENED_ALARM, 0),
+                intent.getIntExtra(PrayerAlarmScheduler.EXTRA_PRAYER, 0),
+                PrayerTimeCalculator.formatMinutes(intent.getIntExtra(PrayerAlarmScheduler.EXTRA_WALL_MINUTE, 0)));
+        // Aynı intent yeniden işlenmesin (ör. yapılandırma değişikliği)
+        intent.removeExtra(PrayerAlarmScheduler.EXTRA_OPENED_ALARM);
+        // Soğuk açılışta JS dinleyicisi henüz yok; olay dinleyici gelene kadar tutulur
+        notifyListeners("alarmOpened", data, true);
+    }
+
+    private static JSObject event(int id, int prayer, String prayerTime) {
+        JSObject data = new JSObject();
+        data.put("id", id);
+        data.put("prayerName", PrayerAlarmScheduler.PRAYER_KEYS[prayer % PrayerAlarmScheduler.PRAYER_KEYS.length]);
+        data.put("prayerTime", prayerTime);
+        return data;
+    }
+}
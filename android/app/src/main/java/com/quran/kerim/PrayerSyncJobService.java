@@ -0,0 +1,253 @@
+package com.quran.kerim;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import java.io.File;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Kayıtlı konumun bu ayki ve gelecek ayki resmi vakitlerini arka planda Aladhan
+ * takviminden alır (ay başına tek istek). Aylar "prayer_month_YYYYMM.bin" dosyalarında
+ * PrayerTimetable biçiminde saklanır; widget, bildirim, alarmlar ve PrayerTimesPlugin
+ * bu günler için cihazda hesaplanan vakitler yerine bunları kullanır.
+ *
+ * Günlük periyodik iş ağ varken çalışır ve koşullu istekle yeniden doğrular.
+ * Hata olursa jitter'lı üstel beklemeyle tek seferlik yeniden deneme kurulur.
+ */
+public class PrayerSyncJobService extends JobService {
+
+    private static final String TAG = "PrayerSyncJob";
+    private static final int JOB_PERIODIC = 4001;
+    private static final int JOB_ONCE = 4002;
+    private static final long PERIOD_MS = 24 * 3_600_000L;
+
+    private static final String PREFS_NAME = "prayer_sync";
+    private static final String KEY_FAILURES = "failures";
+    private static final String MONTH_PREFIX = "prayer_month_";
+    private static final int SYNC_MONTHS = 2;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Random random = new Random();
+
+    // Son okunan ay; vakit sorguları genelde aynı aya düşer
+    private static PrayerTimetable cachedMonth;
+    private static String cachedMonthPath;
+    private static long cachedMonthModified;
+
+    /**
+     * Periyodik işi (yoksa) kurar. {@code now} true ise (ör. konum değişti) ağ
+     * geldiğinde hemen bir senkron da sıraya alınır.
+     */
+    static void schedule(Context context, boolean now) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null) {
+            return;
+        }
+        ComponentName component = new ComponentName(context, PrayerSyncJobService.class);
+        if (!isPending(scheduler, JOB_PERIODIC)) {
+            scheduler.schedule(new JobInfo.Builder(JOB_PERIODIC, component)
+                    .setPeriodic(PERIOD_MS)
+                    .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                    .setPersisted(true)
+                    .build());
+        }
+        if (now) {
+            scheduleOnce(context, 0);
+        }
+    }
+
+    private static void scheduleOnce(Context context, long delayMs) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.schedule(new JobInfo.Builder(JOB_ONCE, new ComponentName(context, PrayerSyncJobService.class))
+                .setMinimumLatency(delayMs)
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                .build());
+    }
+
+    private static boolean isPending(JobScheduler scheduler, int id) {
+        // getPendingJob API 24 gerektirir (minSdk 23)
+        for (JobInfo job : scheduler.getAllPendingJobs()) {
+            if (job.getId() == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        Context context = getApplicationContext();
+        executor.execute(() -> {
+            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            long started = Metrics.start();
+            Metrics.count(Metrics.SYNC_RUN);
+            boolean synced = sync(context, new PrayerTimeSync(PrayerTimeSync.DEFAULT_BASE_URL));
+            Metrics.stop(Metrics.SYNC_MS, started);
+            if (synced) {
+                prefs.edit().putInt(KEY_FAILURES, 0).apply();
+            } else {
+                Metrics.count(Metrics.SYNC_FAILURE);
+                int failures = prefs.getInt(KEY_FAILURES, 0) + 1;
+                prefs.edit().putInt(KEY_FAILURES, failures).apply();
+                long delay = PrayerTimeSync.backoffMillis(failures, random);
+                Log.w(TAG, failures + ". hata, " + delay / 60000 + " dk sonra yeniden denenecek");
+                scheduleOnce(context, delay);
+            }
+            MetricsPlugin.flushIfDue(context);
+            jobFinished(params, false);
+        });
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Yarıda kalan ay yazılmaz; bir sonraki çalıştırma baştan dener
+        return false;
+    }
+
+    /** Bu ayı ve gelecek ayı doğrular; hepsi başarılıysa true. */
+    static boolean sync(Context context, PrayerTimeSync client) {
+        PrayerTimetable location = PrayerWidgetProvider.getTimetable(context);
+        if (location == null) {
+            // Konum hiç gönderilmedi; senkronlanacak bir şey yok
+            return true;
+        }
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        Calendar cal = Calendar.getInstance(location.timeZone);
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        boolean changed = false;
+        try {
+            for (int i = 0; i < SYNC_MONTHS; i++) {
+                int year = cal.get(Calendar.YEAR);
+                int month = cal.get(Calendar.MONTH) + 1;
+                String key = monthKey(year, month);
+                File file = new File(context.getFilesDir(), MONTH_PREFIX + key + ".bin");
+                PrayerTimetable existing = readMonth(file);
+                boolean valid = existing != null && existing.matches(location.latitude, location.longitude,
+                        location.method, location.school, location.timeZone);
+
+                PrayerTimeSync.Month result = client.fetchMonth(year, month, location.latitude,
+                        location.longitude, location.method, location.school, location.timeZone,
+                        valid ? prefs.getString("etag_" + key, null) : null,
+                        valid ? prefs.getString("modified_" + key, null) : null);
+                if (result.modified) {
+                    PrayerTimetable.of(location.method, location.school, location.latitude, location.longitude,
+                            location.timeZone, epochDay(year, month, 1), result.minutes).write(file);
+                    prefs.edit()
+                            .putString("etag_" + key, result.etag)
+                            .putString("modified_" + key, result.lastModified)
+                            .apply();
+                    changed = true;
+                }
+                cal.add(Calendar.MONTH, 1);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Vakit senkronu başarısız: " + e.getMessage());
+            return false;
+        } finally {
+            if (changed) {
+                PrayerWidgetProvider.onSyncedTimes(context);
+            }
+        }
+        deleteOldMonths(context, prefs, location.timeZone);
+        return true;
+    }
+
+    /**
+     * {@code epochDay} için senkronlanmış vakitleri {@code out}'a yazar. Ay yoksa ya da
+     * başka bir konum/yöntem için alınmışsa false.
+     */
+    static boolean getSyncedMinutes(Context context, double latitude, double longitude, int method,
+                                    int school, TimeZone timeZone, int epochDay, int[] out) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.setTimeInMillis(epochDay * 86400000L);
+        File file = new File(context.getFilesDir(),
+                MONTH_PREFIX + monthKey(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1) + ".bin");
+        PrayerTimetable month = readMonthCached(file);
+        if (month == null || !month.matches(latitude, longitude, method, school, timeZone)) {
+            return false;
+        }
+        int index = epochDay - month.startEpochDay;
+        if (index < 0 || index >= month.dayCount) {
+            return false;
+        }
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            out[i] = month.minutes(index, i);
+        }
+        return true;
+    }
+
+    private static synchronized PrayerTimetable readMonthCached(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        long modified = file.lastModified();
+        if (cachedMonth == null || !file.getPath().equals(cachedMonthPath) || modified != cachedMonthModified) {
+            cachedMonth = readMonth(file);
+            cachedMonthPath = file.getPath();
+            cachedMonthModified = modified;
+        }
+        return cachedMonth;
+    }
+
+    private static PrayerTimetable readMonth(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return PrayerTimetable.read(file);
+        } catch (IOException e) {
+            Log.w(TAG, file.getName() + " okunamadı: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Geçen aydan eski dosyaları ve doğrulayıcılarını siler. */
+    private static void deleteOldMonths(Context context, SharedPreferences prefs, TimeZone timeZone) {
+        Calendar cal = Calendar.getInstance(timeZone);
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        cal.add(Calendar.MONTH, -1);
+        String oldest = monthKey(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1);
+        File[] files = context.getFilesDir().listFiles();
+        if (files == null) {
+            return;
+        }
+        SharedPreferences.Editor editor = prefs.edit();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(MONTH_PREFIX) && name.endsWith(".bin")) {
+                String key = name.substring(MONTH_PREFIX.length(), name.length() - 4);
+                if (key.compareTo(oldest) < 0 && file.delete()) {
+                    editor.remove("etag_" + key).remove("modified_" + key);
+                }
+            }
+        }
+        editor.apply();
+    }
+
+    private static String monthKey(int year, int month) {
+        return String.format(Locale.US, "%04d%02d", year, month);
+    }
+
+    private static int epochDay(int year, int month, int day) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(year, month - 1, day);
+        return (int) (cal.getTimeInMillis() / 86400000L);
+    }
+}
@@ -0,0 +1,116 @@
+package com.quran.kerim;
+
+import android.util.Log;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+@CapacitorPlugin(name = "PrayerTimes")
+public class PrayerTimesPlugin extends Plugin {
+
+    private static final String TAG = "PrayerTimesPlugin";
+    private static final int MAX_DAYS = 366;
+
+    /**
+     * Aladhan "timings" yanıtıyla aynı anahtarları kullanır, böylece JS tarafı
+     * sonucu API yanıtı gibi kullanabilir.
+     *
+     * Parametreler: latitude, longitude, method (13), school (0),
+     * timezone (cihaz), date ("dd-MM-yyyy", bugün), days (1, en fazla 366).
+     */
+    @PluginMethod
+    public void calculate(PluginCall call) {
+        Double latitude = call.getDouble("latitude");
+        Double longitude = call.getDouble("longitude");
+        if (latitude == null || longitude == null) {
+            call.reject("latitude ve longitude gerekli");
+            return;
+        }
+
+        int methodId = call.getInt("method", PrayerTimeCalculator.METHOD_DIYANET);
+        int school = call.getInt("school", PrayerTimeCalculator.SCHOOL_STANDARD);
+        int days = Math.max(1, Math.min(MAX_DAYS, call.getInt("days", 1)));
+        TimeZone timeZone = TimeZone.getTimeZone(call.getString("timezone", TimeZone.getDefault().getID()));
+
+        Calendar start = Calendar.getInstance(timeZone);
+        String date = call.getString("date");
+        if (date != null) {
+            String[] parts = date.split("-");
+            try {
+                start.clear();
+                start.set(Integer.parseInt(parts[2]), Integer.parseInt(parts[1]) - 1,
+                        Integer.parseInt(parts[0]), 12, 0, 0);
+            } catch (RuntimeException e) {
+                call.reject("date dd-MM-yyyy biçiminde olmalı");
+                return;
+            }
+        }
+
+        long startNanos = System.nanoTime();
+        PrayerTimeCalculator.Method method = PrayerTimeCalculator.method(methodId);
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(latitude, longitude, timeZone, method, school);
+        int[] minutes = calculator.computeRange(start.get(Calendar.YEAR), start.get(Calendar.MONTH) + 1,
+                start.get(Calendar.DAY_OF_MONTH), days);
+        int synced = applySyncedDays(latitude, longitude, method, school, timeZone,
+                PrayerTimetable.localEpochDay(timeZone, start.getTimeInMillis()), minutes, days);
+
+        JSArray result = new JSArray();
+        Calendar cal = (Calendar) start.clone();
+        for (int i = 0; i < days; i++) {
+            int base = i * PrayerTimeCalculator.PRAYER_COUNT;
+            JSObject timings = new JSObject();
+            int fajr = minutes[base + PrayerTimeCalculator.IMSAK];
+            timings.put("Imsak", PrayerTimeCalculator.formatMinutes((fajr - method.imsakMinutes + 1440) % 1440));
+            timings.put("Fajr", PrayerTimeCalculator.formatMinutes(fajr));
+            timings.put("Sunrise", PrayerTimeCalculator.formatMinutes(minutes[base + PrayerTimeCalculator.GUNES]));
+            timings.put("Dhuhr", PrayerTimeCalculator.formatMinutes(minutes[base + PrayerTimeCalculator.OGLE]));
+            timings.put("Asr", PrayerTimeCalculator.formatMinutes(minutes[base + PrayerTimeCalculator.IKINDI]));
+            timings.put("Maghrib", PrayerTimeCalculator.formatMinutes(minutes[base + PrayerTimeCalculator.AKSAM]));
+            timings.put("Isha", PrayerTimeCalculator.formatMinutes(minutes[base + PrayerTimeCalculator.YATSI]));
+
+            JSObject day = new JSObject();
+            day.put("date", String.format(Locale.US, "%02d-%02d-%04d",
+                    cal.get(Calendar.DAY_OF_MONTH), cal.get(Calendar.MONTH) + 1, cal.get(Calendar.YEAR)));
+            day.put("timings", timings);
+            result.put(day);
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+
+        Log.d(TAG, days + " gün hesaplandı (" + synced + " senkron): "
+                + (System.nanoTime() - startNanos) / 1000 + "µs");
+
+        JSObject ret = new JSObject();
+        ret.put("method", method.id);
+        ret.put("timezone", timeZone.getID());
+        ret.put("days", result);
+        call.resolve(ret);
+    }
+
+    /**
+     * Resmi vakitleri senkronlanmış günlerde hesaplananların yerine onları koyar;
+     * uygulama ile widget aynı vakti gösterir. Değiştirilen gün sayısını döner.
+     */
+    private int applySyncedDays(double latitude, double longitude, PrayerTimeCalculator.Method method,
+                                int school, TimeZone timeZone, int startEpochDay, int[] minutes, int days) {
+        int[] day = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        int replaced = 0;
+        for (int i = 0; i < days; i++) {
+            if (!PrayerSyncJobService.getSyncedMinutes(getContext(), latitude, longitude, method.id, school,
+                    timeZone, startEpochDay + i, day)) {
+                continue;
+            }
+            int base = i * PrayerTimeCalculator.PRAYER_COUNT;
+            System.arraycopy(day, 0, minutes, base, day.length);
+            // Tabloda İmsak sütunu farkı uygulanmış hâldir; burada İmsak sütunu Fajr'dır
+            minutes[base + PrayerTimeCalculator.IMSAK] = (day[PrayerTimeCalculator.IMSAK] + method.imsakMinutes) % 1440;
+            replaced++;
+        }
+        return replaced;
+    }
+}
@@ -1,6 +1,9 @@
 package com.quran.kerim;
 
+import android.content.Context;
 import android.util.Log;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
 import com.getcapacitor.PluginMethod;
@@ -16,10 +19,16 @@ public class PrayerWidgetPlugin extends Plugin {
         Log.d(TAG, "✅ PrayerWidgetPlugin LOADED!");
     }
 
+    /**
+     * Çağrı hemen çözülür; tablo üretimi, widget çizimi ve alarm planlama ortak arka plan
+     * hattında yapılır. Arka arkaya gelen çağrılarda widget'lar tek geçişte yenilenir.
+     */
     @PluginMethod
     public void updateWidget(PluginCall call) {
+        long started = Metrics.start();
+        Metrics.count(Metrics.BRIDGE_UPDATE_WIDGET);
         Log.d(TAG, "updateWidget called!");
-        
+
         String imsak = call.getString("imsak", "05:30");
         String gunes = call.getString("gunes", "07:00");
         String ogle = call.getString("ogle", "13:15");
@@ -29,12 +38,90 @@ public class PrayerWidgetPlugin extends Plugin {
 
         Log.d(TAG, "Times: " + imsak + ", " + gunes + ", " + ogle);
 
-        // Widget'ı güncelle
-        PrayerWidgetProvider.updatePrayerTimes(
-            getContext(), 
-            imsak, gunes, ogle, ikindi, aksam, yatsi
-        );
-
+        Double latitude = call.getDouble("latitude");
+        Double longitude = call.getDouble("longitude");
+        String locationName = call.getString("locationName");
+        int method = call.getInt("method", PrayerTimeCalculator.METHOD_DIYANET);
+        int school = call.getInt("school", PrayerTimeCalculator.SCHOOL_STANDARD);
         call.resolve();
+        Metrics.stop(Metrics.BRIDGE_UPDATE_WIDGET_MS, started);
+
+        Context context = getContext().getApplicationContext();
+        WidgetWork.execute(() -> {
+            long workStarted = Metrics.start();
+            // Konum geldiyse yıllık tabloyu üret; widget'lar artık JS'e ihtiyaç duymadan gün değiştirir
+            if (latitude != null && longitude != null) {
+                PrayerWidgetProvider.setLocationName(context, locationName);
+                PrayerWidgetProvider.updateLocation(context, latitude, longitude, method, school);
+            }
+
+            // Widget'ı güncelle
+            PrayerWidgetProvider.updatePrayerTimes(context, imsak, gunes, ogle, ikindi, aksam, yatsi);
+
+            // Vakitler değiştiyse kurulu vakit alarmları da güncellenir (yalnızca farklar)
+            if (PrayerAlarmScheduler.getSettings(context) != null) {
+                PrayerAlarmScheduler.reschedule(context, false);
+            }
+
+            Metrics.stop(Metrics.WIDGET_UPDATE_WORK_MS, workStarted);
+        });
+    }
+
+    /** { locations: [{ id, name, latitude, longitude, method, school }] } */
+    @PluginMethod
+    public void getSavedLocations(PluginCall call) {
+        JSArray locations = new JSArray();
+        for (SavedLocations.Location location : PrayerWidgetProvider.getSavedLocations(getContext()).all()) {
+            locations.put(toJson(location));
+        }
+        JSObject ret = new JSObject();
+        ret.put("locations", locations);
+        call.resolve(ret);
+    }
+
+    /**
+     * Konumu kaydeder; yıllık tablosu arka planda (diğer konumlarla paralel) üretilir
+     * ve widget'larda seçilebilir hâle gelir.
+     */
+    @PluginMethod
+    public void saveLocation(PluginCall call) {
+        Double latitude = call.getDouble("latitude");
+        Double longitude = call.getDouble("longitude");
+        if (latitude == null || longitude == null) {
+            call.reject("latitude ve longitude gerekli");
+            return;
+        }
+        SavedLocations.Location location = PrayerWidgetProvider.saveLocation(getContext(),
+                call.getString("name", ""), latitude, longitude,
+                call.getInt("method", PrayerTimeCalculator.METHOD_DIYANET),
+                call.getInt("school", PrayerTimeCalculator.SCHOOL_STANDARD));
+        if (location == null) {
+            call.reject("En fazla " + SavedLocations.MAX_LOCATIONS + " konum kaydedilebilir");
+            return;
+        }
+        call.resolve(toJson(location));
+    }
+
+    @PluginMethod
+    public void removeLocation(PluginCall call) {
+        Integer id = call.getInt("id");
+        if (id == null) {
+            call.reject("id gerekli");
+            return;
+        }
+        JSObject ret = new JSObject();
+        ret.put("removed", PrayerWidgetProvider.removeLocation(getContext(), id));
+        call.resolve(ret);
+    }
+
+    private static JSObject toJson(SavedLocations.Location location) {
+        JSObject json = new JSObject();
+        json.put("id", location.id);
+        json.put("name", location.name);
+        json.put("latitude", location.latitude);
+        json.put("longitude", location.longitude);
+        json.put("method", location.method);
+        json.put("school", location.school);
+        return json;
     }
-}
\ No newline at end of file
+}
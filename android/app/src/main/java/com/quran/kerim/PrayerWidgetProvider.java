@@ -4,11 +4,60 @@ import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.SparseArray;
 import android.widget.RemoteViews;
+import java.io.File;
+import java.io.IOException;
+import java.util.TimeZone;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 public class PrayerWidgetProvider extends AppWidgetProvider {
 
     private static final String PREFS_NAME = "widget_prefs";
+    private static final String TIMETABLE_FILE = "prayer_timetable.bin";
+    private static final int TIMETABLE_DAYS = 366;
+    private static final int TIMETABLE_REFRESH_DAYS = 30;
+    private static final String[] PRAYER_KEYS = {"imsak", "gunes", "ogle", "ikindi", "aksam", "yatsi"};
+    private static final String[] DEFAULT_TIMES = {"05:30", "07:00", "13:15", "16:00", "18:30", "20:00"};
+    private static final String KEY_LOCATION_NAME = "location_name";
+    private static final String DEFAULT_LOCATION_NAME = "Konumum";
+    private static final String KEY_SAVED_LOCATIONS = "saved_locations";
+    private static final String KEY_WIDGET_LOCATION = "widget_location_";
+    // Kayıtlı konum tablosu bayatsa en fazla bu aralıkla yeniden üretim istenir
+    private static final long LOCATION_REFRESH_INTERVAL_MS = 10 * 60 * 1000L;
+
+    private static PrayerTimetable cachedTimetable;
+    private static long cachedTimetableModified;
+
+    // Vakit verisi (tablo ya da JS'ten gelen vakitler) her değiştiğinde artar
+    private static int dataVersion;
+    private static int scheduleVersion = -1;
+    private static final PrayerSchedule schedule = new PrayerSchedule();
+
+    // Kayıtlı konumların tabloları paralel üretilir; iş parçacığı sayısı sınırlı,
+    // boşta kalan iş parçacıkları kapanır
+    private static final int TIMETABLE_THREADS =
+            Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1));
+    private static final ThreadPoolExecutor timetableExecutor = new ThreadPoolExecutor(
+            TIMETABLE_THREADS, TIMETABLE_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
+    static {
+        timetableExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private static SavedLocations savedLocations;
+    private static final SparseArray<LocationEntry> locationEntries = new SparseArray<>();
+    private static long lastLocationRefresh;
+
+    /** Kayıtlı bir konumun bellekteki tablosu ve bugünkü vakit çözümleyicisi. */
+    private static final class LocationEntry {
+        PrayerTimetable timetable;
+        long modified;
+        final PrayerSchedule schedule = new PrayerSchedule();
+        int version = -1;
+    }
 
     @Override
     public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
@@ -21,63 +70,374 @@ public class PrayerWidgetProvider extends AppWidgetProvider {
         // Boş - her widget kendi sınıfında güncelleniyor
     }
     
-    public static String[] getPrayerTimes(Context context) {
+    /**
+     * Kayıtlı konumun yıllık vakit tablosunu döner. Dosya değişmedikçe bellekteki
+     * kopya kullanılır; tablo bitmek üzereyse yeniden üretilir.
+     */
+    static synchronized PrayerTimetable getTimetable(Context context) {
+        File file = new File(context.getFilesDir(), TIMETABLE_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        long modified = file.lastModified();
+        if (cachedTimetable == null || modified != cachedTimetableModified) {
+            try {
+                cachedTimetable = PrayerTimetable.read(file);
+                cachedTimetableModified = modified;
+                dataVersion++;
+            } catch (IOException e) {
+                android.util.Log.e("WidgetDebug", "Timetable okunamadı: " + e.getMessage());
+                cachedTimetable = null;
+                return null;
+            }
+        }
+        if (cachedTimetable.remainingDays(System.currentTimeMillis()) < TIMETABLE_REFRESH_DAYS) {
+            rebuildTimetable(context, cachedTimetable.latitude, cachedTimetable.longitude,
+                    cachedTimetable.method, cachedTimetable.school);
+        }
+        return cachedTimetable;
+    }
+
+    /** Konum veya yöntem değiştiğinde yıllık tabloyu bir kez üretip diske yazar. */
+    public static synchronized void updateLocation(Context context, double latitude, double longitude,
+                                                   int method, int school) {
+        PrayerTimetable current = getTimetable(context);
+        if (current != null && current.matches(latitude, longitude, method, school, TimeZone.getDefault())
+                && current.remainingDays(System.currentTimeMillis()) >= TIMETABLE_REFRESH_DAYS) {
+            PrayerSyncJobService.schedule(context, false);
+            return;
+        }
+        rebuildTimetable(context, latitude, longitude, method, school);
+        // Yeni konumun resmi vakitleri ağ gelince alınır
+        PrayerSyncJobService.schedule(context, true);
+    }
+
+    /** Senkronlanan ay değişti: önbellekteki vakitler geçersiz, tüm yüzeyler ve alarmlar güncellenir. */
+    static void onSyncedTimes(Context context) {
+        synchronized (PrayerWidgetProvider.class) {
+            dataVersion++;
+        }
+        WidgetWork.requestRefresh(context);
+        if (PrayerAlarmScheduler.getSettings(context) != null) {
+            PrayerAlarmScheduler.reschedule(context, false);
+        }
+    }
+
+    private static void rebuildTimetable(Context context, double latitude, double longitude,
+                                         int method, int school) {
+        // Dünden başla: gece yarısından sonra dünün Yatsı'sı hâlâ gerekebilir
+        long start = System.currentTimeMillis() - 86400000L;
+        // Kayıtlı konumlardan birine geçildiyse onun hazır tablosu kullanılır
+        PrayerTimetable timetable = findSavedTimetable(context, latitude, longitude, method, school);
+        if (timetable == null) {
+            timetable = PrayerTimetable.generate(latitude, longitude, method, school,
+                    TimeZone.getDefault(), start, TIMETABLE_DAYS);
+        }
+        File file = new File(context.getFilesDir(), TIMETABLE_FILE);
+        try {
+            timetable.write(file);
+            cachedTimetable = timetable;
+            cachedTimetableModified = file.lastModified();
+            dataVersion++;
+        } catch (IOException e) {
+            android.util.Log.e("WidgetDebug", "Timetable yazılamadı: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bugünden {@code dayOffset} gün sonraki vakitleri gece yarısından itibaren
+     * dakika olarak {@code out} dizisine yazar. O ayın resmi vakitleri senkronlandıysa
+     * (PrayerSyncJobService) onlar, yoksa tablo kullanılır. Tablo yoksa JS'in son
+     * gönderdiği vakitler kullanılır (her gün için aynı).
+     */
+    static void getPrayerMinutes(Context context, int dayOffset, int[] out) {
+        PrayerTimetable timetable = getTimetable(context);
+        if (timetable != null) {
+            long now = System.currentTimeMillis();
+            if (PrayerSyncJobService.getSyncedMinutes(context, timetable.latitude, timetable.longitude,
+                    timetable.method, timetable.school, timetable.timeZone,
+                    PrayerTimetable.localEpochDay(timetable.timeZone, now) + dayOffset, out)) {
+                return;
+            }
+            int today = timetable.dayIndex(now);
+            if (today >= 0 && today + dayOffset < timetable.dayCount) {
+                for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+                    out[i] = timetable.minutes(today + dayOffset, i);
+                }
+                return;
+            }
+        }
         SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        return new String[]{
-            prefs.getString("imsak", "05:30"),
-            prefs.getString("gunes", "07:00"),
-            prefs.getString("ogle", "13:15"),
-            prefs.getString("ikindi", "16:00"),
-            prefs.getString("aksam", "18:30"),
-            prefs.getString("yatsi", "20:00")
-        };
+        for (int i = 0; i < PrayerTimeCalculator.PRAYER_COUNT; i++) {
+            out[i] = parseMinutes(prefs.getString(PRAYER_KEYS[i], DEFAULT_TIMES[i]));
+        }
     }
-    
-    public static String[] getNextPrayerData(Context context) {
-        String[] times = getPrayerTimes(context);
+
+    private static int parseMinutes(String time) {
         try {
-            java.util.Calendar cal = java.util.Calendar.getInstance();
-            int currentHours = cal.get(java.util.Calendar.HOUR_OF_DAY);
-            int currentMinutes = cal.get(java.util.Calendar.MINUTE);
-            int currentTotalMinutes = currentHours * 60 + currentMinutes;
-            
-            android.util.Log.d("WidgetDebug", "Current time: " + currentHours + ":" + currentMinutes);
-            
-            String[][] prayers = {
-                {"İmsak", times[0]},
-                {"Güneş", times[1]},
-                {"Öğle", times[2]},
-                {"İkindi", times[3]},
-                {"Akşam", times[4]},
-                {"Yatsı", times[5]}
-            };
-            
-            for (String[] prayer : prayers) {
-                String[] prayerTimeParts = prayer[1].split(":");
-                int prayerHours = Integer.parseInt(prayerTimeParts[0]);
-                int prayerMinutes = Integer.parseInt(prayerTimeParts[1]);
-                int prayerTotalMinutes = prayerHours * 60 + prayerMinutes;
-                
-                android.util.Log.d("WidgetDebug", "Checking " + prayer[0] + " at " + prayer[1]);
-                
-                if (currentTotalMinutes < prayerTotalMinutes) {
-                    int diffMinutes = prayerTotalMinutes - currentTotalMinutes;
-                    int hours = diffMinutes / 60;
-                    int minutes = diffMinutes % 60;
-                    String remaining = hours > 0 ? hours + "s " + minutes + "dk" : minutes + "dk";
-                    
-                    android.util.Log.d("WidgetDebug", "Next prayer: " + prayer[0] + " Remaining: " + remaining);
-                    
-                    return new String[]{prayer[0], prayer[1], remaining};
+            int colon = time.indexOf(':');
+            return Integer.parseInt(time.substring(0, colon)) * 60 + Integer.parseInt(time.substring(colon + 1));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    public static String[] getPrayerTimes(Context context) {
+        PrayerSchedule schedule = getSchedule(context);
+        String[] times = new String[PrayerSchedule.COUNT];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = PrayerTimeCalculator.formatMinutes(schedule.wallTime(i));
+        }
+        return times;
+    }
+
+    /**
+     * Bugünün vakit çözümleyicisi. Gün değişene ya da vakit verisi güncellenene
+     * kadar aynı nesne, yeniden ayrıştırma yapılmadan kullanılır.
+     */
+    static synchronized PrayerSchedule getSchedule(Context context) {
+        long now = System.currentTimeMillis();
+        PrayerTimetable timetable = getTimetable(context);
+        if (scheduleVersion != dataVersion || !schedule.covers(now)) {
+            TimeZone timeZone = timetable != null ? timetable.timeZone : TimeZone.getDefault();
+            int[] today = new int[PrayerTimeCalculator.PRAYER_COUNT];
+            int[] tomorrow = new int[PrayerTimeCalculator.PRAYER_COUNT];
+            getPrayerMinutes(context, 0, today);
+            getPrayerMinutes(context, 1, tomorrow);
+            schedule.set(today, tomorrow[PrayerTimeCalculator.IMSAK],
+                    PrayerTimetable.localEpochDay(timeZone, now), timeZone);
+            scheduleVersion = dataVersion;
+        }
+        return schedule;
+    }
+
+    /** Konum ya da JS'ten gelmiş vakitler var mı? Yoksa vakitler varsayılan değerlerdir. */
+    static boolean hasPrayerData(Context context) {
+        return getTimetable(context) != null
+                || context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).contains(PRAYER_KEYS[0]);
+    }
+
+    /** Vakit verisi, konum ya da konum adı her değiştiğinde artan sayaç. */
+    static synchronized int getDataVersion() {
+        return dataVersion;
+    }
+
+    /** Bildirimde gösterilen konum adı (şehir seçildiyse şehir, GPS'te "Konumum"). */
+    static String getLocationName(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        return prefs.getString(KEY_LOCATION_NAME, DEFAULT_LOCATION_NAME);
+    }
+
+    static void setLocationName(Context context, String name) {
+        String value = name != null && !name.isEmpty() ? name : DEFAULT_LOCATION_NAME;
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (value.equals(prefs.getString(KEY_LOCATION_NAME, DEFAULT_LOCATION_NAME))) {
+            return;
+        }
+        prefs.edit().putString(KEY_LOCATION_NAME, value).apply();
+        synchronized (PrayerWidgetProvider.class) {
+            dataVersion++;
+        }
+    }
+
+    /** Kayıtlı konumlar; ilk çağrıda tercihlerden okunur. */
+    static synchronized SavedLocations getSavedLocations(Context context) {
+        if (savedLocations == null) {
+            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            savedLocations = SavedLocations.decode(prefs.getString(KEY_SAVED_LOCATIONS, null));
+        }
+        return savedLocations;
+    }
+
+    /**
+     * Konumu listeye ekler (aynı yer varsa adını günceller) ve tablosunu arka planda
+     * üretir. Liste doluysa null.
+     */
+    static SavedLocations.Location saveLocation(Context context, String name, double latitude,
+                                                double longitude, int method, int school) {
+        SavedLocations.Location location;
+        synchronized (PrayerWidgetProvider.class) {
+            location = getSavedLocations(context).add(name, latitude, longitude, method, school);
+            if (location == null) {
+                return null;
+            }
+            storeSavedLocations(context);
+            dataVersion++;
+        }
+        refreshSavedLocations(context);
+        return location;
+    }
+
+    /** Konumu siler; onu gösteren widget'lar uygulamanın konumuna döner. */
+    static boolean removeLocation(Context context, int id) {
+        synchronized (PrayerWidgetProvider.class) {
+            SavedLocations saved = getSavedLocations(context);
+            if (!saved.remove(id)) {
+                return false;
+            }
+            storeSavedLocations(context);
+            locationEntries.remove(id);
+            saved.deleteOrphans(context.getFilesDir());
+            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            SharedPreferences.Editor editor = prefs.edit();
+            for (String key : prefs.getAll().keySet()) {
+                if (key.startsWith(KEY_WIDGET_LOCATION) && prefs.getInt(key, SavedLocations.PRIMARY) == id) {
+                    editor.remove(key);
                 }
             }
-            
-            return new String[]{"İmsak", times[0], "Yarın"};
-            
-        } catch (Exception e) {
-            android.util.Log.e("WidgetDebug", "Error: " + e.getMessage());
-            return new String[]{"İmsak", times[0], "-"};
+            editor.apply();
+            dataVersion++;
+        }
+        WidgetWork.requestRefresh(context);
+        return true;
+    }
+
+    private static void storeSavedLocations(Context context) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putString(KEY_SAVED_LOCATIONS, savedLocations.encode())
+                .apply();
+    }
+
+    /**
+     * Eksik ya da bayat kayıtlı konum tablolarını sınırlı executor'da paralel üretir;
+     * bir tablo yazıldıysa tüm işler bitince widget'lar yenilenir. Ağ gerekmez.
+     */
+    static void refreshSavedLocations(Context context) {
+        Context app = context.getApplicationContext();
+        // Liste kopyası add/remove ile aynı kilit altında alınır; işler yalnızca kuyruğa girer
+        synchronized (PrayerWidgetProvider.class) {
+            lastLocationRefresh = System.currentTimeMillis();
+            getSavedLocations(app).refresh(app.getFilesDir(), TimeZone.getDefault(), System.currentTimeMillis(),
+                    TIMETABLE_DAYS, TIMETABLE_REFRESH_DAYS, timetableExecutor, () -> {
+                        synchronized (PrayerWidgetProvider.class) {
+                            dataVersion++;
+                        }
+                        WidgetWork.requestRefresh(app);
+                    });
+        }
+    }
+
+    private static PrayerTimetable findSavedTimetable(Context context, double latitude, double longitude,
+                                                      int method, int school) {
+        long now = System.currentTimeMillis();
+        for (SavedLocations.Location location : getSavedLocations(context).all()) {
+            if (location.method == method && location.school == school
+                    && Math.abs(location.latitude - latitude) < 1e-4
+                    && Math.abs(location.longitude - longitude) < 1e-4) {
+                PrayerTimetable timetable = SavedLocations.readTimetable(
+                        SavedLocations.timetableFile(context.getFilesDir(), location.id));
+                return location.isCurrent(timetable, TimeZone.getDefault(), now, TIMETABLE_REFRESH_DAYS)
+                        ? timetable : null;
+            }
+        }
+        return null;
+    }
+
+    /** Widget'ın gösterdiği kayıtlı konum; seçilmediyse {@link SavedLocations#PRIMARY}. */
+    static int getWidgetLocation(Context context, int appWidgetId) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .getInt(KEY_WIDGET_LOCATION + appWidgetId, SavedLocations.PRIMARY);
+    }
+
+    static void setWidgetLocation(Context context, int appWidgetId, int locationId) {
+        SharedPreferences.Editor editor = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit();
+        if (locationId == SavedLocations.PRIMARY) {
+            editor.remove(KEY_WIDGET_LOCATION + appWidgetId);
+        } else {
+            editor.putInt(KEY_WIDGET_LOCATION + appWidgetId, locationId);
         }
+        editor.apply();
+    }
+
+    /** Silinen widget'ların konum seçimini temizler. */
+    static void clearWidgetLocations(Context context, int[] appWidgetIds) {
+        SharedPreferences.Editor editor = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit();
+        for (int id : appWidgetIds) {
+            editor.remove(KEY_WIDGET_LOCATION + id);
+        }
+        editor.apply();
+    }
+
+    /** Widget id'lerini gösterdikleri konuma göre gruplar; her grup tek çizimle güncellenir. */
+    static SparseArray<int[]> groupByLocation(Context context, int[] appWidgetIds) {
+        SparseArray<int[]> groups = new SparseArray<>();
+        for (int id : appWidgetIds) {
+            int locationId = getWidgetLocation(context, id);
+            if (locationId != SavedLocations.PRIMARY && getSavedLocations(context).get(locationId) == null) {
+                locationId = SavedLocations.PRIMARY;
+            }
+            int[] group = groups.get(locationId);
+            int[] grown = new int[group == null ? 1 : group.length + 1];
+            if (group != null) {
+                System.arraycopy(group, 0, grown, 0, group.length);
+            }
+            grown[grown.length - 1] = id;
+            groups.put(locationId, grown);
+        }
+        return groups;
+    }
+
+    /** Kayıtlı konumun adı; uygulamanın konumu için null (widget'ta etiket gösterilmez). */
+    static String getWidgetLocationLabel(Context context, int locationId) {
+        if (locationId == SavedLocations.PRIMARY) {
+            return null;
+        }
+        SavedLocations.Location location = getSavedLocations(context).get(locationId);
+        return location != null && !location.name.isEmpty() ? location.name : null;
+    }
+
+    /**
+     * Kayıtlı bir konumun bugünkü vakit çözümleyicisi. Tablosu henüz üretilmediyse
+     * üretim istenir ve o ana kadar uygulamanın konumu kullanılır. Kayıtlı konumlar
+     * hesaplanan vakitleri kullanır; resmi vakit senkronu yalnızca uygulamanın konumu içindir.
+     */
+    static synchronized PrayerSchedule getSchedule(Context context, int locationId) {
+        if (locationId == SavedLocations.PRIMARY) {
+            return getSchedule(context);
+        }
+        SavedLocations.Location location = getSavedLocations(context).get(locationId);
+        if (location == null) {
+            return getSchedule(context);
+        }
+        LocationEntry entry = locationEntries.get(locationId);
+        if (entry == null) {
+            entry = new LocationEntry();
+            locationEntries.put(locationId, entry);
+        }
+        File file = SavedLocations.timetableFile(context.getFilesDir(), locationId);
+        long modified = file.lastModified();
+        if (entry.timetable == null || modified != entry.modified) {
+            entry.timetable = SavedLocations.readTimetable(file);
+            entry.modified = modified;
+            entry.version = -1;
+        }
+
+        long now = System.currentTimeMillis();
+        PrayerTimetable timetable = entry.timetable;
+        if (!location.isCurrent(timetable, TimeZone.getDefault(), now, TIMETABLE_REFRESH_DAYS)
+                && now - lastLocationRefresh >= LOCATION_REFRESH_INTERVAL_MS) {
+            refreshSavedLocations(context);
+        }
+        int today = timetable != null ? timetable.dayIndex(now) : -1;
+        if (today < 0 || today + 1 >= timetable.dayCount) {
+            return getSchedule(context);
+        }
+        if (entry.version != dataVersion || !entry.schedule.covers(now)) {
+            int[] minutes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+            for (int i = 0; i < minutes.length; i++) {
+                minutes[i] = timetable.minutes(today, i);
+            }
+            entry.schedule.set(minutes, timetable.minutes(today + 1, PrayerTimeCalculator.IMSAK),
+                    PrayerTimetable.localEpochDay(timetable.timeZone, now), timetable.timeZone);
+            entry.version = dataVersion;
+        }
+        return entry.schedule;
+    }
+
+    /** {ad, saat, kalan}: sıradaki vakit; Yatsı'dan sonra yarının İmsak'ı. */
+    public static String[] getNextPrayerData(Context context) {
+        PrayerSchedule schedule = getSchedule(context);
+        return schedule.describeNext(schedule.minuteOf(System.currentTimeMillis()));
     }
     
     public static void updatePrayerTimes(Context context, String imsak, String gunes, 
@@ -91,25 +451,11 @@ public class PrayerWidgetProvider extends AppWidgetProvider {
         editor.putString("aksam", aksam);
         editor.putString("yatsi", yatsi);
         editor.apply();
-        
-        AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
-        
-        int[] smallIds = appWidgetManager.getAppWidgetIds(
-            new android.content.ComponentName(context, SmallWidgetProvider.class));
-        for (int id : smallIds) {
-            SmallWidgetProvider.updateWidget(context, appWidgetManager, id);
+        synchronized (PrayerWidgetProvider.class) {
+            dataVersion++;
         }
         
-        int[] mediumIds = appWidgetManager.getAppWidgetIds(
-            new android.content.ComponentName(context, MediumWidgetProvider.class));
-        for (int id : mediumIds) {
-            MediumWidgetProvider.updateWidget(context, appWidgetManager, id);
-        }
-        
-        int[] largeIds = appWidgetManager.getAppWidgetIds(
-            new android.content.ComponentName(context, LargeWidgetProvider.class));
-        for (int id : largeIds) {
-            LargeWidgetProvider.updateWidget(context, appWidgetManager, id);
-        }
+        // Tüm widget'lar ve bildirim birlikte güncellenir, sonraki alarm yeni vakitlere göre kurulur
+        WidgetWork.requestRefresh(context);
     }
 }
\ No newline at end of file
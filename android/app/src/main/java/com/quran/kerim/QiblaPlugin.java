@@ -0,0 +1,169 @@
+package com.quran.kerim;
+
+import android.content.Context;
+import android.hardware.GeomagneticField;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.view.Surface;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Dönme vektörü sensörüyle yerel pusula. Ölçümler donanımda toplu (batch) gelir,
+ * QiblaCompass ile dairesel süzülür ve manyetik sapma konumdan düzeltilir; JS'e
+ * yalnızca yön eşikten fazla değiştiğinde "heading" { heading, qibla, accuracy } gider.
+ * Uygulama arka plana geçince sensör bırakılır, dönünce yeniden açılır.
+ */
+@CapacitorPlugin(name = "Qibla")
+public class QiblaPlugin extends Plugin implements SensorEventListener {
+
+    private static final int SAMPLING_US = 40_000;
+    // Olaylar en fazla bu kadar bekletilip toplu teslim edilir; işlemci daha az uyanır
+    private static final int MAX_REPORT_LATENCY_US = 100_000;
+    private static final double SMOOTHING = 0.15;
+    private static final double DEFAULT_THRESHOLD = 1.0;
+
+    private final float[] rotation = new float[9];
+    private final float[] remapped = new float[9];
+    private final float[] orientation = new float[3];
+
+    private SensorManager sensorManager;
+    private Sensor sensor;
+    private QiblaCompass compass;
+    private double qibla;
+    private float declination;
+    private int accuracy = SensorManager.SENSOR_STATUS_UNRELIABLE;
+    private boolean active;
+
+    @Override
+    public void load() {
+        sensorManager = (SensorManager) getContext().getSystemService(Context.SENSOR_SERVICE);
+        if (sensorManager != null) {
+            sensor = sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR);
+            if (sensor == null) {
+                // Jiroskopsuz cihazlar: manyetometre + ivmeölçer füzyonu
+                sensor = sensorManager.getDefaultSensor(Sensor.TYPE_GEOMAGNETIC_ROTATION_VECTOR);
+            }
+        }
+    }
+
+    /**
+     * Parametreler: latitude, longitude (yoksa kayıtlı konum), threshold (derece, varsayılan 1).
+     * Sonuç: { qibla, declination } (gerçek kuzeye göre Kıble açısı ve uygulanan sapma).
+     */
+    @PluginMethod
+    public void start(PluginCall call) {
+        if (sensor == null) {
+            call.reject("Pusula sensörü bulunamadı");
+            return;
+        }
+        Double latitude = call.getDouble("latitude");
+        Double longitude = call.getDouble("longitude");
+        if (latitude == null || longitude == null) {
+            PrayerTimetable timetable = PrayerWidgetProvider.getTimetable(getContext());
+            if (timetable == null) {
+                call.reject("Konum bilinmiyor");
+                return;
+            }
+            latitude = timetable.latitude;
+            longitude = timetable.longitude;
+        }
+        qibla = QiblaCompass.qiblaBearing(latitude, longitude);
+        declination = new GeomagneticField(latitude.floatValue(), longitude.floatValue(), 0f,
+                System.currentTimeMillis()).getDeclination();
+        compass = new QiblaCompass(SMOOTHING, call.getDouble("threshold", DEFAULT_THRESHOLD));
+        active = true;
+        register();
+
+        JSObject ret = new JSObject();
+        ret.put("qibla", qibla);
+        ret.put("declination", declination);
+        call.resolve(ret);
+    }
+
+    @PluginMethod
+    public void stop(PluginCall call) {
+        active = false;
+        unregister();
+        call.resolve();
+    }
+
+    @Override
+    protected void handleOnResume() {
+        if (active) {
+            register();
+        }
+    }
+
+    @Override
+    protected void handleOnPause() {
+        unregister();
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        active = false;
+        unregister();
+    }
+
+    private void register() {
+        unregister();
+        compass.reset();
+        sensorManager.registerListener(this, sensor, SAMPLING_US, MAX_REPORT_LATENCY_US);
+    }
+
+    private void unregister() {
+        if (sensorManager != null) {
+            sensorManager.unregisterListener(this);
+        }
+    }
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        SensorManager.getRotationMatrixFromVector(rotation, event.values);
+        float[] matrix = remapForDisplay();
+        SensorManager.getOrientation(matrix, orientation);
+        // Azimut manyetik kuzeye göredir; sapma eklenince gerçek kuzey olur
+        compass.update(Math.toDegrees(orientation[0]) + declination);
+        if (compass.shouldEmit()) {
+            JSObject data = new JSObject();
+            data.put("heading", compass.heading());
+            data.put("qibla", qibla);
+            data.put("accuracy", accuracy);
+            notifyListeners("heading", data);
+        }
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor changed, int value) {
+        accuracy = value;
+    }
+
+    /** Ekran yatay döndürüldüyse eksenleri ekranın yönüne çevirir. */
+    private float[] remapForDisplay() {
+        int displayRotation = getActivity() != null
+                ? getActivity().getWindowManager().getDefaultDisplay().getRotation()
+                : Surface.ROTATION_0;
+        switch (displayRotation) {
+            case Surface.ROTATION_90:
+                SensorManager.remapCoordinateSystem(rotation, SensorManager.AXIS_Y,
+                        SensorManager.AXIS_MINUS_X, remapped);
+                return remapped;
+            case Surface.ROTATION_180:
+                SensorManager.remapCoordinateSystem(rotation, SensorManager.AXIS_MINUS_X,
+                        SensorManager.AXIS_MINUS_Y, remapped);
+                return remapped;
+            case Surface.ROTATION_270:
+                SensorManager.remapCoordinateSystem(rotation, SensorManager.AXIS_MINUS_Y,
+                        SensorManager.AXIS_X, remapped);
+                return remapped;
+            default:
+                return rotation;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.quran.kerim;
+
+import android.content.Context;
+import android.util.Log;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.json.JSONException;
+
+/**
+ * Yerel Kur'an metin deposu (QuranCorpus). Sure açmak ağ isteği yerine
+ * bellek eşlemeli dosyadan birkaç KB okumaktır.
+ */
+@CapacitorPlugin(name = "QuranCorpus")
+public class QuranCorpusPlugin extends Plugin {
+
+    private static final String TAG = "QuranCorpusPlugin";
+    private static final String CORPUS_FILE = "quran_corpus.bin";
+    private static final String[] DEFAULT_EDITIONS = {
+        QuranTextSource.ARABIC, QuranTextSource.TURKISH, QuranTextSource.TAJWEED
+    };
+
+    private static QuranCorpus corpus;
+    private static final Object prepareLock = new Object();
+    // İndirme uzun sürer; okuma çağrılarını bekletmemek için ayrı iş parçacığı
+    private final ExecutorService prepareExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService networkExecutor = Executors.newSingleThreadExecutor();
+
+    @PluginMethod
+    public void status(PluginCall call) {
+        QuranCorpus current = getCorpus(getContext());
+        JSObject ret = new JSObject();
+        ret.put("editions", new JSArray(current != null ? current.editions() : new ArrayList<String>()));
+        call.resolve(ret);
+    }
+
+    /** Parametre: editions (varsayılan Arapça, tecvidli Arapça ve Diyanet meali). Eksikleri indirir. */
+    @PluginMethod
+    public void prepare(PluginCall call) {
+        String[] editions = getEditions(call, DEFAULT_EDITIONS);
+        prepareExecutor.execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                QuranCorpus prepared = ensureEditions(getContext(), editions);
+                JSObject ret = new JSObject();
+                ret.put("editions", new JSArray(prepared.editions()));
+                ret.put("tookMs", System.currentTimeMillis() - start);
+                call.resolve(ret);
+            } catch (Exception e) {
+                // Bozuk veri ya da JSON hatası da çağrıyı yanıtsız bırakmamalı
+                Log.e(TAG, "Metinler indirilemedi", e);
+                call.reject("Kur'an metinleri indirilemedi: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Parametreler: surah, editions, from (1), to (son ayet).
+     * Sonuç: { surah, ayahCount, ayahs: [{ number, globalNumber, texts: { baskı: metin } }] }
+     * (ayahCount surenin tamamı; uzun sureler önce ilk ekran, sonra kalanı olarak istenir)
+     */
+    @PluginMethod
+    public void getSurah(PluginCall call) {
+        int surah = call.getInt("surah", 0);
+        if (surah < 1 || surah > QuranCorpus.SURAH_COUNT) {
+            call.reject("surah 1-114 arasında olmalı");
+            return;
+        }
+        String[] editions = getEditions(call, new String[]{QuranTextSource.ARABIC, QuranTextSource.TURKISH});
+        QuranCorpus current = getCorpus(getContext());
+        for (String edition : editions) {
+            if (current == null || !current.hasEdition(edition)) {
+                call.reject(edition + " yerelde yok", "NOT_READY");
+                return;
+            }
+        }
+        int count = QuranCorpus.ayahCount(surah);
+        int from = Math.max(1, call.getInt("from", 1));
+        int to = Math.min(count, call.getInt("to", count));
+        if (from > to) {
+            call.reject("Geçersiz ayet aralığı");
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        String[][] texts = new String[editions.length][];
+        for (int e = 0; e < editions.length; e++) {
+            texts[e] = current.range(editions[e], surah, from, to);
+        }
+        JSObject ret = toSurah(surah, from, editions, texts);
+        Log.d(TAG, "Sure " + surah + " okundu: " + (System.nanoTime() - startNanos) / 1000 + "µs");
+        call.resolve(ret);
+    }
+
+    /**
+     * Depo hazır değilken tek sureyi ağdan indirir. Yanıtlar QuranTextSource ile akış
+     * halinde okunur; sonuç getSurah ile aynı biçimdedir (surenin tamamı).
+     * Parametreler: surah, editions.
+     */
+    @PluginMethod
+    public void fetchSurah(PluginCall call) {
+        int surah = call.getInt("surah", 0);
+        if (surah < 1 || surah > QuranCorpus.SURAH_COUNT) {
+            call.reject("surah 1-114 arasında olmalı");
+            return;
+        }
+        String[] editions = getEditions(call, new String[]{QuranTextSource.ARABIC, QuranTextSource.TURKISH});
+        // Depo indirmesinin (prepareExecutor) arkasında beklemez
+        networkExecutor.execute(() -> {
+            try {
+                String[][] texts = new String[editions.length][];
+                for (int e = 0; e < editions.length; e++) {
+                    texts[e] = QuranTextSource.fetchSurah(editions[e], surah);
+                }
+                call.resolve(toSurah(surah, 1, editions, texts));
+            } catch (Exception e) {
+                Log.e(TAG, "Sure " + surah + " indirilemedi", e);
+                call.reject("Sure indirilemedi: " + e.getMessage());
+            }
+        });
+    }
+
+    /** { surah, ayahCount, ayahs: [{ number, globalNumber, texts: { baskı: metin } }] } */
+    private static JSObject toSurah(int surah, int from, String[] editions, String[][] texts) {
+        JSArray ayahs = new JSArray();
+        int to = from + texts[0].length - 1;
+        for (int a = from; a <= to; a++) {
+            JSObject byEdition = new JSObject();
+            for (int e = 0; e < editions.length; e++) {
+                byEdition.put(editions[e], texts[e][a - from]);
+            }
+            JSObject ayah = new JSObject();
+            ayah.put("number", a);
+            ayah.put("globalNumber", QuranCorpus.globalNumber(surah, a));
+            ayah.put("texts", byEdition);
+            ayahs.put(ayah);
+        }
+        JSObject ret = new JSObject();
+        ret.put("surah", surah);
+        ret.put("ayahCount", QuranCorpus.ayahCount(surah));
+        ret.put("ayahs", ayahs);
+        return ret;
+    }
+
+    private static String[] getEditions(PluginCall call, String[] defaults) {
+        JSArray array = call.getArray("editions");
+        if (array == null || array.length() == 0) {
+            return defaults;
+        }
+        try {
+            List<String> list = array.toList();
+            return list.toArray(new String[0]);
+        } catch (JSONException e) {
+            return defaults;
+        }
+    }
+
+    static synchronized QuranCorpus getCorpus(Context context) {
+        if (corpus == null) {
+            File file = new File(context.getFilesDir(), CORPUS_FILE);
+            if (file.exists()) {
+                try {
+                    corpus = QuranCorpus.open(file);
+                } catch (IOException e) {
+                    Log.e(TAG, "Depo okunamadı, yeniden indirilecek: " + e.getMessage());
+                    file.delete();
+                }
+            }
+        }
+        return corpus;
+    }
+
+    /**
+     * Eksik baskıları indirip depoya ekler. Var olan baskılar yeniden indirilmez;
+     * dosya yeni baskılarla birlikte bir kez yeniden yazılır. İndirme sınıf kilidi
+     * dışında yapılır: sürerken getSurah/status/search eski depodan okumaya devam eder.
+     * Yalnızca hazırlık executor'larından çağrılır.
+     */
+    static QuranCorpus ensureEditions(Context context, String... editions) throws IOException {
+        // Metin ve arama eklentisi aynı anda hazırlarsa aynı baskı iki kez indirilmez
+        synchronized (prepareLock) {
+            QuranCorpus current = getCorpus(context);
+            QuranCorpus.Builder builder = new QuranCorpus.Builder();
+            boolean changed = false;
+            for (String edition : editions) {
+                if (current == null || !current.hasEdition(edition)) {
+                    builder.put(edition, QuranTextSource.fetch(edition), QuranTextSource.shouldCompress(edition));
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return current;
+            }
+            if (current != null) {
+                builder.copyFrom(current);
+            }
+            File file = new File(context.getFilesDir(), CORPUS_FILE);
+            synchronized (QuranCorpusPlugin.class) {
+                builder.write(file);
+                corpus = QuranCorpus.open(file);
+                Log.d(TAG, "Depo yazıldı: " + corpus.editions() + ", " + file.length() / 1024 + " KB");
+                return corpus;
+            }
+        }
+    }
+}
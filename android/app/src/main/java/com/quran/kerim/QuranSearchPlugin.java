@@ -0,0 +1,140 @@
+package com.quran.kerim;
+
+import android.content.Context;
+import android.util.Log;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Çevrimdışı ayet arama. İndeks bir kez (ilk aramada) yerel metin deposundaki
+ * Arapça ve Diyanet meali metinlerinden üretilip diske yazılır; sonraki aramalar ağ kullanmaz.
+ */
+@CapacitorPlugin(name = "QuranSearch")
+public class QuranSearchPlugin extends Plugin {
+
+    private static final String TAG = "QuranSearchPlugin";
+    private static final String INDEX_FILE = "quran_search.idx";
+    private static final int DEFAULT_LIMIT = 200;
+
+    private static volatile QuranSearchIndex index;
+    // İndirme ve üretim uzun sürer; arama çağrılarını bekletmemek için ayrı iş parçacığı
+    private final ExecutorService prepareExecutor = Executors.newSingleThreadExecutor();
+
+    @PluginMethod
+    public void status(PluginCall call) {
+        QuranSearchIndex current = getIndex(getContext());
+        JSObject ret = new JSObject();
+        ret.put("ready", current != null);
+        ret.put("ayahCount", current != null ? current.docCount : 0);
+        call.resolve(ret);
+    }
+
+    /** İndeks yoksa metinleri indirip üretir. */
+    @PluginMethod
+    public void prepare(PluginCall call) {
+        prepareExecutor.execute(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                QuranSearchIndex prepared = getIndex(getContext());
+                if (prepared == null) {
+                    prepared = buildIndex(getContext());
+                }
+                JSObject ret = new JSObject();
+                ret.put("ready", true);
+                ret.put("ayahCount", prepared.docCount);
+                ret.put("tookMs", System.currentTimeMillis() - start);
+                call.resolve(ret);
+            } catch (Exception e) {
+                // Bozuk veri ya da JSON hatası da çağrıyı yanıtsız bırakmamalı
+                Log.e(TAG, "İndeks hazırlanamadı", e);
+                call.reject("Arama indeksi hazırlanamadı: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Parametreler: query, language ("turkish" | "arabic"), limit (200).
+     * Sonuç: { total, tookMs, results: [{ surahNumber, ayahNumber, arabicText, turkishText, score }] }
+     */
+    @PluginMethod
+    public void search(PluginCall call) {
+        QuranSearchIndex current = getIndex(getContext());
+        if (current == null) {
+            call.reject("Arama indeksi hazır değil", "NOT_READY");
+            return;
+        }
+        String raw = call.getString("query", "");
+        int field = "arabic".equals(call.getString("language"))
+                ? QuranSearchIndex.FIELD_ARABIC : QuranSearchIndex.FIELD_TURKISH;
+        int limit = Math.max(1, call.getInt("limit", DEFAULT_LIMIT));
+
+        long startNanos = System.nanoTime();
+        QuranSearchIndex.Result result = current.search(SearchQuery.parse(raw), field, limit);
+        long tookMicros = (System.nanoTime() - startNanos) / 1000;
+
+        JSArray results = new JSArray();
+        for (int i = 0; i < result.docs.length; i++) {
+            int doc = result.docs[i];
+            JSObject item = new JSObject();
+            item.put("surahNumber", current.surah(doc));
+            item.put("ayahNumber", current.ayah(doc));
+            item.put("arabicText", current.text(QuranSearchIndex.FIELD_ARABIC, doc));
+            item.put("turkishText", current.text(QuranSearchIndex.FIELD_TURKISH, doc));
+            item.put("score", result.scores[i]);
+            results.put(item);
+        }
+        Log.d(TAG, "\"" + raw + "\": " + result.total + " sonuç, " + tookMicros + "µs");
+
+        JSObject ret = new JSObject();
+        ret.put("total", result.total);
+        ret.put("tookMs", tookMicros / 1000.0);
+        ret.put("results", results);
+        call.resolve(ret);
+    }
+
+    private static synchronized QuranSearchIndex getIndex(Context context) {
+        if (index == null) {
+            File file = new File(context.getFilesDir(), INDEX_FILE);
+            if (file.exists()) {
+                try {
+                    index = QuranSearchIndex.open(file);
+                } catch (IOException e) {
+                    Log.e(TAG, "İndeks okunamadı, yeniden üretilecek: " + e.getMessage());
+                    file.delete();
+                }
+            }
+        }
+        return index;
+    }
+
+    private static QuranSearchIndex buildIndex(Context context) throws IOException {
+        // Metinler yerel depodan gelir; depo yoksa burada bir kez indirilir
+        QuranCorpus corpus = QuranCorpusPlugin.ensureEditions(context,
+                QuranTextSource.ARABIC, QuranTextSource.TURKISH);
+
+        QuranSearchIndex.Builder builder = new QuranSearchIndex.Builder();
+        for (int s = 1; s <= QuranCorpus.SURAH_COUNT; s++) {
+            String[] arabic = corpus.surah(QuranTextSource.ARABIC, s);
+            String[] turkish = corpus.surah(QuranTextSource.TURKISH, s);
+            for (int a = 0; a < arabic.length; a++) {
+                builder.add(s, a + 1, turkish[a], arabic[a]);
+            }
+        }
+
+        File file = new File(context.getFilesDir(), INDEX_FILE);
+        builder.write(file);
+        Log.d(TAG, builder.size() + " ayet indekslendi, " + file.length() / 1024 + " KB");
+        synchronized (QuranSearchPlugin.class) {
+            index = QuranSearchIndex.open(file);
+            return index;
+        }
+    }
+}
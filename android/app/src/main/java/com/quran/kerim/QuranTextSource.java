@@ -0,0 +1,196 @@
+package com.quran.kerim;
+
+import android.util.JsonReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bir baskının tüm ayetlerini (ya da depo hazır değilken tek bir sureyi) tek istekte
+ * indirir. Tecvidli metin api.quran.com'dan, diğer baskılar (quran-simple, mealler)
+ * api.alquran.cloud'dan gelir.
+ *
+ * Yanıtlar (tecvidli baskıda birkaç MB) akış halinde okunur: JSON ağacı kurulmaz,
+ * yalnızca ayet numarası ve metni alınır, diğer alanlar atlanır.
+ */
+final class QuranTextSource {
+
+    static final String ARABIC = "quran-simple";
+    static final String TURKISH = "tr.diyanet";
+    /** api.quran.com uthmani_tajweed: ayet başına HTML (tajweed etiketleri) */
+    static final String TAJWEED = "quran-tajweed";
+
+    private static final String ALQURAN_URL = "https://api.alquran.cloud/v1/quran/";
+    private static final String ALQURAN_SURAH_URL = "https://api.alquran.cloud/v1/surah/";
+    private static final String TAJWEED_URL = "https://api.quran.com/api/v4/quran/verses/uthmani_tajweed";
+
+    private QuranTextSource() {
+    }
+
+    private interface Parser {
+        void read(JsonReader reader) throws IOException;
+    }
+
+    /** Sıkıştırma oranı yüksek (HTML) baskılar depoda Deflate ile saklanır. */
+    static boolean shouldCompress(String edition) {
+        return TAJWEED.equals(edition);
+    }
+
+    /** Genel sırada 6236 ayet metni. */
+    static String[] fetch(String edition) throws IOException {
+        String[] ayahs = new String[QuranCorpus.AYAH_COUNT];
+        if (TAJWEED.equals(edition)) {
+            download(TAJWEED_URL, reader -> readTajweed(reader, ayahs, 1));
+        } else {
+            download(ALQURAN_URL + edition, reader -> readAlquran(reader, ayahs));
+        }
+        checkComplete(edition, ayahs);
+        return ayahs;
+    }
+
+    /** Tek surenin ayet metinleri (sure içi sırada); yerel depo hazır değilken okuyucu için. */
+    static String[] fetchSurah(String edition, int surah) throws IOException {
+        String[] ayahs = new String[QuranCorpus.ayahCount(surah)];
+        int first = QuranCorpus.globalNumber(surah, 1);
+        if (TAJWEED.equals(edition)) {
+            download(TAJWEED_URL + "?chapter_number=" + surah, reader -> readTajweed(reader, ayahs, first));
+        } else {
+            download(ALQURAN_SURAH_URL + surah + "/" + edition, reader -> readAlquranSurah(reader, ayahs, first));
+        }
+        checkComplete(edition, ayahs);
+        return ayahs;
+    }
+
+    private static void download(String url, Parser parser) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(15000);
+        connection.setReadTimeout(60000);
+        try {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException(url + ": HTTP " + connection.getResponseCode());
+            }
+            try (JsonReader reader = new JsonReader(new InputStreamReader(
+                    new BufferedInputStream(connection.getInputStream(), 16 * 1024), StandardCharsets.UTF_8))) {
+                parser.read(reader);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static void checkComplete(String edition, String[] ayahs) throws IOException {
+        for (int i = 0; i < ayahs.length; i++) {
+            if (ayahs[i] == null) {
+                throw new IOException(edition + ": missing ayah " + (i + 1));
+            }
+        }
+    }
+
+    // { verses: [{ id, text_uthmani_tajweed, ... }], ... }
+    private static void readTajweed(JsonReader reader, String[] ayahs, int first) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("verses".equals(reader.nextName())) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    readAyah(reader, "id", "text_uthmani_tajweed", ayahs, first);
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    // { data: { surahs: [{ ayahs: [{ number, text, ... }], ... }], ... }, ... }
+    private static void readAlquran(JsonReader reader, String[] ayahs) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"data".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!"surahs".equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if ("ayahs".equals(reader.nextName())) {
+                            reader.beginArray();
+                            while (reader.hasNext()) {
+                                readAyah(reader, "number", "text", ayahs, 1);
+                            }
+                            reader.endArray();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+    }
+
+    // { data: { ayahs: [{ number, text, ... }], ... }, ... }
+    private static void readAlquranSurah(JsonReader reader, String[] ayahs, int first) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!"data".equals(reader.nextName())) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("ayahs".equals(reader.nextName())) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readAyah(reader, "number", "text", ayahs, first);
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Tek ayet nesnesi: genel numara ve metin; diğer alanlar atlanır. {@code first},
+     * dizinin ilk elemanına karşılık gelen genel ayet numarasıdır.
+     */
+    private static void readAyah(JsonReader reader, String numberField, String textField, String[] ayahs,
+                                 int first) throws IOException {
+        int number = 0;
+        String text = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (numberField.equals(name)) {
+                number = reader.nextInt();
+            } else if (textField.equals(name)) {
+                text = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (number < first || number - first >= ayahs.length || text == null) {
+            throw new IOException("Invalid ayah entry: " + number);
+        }
+        ayahs[number - first] = text;
+    }
+}
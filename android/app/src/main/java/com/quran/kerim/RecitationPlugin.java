@@ -0,0 +1,137 @@
+package com.quran.kerim;
+
+import android.content.Intent;
+import androidx.core.content.ContextCompat;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Ayet aralığını RecitationService ile kesintisiz çalar; ekran kapalıyken de sürer.
+ * Olaylar: "ayah" { surah, ayah } (okuyucuda vurgulama için), "state" { playing, surah, ayah },
+ * "complete" { surah } ve "error" { surah, ayah, message }.
+ */
+@CapacitorPlugin(name = "Recitation")
+public class RecitationPlugin extends Plugin {
+
+    @Override
+    public void load() {
+        RecitationService.setListener(new RecitationService.Listener() {
+            @Override
+            public void onAyah(int surah, int ayah) {
+                JSObject data = new JSObject();
+                data.put("surah", surah);
+                data.put("ayah", ayah);
+                notifyListeners("ayah", data);
+            }
+
+            @Override
+            public void onState(boolean playing, int surah, int ayah) {
+                notifyListeners("state", state(playing, surah, ayah));
+            }
+
+            @Override
+            public void onComplete(int surah) {
+                JSObject data = new JSObject();
+                data.put("surah", surah);
+                notifyListeners("complete", data);
+            }
+
+            @Override
+            public void onError(int surah, int ayah, String message) {
+                JSObject data = new JSObject();
+                data.put("surah", surah);
+                data.put("ayah", ayah);
+                data.put("message", message);
+                notifyListeners("error", data);
+            }
+        });
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        // Oynatma servisle sürer; yalnızca olaylar kesilir
+        RecitationService.setListener(null);
+    }
+
+    /**
+     * Parametreler: surah, from, to (varsayılan from), reciter, title (sure adı, bildirim için),
+     * ayahRepeats ve rangeRepeats (varsayılan 1, 0 sonsuz), speed (varsayılan 1).
+     */
+    @PluginMethod
+    public void play(PluginCall call) {
+        int surah = call.getInt("surah", 0);
+        if (surah < 1 || surah > QuranCorpus.SURAH_COUNT) {
+            call.reject("Geçersiz sure");
+            return;
+        }
+        int ayahCount = QuranCorpus.ayahCount(surah);
+        int from = call.getInt("from", 1);
+        int to = Math.min(call.getInt("to", from), ayahCount);
+        if (from < 1 || from > to) {
+            call.reject("Geçersiz ayet aralığı");
+            return;
+        }
+        Intent intent = new Intent(getContext(), RecitationService.class)
+                .setAction(RecitationService.ACTION_PLAY);
+        intent.putExtra(RecitationService.EXTRA_SURAH, surah);
+        intent.putExtra(RecitationService.EXTRA_FROM, from);
+        intent.putExtra(RecitationService.EXTRA_TO, to);
+        intent.putExtra(RecitationService.EXTRA_RECITER, AudioDownloadPlugin.getReciter(call));
+        intent.putExtra(RecitationService.EXTRA_TITLE, call.getString("title"));
+        intent.putExtra(RecitationService.EXTRA_AYAH_REPEATS, call.getInt("ayahRepeats", 1));
+        intent.putExtra(RecitationService.EXTRA_RANGE_REPEATS, call.getInt("rangeRepeats", 1));
+        intent.putExtra(RecitationService.EXTRA_SPEED, call.getFloat("speed", 1f));
+        ContextCompat.startForegroundService(getContext(), intent);
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void pause(PluginCall call) {
+        send(RecitationService.ACTION_PAUSE, call);
+    }
+
+    @PluginMethod
+    public void resume(PluginCall call) {
+        send(RecitationService.ACTION_RESUME, call);
+    }
+
+    @PluginMethod
+    public void next(PluginCall call) {
+        send(RecitationService.ACTION_NEXT, call);
+    }
+
+    @PluginMethod
+    public void previous(PluginCall call) {
+        send(RecitationService.ACTION_PREVIOUS, call);
+    }
+
+    @PluginMethod
+    public void stop(PluginCall call) {
+        send(RecitationService.ACTION_STOP, call);
+    }
+
+    /** Sonuç: { playing, surah, ayah } (çalmıyorsa surah ve ayah 0). */
+    @PluginMethod
+    public void getState(PluginCall call) {
+        int[] state = RecitationService.getState();
+        call.resolve(state(state[2] == 1, state[0], state[1]));
+    }
+
+    private void send(String action, PluginCall call) {
+        if (RecitationService.getState()[0] != 0) {
+            getContext().startService(new Intent(getContext(), RecitationService.class).setAction(action));
+        }
+        call.resolve();
+    }
+
+    private static JSObject state(boolean playing, int surah, int ayah) {
+        JSObject data = new JSObject();
+        data.put("playing", playing);
+        data.put("surah", surah);
+        data.put("ayah", ayah);
+        return data;
+    }
+}
@@ -0,0 +1,568 @@
+package com.quran.kerim;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.graphics.drawable.Icon;
+import android.media.AudioAttributes;
+import android.media.AudioManager;
+import android.media.MediaMetadata;
+import android.media.MediaPlayer;
+import android.media.session.MediaSession;
+import android.media.session.PlaybackState;
+import android.os.Build;
+import android.os.IBinder;
+import android.os.PowerManager;
+import android.util.Log;
+import androidx.core.app.ServiceCompat;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Kesintisiz tilavet için ön plan medya servisi.
+ *
+ * Çalan ayet hazırlanırken sıradaki ayet ikinci bir MediaPlayer'da önceden hazırlanır
+ * ve {@link MediaPlayer#setNextMediaPlayer} ile zincirlenir; geçişi çerçeve yapar,
+ * ayetler arasında boşluk ve ağ beklemesi olmaz. Sonraki birkaç ayet ayrıca ses
+ * önbelleğine (AudioCache) indirilir. İndirilmiş ayetler dosyadan (paketlenmiş surelerde
+ * paket içindeki bayt aralığından), diğerleri akıştan çalar.
+ * Kilit ekranı ve bildirim kontrolleri MediaSession üzerindendir.
+ *
+ * Tüm oynatıcı durumu ana iş parçacığında değişir (servis ve MediaPlayer geri çağrıları).
+ */
+public class RecitationService extends Service implements AudioManager.OnAudioFocusChangeListener {
+
+    static final String ACTION_PLAY = "com.quran.kerim.RECITATION_PLAY";
+    static final String ACTION_PAUSE = "com.quran.kerim.RECITATION_PAUSE";
+    static final String ACTION_RESUME = "com.quran.kerim.RECITATION_RESUME";
+    static final String ACTION_TOGGLE = "com.quran.kerim.RECITATION_TOGGLE";
+    static final String ACTION_NEXT = "com.quran.kerim.RECITATION_NEXT";
+    static final String ACTION_PREVIOUS = "com.quran.kerim.RECITATION_PREVIOUS";
+    static final String ACTION_STOP = "com.quran.kerim.RECITATION_STOP";
+
+    static final String EXTRA_SURAH = "surah";
+    static final String EXTRA_TITLE = "title";
+    static final String EXTRA_FROM = "from";
+    static final String EXTRA_TO = "to";
+    static final String EXTRA_RECITER = "reciter";
+    static final String EXTRA_AYAH_REPEATS = "ayahRepeats";
+    static final String EXTRA_RANGE_REPEATS = "rangeRepeats";
+    static final String EXTRA_SPEED = "speed";
+
+    private static final String TAG = "RecitationService";
+    private static final int NOTIFICATION_ID = 3;
+    private static final String CHANNEL_ID = "recitation_channel";
+    private static final String CHANNEL_NAME = "Tilavet";
+    private static final int LOOKAHEAD = 3;
+
+    /** Oynatma olayları; eklenti yüklendiğinde kaydolur. Ana iş parçacığından çağrılır. */
+    interface Listener {
+        void onAyah(int surah, int ayah);
+
+        void onState(boolean playing, int surah, int ayah);
+
+        void onComplete(int surah);
+
+        void onError(int surah, int ayah, String message);
+    }
+
+    private static volatile Listener listener;
+    // getState için son durum: {surah, ayah, çalıyor (1/0)}
+    private static volatile int[] lastState = {0, 0, 0};
+
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+    private final AudioDownloader prefetcher = new AudioDownloader(1, 2);
+    private final int[] upcoming = new int[LOOKAHEAD];
+
+    private AudioCache cache;
+    private AudioManager audioManager;
+    private MediaSession session;
+    private RecitationQueue queue;
+    private String reciter = AudioDownloadService.DEFAULT_RECITER;
+    private String title;
+    private float speed = 1f;
+
+    private MediaPlayer current;
+    private MediaPlayer next;
+    private boolean nextPrepared;
+    private boolean playing;
+    private boolean resumeOnFocusGain;
+
+    static void setListener(Listener value) {
+        listener = value;
+    }
+
+    static int[] getState() {
+        return lastState.clone();
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        cache = AudioDownloadService.getCache(this);
+        audioManager = (AudioManager) getSystemService(Context.AUDIO_SERVICE);
+        createNotificationChannel();
+        session = new MediaSession(this, TAG);
+        session.setCallback(new MediaSession.Callback() {
+            @Override
+            public void onPlay() {
+                resume();
+            }
+
+            @Override
+            public void onPause() {
+                pause();
+            }
+
+            @Override
+            public void onSkipToNext() {
+                skip(true);
+            }
+
+            @Override
+            public void onSkipToPrevious() {
+                skip(false);
+            }
+
+            @Override
+            public void onStop() {
+                stopPlayback();
+            }
+        });
+        session.setActive(true);
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        String action = intent != null ? intent.getAction() : null;
+        if (ACTION_PLAY.equals(action)) {
+            // startForegroundService sözleşmesi: hemen ön plana geç
+            startForeground(buildNotification());
+            play(intent);
+        } else if (queue == null) {
+            // Oynatma yokken gelen kontrol (ör. süreç yeniden başlatıldı)
+            stopSelf(startId);
+        } else if (ACTION_PAUSE.equals(action)) {
+            pause();
+        } else if (ACTION_RESUME.equals(action)) {
+            resume();
+        } else if (ACTION_TOGGLE.equals(action)) {
+            if (playing) {
+                pause();
+            } else {
+                resume();
+            }
+        } else if (ACTION_NEXT.equals(action)) {
+            skip(true);
+        } else if (ACTION_PREVIOUS.equals(action)) {
+            skip(false);
+        } else if (ACTION_STOP.equals(action)) {
+            stopPlayback();
+        }
+        return START_NOT_STICKY;
+    }
+
+    private void play(Intent intent) {
+        releasePlayers();
+        int surah = intent.getIntExtra(EXTRA_SURAH, 1);
+        int from = intent.getIntExtra(EXTRA_FROM, 1);
+        try {
+            queue = new RecitationQueue(surah, from, intent.getIntExtra(EXTRA_TO, from),
+                    intent.getIntExtra(EXTRA_AYAH_REPEATS, 1), intent.getIntExtra(EXTRA_RANGE_REPEATS, 1));
+        } catch (IllegalArgumentException e) {
+            Log.e(TAG, e.getMessage());
+            stopPlayback();
+            return;
+        }
+        String requested = intent.getStringExtra(EXTRA_RECITER);
+        reciter = requested != null ? requested : AudioDownloadService.DEFAULT_RECITER;
+        title = intent.getStringExtra(EXTRA_TITLE);
+        speed = intent.getFloatExtra(EXTRA_SPEED, 1f);
+        requestFocus();
+        playing = true;
+        openCurrent();
+    }
+
+    /** Kuyruktaki ayetin oynatıcısını açar; açılamazsa oynatıcı hatasıyla aynı yoldan durur. */
+    private void openCurrent() {
+        int ayah = queue.current();
+        current = createPlayer(ayah);
+        if (current == null) {
+            fail(ayah);
+        }
+    }
+
+    private MediaPlayer createPlayer(int ayah) {
+        MediaPlayer player = new MediaPlayer();
+        player.setAudioAttributes(new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_MEDIA)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                .build());
+        player.setWakeMode(this, PowerManager.PARTIAL_WAKE_LOCK);
+        player.setOnPreparedListener(this::onPrepared);
+        player.setOnCompletionListener(this::onCompletion);
+        player.setOnErrorListener((mp, what, extra) -> onPlayerError(mp, ayah, what, extra));
+        try {
+            AudioPack pack = cache.getPack(reciter, queue.surah);
+            if (pack != null && pack.has(ayah)) {
+                // Paketteki bayt aralığı; tanımlayıcı setDataSource döner dönmez kapatılabilir
+                try (FileInputStream in = new FileInputStream(pack.file)) {
+                    player.setDataSource(in.getFD(), pack.offset(ayah), pack.length(ayah));
+                }
+            } else {
+                File file = cache.get(reciter, queue.surah, ayah);
+                player.setDataSource(file != null ? file.getAbsolutePath()
+                        : AudioDownloadService.ayahUrl(reciter, queue.surah, ayah));
+            }
+            player.prepareAsync();
+        } catch (IOException | IllegalStateException e) {
+            Log.e(TAG, "Ayet " + queue.surah + ":" + ayah + " açılamadı", e);
+            player.release();
+            return null;
+        }
+        return player;
+    }
+
+    private void onPrepared(MediaPlayer player) {
+        if (player == current) {
+            if (playing) {
+                startCurrent();
+            }
+        } else if (player == next) {
+            nextPrepared = true;
+            if (current != null) {
+                current.setNextMediaPlayer(next);
+            }
+        }
+    }
+
+    private void startCurrent() {
+        current.start();
+        applySpeed(current);
+        onAyahStarted();
+    }
+
+    /** Yeni ayet çalmaya başladı: olay, bildirim, sonraki ayetin hazırlığı. */
+    private void onAyahStarted() {
+        int ayah = queue.current();
+        publishState();
+        Listener target = listener;
+        if (target != null) {
+            target.onAyah(queue.surah, ayah);
+        }
+        prepareNext();
+        prefetchUpcoming();
+    }
+
+    private void prepareNext() {
+        releaseNext();
+        int ayah = queue.peekNext();
+        if (ayah > 0) {
+            next = createPlayer(ayah);
+        }
+    }
+
+    /** Akıştan çalınacak sonraki ayetleri önbelleğe indirir; dinleme bağlantıya takılmaz. */
+    private void prefetchUpcoming() {
+        int count = queue.upcomingAyahs(upcoming, LOOKAHEAD);
+        int surah = queue.surah;
+        String currentReciter = reciter;
+        for (int i = 0; i < count; i++) {
+            int ayah = upcoming[i];
+            if (cache.contains(currentReciter, surah, ayah)) {
+                continue;
+            }
+            prefetchExecutor.execute(() -> {
+                if (cache.contains(currentReciter, surah, ayah)) {
+                    return;
+                }
+                try {
+                    long[] sizeAndCrc = prefetcher.downloadFile(
+                            AudioDownloadService.ayahUrl(currentReciter, surah, ayah),
+                            cache.fileFor(currentReciter, surah, ayah));
+                    cache.put(currentReciter, surah, ayah, (int) sizeAndCrc[0], false);
+                } catch (IOException e) {
+                    Log.w(TAG, "Önceden alınamadı " + surah + ":" + ayah + ": " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void onCompletion(MediaPlayer player) {
+        if (player != current) {
+            return;
+        }
+        if (!queue.advance()) {
+            finish();
+            return;
+        }
+        boolean chained = next != null && nextPrepared;
+        current.release();
+        current = next;
+        next = null;
+        nextPrepared = false;
+        if (chained) {
+            // Çerçeve sıradaki oynatıcıyı boşluksuz başlattı
+            applySpeed(current);
+            onAyahStarted();
+        } else if (current == null) {
+            openCurrent();
+        }
+        // Hazırlanmamışsa onPrepared içinde başlar
+    }
+
+    private boolean onPlayerError(MediaPlayer player, int ayah, int what, int extra) {
+        Log.e(TAG, "Oynatıcı hatası " + queue.surah + ":" + ayah + " (" + what + ", " + extra + ")");
+        if (player == next) {
+            // Sıradaki ayet geçiş anında yeniden denenir
+            releaseNext();
+            return true;
+        }
+        fail(ayah);
+        return true;
+    }
+
+    /** Çalınan ayet yüklenemedi: JS'e hata bildirilir, servis ve bildirim kapanır. */
+    private void fail(int ayah) {
+        Listener target = listener;
+        if (target != null) {
+            target.onError(queue.surah, ayah, "Ses dosyası yüklenemedi");
+        }
+        stopPlayback();
+    }
+
+    private void pause() {
+        if (current == null || !playing) {
+            return;
+        }
+        playing = false;
+        if (current.isPlaying()) {
+            current.pause();
+        }
+        publishState();
+    }
+
+    private void resume() {
+        if (current == null || playing) {
+            return;
+        }
+        requestFocus();
+        playing = true;
+        try {
+            current.start();
+            applySpeed(current);
+        } catch (IllegalStateException e) {
+            // Henüz hazırlanıyor; onPrepared başlatır
+        }
+        publishState();
+    }
+
+    private void skip(boolean forward) {
+        if (queue == null) {
+            return;
+        }
+        if (forward) {
+            if (!queue.skipToNext()) {
+                finish();
+                return;
+            }
+        } else {
+            queue.skipToPrevious();
+        }
+        releasePlayers();
+        playing = true;
+        openCurrent();
+    }
+
+    private void finish() {
+        int surah = queue.surah;
+        stopPlayback();
+        Listener target = listener;
+        if (target != null) {
+            target.onComplete(surah);
+        }
+    }
+
+    private void stopPlayback() {
+        releasePlayers();
+        playing = false;
+        audioManager.abandonAudioFocus(this);
+        queue = null;
+        // surah 0: oynatma bitti (duraklatmadan ayırt etmek için)
+        publishState();
+        stopForeground(true);
+        stopSelf();
+    }
+
+    private void applySpeed(MediaPlayer player) {
+        if (speed != 1f) {
+            try {
+                player.setPlaybackParams(player.getPlaybackParams().setSpeed(speed));
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                Log.w(TAG, "Hız ayarlanamadı: " + e.getMessage());
+            }
+        }
+    }
+
+    private void releaseNext() {
+        if (next != null) {
+            next.release();
+            next = null;
+        }
+        nextPrepared = false;
+    }
+
+    private void releasePlayers() {
+        releaseNext();
+        if (current != null) {
+            current.release();
+            current = null;
+        }
+    }
+
+    private void requestFocus() {
+        audioManager.requestAudioFocus(this, AudioManager.STREAM_MUSIC, AudioManager.AUDIOFOCUS_GAIN);
+    }
+
+    @Override
+    public void onAudioFocusChange(int focusChange) {
+        if (focusChange == AudioManager.AUDIOFOCUS_LOSS) {
+            resumeOnFocusGain = false;
+            pause();
+        } else if (focusChange == AudioManager.AUDIOFOCUS_LOSS_TRANSIENT
+                || focusChange == AudioManager.AUDIOFOCUS_LOSS_TRANSIENT_CAN_DUCK) {
+            // Tilavet alçaltılarak dinlenmez; arama/bildirim bitince kaldığı yerden sürer
+            resumeOnFocusGain = playing;
+            pause();
+        } else if (focusChange == AudioManager.AUDIOFOCUS_GAIN && resumeOnFocusGain) {
+            resumeOnFocusGain = false;
+            resume();
+        }
+    }
+
+    /** Olay, MediaSession durumu ve bildirim tek yerden güncellenir. */
+    private void publishState() {
+        int surah = queue != null ? queue.surah : 0;
+        int ayah = queue != null ? queue.current() : 0;
+        lastState = new int[]{surah, ayah, playing ? 1 : 0};
+
+        session.setPlaybackState(new PlaybackState.Builder()
+                .setActions(PlaybackState.ACTION_PLAY | PlaybackState.ACTION_PAUSE
+                        | PlaybackState.ACTION_PLAY_PAUSE | PlaybackState.ACTION_SKIP_TO_NEXT
+                        | PlaybackState.ACTION_SKIP_TO_PREVIOUS | PlaybackState.ACTION_STOP)
+                .setState(playing ? PlaybackState.STATE_PLAYING : PlaybackState.STATE_PAUSED,
+                        PlaybackState.PLAYBACK_POSITION_UNKNOWN, playing ? speed : 0f)
+                .build());
+        if (queue != null) {
+            session.setMetadata(new MediaMetadata.Builder()
+                    .putString(MediaMetadata.METADATA_KEY_TITLE, contentTitle())
+                    .putString(MediaMetadata.METADATA_KEY_ARTIST, reciter.replace('_', ' '))
+                    .build());
+            NotificationManager manager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+            if (manager != null) {
+                manager.notify(NOTIFICATION_ID, buildNotification());
+            }
+        }
+
+        Listener target = listener;
+        if (target != null) {
+            target.onState(playing, surah, ayah);
+        }
+    }
+
+    private String contentTitle() {
+        String name = title != null && !title.isEmpty() ? title + " Suresi" : "Sure " + queue.surah;
+        return name + ", " + queue.current() + ". Ayet";
+    }
+
+    private Notification buildNotification() {
+        Notification.Builder builder = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                ? new Notification.Builder(this, CHANNEL_ID)
+                : new Notification.Builder(this);
+        PendingIntent open = PendingIntent.getActivity(this, 0,
+                new Intent(this, MainActivity.class).setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP),
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        return builder
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setContentTitle(queue != null ? contentTitle() : "Tilavet")
+                .setContentText(reciter.replace('_', ' '))
+                .setContentIntent(open)
+                .setDeleteIntent(controlIntent(ACTION_STOP, 4))
+                .setOngoing(playing)
+                .setShowWhen(false)
+                .setVisibility(Notification.VISIBILITY_PUBLIC)
+                .addAction(action(android.R.drawable.ic_media_previous, "Önceki", ACTION_PREVIOUS, 1))
+                .addAction(playing
+                        ? action(android.R.drawable.ic_media_pause, "Duraklat", ACTION_TOGGLE, 2)
+                        : action(android.R.drawable.ic_media_play, "Oynat", ACTION_TOGGLE, 2))
+                .addAction(action(android.R.drawable.ic_media_next, "Sonraki", ACTION_NEXT, 3))
+                .setStyle(new Notification.MediaStyle()
+                        .setMediaSession(session.getSessionToken())
+                        .setShowActionsInCompactView(0, 1, 2))
+                .build();
+    }
+
+    private Notification.Action action(int icon, String label, String action, int requestCode) {
+        return new Notification.Action.Builder(Icon.createWithResource(this, icon), label,
+                controlIntent(action, requestCode)).build();
+    }
+
+    private PendingIntent controlIntent(String action, int requestCode) {
+        return PendingIntent.getService(this, requestCode,
+                new Intent(this, RecitationService.class).setAction(action),
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    private void startForeground(Notification notification) {
+        ServiceCompat.startForeground(this, NOTIFICATION_ID, notification,
+                Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q ? ServiceInfo.FOREGROUND_SERVICE_TYPE_MEDIA_PLAYBACK : 0);
+    }
+
+    private void createNotificationChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                    CHANNEL_ID,
+                    CHANNEL_NAME,
+                    NotificationManager.IMPORTANCE_LOW
+            );
+            channel.setDescription("Tilavet oynatma kontrolleri");
+            channel.setShowBadge(false);
+            NotificationManager manager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+            if (manager != null) {
+                manager.createNotificationChannel(channel);
+            }
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        releasePlayers();
+        prefetcher.cancel();
+        // Dinlerken önbelleğe alınanlar indekse yazılır
+        prefetchExecutor.execute(() -> {
+            try {
+                cache.flush();
+            } catch (IOException e) {
+                Log.e(TAG, "Önbellek indeksi yazılamadı", e);
+            }
+        });
+        prefetchExecutor.shutdown();
+        audioManager.abandonAudioFocus(this);
+        session.release();
+        lastState = new int[]{0, 0, 0};
+        super.onDestroy();
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+}
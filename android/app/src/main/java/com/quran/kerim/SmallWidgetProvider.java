@@ -1,73 +1,58 @@
 package com.quran.kerim;
 
-import android.app.AlarmManager;
-import android.app.PendingIntent;
 import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
 import android.content.Context;
-import android.content.Intent;
-import android.os.SystemClock;
-import android.widget.RemoteViews;
+import android.util.SparseArray;
 
 public class SmallWidgetProvider extends AppWidgetProvider {
 
-    private static final String ACTION_AUTO_UPDATE = "com.quran.kerim.WIDGET_UPDATE";
-
     @Override
     public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
-        for (int appWidgetId : appWidgetIds) {
-            updateWidget(context, appWidgetManager, appWidgetId);
-        }
-        scheduleUpdates(context);
+        // Sistem tam içerik bekliyor; çizim arka planda, aynı anda gelen isteklerle birlikte
+        WidgetRenderer.invalidate(appWidgetIds);
+        WidgetWork.requestRefresh(context, goAsync());
     }
 
     @Override
-    public void onReceive(Context context, Intent intent) {
-        super.onReceive(context, intent);
-        if (ACTION_AUTO_UPDATE.equals(intent.getAction())) {
-            AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
-            int[] ids = appWidgetManager.getAppWidgetIds(
-                new android.content.ComponentName(context, SmallWidgetProvider.class));
-            for (int id : ids) {
-                updateWidget(context, appWidgetManager, id);
-            }
-        }
+    public void onDeleted(Context context, int[] appWidgetIds) {
+        super.onDeleted(context, appWidgetIds);
+        WidgetRenderer.invalidate(appWidgetIds);
+        Context app = context.getApplicationContext();
+        WidgetWork.run(this, () -> PrayerWidgetProvider.clearWidgetLocations(app, appWidgetIds));
     }
 
     @Override
     public void onDisabled(Context context) {
         super.onDisabled(context);
-        cancelUpdates(context);
-    }
-
-    static void updateWidget(Context context, AppWidgetManager appWidgetManager, int appWidgetId) {
-        String[] nextPrayer = PrayerWidgetProvider.getNextPrayerData(context);
-        
-        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_small);
-        views.setTextViewText(R.id.widget_prayer_name, nextPrayer[0]);
-        views.setTextViewText(R.id.widget_prayer_time, nextPrayer[1]);
-        views.setTextViewText(R.id.widget_remaining_time, nextPrayer[2]);
-        
-        appWidgetManager.updateAppWidget(appWidgetId, views);
+        Context app = context.getApplicationContext();
+        WidgetWork.run(this, () -> WidgetUpdateReceiver.scheduleNext(app));
     }
 
-    private void scheduleUpdates(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(context, SmallWidgetProvider.class);
-        intent.setAction(ACTION_AUTO_UPDATE);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, 0, intent, 
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-
-        alarmManager.setRepeating(AlarmManager.ELAPSED_REALTIME,
-            SystemClock.elapsedRealtime() + 60000, 60000, pendingIntent);
-    }
+    static void updateWidgets(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        if (appWidgetIds.length == 0) {
+            return;
+        }
+        // Aynı konumu gösteren widget'lar tek çizimle güncellenir
+        SparseArray<int[]> groups = PrayerWidgetProvider.groupByLocation(context, appWidgetIds);
+        for (int g = 0; g < groups.size(); g++) {
+            PrayerSchedule schedule = PrayerWidgetProvider.getSchedule(context, groups.keyAt(g));
+            int minute = schedule.minuteOf(System.currentTimeMillis());
+            String[] nextPrayer = schedule.describeNext(minute);
+            String label = PrayerWidgetProvider.getWidgetLocationLabel(context, groups.keyAt(g));
+
+            WidgetRenderer.Frame frame = new WidgetRenderer.Frame(R.layout.widget_small, 3)
+                .text(R.id.widget_prayer_name, nextPrayer[0])
+                .text(R.id.widget_prayer_time, nextPrayer[1]);
+            if (WidgetRenderer.SYSTEM_COUNTDOWN) {
+                // Saniyeleri sistem sayar; widget yalnızca vakit geçişinde yeniden çizilir
+                frame.countdown(R.id.widget_remaining_time, schedule.millisOf(schedule.nextIndex(minute)),
+                    label != null ? label.replace("%", "%%") + " · %s" : "%s");
+            } else {
+                frame.text(R.id.widget_remaining_time, label != null ? label + " · " + nextPrayer[2] : nextPrayer[2]);
+            }
 
-    private void cancelUpdates(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(context, SmallWidgetProvider.class);
-        intent.setAction(ACTION_AUTO_UPDATE);
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, 0, intent,
-            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-        alarmManager.cancel(pendingIntent);
+            WidgetRenderer.render(context, appWidgetManager, groups.valueAt(g), frame);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.quran.kerim;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Ana sayfanın ilk çizimi için küçük veri özeti: bugünün vakitleri, Hicri tarih ve
+ * son okunan sure. Sıradaki vakit JS'te getNextPrayer ile vakitlerden türetilir
+ * (Güneş atlanır, Fajr kullanılır); yerel ve ağ yolu aynı kuralı izler. MainActivity.onCreate'in başında, WebView
+ * oluşturulurken arka planda yalnızca yerel veriden hazırlanır; JS ilk çizimden önce
+ * window.Android.getStartupSnapshot() ile eşzamanlı okur.
+ *
+ * Açılış ölçümleri "Startup" etiketiyle logcat'e yazılır (onCreate'ten itibaren ms).
+ */
+final class StartupSnapshot {
+
+    private static final String TAG = "Startup";
+    // JS bu süreden fazla beklemez; özet hazır değilse eski yola düşer
+    private static final long WAIT_MS = 300;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static volatile long startUptime = SystemClock.uptimeMillis();
+    private static volatile Future<String> pending;
+
+    private StartupSnapshot() {
+    }
+
+    /** Ölçümü başlatır ve özeti arka planda hazırlamaya başlar. */
+    static void prepare(Context context) {
+        startUptime = SystemClock.uptimeMillis();
+        Context app = context.getApplicationContext();
+        pending = executor.submit(() -> {
+            String json = build(app).toString();
+            mark("snapshotReady");
+            return json;
+        });
+    }
+
+    /** Hazır özet (JSON) ya da hazırlanamadıysa null. Bir kez verilir. */
+    static String take() {
+        Future<String> future = pending;
+        pending = null;
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            Log.w(TAG, "Özet hazır değil: " + e);
+            future.cancel(true);
+            return null;
+        }
+    }
+
+    static void mark(String name) {
+        Log.i(TAG, name + " +" + (SystemClock.uptimeMillis() - startUptime) + "ms");
+    }
+
+    private static JSONObject build(Context context) throws JSONException {
+        JSONObject snapshot = new JSONObject();
+        long now = System.currentTimeMillis();
+        PrayerSchedule schedule = PrayerWidgetProvider.getSchedule(context);
+        snapshot.put("date", new SimpleDateFormat("dd-MM-yyyy", Locale.US).format(new Date(now)));
+
+        if (PrayerWidgetProvider.hasPrayerData(context)) {
+            // Aladhan anahtarları: JS vakitleri API yanıtı gibi kullanır
+            JSONObject timings = new JSONObject();
+            // İmsak sütununda yöntemin İmsak farkı uygulanmıştır; Fajr PrayerTimesPlugin'deki gibi geri eklenir
+            // (tablo yoksa vakitler JS'ten gelir ve fark bilinmez)
+            PrayerTimetable timetable = PrayerWidgetProvider.getTimetable(context);
+            int imsakMinutes = timetable != null ? PrayerTimeCalculator.method(timetable.method).imsakMinutes : 0;
+            int imsak = schedule.wallTime(PrayerTimeCalculator.IMSAK);
+            timings.put("Imsak", PrayerTimeCalculator.formatMinutes(imsak));
+            timings.put("Fajr", PrayerTimeCalculator.formatMinutes((imsak + imsakMinutes) % 1440));
+            timings.put("Sunrise", PrayerTimeCalculator.formatMinutes(schedule.wallTime(PrayerTimeCalculator.GUNES)));
+            timings.put("Dhuhr", PrayerTimeCalculator.formatMinutes(schedule.wallTime(PrayerTimeCalculator.OGLE)));
+            timings.put("Asr", PrayerTimeCalculator.formatMinutes(schedule.wallTime(PrayerTimeCalculator.IKINDI)));
+            timings.put("Maghrib", PrayerTimeCalculator.formatMinutes(schedule.wallTime(PrayerTimeCalculator.AKSAM)));
+            timings.put("Isha", PrayerTimeCalculator.formatMinutes(schedule.wallTime(PrayerTimeCalculator.YATSI)));
+            snapshot.put("timings", timings);
+            snapshot.put("location", PrayerWidgetProvider.getLocationName(context));
+        }
+
+        HijriDate hijri = HijriDate.fromEpochDay(schedule.getEpochDay());
+        JSONObject hijriDate = new JSONObject();
+        hijriDate.put("day", hijri.day);
+        hijriDate.put("month", hijri.month);
+        hijriDate.put("year", hijri.year);
+        hijriDate.put("text", hijri.toString());
+        snapshot.put("hijri", hijriDate);
+
+        try {
+            UserDataStore.Record lastRead = UserDataPlugin.getStore(context)
+                    .get(UserDataStore.KIND_LAST_READ, 0, 0);
+            if (lastRead != null) {
+                snapshot.put("lastRead", new JSONObject(lastRead.json));
+            }
+        } catch (Exception e) {
+            // Son okunan yer yalnızca kısayoldur; okunamazsa özet yine verilir
+            Log.w(TAG, "Son okunan yer okunamadı: " + e.getMessage());
+        }
+        return snapshot;
+    }
+}
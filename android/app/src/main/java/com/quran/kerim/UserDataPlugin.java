@@ -0,0 +1,218 @@
+package com.quran.kerim;
+
+import android.content.Context;
+import android.util.Log;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Yer imleri, notlar ve ayarlar için yerel kayıt deposu (UserDataStore).
+ * Her ekleme/silme tek kayıtlık atomik bir yazmadır; tüm liste yeniden yazılmaz.
+ * Tür adları: "bookmark", "note", "settings" (settings için sure/ayet 0).
+ */
+@CapacitorPlugin(name = "UserData")
+public class UserDataPlugin extends Plugin {
+
+    private static final String TAG = "UserDataPlugin";
+    private static final String STORE_FILE = "user_data.log";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static UserDataStore store;
+
+    /** Açılışta tüm kayıtlar: { bookmarks: [...], notes: [...], settings: {...} | yok } */
+    @PluginMethod
+    public void load(PluginCall call) {
+        try {
+            UserDataStore current = getStore(getContext());
+            JSObject ret = new JSObject();
+            ret.put("bookmarks", toArray(current.all(UserDataStore.KIND_BOOKMARK)));
+            ret.put("notes", toArray(current.all(UserDataStore.KIND_NOTE)));
+            UserDataStore.Record settings = current.get(UserDataStore.KIND_SETTINGS, 0, 0);
+            if (settings != null) {
+                ret.put("settings", new JSObject(settings.json));
+            }
+            call.resolve(ret);
+        } catch (IOException | JSONException e) {
+            Log.e(TAG, "Kullanıcı verisi okunamadı", e);
+            call.reject("Kullanıcı verisi okunamadı: " + e.getMessage());
+        }
+    }
+
+    /** Parametreler: kind, surah, ayah, category, data. */
+    @PluginMethod
+    public void put(PluginCall call) {
+        int kind = kind(call.getString("kind"));
+        JSObject data = call.getObject("data");
+        if (kind == 0 || data == null) {
+            call.reject("kind ve data gerekli");
+            return;
+        }
+        try {
+            getStore(getContext()).put(kind, call.getInt("surah", 0), call.getInt("ayah", 0),
+                    call.getString("category"), data.toString());
+            call.resolve();
+        } catch (IOException | IllegalArgumentException e) {
+            Log.e(TAG, "Kayıt yazılamadı", e);
+            call.reject("Kayıt yazılamadı: " + e.getMessage());
+        }
+    }
+
+    /** Parametreler: kind, surah, ayah. */
+    @PluginMethod
+    public void remove(PluginCall call) {
+        int kind = kind(call.getString("kind"));
+        if (kind == 0) {
+            call.reject("kind gerekli");
+            return;
+        }
+        try {
+            JSObject ret = new JSObject();
+            ret.put("removed", getStore(getContext()).delete(kind, call.getInt("surah", 0), call.getInt("ayah", 0)));
+            call.resolve(ret);
+        } catch (IOException e) {
+            Log.e(TAG, "Kayıt silinemedi", e);
+            call.reject("Kayıt silinemedi: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parametreler: kind, category (tümü için yok), surah (0 = tümü), offset, limit.
+     * Sonuç: { total, records: [...] } (sure ve ayet sırasıyla)
+     */
+    @PluginMethod
+    public void query(PluginCall call) {
+        int kind = kind(call.getString("kind"));
+        if (kind == 0) {
+            call.reject("kind gerekli");
+            return;
+        }
+        try {
+            UserDataStore current = getStore(getContext());
+            String category = call.getString("category");
+            int surah = call.getInt("surah", 0);
+            List<UserDataStore.Record> page = current.query(kind, category, surah,
+                    Math.max(0, call.getInt("offset", 0)), Math.max(1, call.getInt("limit", DEFAULT_PAGE_SIZE)));
+            JSObject ret = new JSObject();
+            ret.put("total", surah > 0 ? current.query(kind, category, surah, 0, Integer.MAX_VALUE).size()
+                    : current.count(kind, category));
+            ret.put("records", toArray(page));
+            call.resolve(ret);
+        } catch (IOException | JSONException e) {
+            call.reject("Sorgu başarısız: " + e.getMessage());
+        }
+    }
+
+    /** Parametreler: kind. Sonuç: { total, byCategory: { kategori: sayı } } */
+    @PluginMethod
+    public void stats(PluginCall call) {
+        int kind = kind(call.getString("kind"));
+        try {
+            UserDataStore current = getStore(getContext());
+            JSObject byCategory = new JSObject();
+            for (Map.Entry<String, Integer> entry : current.categoryCounts(kind).entrySet()) {
+                byCategory.put(entry.getKey(), entry.getValue());
+            }
+            JSObject ret = new JSObject();
+            ret.put("total", current.count(kind, null));
+            ret.put("byCategory", byCategory);
+            call.resolve(ret);
+        } catch (IOException e) {
+            call.reject("İstatistik alınamadı: " + e.getMessage());
+        }
+    }
+
+    /**
+     * localStorage'dan tek seferlik taşıma. Parametreler: bookmarks, notes (dizi), settings (nesne).
+     * Aynı ayet için var olan kayıtların yerine yazar. Tek anlık görüntüyle yazılır: başarısız
+     * taşıma depoyu boş bırakır, JS sonraki açılışta yeniden dener.
+     */
+    @PluginMethod
+    public void importAll(PluginCall call) {
+        try {
+            List<UserDataStore.Record> records = new ArrayList<>();
+            addRecords(records, UserDataStore.KIND_BOOKMARK, call.getArray("bookmarks"));
+            addRecords(records, UserDataStore.KIND_NOTE, call.getArray("notes"));
+            JSObject settings = call.getObject("settings");
+            if (settings != null) {
+                records.add(UserDataStore.newRecord(UserDataStore.KIND_SETTINGS, 0, 0, null, settings.toString()));
+            }
+            getStore(getContext()).putAll(records);
+            JSObject ret = new JSObject();
+            ret.put("imported", records.size());
+            call.resolve(ret);
+        } catch (Exception e) {
+            Log.e(TAG, "Taşıma başarısız", e);
+            call.reject("Taşıma başarısız: " + e.getMessage());
+        }
+    }
+
+    private static void addRecords(List<UserDataStore.Record> out, int kind, JSArray records)
+            throws JSONException {
+        if (records == null) {
+            return;
+        }
+        for (int i = 0; i < records.length(); i++) {
+            JSONObject record = records.getJSONObject(i);
+            int surah = record.optInt("surahNumber");
+            int ayah = record.optInt("ayahNumber");
+            if (surah < 1 || surah > QuranCorpus.SURAH_COUNT || ayah < 1) {
+                continue;
+            }
+            out.add(UserDataStore.newRecord(kind, surah, ayah, kind == UserDataStore.KIND_BOOKMARK
+                    ? record.optString("category", "genel") : null, record.toString()));
+        }
+    }
+
+    private static int kind(String name) {
+        if ("bookmark".equals(name)) {
+            return UserDataStore.KIND_BOOKMARK;
+        } else if ("note".equals(name)) {
+            return UserDataStore.KIND_NOTE;
+        } else if ("settings".equals(name)) {
+            return UserDataStore.KIND_SETTINGS;
+        } else if ("lastRead".equals(name)) {
+            return UserDataStore.KIND_LAST_READ;
+        }
+        return 0;
+    }
+
+    private static JSArray toArray(List<UserDataStore.Record> records) throws JSONException {
+        JSArray array = new JSArray();
+        for (UserDataStore.Record record : records) {
+            array.put(new JSObject(record.json));
+        }
+        return array;
+    }
+
+    static synchronized UserDataStore getStore(Context context) throws IOException {
+        if (store == null) {
+            File file = new File(context.getFilesDir(), STORE_FILE);
+            try {
+                store = UserDataStore.open(file);
+            } catch (IOException e) {
+                // Yalnızca başlığı tanınmayan dosya kenara alınır; geçici G/Ç hataları veriyi silmez
+                if (UserDataStore.hasValidHeader(file)) {
+                    throw e;
+                }
+                File corrupt = new File(file.getPath() + ".corrupt");
+                if (!file.renameTo(corrupt)) {
+                    throw new IOException("Bozuk depo kenara alınamadı: " + file, e);
+                }
+                Log.e(TAG, "Depo başlığı tanınmadı, " + corrupt.getName() + " olarak yedeklendi: " + e.getMessage());
+                store = UserDataStore.open(file);
+            }
+        }
+        return store;
+    }
+}
@@ -0,0 +1,73 @@
+package com.quran.kerim;
+
+import android.app.Activity;
+import android.appwidget.AppWidgetManager;
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.ArrayAdapter;
+import android.widget.ListView;
+import java.util.List;
+
+/**
+ * Widget yapılandırma ekranı: widget'ın hangi konumun vakitlerini göstereceği seçilir.
+ * Widget eklenirken ve (Android 12+) widget'a uzun basıp yeniden yapılandırırken açılır.
+ * Kayıtlı konum yoksa seçim sorulmadan uygulamanın konumu kullanılır.
+ */
+public class WidgetLocationActivity extends Activity {
+
+    private int appWidgetId = AppWidgetManager.INVALID_APPWIDGET_ID;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        // Geri tuşuyla çıkılırsa widget eklenmez
+        setResult(RESULT_CANCELED);
+
+        Bundle extras = getIntent().getExtras();
+        if (extras != null) {
+            appWidgetId = extras.getInt(AppWidgetManager.EXTRA_APPWIDGET_ID, AppWidgetManager.INVALID_APPWIDGET_ID);
+        }
+        if (appWidgetId == AppWidgetManager.INVALID_APPWIDGET_ID) {
+            finish();
+            return;
+        }
+
+        List<SavedLocations.Location> locations = PrayerWidgetProvider.getSavedLocations(this).all();
+        if (locations.isEmpty()) {
+            select(SavedLocations.PRIMARY);
+            return;
+        }
+
+        String[] names = new String[locations.size() + 1];
+        int[] ids = new int[names.length];
+        names[0] = PrayerWidgetProvider.getLocationName(this) + " (uygulamadaki konum)";
+        ids[0] = SavedLocations.PRIMARY;
+        for (int i = 0; i < locations.size(); i++) {
+            names[i + 1] = locations.get(i).name;
+            ids[i + 1] = locations.get(i).id;
+        }
+
+        setTitle("Widget konumu");
+        ListView list = new ListView(this);
+        list.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_list_item_single_choice, names));
+        list.setChoiceMode(ListView.CHOICE_MODE_SINGLE);
+        int current = PrayerWidgetProvider.getWidgetLocation(this, appWidgetId);
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == current) {
+                list.setItemChecked(i, true);
+            }
+        }
+        list.setOnItemClickListener((parent, view, position, id) -> select(ids[position]));
+        setContentView(list);
+    }
+
+    private void select(int locationId) {
+        PrayerWidgetProvider.setWidgetLocation(this, appWidgetId, locationId);
+        // Konumun tablosu hazır: widget ağ beklemeden hemen çizilir
+        WidgetRenderer.invalidate(new int[] {appWidgetId});
+        WidgetWork.requestRefresh(this);
+
+        setResult(RESULT_OK, new Intent().putExtra(AppWidgetManager.EXTRA_APPWIDGET_ID, appWidgetId));
+        finish();
+    }
+}
@@ -0,0 +1,257 @@
+package com.quran.kerim;
+
+import android.appwidget.AppWidgetManager;
+import android.content.Context;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.SparseArray;
+import android.widget.RemoteViews;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Widget'lar için önbellekli çizim katmanı.
+ *
+ * Her appWidgetId için son gönderilen içerik (Frame) saklanır. Yeni içerik
+ * geldiğinde yalnızca değişen alanlar partiallyUpdateAppWidget ile gönderilir;
+ * aynı içeriğe sahip tüm id'ler tek bir çağrıda toplanır. Önbellekte olmayan
+ * id'ler (ilk çizim, süreç yeniden başlaması, sistem onUpdate'i) tam
+ * RemoteViews alır.
+ *
+ * Geri sayım (Chronometer) ve tarih (TextClock) sistem tarafından çizilir; frame
+ * yalnızca hedef anı ve biçimi taşır, bu yüzden saniyeler akarken frame değişmez.
+ * Chronometer tabanı çizim anındaki saat farkından hesaplandığından saat elle
+ * değiştirilince önbellek {@link #invalidateAll} ile düşürülür.
+ */
+final class WidgetRenderer {
+
+    /** Geri sayan Chronometer (API 24+). Altında geri sayım metindir ve dakikalık alarmla güncellenir. */
+    static final boolean SYSTEM_COUNTDOWN = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N;
+
+    private static final String COUNTDOWN = "countdown";
+    private static final String CLOCK_FORMAT = "clockFormat";
+    private static final String DATE_PATTERN = "dd MMMM";
+
+    private static final SparseArray<Frame> lastFrames = new SparseArray<>();
+
+    private WidgetRenderer() {
+    }
+
+    /** Chronometer'ın hedefi: {@code targetMillis} anına geri sayar, {@code format} içinde "%s". */
+    private static final class Countdown {
+        final long targetMillis;
+        final String format;
+
+        Countdown(long targetMillis, String format) {
+            this.targetMillis = targetMillis;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Countdown)) {
+                return false;
+            }
+            Countdown other = (Countdown) o;
+            return other.targetMillis == targetMillis && other.format.equals(format);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (targetMillis ^ (targetMillis >>> 32)) + format.hashCode();
+        }
+    }
+
+    /** Bir widget'ın görünen içeriği: sabit sırada metin, int (renk), geri sayım ve saat alanları. */
+    static final class Frame {
+        private final int layoutId;
+        private final int[] viewIds;
+        private final String[] methods; // null = metin
+        private final Object[] values;
+        private int size;
+
+        Frame(int layoutId, int capacity) {
+            this.layoutId = layoutId;
+            this.viewIds = new int[capacity];
+            this.methods = new String[capacity];
+            this.values = new Object[capacity];
+        }
+
+        Frame text(int viewId, CharSequence text) {
+            return add(viewId, null, text.toString());
+        }
+
+        /** Yalnızca {@link #SYSTEM_COUNTDOWN} iken; taban (elapsedRealtime) çizim anında hesaplanır. */
+        Frame countdown(int viewId, long targetMillis, String format) {
+            return add(viewId, COUNTDOWN, new Countdown(targetMillis, format));
+        }
+
+        /** TextClock biçimi (12 ve 24 saat için aynı). */
+        Frame clockFormat(int viewId, String pattern) {
+            return add(viewId, CLOCK_FORMAT, pattern);
+        }
+
+        /** Örn. "setBackgroundColor", "setTextColor". */
+        Frame setInt(int viewId, String method, int value) {
+            return add(viewId, method, value);
+        }
+
+        private Frame add(int viewId, String method, Object value) {
+            viewIds[size] = viewId;
+            methods[size] = method;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        private boolean sameShape(Frame other) {
+            if (other == null || other.layoutId != layoutId || other.size != size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (other.viewIds[i] != viewIds[i] || !equal(other.methods[i], methods[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean equal(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+
+        /** {@code previous} ile farklı olan alanların maskesi; şekil farklıysa null. */
+        private boolean[] diff(Frame previous) {
+            if (!sameShape(previous)) {
+                return null;
+            }
+            boolean[] changed = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                changed[i] = !values[i].equals(previous.values[i]);
+            }
+            return changed;
+        }
+
+        private RemoteViews toRemoteViews(String packageName, boolean[] onlyChanged) {
+            RemoteViews views = new RemoteViews(packageName, layoutId);
+            for (int i = 0; i < size; i++) {
+                if (onlyChanged != null && !onlyChanged[i]) {
+                    continue;
+                }
+                if (methods[i] == null) {
+                    views.setTextViewText(viewIds[i], (String) values[i]);
+                } else if (COUNTDOWN.equals(methods[i])) {
+                    Countdown countdown = (Countdown) values[i];
+                    long base = SystemClock.elapsedRealtime() + countdown.targetMillis - System.currentTimeMillis();
+                    views.setChronometer(viewIds[i], base, countdown.format, true);
+                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                        views.setChronometerCountDown(viewIds[i], true);
+                    }
+                } else if (CLOCK_FORMAT.equals(methods[i])) {
+                    views.setCharSequence(viewIds[i], "setFormat12Hour", (String) values[i]);
+                    views.setCharSequence(viewIds[i], "setFormat24Hour", (String) values[i]);
+                } else {
+                    views.setInt(viewIds[i], methods[i], (Integer) values[i]);
+                }
+            }
+            return views;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Frame)) {
+                return false;
+            }
+            Frame other = (Frame) o;
+            if (!sameShape(other)) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!values[i].equals(other.values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * layoutId + Arrays.hashCode(Arrays.copyOf(values, size));
+        }
+    }
+
+    /**
+     * {@code frame}'i verilen tüm id'lere uygular. Aynı önceki içeriğe sahip
+     * id'ler tek bir kısmi güncellemede, önbellekte olmayanlar tek bir tam
+     * güncellemede toplanır.
+     */
+    static void render(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds, Frame frame) {
+        if (appWidgetIds.length == 0) {
+            return;
+        }
+        String packageName = context.getPackageName();
+        List<Integer> fullIds = new ArrayList<>();
+        List<Frame> previousFrames = new ArrayList<>();
+        List<List<Integer>> partialGroups = new ArrayList<>();
+
+        synchronized (lastFrames) {
+            for (int id : appWidgetIds) {
+                Frame previous = lastFrames.get(id);
+                if (frame.equals(previous)) {
+                    continue;
+                }
+                if (!frame.sameShape(previous)) {
+                    fullIds.add(id);
+                } else {
+                    int group = previousFrames.indexOf(previous);
+                    if (group < 0) {
+                        previousFrames.add(previous);
+                        partialGroups.add(new ArrayList<Integer>());
+                        group = previousFrames.size() - 1;
+                    }
+                    partialGroups.get(group).add(id);
+                }
+                lastFrames.put(id, frame);
+            }
+        }
+
+        if (!fullIds.isEmpty()) {
+            appWidgetManager.updateAppWidget(toArray(fullIds), frame.toRemoteViews(packageName, null));
+        }
+        for (int i = 0; i < partialGroups.size(); i++) {
+            boolean[] changed = frame.diff(previousFrames.get(i));
+            appWidgetManager.partiallyUpdateAppWidget(toArray(partialGroups.get(i)),
+                    frame.toRemoteViews(packageName, changed));
+        }
+    }
+
+    /** "26 Ekim" ya da konum etiketiyle "Ev · 26 Ekim"; etiket TextClock için tırnaklanır. */
+    static String datePattern(String label) {
+        return label == null ? DATE_PATTERN : "'" + label.replace("'", "''") + " · '" + DATE_PATTERN;
+    }
+
+    /** Sistem bu id'ler için tam içerik istediğinde (onUpdate) önbelleği düşürür. */
+    static void invalidate(int[] appWidgetIds) {
+        synchronized (lastFrames) {
+            for (int id : appWidgetIds) {
+                lastFrames.remove(id);
+            }
+        }
+    }
+
+    /** Saat elle değiştiğinde: aynı frame'ler de yeniden çizilir, geri sayım tabanı düzelir. */
+    static void invalidateAll() {
+        synchronized (lastFrames) {
+            lastFrames.clear();
+        }
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        int[] out = new int[ids.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = ids.get(i);
+        }
+        return out;
+    }
+}
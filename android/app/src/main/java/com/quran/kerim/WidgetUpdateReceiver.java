@@ -0,0 +1,192 @@
+package com.quran.kerim;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.content.BroadcastReceiver;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.util.Log;
+import android.util.SparseArray;
+import java.util.TimeZone;
+
+/**
+ * Tüm widget'lar ve kalıcı bildirim için tek, ortak zamanlayıcı.
+ *
+ * Her sınıfın kendi 60 saniyelik alarmı yerine, görünen içeriğin bir sonraki
+ * değişeceği ana tek bir uyandırmasız (RTC) alarm kurulur ve geldiğinde tüm
+ * yüzeyler birlikte güncellenir. Geri sayım ve tarih sistem tarafından çizildiği
+ * için (API 24+) bu an yalnızca vakit geçişleri ve gece yarısıdır.
+ */
+public class WidgetUpdateReceiver extends BroadcastReceiver {
+
+    private static final String TAG = "WidgetUpdateReceiver";
+    static final String ACTION_REFRESH = "com.quran.kerim.WIDGET_REFRESH";
+    private static final int REQUEST_CODE = 2001;
+    // Ölçüm için: alarmın kurulduğu an (gecikme = teslim - kurulan)
+    private static final String EXTRA_TRIGGER_AT = "triggerAt";
+
+    private static final String PREFS_NAME = "widget_prefs";
+    private static final String KEY_LEGACY_CLEARED = "legacy_alarms_cleared";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (ACTION_REFRESH.equals(action)) {
+            Metrics.count(Metrics.WIDGET_WAKEUP);
+            long triggerAt = intent.getLongExtra(EXTRA_TRIGGER_AT, 0);
+            if (triggerAt > 0) {
+                Metrics.record(Metrics.WIDGET_WAKEUP_LATENESS_MS, System.currentTimeMillis() - triggerAt);
+            }
+        }
+        if (Intent.ACTION_TIME_SET.equals(action)) {
+            // Hedef an aynı kalsa da Chronometer tabanı (elapsedRealtime) kaydı
+            WidgetRenderer.invalidateAll();
+        }
+        Context app = context.getApplicationContext();
+        if (!Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
+            WidgetWork.requestRefresh(app, goAsync());
+            WidgetWork.execute(() -> MetricsPlugin.flushIfDue(app));
+            return;
+        }
+        WidgetWork.run(this, () -> {
+            // Tablo eski saat dilimiyle üretilmişse yeniden üret
+            PrayerTimetable timetable = PrayerWidgetProvider.getTimetable(app);
+            if (timetable != null) {
+                PrayerWidgetProvider.updateLocation(app, timetable.latitude, timetable.longitude,
+                        timetable.method, timetable.school);
+            }
+            PrayerWidgetProvider.refreshSavedLocations(app);
+            // Yenileme yeni tablodan sonra kuyruğa girer
+            WidgetWork.requestRefresh(app);
+            MetricsPlugin.flushIfDue(app);
+        });
+    }
+
+    /**
+     * Tüm widget sınıflarını ve çalışıyorsa bildirimi günceller, sonra bir sonraki alarmı kurar.
+     * Yalnızca {@link WidgetWork} iş parçacığında çağrılır; diğer yerler
+     * {@link WidgetWork#requestRefresh} kullanır.
+     */
+    static void refreshAll(Context context) {
+        long started = Metrics.start();
+        Metrics.count(Metrics.WIDGET_REFRESH);
+        AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
+
+        SmallWidgetProvider.updateWidgets(context, appWidgetManager,
+                getIds(context, appWidgetManager, SmallWidgetProvider.class));
+        MediumWidgetProvider.updateWidgets(context, appWidgetManager,
+                getIds(context, appWidgetManager, MediumWidgetProvider.class));
+        LargeWidgetProvider.updateWidgets(context, appWidgetManager,
+                getIds(context, appWidgetManager, LargeWidgetProvider.class));
+        if (OngoingNotificationService.isRunning()) {
+            context.startService(new Intent(context, OngoingNotificationService.class));
+        }
+        Metrics.stop(Metrics.WIDGET_REFRESH_MS, started);
+
+        scheduleNext(context);
+    }
+
+    /**
+     * Bir sonraki görünür değişikliğe alarm kurar. Hiçbir widget yoksa ve bildirim
+     * kapalıysa alarmı iptal eder.
+     */
+    static void scheduleNext(Context context) {
+        clearLegacyAlarms(context);
+
+        AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
+        int[] smallIds = getIds(context, appWidgetManager, SmallWidgetProvider.class);
+        int[] mediumIds = getIds(context, appWidgetManager, MediumWidgetProvider.class);
+        int[] largeIds = getIds(context, appWidgetManager, LargeWidgetProvider.class);
+        // API 24+ geri sayımı Chronometer çizer; dakikalık uyanma yalnızca metin geri sayımda gerekir
+        boolean countdownVisible = !WidgetRenderer.SYSTEM_COUNTDOWN
+                && (smallIds.length > 0 || largeIds.length > 0);
+        boolean anyVisible = smallIds.length > 0
+                || mediumIds.length > 0
+                || largeIds.length > 0
+                || OngoingNotificationService.isRunning();
+
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (!anyVisible) {
+            alarmManager.cancel(getPendingIntent(context, 0));
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int[] today = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        PrayerWidgetProvider.getPrayerMinutes(context, 0, today);
+        long triggerAt = WidgetRefreshPlanner.nextRefresh(now, TimeZone.getDefault(), today, countdownVisible);
+        if (!countdownVisible) {
+            // Başka bir konumu gösteren widget'ların vakit geçişleri de beklenir
+            SparseArray<int[]> groups = PrayerWidgetProvider.groupByLocation(context,
+                    concat(smallIds, mediumIds, largeIds));
+            for (int g = 0; g < groups.size(); g++) {
+                if (groups.keyAt(g) == SavedLocations.PRIMARY) {
+                    continue;
+                }
+                PrayerSchedule schedule = PrayerWidgetProvider.getSchedule(context, groups.keyAt(g));
+                for (int i = 0; i < today.length; i++) {
+                    today[i] = schedule.wallTime(i);
+                }
+                triggerAt = Math.min(triggerAt,
+                        WidgetRefreshPlanner.nextRefresh(now, TimeZone.getDefault(), today, false));
+            }
+        }
+        PendingIntent pendingIntent = getPendingIntent(context, triggerAt);
+
+        // RTC (uyandırmasız): ekran kapalıyken widget güncellemek anlamsız,
+        // cihaz uyandığında bekleyen alarm hemen teslim edilir
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+            alarmManager.set(AlarmManager.RTC, triggerAt, pendingIntent);
+        } else {
+            alarmManager.setExact(AlarmManager.RTC, triggerAt, pendingIntent);
+        }
+        Log.d(TAG, "Next refresh in " + (triggerAt - System.currentTimeMillis()) / 1000 + "s");
+    }
+
+    private static int[] concat(int[] a, int[] b, int[] c) {
+        int[] out = new int[a.length + b.length + c.length];
+        System.arraycopy(a, 0, out, 0, a.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        System.arraycopy(c, 0, out, a.length + b.length, c.length);
+        return out;
+    }
+
+    private static int[] getIds(Context context, AppWidgetManager appWidgetManager, Class<?> provider) {
+        return appWidgetManager.getAppWidgetIds(new ComponentName(context, provider));
+    }
+
+    /** İptal için {@code triggerAt} 0 olabilir; PendingIntent eşitliğine ekstralar girmez. */
+    private static PendingIntent getPendingIntent(Context context, long triggerAt) {
+        Intent intent = new Intent(context, WidgetUpdateReceiver.class);
+        intent.setAction(ACTION_REFRESH);
+        intent.putExtra(EXTRA_TRIGGER_AT, triggerAt);
+        return PendingIntent.getBroadcast(context, REQUEST_CODE, intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    /** Önceki sürümlerin sınıf başına kurduğu tekrarlayan alarmları bir kez iptal eder. */
+    private static void clearLegacyAlarms(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (prefs.getBoolean(KEY_LEGACY_CLEARED, false)) {
+            return;
+        }
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        cancelLegacy(context, alarmManager, SmallWidgetProvider.class, "com.quran.kerim.WIDGET_UPDATE", 0);
+        cancelLegacy(context, alarmManager, MediumWidgetProvider.class, "com.quran.kerim.WIDGET_UPDATE_MEDIUM", 1);
+        cancelLegacy(context, alarmManager, LargeWidgetProvider.class, "com.quran.kerim.WIDGET_UPDATE_LARGE", 2);
+        prefs.edit().putBoolean(KEY_LEGACY_CLEARED, true).apply();
+    }
+
+    private static void cancelLegacy(Context context, AlarmManager alarmManager, Class<?> provider,
+                                     String action, int requestCode) {
+        Intent intent = new Intent(context, provider);
+        intent.setAction(action);
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, requestCode, intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+        alarmManager.cancel(pendingIntent);
+    }
+}
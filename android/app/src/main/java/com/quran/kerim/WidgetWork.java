@@ -0,0 +1,162 @@
+package com.quran.kerim;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Widget, bildirim ve alarm işlerinin ana iş parçacığı dışındaki tek ortak hattı.
+ *
+ * Tek iş parçacıklı, kuyruğu sınırlı bir executor kullanılır: işler sırayla çalışır,
+ * SharedPreferences/RemoteViews erişimi kendi içinde yarışmaz. Kısa sürede gelen
+ * yenileme istekleri ({@link #requestRefresh}) tek geçişte birleştirilir. Alıcılar
+ * {@code goAsync()} ile bekletilir; iş {@link #TIMEOUT_MS} içinde bitmezse sistem
+ * yayını ANR'ye düşmeden serbest bırakılır (iş arka planda tamamlanır).
+ */
+final class WidgetWork {
+
+    private static final String TAG = "WidgetWork";
+    // Arka plan yayınları için sistem sınırı 10 s; öncesinde bırakılır
+    static final long TIMEOUT_MS = 8000;
+    private static final int QUEUE_LIMIT = 32;
+
+    private static final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(QUEUE_LIMIT));
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    static {
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private static boolean refreshQueued;
+    private static final List<Async> waiting = new ArrayList<>();
+
+    private WidgetWork() {
+    }
+
+    /** Bir alıcının işini arka planda çalıştırır; alıcı iş bitene (ya da zaman aşımına) kadar canlı kalır. */
+    static void run(BroadcastReceiver receiver, Runnable work) {
+        Async async = new Async(receiver.goAsync());
+        execute(() -> {
+            try {
+                work.run();
+            } finally {
+                async.finish();
+            }
+        }, async);
+    }
+
+    /** Alıcıya bağlı olmayan işler (eklenti çağrıları) için. */
+    static void execute(Runnable work) {
+        execute(work, null);
+    }
+
+    /**
+     * Tüm widget'ları ve bildirimi yeniler. Kuyrukta bekleyen bir yenileme varsa
+     * yeni bir geçiş eklenmez; bekleyen geçiş en güncel veriyi okur.
+     */
+    static void requestRefresh(Context context) {
+        requestRefresh(context, null);
+    }
+
+    /** {@code result} verilirse yenileme geçişi bitince serbest bırakılır. */
+    static void requestRefresh(Context context, BroadcastReceiver.PendingResult result) {
+        Context app = context.getApplicationContext();
+        Async async = result != null ? new Async(result) : null;
+        synchronized (waiting) {
+            if (async != null) {
+                waiting.add(async);
+            }
+            if (refreshQueued) {
+                Metrics.count(Metrics.WIDGET_REFRESH_COALESCED);
+                return;
+            }
+            refreshQueued = true;
+        }
+        Runnable pass = () -> {
+            List<Async> done = takeWaiting();
+            try {
+                WidgetUpdateReceiver.refreshAll(app);
+            } finally {
+                for (Async waiter : done) {
+                    waiter.finish();
+                }
+            }
+        };
+        if (!execute(pass, null)) {
+            // Reddedilen geçiş bekleyenleri bırakır; sonraki istek yeni geçiş açabilir
+            for (Async waiter : takeWaiting()) {
+                waiter.finish();
+            }
+        }
+    }
+
+    /** Bekleyen alıcıları alır; bundan sonra gelen istek yeni bir geçiş açar. */
+    private static List<Async> takeWaiting() {
+        synchronized (waiting) {
+            // Veri bu geçişin okumasından sonra değişmiş olabilir: yeni istek birleştirilmez
+            refreshQueued = false;
+            List<Async> done = new ArrayList<>(waiting);
+            waiting.clear();
+            return done;
+        }
+    }
+
+    /** Kuyruk doluysa false; {@code async} verildiyse serbest bırakılmıştır. */
+    private static boolean execute(Runnable work, Async async) {
+        try {
+            executor.execute(() -> {
+                try {
+                    work.run();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Arka plan işi başarısız", e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Kuyruk dolu: bekleyen işler zaten aynı yüzeyleri yenileyecek
+            Log.w(TAG, "Kuyruk dolu, iş atlandı");
+            if (async != null) {
+                async.finish();
+            }
+            return false;
+        }
+    }
+
+    /** goAsync sonucu; iş bitince ya da zaman aşımında yalnızca bir kez bırakılır. */
+    private static final class Async implements Runnable {
+        private final BroadcastReceiver.PendingResult result;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Async(BroadcastReceiver.PendingResult result) {
+            this.result = result;
+            mainHandler.postDelayed(this, TIMEOUT_MS);
+        }
+
+        /** Zaman aşımı. */
+        @Override
+        public void run() {
+            if (!finished.get()) {
+                Metrics.count(Metrics.BACKGROUND_TIMEOUT);
+                Log.w(TAG, "İş " + TIMEOUT_MS + " ms içinde bitmedi; yayın serbest bırakıldı");
+            }
+            finish();
+        }
+
+        void finish() {
+            if (finished.compareAndSet(false, true)) {
+                mainHandler.removeCallbacks(this);
+                result.finish();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.quran.kerim.benchmark;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * PrayerSchedule öncesindeki widget kod yolunun (PrayerWidgetProvider.getNextPrayerData
+ * ve Medium/LargeWidgetProvider.getCurrentPrayer) Android'siz kopyası; yalnızca
+ * karşılaştırma ölçümü içindir.
+ */
+final class LegacyPrayerResolver {
+
+    private LegacyPrayerResolver() {
+    }
+
+    static String[] getNextPrayerData(String[] times) {
+        try {
+            Calendar cal = Calendar.getInstance();
+            int currentHours = cal.get(Calendar.HOUR_OF_DAY);
+            int currentMinutes = cal.get(Calendar.MINUTE);
+            int currentTotalMinutes = currentHours * 60 + currentMinutes;
+
+            String[][] prayers = {
+                {"İmsak", times[0]},
+                {"Güneş", times[1]},
+                {"Öğle", times[2]},
+                {"İkindi", times[3]},
+                {"Akşam", times[4]},
+                {"Yatsı", times[5]}
+            };
+
+            for (String[] prayer : prayers) {
+                String[] prayerTimeParts = prayer[1].split(":");
+                int prayerHours = Integer.parseInt(prayerTimeParts[0]);
+                int prayerMinutes = Integer.parseInt(prayerTimeParts[1]);
+                int prayerTotalMinutes = prayerHours * 60 + prayerMinutes;
+
+                if (currentTotalMinutes < prayerTotalMinutes) {
+                    int diffMinutes = prayerTotalMinutes - currentTotalMinutes;
+                    int hours = diffMinutes / 60;
+                    int minutes = diffMinutes % 60;
+                    String remaining = hours > 0 ? hours + "s " + minutes + "dk" : minutes + "dk";
+                    return new String[]{prayer[0], prayer[1], remaining};
+                }
+            }
+
+            return new String[]{"İmsak", times[0], "Yarın"};
+        } catch (Exception e) {
+            return new String[]{"İmsak", times[0], "-"};
+        }
+    }
+
+    static String getCurrentPrayer(String[] times) {
+        try {
+            SimpleDateFormat sdf = new SimpleDateFormat("HH:mm", Locale.getDefault());
+            String currentTime = sdf.format(new Date());
+
+            if (currentTime.compareTo(times[0]) >= 0 && currentTime.compareTo(times[1]) < 0) {
+                return "İmsak";
+            } else if (currentTime.compareTo(times[1]) >= 0 && currentTime.compareTo(times[2]) < 0) {
+                return "Güneş";
+            } else if (currentTime.compareTo(times[2]) >= 0 && currentTime.compareTo(times[3]) < 0) {
+                return "Öğle";
+            } else if (currentTime.compareTo(times[3]) >= 0 && currentTime.compareTo(times[4]) < 0) {
+                return "İkindi";
+            } else if (currentTime.compareTo(times[4]) >= 0 && currentTime.compareTo(times[5]) < 0) {
+                return "Akşam";
+            } else {
+                return "Yatsı";
+            }
+        } catch (Exception e) {
+            return "";
+        }
+    }
+}
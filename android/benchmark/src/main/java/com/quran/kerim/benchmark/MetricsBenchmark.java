@@ -0,0 +1,51 @@
+package com.quran.kerim.benchmark;
+
+import com.quran.kerim.Metrics;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sürümde açık kalan ölçümlerin maliyeti: sayaç artırma ve süre kaydı.
+ * Kayıt bellek ayırmamalı (gc.alloc.rate.norm ≈ 0).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private long value;
+
+    @Benchmark
+    public void count() {
+        Metrics.count(Metrics.WIDGET_WAKEUP);
+    }
+
+    @Benchmark
+    public void record() {
+        Metrics.record(Metrics.WIDGET_REFRESH_MS, ++value & 1023);
+    }
+
+    @Benchmark
+    public void timer() {
+        Metrics.stop(Metrics.BRIDGE_UPDATE_WIDGET_MS, Metrics.start());
+    }
+
+    /** Widget, alarm ve bildirimin aynı anda kayıt yaptığı durum. */
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        Metrics.record(Metrics.WIDGET_REFRESH_MS, 5);
+    }
+}
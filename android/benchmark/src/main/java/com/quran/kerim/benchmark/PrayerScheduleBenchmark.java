@@ -0,0 +1,72 @@
+package com.quran.kerim.benchmark;
+
+import com.quran.kerim.PrayerSchedule;
+import com.quran.kerim.PrayerTimetable;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Widget'ların her güncellemede yaptığı "şu anki / sıradaki vakit" çözümlemesi:
+ * eski String tabanlı yol ile PrayerSchedule karşılaştırması.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrayerScheduleBenchmark {
+
+    private static final String[] TIMES = {"05:30", "07:00", "13:15", "16:00", "18:30", "20:00"};
+    private static final int[] MINUTES = {330, 420, 795, 960, 1110, 1200};
+
+    private PrayerSchedule schedule;
+
+    @Setup
+    public void setUp() {
+        TimeZone timeZone = TimeZone.getDefault();
+        schedule = new PrayerSchedule().set(MINUTES, 328,
+                PrayerTimetable.localEpochDay(timeZone, System.currentTimeMillis()), timeZone);
+    }
+
+    @Benchmark
+    public String[] legacyNextPrayer() {
+        return LegacyPrayerResolver.getNextPrayerData(TIMES);
+    }
+
+    @Benchmark
+    public String legacyCurrentPrayer() {
+        return LegacyPrayerResolver.getCurrentPrayer(TIMES);
+    }
+
+    @Benchmark
+    public void scheduleNextPrayer(Blackhole bh) {
+        int minute = schedule.minuteOf(System.currentTimeMillis());
+        int next = schedule.nextIndex(minute);
+        bh.consume(next);
+        bh.consume(schedule.wallTime(next));
+        bh.consume(schedule.minutesUntil(next, minute));
+    }
+
+    /** Widget metinleriyle birlikte (dakikada bir çalışan yol; -prof gc ayırmayı gösterir). */
+    @Benchmark
+    public String[] scheduleDescribeNext() {
+        return schedule.describeNext(schedule.minuteOf(System.currentTimeMillis()));
+    }
+
+    @Benchmark
+    public int scheduleCurrentPrayer() {
+        return schedule.currentIndex(schedule.minuteOf(System.currentTimeMillis()));
+    }
+}
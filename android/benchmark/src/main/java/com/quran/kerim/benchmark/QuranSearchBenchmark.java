@@ -0,0 +1,100 @@
+package com.quran.kerim.benchmark;
+
+import com.quran.kerim.QuranSearchIndex;
+import com.quran.kerim.SearchQuery;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ayet arama sorgu süresi. Gerçek metin indirilmeden, Kur'an boyutunda (6236
+ * ayet, Zipf dağılımlı ~15 bin kelimelik sözlük) yapay bir derlem kullanılır;
+ * en sık kelime ilk sıradadır ("ve" gibi).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuranSearchBenchmark {
+
+    private static final int AYAHS = 6236;
+    private static final int VOCABULARY = 15000;
+
+    @Param({"frequent", "rare", "and", "prefix", "phrase"})
+    public String kind;
+
+    private File file;
+    private QuranSearchIndex index;
+    private SearchQuery query;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(1);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(8);
+            for (int k = 0; k < length; k++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+
+        QuranSearchIndex.Builder builder = new QuranSearchIndex.Builder();
+        for (int doc = 0; doc < AYAHS; doc++) {
+            StringBuilder text = new StringBuilder();
+            int length = 5 + random.nextInt(60);
+            for (int k = 0; k < length; k++) {
+                int rank = (int) Math.pow(VOCABULARY, random.nextDouble()) - 1;
+                text.append(words[Math.max(0, Math.min(VOCABULARY - 1, rank))]).append(' ');
+            }
+            builder.add(1 + doc / 100, 1 + doc % 100, text.toString(), text.toString());
+        }
+        file = File.createTempFile("quran_search", ".idx");
+        builder.write(file);
+        index = QuranSearchIndex.open(file);
+
+        switch (kind) {
+            case "frequent":
+                query = SearchQuery.parse(words[0]);
+                break;
+            case "rare":
+                query = SearchQuery.parse(words[500]);
+                break;
+            case "and":
+                query = SearchQuery.parse(words[0] + " " + words[1]);
+                break;
+            case "prefix":
+                query = SearchQuery.parse(words[0].substring(0, 1) + "*");
+                break;
+            default:
+                query = SearchQuery.parse("\"" + words[0] + " " + words[1] + "\"");
+                break;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public QuranSearchIndex.Result search() {
+        return index.search(query, QuranSearchIndex.FIELD_TURKISH, 200);
+    }
+}
@@ -0,0 +1,461 @@
+package com.quran.kerim;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ayet sesleri için dosya tabanlı önbellek. Dosyalar AudioDownloader ile aynı
+ * düzendedir ("<kari>/<sure>/<ayet>.mp3"); bu sınıf yalnızca küçük bir indeks tutar.
+ * Tamamı indirilen sureler tek bir AudioPack dosyasına ("<kari>/<sure>/surah.qap")
+ * dönüştürülür; bu surelerin ayetleri {@link #getPack} ile bayt aralığı olarak okunur.
+ *
+ * Sabitlenmiş (pinned) kayıtlar kullanıcının indirdiği surelerdir ve hiç silinmez.
+ * Dinlerken önbelleğe alınan ayetler en uzun süredir kullanılmayandan başlayarak,
+ * toplam boyut bütçeyi aşınca silinir. Boyut ve varlık sorguları dosya sistemine
+ * inmez; toplamlar her değişiklikte güncellenir.
+ *
+ * İndeks dosyası (little-endian):
+ * <pre>
+ *   0  int    magic "ACI1"
+ *   4  short  sürüm
+ *   6  short  kari sayısı
+ *   8  int    kayıt sayısı
+ *  12  {short uzunluk, UTF-8 ad}[kari sayısı]
+ *  ..  {int anahtar, int boyut, byte sabit}[kayıt sayısı]   en eski kullanılandan yeniye
+ * </pre>
+ * İndeks yoksa ya da okunamazsa dizin taranarak yeniden kurulur.
+ */
+public final class AudioCache {
+
+    static final int MAGIC = 0x31494341; // "ACI1"
+    static final short VERSION = 1;
+    static final String INDEX_FILE = "cache.idx";
+    private static final int HEADER_SIZE = 12;
+    private static final int ENTRY_SIZE = 9;
+
+    private static final class Entry {
+        final int size;
+        final boolean pinned;
+
+        Entry(int size, boolean pinned) {
+            this.size = size;
+            this.pinned = pinned;
+        }
+    }
+
+    private final File root;
+    private long budgetBytes;
+    private final List<String> reciters = new ArrayList<>();
+    // Erişim sıralı: ilk kayıt en uzun süredir kullanılmayandır
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    // (kari, sure) -> önbellekteki ayet sayısı
+    private final Map<Integer, Integer> surahCounts = new HashMap<>();
+    // (kari, sure) -> paket başlığı; null değer "bakıldı, paket yok" demektir
+    private final Map<Integer, AudioPack> packs = new HashMap<>();
+    private long totalBytes;
+    private long pinnedBytes;
+    private boolean dirty;
+
+    private AudioCache(File root, long budgetBytes) {
+        this.root = root;
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** İndeksi yükler; yoksa dizini tarar (AudioManifest'teki ayetler sabitlenir). */
+    public static AudioCache open(File root, long budgetBytes) {
+        AudioCache cache = new AudioCache(root, budgetBytes);
+        File index = new File(root, INDEX_FILE);
+        if (index.exists()) {
+            try {
+                cache.load(index);
+                return cache;
+            } catch (IOException e) {
+                cache.clearIndex();
+            }
+        }
+        cache.rebuild();
+        return cache;
+    }
+
+    public File fileFor(String reciter, int surah, int ayah) {
+        return AudioDownloader.ayahFile(surahDir(reciter, surah), ayah);
+    }
+
+    public File surahDir(String reciter, int surah) {
+        return new File(new File(root, reciter), String.format(Locale.US, "%03d", surah));
+    }
+
+    /**
+     * Kayıt ayrı bir dosyaysa dosyayı döndürür ve en son kullanılan yapar.
+     * Paketlenmiş surelerin ayetleri için null; onlar {@link #getPack} ile okunur.
+     */
+    public synchronized File get(String reciter, int surah, int ayah) {
+        int id = reciterId(reciter, false);
+        if (id < 0 || !isValid(surah, ayah) || entries.get(key(id, surah, ayah)) == null) {
+            return null;
+        }
+        dirty = true;
+        AudioPack pack = getPack(reciter, surah);
+        return pack != null && pack.has(ayah) ? null : fileFor(reciter, surah, ayah);
+    }
+
+    /** Sure paketlendiyse başlığı (ilk çağrıda dosyadan okunur), değilse null. */
+    public synchronized AudioPack getPack(String reciter, int surah) {
+        int id = reciterId(reciter, false);
+        if (id < 0 || surah < 1 || surah > QuranCorpus.SURAH_COUNT) {
+            return null;
+        }
+        int surahKey = (id << 7) | surah;
+        if (!packs.containsKey(surahKey)) {
+            packs.put(surahKey, openPack(surahDir(reciter, surah)));
+        }
+        return packs.get(surahKey);
+    }
+
+    /**
+     * Tamamı indirilmiş sureyi tek pakete dönüştürür ve ayet dosyalarını siler.
+     * Paket yazılırken önbellek kilitlenmez; eksik ayet varsa hiçbir şey değişmez.
+     */
+    public void packSurah(String reciter, int surah) throws IOException {
+        File dir = surahDir(reciter, surah);
+        AudioPack pack = AudioPack.build(dir, QuranCorpus.ayahCount(surah));
+        synchronized (this) {
+            int id = reciterId(reciter, true);
+            for (int ayah = 1; ayah <= pack.ayahCount; ayah++) {
+                int key = key(id, surah, ayah);
+                Entry previous = entries.remove(key);
+                if (previous != null) {
+                    forget(key, previous);
+                }
+                add(key, new Entry(pack.length(ayah), true));
+                AudioDownloader.ayahFile(dir, ayah).delete();
+            }
+            packs.put((id << 7) | surah, pack);
+        }
+    }
+
+    public synchronized boolean contains(String reciter, int surah, int ayah) {
+        int id = reciterId(reciter, false);
+        return id >= 0 && isValid(surah, ayah) && entries.containsKey(key(id, surah, ayah));
+    }
+
+    /** Dosya {@link #fileFor} konumuna yazıldıktan sonra çağrılır. Bütçe aşılırsa eski kayıtlar silinir. */
+    public synchronized void put(String reciter, int surah, int ayah, int size, boolean pinned) {
+        if (!isValid(surah, ayah)) {
+            throw new IllegalArgumentException(surah + ":" + ayah);
+        }
+        int key = key(reciterId(reciter, true), surah, ayah);
+        Entry previous = entries.get(key);
+        if (previous != null) {
+            pinned |= previous.pinned;
+            forget(key, previous);
+        }
+        add(key, new Entry(size, pinned));
+        evict();
+    }
+
+    /** İndirilen surenin listedeki tüm ayetlerini sabitler. */
+    public synchronized void pinSurah(String reciter, int surah, AudioManifest manifest) {
+        int id = reciterId(reciter, true);
+        for (int ayah = 1; ayah <= manifest.ayahCount; ayah++) {
+            if (!manifest.has(ayah)) {
+                continue;
+            }
+            int key = key(id, surah, ayah);
+            Entry previous = entries.remove(key);
+            if (previous != null) {
+                forget(key, previous);
+            }
+            add(key, new Entry(manifest.size(ayah), true));
+        }
+        evict();
+    }
+
+    /** Surenin tüm dosyalarını (liste ve .part dahil) ve kayıtlarını siler. */
+    public synchronized void removeSurah(String reciter, int surah) {
+        int id = reciterId(reciter, false);
+        if (id >= 0) {
+            packs.remove((id << 7) | surah);
+            Iterator<Map.Entry<Integer, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Integer, Entry> item = it.next();
+                if ((item.getKey() >>> 9) == ((id << 7) | surah)) {
+                    it.remove();
+                    forget(item.getKey(), item.getValue());
+                }
+            }
+        }
+        File dir = surahDir(reciter, surah);
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    public synchronized int cachedCount(String reciter, int surah) {
+        int id = reciterId(reciter, false);
+        Integer count = id < 0 ? null : surahCounts.get((id << 7) | surah);
+        return count != null ? count : 0;
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized long pinnedBytes() {
+        return pinnedBytes;
+    }
+
+    public synchronized long budgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized void setBudget(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evict();
+    }
+
+    /** Sure numarasına göre sıralı, sabitlenmiş ayetler (İndirilenler ekranı için). */
+    public synchronized Map<Integer, List<Integer>> pinnedAyahs(String reciter) {
+        Map<Integer, List<Integer>> result = new TreeMap<>();
+        int id = reciterId(reciter, false);
+        if (id < 0) {
+            return result;
+        }
+        for (Map.Entry<Integer, Entry> item : entries.entrySet()) {
+            int key = item.getKey();
+            if (item.getValue().pinned && (key >>> 16) == id) {
+                int surah = (key >>> 9) & 0x7F;
+                List<Integer> ayahs = result.get(surah);
+                if (ayahs == null) {
+                    ayahs = new ArrayList<>();
+                    result.put(surah, ayahs);
+                }
+                ayahs.add(key & 0x1FF);
+            }
+        }
+        for (List<Integer> ayahs : result.values()) {
+            Collections.sort(ayahs);
+        }
+        return result;
+    }
+
+    /** Değişiklik varsa indeksi diske yazar. */
+    public synchronized void flush() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        if (!root.isDirectory() && !root.mkdirs()) {
+            throw new IOException("Cannot create " + root);
+        }
+        int namesSize = 0;
+        List<byte[]> names = new ArrayList<>(reciters.size());
+        for (String reciter : reciters) {
+            byte[] name = reciter.getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            namesSize += 2 + name.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + namesSize + entries.size() * ENTRY_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) reciters.size()).putInt(entries.size());
+        for (byte[] name : names) {
+            buffer.putShort((short) name.length).put(name);
+        }
+        for (Map.Entry<Integer, Entry> item : entries.entrySet()) {
+            buffer.putInt(item.getKey()).putInt(item.getValue().size).put((byte) (item.getValue().pinned ? 1 : 0));
+        }
+        buffer.flip();
+
+        File file = new File(root, INDEX_FILE);
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp); FileChannel channel = out.getChannel()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Cannot replace " + file);
+        }
+        dirty = false;
+    }
+
+    private static boolean isValid(int surah, int ayah) {
+        return surah >= 1 && surah <= QuranCorpus.SURAH_COUNT && ayah >= 1 && ayah <= QuranCorpus.ayahCount(surah);
+    }
+
+    // Anahtar: kari (16+ bit) | sure (7 bit) | ayet (9 bit)
+    private static int key(int reciterId, int surah, int ayah) {
+        return (reciterId << 16) | (surah << 9) | ayah;
+    }
+
+    private int reciterId(String reciter, boolean create) {
+        int id = reciters.indexOf(reciter);
+        if (id < 0 && create) {
+            reciters.add(reciter);
+            dirty = true;
+            id = reciters.size() - 1;
+        }
+        return id;
+    }
+
+    private void add(int key, Entry entry) {
+        entries.put(key, entry);
+        totalBytes += entry.size;
+        if (entry.pinned) {
+            pinnedBytes += entry.size;
+        }
+        surahCounts.merge(key >>> 9, 1, Integer::sum);
+        dirty = true;
+    }
+
+    /** Kaydı haritadan çıkarılmış kabul edip toplamları düşer. */
+    private void forget(int key, Entry entry) {
+        totalBytes -= entry.size;
+        if (entry.pinned) {
+            pinnedBytes -= entry.size;
+        }
+        int surahKey = key >>> 9;
+        int count = surahCounts.get(surahKey) - 1;
+        if (count == 0) {
+            surahCounts.remove(surahKey);
+        } else {
+            surahCounts.put(surahKey, count);
+        }
+        dirty = true;
+    }
+
+    private void evict() {
+        if (totalBytes <= budgetBytes) {
+            return;
+        }
+        Iterator<Map.Entry<Integer, Entry>> it = entries.entrySet().iterator();
+        while (totalBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<Integer, Entry> item = it.next();
+            if (item.getValue().pinned) {
+                continue;
+            }
+            int key = item.getKey();
+            it.remove();
+            forget(key, item.getValue());
+            fileFor(reciters.get(key >>> 16), (key >>> 9) & 0x7F, key & 0x1FF).delete();
+        }
+    }
+
+    private void load(File index) throws IOException {
+        ByteBuffer buffer;
+        try (FileInputStream in = new FileInputStream(index); FileChannel channel = in.getChannel()) {
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // tamamı okunana kadar
+            }
+        }
+        buffer.flip();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new IOException("Unknown audio cache index");
+            }
+            int reciterCount = buffer.getShort();
+            int entryCount = buffer.getInt();
+            for (int i = 0; i < reciterCount; i++) {
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                reciters.add(new String(name, StandardCharsets.UTF_8));
+            }
+            for (int i = 0; i < entryCount; i++) {
+                int key = buffer.getInt();
+                int size = buffer.getInt();
+                boolean pinned = buffer.get() != 0;
+                if ((key >>> 16) >= reciterCount) {
+                    throw new IOException("Corrupt audio cache index");
+                }
+                add(key, new Entry(size, pinned));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt audio cache index", e);
+        }
+        dirty = false;
+    }
+
+    private void clearIndex() {
+        reciters.clear();
+        entries.clear();
+        surahCounts.clear();
+        packs.clear();
+        totalBytes = 0;
+        pinnedBytes = 0;
+    }
+
+    private void rebuild() {
+        File[] reciterDirs = root.listFiles(File::isDirectory);
+        if (reciterDirs != null) {
+            for (File reciterDir : reciterDirs) {
+                String reciter = reciterDir.getName();
+                for (int surah = 1; surah <= QuranCorpus.SURAH_COUNT; surah++) {
+                    rebuildSurah(reciter, surah);
+                }
+            }
+        }
+        dirty = true;
+    }
+
+    private void rebuildSurah(String reciter, int surah) {
+        File dir = surahDir(reciter, surah);
+        if (!dir.isDirectory()) {
+            return;
+        }
+        int ayahCount = QuranCorpus.ayahCount(surah);
+        int id = reciterId(reciter, true);
+        AudioPack pack = openPack(dir);
+        if (pack != null) {
+            for (int ayah = 1; ayah <= Math.min(ayahCount, pack.ayahCount); ayah++) {
+                if (pack.has(ayah)) {
+                    add(key(id, surah, ayah), new Entry(pack.length(ayah), true));
+                }
+            }
+            packs.put((id << 7) | surah, pack);
+            return;
+        }
+        File manifestFile = AudioDownloader.manifestFile(dir);
+        AudioManifest manifest = manifestFile.exists() ? AudioManifest.readOrCreate(manifestFile, ayahCount) : null;
+        for (int ayah = 1; ayah <= ayahCount; ayah++) {
+            long length = AudioDownloader.ayahFile(dir, ayah).length();
+            if (length > 0) {
+                add(key(id, surah, ayah), new Entry((int) length, manifest != null && manifest.has(ayah)));
+            }
+        }
+    }
+
+    private static AudioPack openPack(File surahDir) {
+        File file = AudioPack.packFile(surahDir);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return AudioPack.open(file);
+        } catch (IOException e) {
+            // Bozuk paket: ayetler yeniden indirilebilsin diye silinir
+            file.delete();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.quran.kerim;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Bir surenin ayet seslerini sınırlı sayıda eşzamanlı bağlantıyla doğrudan diske indirir.
+ *
+ * Her ayet önce "<ayet>.mp3.part" dosyasına yazılır; bağlantı koparsa sonraki deneme
+ * (ya da uygulama yeniden başladıktan sonraki çalıştırma) Range isteğiyle kaldığı yerden
+ * devam eder. Tamamlanan dosya yeniden adlandırılır ve boyutu/CRC32'si AudioManifest'e
+ * yazılır. Tamamlanan sure AudioCache tarafından tek pakete (AudioPack) dönüştürülür;
+ * paketlenmiş sure yeniden istenirse ağa çıkılmaz. Android'e bağımlı değildir.
+ *
+ * Aynı hedef dosyaya (servis indirmesi, dinlerken önbelleğe alma) birden çok indirici
+ * yazabilir; .part dosyası hedef başına tek yazıcıyla kilitlenir, Range devamı karışmaz.
+ */
+public final class AudioDownloader {
+
+    static final String MANIFEST_FILE = "manifest.bin";
+    private static final String PART_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 32 * 1024;
+    // Liste her tamamlanmada değil, bu kadar dosyada bir yazılır; arada kalanlar
+    // bir sonraki çalıştırmada dosyadan doğrulanıp listeye eklenir
+    private static final int MANIFEST_FLUSH_INTERVAL = 16;
+
+    public interface Listener {
+        /** Herhangi bir iş parçacığından çağrılır. */
+        void onProgress(int completed, int total, long bytes);
+    }
+
+    public static final class Result {
+        public final int completed;
+        public final int total;
+        /** İndirilemeyen ayet numaraları (artan sırada). */
+        public final int[] failed;
+        public final boolean cancelled;
+
+        Result(int completed, int total, int[] failed, boolean cancelled) {
+            this.completed = completed;
+            this.total = total;
+            this.failed = failed;
+            this.cancelled = cancelled;
+        }
+    }
+
+    private final int connections;
+    private final int maxAttempts;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    // Yazılmakta olan hedeflerin mutlak yolları; tüm indiriciler arasında ortak
+    private static final Set<String> activeTargets = new HashSet<>();
+
+    public AudioDownloader(int connections, int maxAttempts) {
+        if (connections < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("connections/maxAttempts must be positive");
+        }
+        this.connections = connections;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /** Süren aktarımlar bir sonraki okuma bloğunda durur; .part dosyaları korunur. */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public static File ayahFile(File surahDir, int ayah) {
+        return new File(surahDir, String.format(Locale.US, "%03d.mp3", ayah));
+    }
+
+    public static File manifestFile(File surahDir) {
+        return new File(surahDir, MANIFEST_FILE);
+    }
+
+    /**
+     * {@code urls[i]} (i+1). ayetin adresidir. Listede olan ve diskte boyutu tutan
+     * ayetler atlanır.
+     */
+    public Result downloadSurah(File surahDir, String[] urls, Listener listener) throws IOException {
+        if (!surahDir.isDirectory() && !surahDir.mkdirs()) {
+            throw new IOException("Cannot create " + surahDir);
+        }
+        if (isPacked(surahDir, urls.length)) {
+            if (listener != null) {
+                listener.onProgress(urls.length, urls.length, 0);
+            }
+            return new Result(urls.length, urls.length, new int[0], false);
+        }
+        File manifestFile = manifestFile(surahDir);
+        AudioManifest manifest = AudioManifest.readOrCreate(manifestFile, urls.length);
+
+        List<Integer> pending = new ArrayList<>();
+        for (int ayah = 1; ayah <= urls.length; ayah++) {
+            File file = ayahFile(surahDir, ayah);
+            if (manifest.has(ayah) && file.length() == manifest.size(ayah)) {
+                continue;
+            }
+            if (file.length() > 0) {
+                // Listeye yazılamadan kalmış, tamamlanmış dosya
+                manifest.put(ayah, (int) file.length(), AudioManifest.checksum(file));
+                continue;
+            }
+            manifest.remove(ayah);
+            pending.add(ayah);
+        }
+
+        AtomicInteger completed = new AtomicInteger(urls.length - pending.size());
+        AtomicLong bytes = new AtomicLong();
+        AtomicInteger sinceFlush = new AtomicInteger();
+        if (listener != null) {
+            listener.onProgress(completed.get(), urls.length, 0);
+        }
+        if (pending.isEmpty()) {
+            manifest.write(manifestFile);
+            return new Result(urls.length, urls.length, new int[0], false);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(connections, pending.size()));
+        List<Future<?>> futures = new ArrayList<>(pending.size());
+        List<Integer> failed = new ArrayList<>();
+        try {
+            for (int ayah : pending) {
+                futures.add(pool.submit(() -> {
+                    File file = ayahFile(surahDir, ayah);
+                    long[] sizeAndCrc = downloadWithRetry(urls[ayah - 1], file, bytes);
+                    manifest.put(ayah, (int) sizeAndCrc[0], (int) sizeAndCrc[1]);
+                    int done = completed.incrementAndGet();
+                    if (sinceFlush.incrementAndGet() % MANIFEST_FLUSH_INTERVAL == 0) {
+                        synchronized (manifest) {
+                            manifest.write(manifestFile);
+                        }
+                    }
+                    if (listener != null) {
+                        listener.onProgress(done, urls.length, bytes.get());
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (Exception e) {
+                    failed.add(pending.get(i));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            synchronized (manifest) {
+                manifest.write(manifestFile);
+            }
+        }
+
+        int[] failedAyahs = new int[failed.size()];
+        for (int i = 0; i < failedAyahs.length; i++) {
+            failedAyahs[i] = failed.get(i);
+        }
+        return new Result(completed.get(), urls.length, failedAyahs, cancelled.get());
+    }
+
+    /** Sure daha önce tamamen indirilip AudioPack'e dönüştürüldüyse indirilecek bir şey yoktur. */
+    private static boolean isPacked(File surahDir, int ayahCount) {
+        File pack = AudioPack.packFile(surahDir);
+        if (!pack.exists()) {
+            return false;
+        }
+        try {
+            return AudioPack.open(pack).ayahCount == ayahCount;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Tek bir dosyayı indirir (dinlerken önbelleğe alma). Sonuç: {boyut, crc32}. */
+    public long[] downloadFile(String url, File target) throws IOException {
+        File dir = target.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        return downloadWithRetry(url, target, new AtomicLong());
+    }
+
+    private long[] downloadWithRetry(String url, File target, AtomicLong bytes) throws IOException {
+        IOException last = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (cancelled.get()) {
+                throw new InterruptedIOException("cancelled");
+            }
+            try {
+                return download(url, target, bytes);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                last = e;
+                try {
+                    Thread.sleep(250L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted");
+                }
+            }
+        }
+        throw last;
+    }
+
+    /** Sonuç: {boyut, crc32}. */
+    private long[] download(String url, File target, AtomicLong bytes) throws IOException {
+        String key = target.getAbsolutePath();
+        lockTarget(key);
+        try {
+            if (target.length() > 0) {
+                // Beklerken başka bir indirici tamamladı
+                CRC32 crc = new CRC32();
+                long size = updateChecksum(crc, target);
+                return new long[]{size, crc.getValue()};
+            }
+            return transfer(url, target, bytes);
+        } finally {
+            unlockTarget(key);
+        }
+    }
+
+    /** Hedefe başka indirici yazıyorsa bitmesini bekler; iptal beklemeyi de keser. */
+    private void lockTarget(String key) throws InterruptedIOException {
+        synchronized (activeTargets) {
+            while (activeTargets.contains(key)) {
+                if (cancelled.get()) {
+                    throw new InterruptedIOException("cancelled");
+                }
+                try {
+                    activeTargets.wait(250);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted");
+                }
+            }
+            activeTargets.add(key);
+        }
+    }
+
+    private static void unlockTarget(String key) {
+        synchronized (activeTargets) {
+            activeTargets.remove(key);
+            activeTargets.notifyAll();
+        }
+    }
+
+    private long[] transfer(String url, File target, AtomicLong bytes) throws IOException {
+        File part = new File(target.getPath() + PART_SUFFIX);
+        long offset = part.length();
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(15000);
+        connection.setReadTimeout(30000);
+        if (offset > 0) {
+            connection.setRequestProperty("Range", "bytes=" + offset + "-");
+        }
+        try {
+            int code = connection.getResponseCode();
+            if (code == 416) {
+                // Sunucudaki dosya değişmiş ya da .part bozuk: baştan
+                part.delete();
+                throw new IOException(url + ": range not satisfiable");
+            }
+            boolean append = code == HttpURLConnection.HTTP_PARTIAL && offset > 0;
+            if (!append && code != HttpURLConnection.HTTP_OK) {
+                throw new IOException(url + ": HTTP " + code);
+            }
+            CRC32 crc = new CRC32();
+            long size = 0;
+            if (append) {
+                size = updateChecksum(crc, part);
+            }
+            long expected = parseLength(connection.getHeaderField("Content-Length"));
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long received = 0;
+            try (InputStream in = connection.getInputStream();
+                 FileOutputStream out = new FileOutputStream(part, append)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (cancelled.get()) {
+                        throw new InterruptedIOException("cancelled");
+                    }
+                    out.write(buffer, 0, read);
+                    crc.update(buffer, 0, read);
+                    received += read;
+                    bytes.addAndGet(read);
+                }
+            }
+            if (expected >= 0 && received != expected) {
+                throw new IOException(url + ": truncated (" + received + "/" + expected + ")");
+            }
+            size += received;
+            if (size == 0) {
+                throw new IOException(url + ": empty response");
+            }
+            if (!part.renameTo(target)) {
+                throw new IOException("Cannot rename " + part);
+            }
+            return new long[]{size, crc.getValue()};
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static long updateChecksum(CRC32 crc, File file) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        return size;
+    }
+
+    private static long parseLength(String header) {
+        if (header == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
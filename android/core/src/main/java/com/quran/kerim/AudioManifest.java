@@ -0,0 +1,169 @@
+package com.quran.kerim;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Bir surenin indirilmiş ayet seslerinin listesi: ayet başına boyut ve CRC32.
+ *
+ * Dosya biçimi (little-endian):
+ * <pre>
+ *   0  int    magic "AMF1"
+ *   4  short  sürüm
+ *   6  short  ayet sayısı
+ *   8  {int boyut, int crc32}[ayet sayısı]   boyut 0 = indirilmedi
+ * </pre>
+ */
+public final class AudioManifest {
+
+    static final int MAGIC = 0x31464D41; // "AMF1"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    private static final int ENTRY_SIZE = 8;
+
+    public final int ayahCount;
+    private final int[] sizes;
+    private final int[] checksums;
+
+    public AudioManifest(int ayahCount) {
+        if (ayahCount < 1 || ayahCount > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("ayahCount: " + ayahCount);
+        }
+        this.ayahCount = ayahCount;
+        this.sizes = new int[ayahCount];
+        this.checksums = new int[ayahCount];
+    }
+
+    public synchronized void put(int ayah, int size, int checksum) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size: " + size);
+        }
+        sizes[ayah - 1] = size;
+        checksums[ayah - 1] = checksum;
+    }
+
+    public synchronized void remove(int ayah) {
+        sizes[ayah - 1] = 0;
+        checksums[ayah - 1] = 0;
+    }
+
+    public synchronized boolean has(int ayah) {
+        return sizes[ayah - 1] > 0;
+    }
+
+    public synchronized int size(int ayah) {
+        return sizes[ayah - 1];
+    }
+
+    public synchronized int checksum(int ayah) {
+        return checksums[ayah - 1];
+    }
+
+    public synchronized int completedCount() {
+        int count = 0;
+        for (int size : sizes) {
+            if (size > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isComplete() {
+        return completedCount() == ayahCount;
+    }
+
+    public synchronized long totalBytes() {
+        long total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        return total;
+    }
+
+    /** Dosya boyutu ve CRC32 kayıtla eşleşiyor mu (bozuk/yarım dosya denetimi). */
+    public boolean verify(int ayah, File file) throws IOException {
+        return has(ayah) && file.length() == size(ayah) && checksum(file) == checksum(ayah);
+    }
+
+    public static int checksum(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[32 * 1024];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    /** Dosya yoksa veya ayet sayısı farklıysa boş liste döner. */
+    public static AudioManifest readOrCreate(File file, int ayahCount) {
+        if (file.exists()) {
+            try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+                while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                    // tamamı okunana kadar
+                }
+                buffer.flip();
+                AudioManifest manifest = decode(buffer);
+                if (manifest.ayahCount == ayahCount) {
+                    return manifest;
+                }
+            } catch (IOException e) {
+                // bozuk liste: dosyalar yeniden doğrulanır
+            }
+        }
+        return new AudioManifest(ayahCount);
+    }
+
+    static AudioManifest decode(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            throw new IOException("Unknown audio manifest format");
+        }
+        int count = buffer.getShort(6);
+        if (count < 1 || buffer.remaining() < HEADER_SIZE + count * ENTRY_SIZE) {
+            throw new IOException("Truncated audio manifest");
+        }
+        AudioManifest manifest = new AudioManifest(count);
+        for (int i = 0; i < count; i++) {
+            int position = HEADER_SIZE + i * ENTRY_SIZE;
+            manifest.sizes[i] = Math.max(0, buffer.getInt(position));
+            manifest.checksums[i] = buffer.getInt(position + 4);
+        }
+        return manifest;
+    }
+
+    synchronized ByteBuffer encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + ayahCount * ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) ayahCount);
+        for (int i = 0; i < ayahCount; i++) {
+            buffer.putInt(sizes[i]).putInt(checksums[i]);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    public void write(File file) throws IOException {
+        ByteBuffer buffer = encode();
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp); FileChannel channel = out.getChannel()) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.quran.kerim;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+
+/**
+ * Bir surenin tüm ayet seslerini tek dosyada tutan paket. Sure tamamen indirilince
+ * ayet dosyaları (ID3 etiketleri atılarak, yalnızca MPEG çerçeveleri) art arda eklenir;
+ * başlıktaki tablo her ayetin bayt aralığını ve süresini verir. Oynatıcı bir ayete
+ * dosyanın tamamını okumadan, yalnızca bu aralıkla konumlanır.
+ *
+ * Dosya biçimi (little-endian):
+ * <pre>
+ *   0  int    magic "QAP1"
+ *   4  short  sürüm
+ *   6  short  ayet sayısı
+ *   8  {int konum, int uzunluk, int süre (ms)}[ayet sayısı]
+ *  ..  MPEG çerçeveleri
+ * </pre>
+ * Android'e bağımlı değildir.
+ */
+public final class AudioPack {
+
+    static final int MAGIC = 0x31504151; // "QAP1"
+    static final short VERSION = 1;
+    static final String PACK_FILE = "surah.qap";
+    private static final int HEADER_SIZE = 8;
+    private static final int ENTRY_SIZE = 12;
+
+    // MPEG-1 ve MPEG-2/2.5 Layer III bit hızları (kbps)
+    private static final int[] BITRATES_V1 = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 0};
+    private static final int[] BITRATES_V2 = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160, 0};
+    private static final int[] SAMPLE_RATES_V1 = {44100, 48000, 32000, 0};
+
+    public final File file;
+    public final int ayahCount;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final int[] durations;
+
+    private AudioPack(File file, int ayahCount) {
+        this.file = file;
+        this.ayahCount = ayahCount;
+        this.offsets = new int[ayahCount];
+        this.lengths = new int[ayahCount];
+        this.durations = new int[ayahCount];
+    }
+
+    public static File packFile(File surahDir) {
+        return new File(surahDir, PACK_FILE);
+    }
+
+    /** Yalnızca başlık tablosunu okur; ses verisine dokunmaz. */
+    public static AudioPack open(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+            ByteBuffer header = read(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+                throw new IOException("Unknown audio pack: " + file);
+            }
+            int ayahCount = header.getShort();
+            if (ayahCount < 1) {
+                throw new IOException("Unknown audio pack: " + file);
+            }
+            AudioPack pack = new AudioPack(file, ayahCount);
+            ByteBuffer table = read(channel, HEADER_SIZE, ayahCount * ENTRY_SIZE);
+            long size = channel.size();
+            for (int i = 0; i < ayahCount; i++) {
+                pack.offsets[i] = table.getInt();
+                pack.lengths[i] = table.getInt();
+                pack.durations[i] = table.getInt();
+                if (pack.offsets[i] < 0 || pack.lengths[i] < 0
+                        || (long) pack.offsets[i] + pack.lengths[i] > size) {
+                    throw new IOException("Corrupt audio pack: " + file);
+                }
+            }
+            return pack;
+        }
+    }
+
+    /**
+     * {@code surahDir} içindeki "001.mp3".."NNN.mp3" dosyalarından paketi yazar
+     * (geçici dosya + yeniden adlandırma). Ayet dosyaları silinmez; eksik ayet varsa hata.
+     */
+    public static AudioPack build(File surahDir, int ayahCount) throws IOException {
+        File target = packFile(surahDir);
+        AudioPack pack = new AudioPack(target, ayahCount);
+        File tmp = new File(target.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp); FileChannel channel = out.getChannel()) {
+            long position = HEADER_SIZE + (long) ayahCount * ENTRY_SIZE;
+            channel.position(position);
+            for (int ayah = 1; ayah <= ayahCount; ayah++) {
+                File source = AudioDownloader.ayahFile(surahDir, ayah);
+                if (source.length() == 0) {
+                    throw new IOException("Missing ayah " + ayah + " in " + surahDir);
+                }
+                byte[] data = Files.readAllBytes(source.toPath());
+                int start = audioStart(data);
+                int end = audioEnd(data, start);
+                ByteBuffer frames = ByteBuffer.wrap(data, start, end - start);
+                while (frames.hasRemaining()) {
+                    channel.write(frames);
+                }
+                pack.offsets[ayah - 1] = (int) position;
+                pack.lengths[ayah - 1] = end - start;
+                pack.durations[ayah - 1] = durationMillis(data, start, end);
+                position += end - start;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + ayahCount * ENTRY_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) ayahCount);
+            for (int i = 0; i < ayahCount; i++) {
+                header.putInt(pack.offsets[i]).putInt(pack.lengths[i]).putInt(pack.durations[i]);
+            }
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        if (!tmp.renameTo(target)) {
+            tmp.delete();
+            throw new IOException("Cannot replace " + target);
+        }
+        return pack;
+    }
+
+    public boolean has(int ayah) {
+        return ayah >= 1 && ayah <= ayahCount && lengths[ayah - 1] > 0;
+    }
+
+    /** Ayetin dosya başından bayt konumu. */
+    public long offset(int ayah) {
+        return offsets[ayah - 1];
+    }
+
+    public int length(int ayah) {
+        return lengths[ayah - 1];
+    }
+
+    public int durationMillis(int ayah) {
+        return durations[ayah - 1];
+    }
+
+    /** Surenin başından bu ayetin başına kadar geçen süre (ms). */
+    public long startMillis(int ayah) {
+        long start = 0;
+        for (int i = 0; i < ayah - 1; i++) {
+            start += durations[i];
+        }
+        return start;
+    }
+
+    /** Tek ayeti ayrı bir MP3 dosyasına kopyalar (dosya yolu bekleyen oynatıcılar için). */
+    public void copyAyah(int ayah, File target) throws IOException {
+        File tmp = new File(target.getPath() + ".tmp");
+        try (FileInputStream in = new FileInputStream(file); FileChannel source = in.getChannel();
+             FileOutputStream out = new FileOutputStream(tmp); FileChannel sink = out.getChannel()) {
+            long position = offset(ayah);
+            long remaining = length(ayah);
+            while (remaining > 0) {
+                long copied = source.transferTo(position, remaining, sink);
+                if (copied <= 0) {
+                    throw new IOException("Truncated audio pack");
+                }
+                position += copied;
+                remaining -= copied;
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        if (!tmp.renameTo(target)) {
+            tmp.delete();
+            throw new IOException("Cannot replace " + target);
+        }
+    }
+
+    /** Başta ID3v2 etiketi varsa atlanır. */
+    static int audioStart(byte[] data) {
+        if (data.length >= 10 && data[0] == 'I' && data[1] == 'D' && data[2] == '3') {
+            // Boyut 4 x 7 bit (synchsafe); altbilgi bayrağı varsa +10
+            int size = (data[6] & 0x7F) << 21 | (data[7] & 0x7F) << 14 | (data[8] & 0x7F) << 7 | (data[9] & 0x7F);
+            int start = 10 + size + ((data[5] & 0x10) != 0 ? 10 : 0);
+            return Math.min(start, data.length);
+        }
+        return 0;
+    }
+
+    /** Sonda ID3v1 ("TAG", 128 bayt) varsa atlanır. */
+    static int audioEnd(byte[] data, int start) {
+        int end = data.length;
+        if (end - start >= 128 && data[end - 128] == 'T' && data[end - 127] == 'A' && data[end - 126] == 'G') {
+            end -= 128;
+        }
+        return end;
+    }
+
+    /**
+     * Layer III çerçeve başlıklarından süre. Senkron kaybolursa bir sonraki
+     * senkron sözcüğü aranır; çözülemeyen baytlar süreye katılmaz.
+     */
+    static int durationMillis(byte[] data, int start, int end) {
+        long micros = 0;
+        int i = start;
+        while (i + 4 <= end) {
+            int b1 = data[i + 1] & 0xFF;
+            int b2 = data[i + 2] & 0xFF;
+            if ((data[i] & 0xFF) != 0xFF || (b1 & 0xE0) != 0xE0) {
+                i++;
+                continue;
+            }
+            int version = (b1 >> 3) & 3; // 3: MPEG-1, 2: MPEG-2, 0: MPEG-2.5
+            int layer = (b1 >> 1) & 3;   // 1: Layer III
+            int bitrateIndex = b2 >> 4;
+            int rateIndex = (b2 >> 2) & 3;
+            if (version == 1 || layer != 1 || rateIndex == 3) {
+                i++;
+                continue;
+            }
+            boolean v1 = version == 3;
+            int bitrate = (v1 ? BITRATES_V1 : BITRATES_V2)[bitrateIndex] * 1000;
+            int sampleRate = SAMPLE_RATES_V1[rateIndex] >> (v1 ? 0 : version == 2 ? 1 : 2);
+            if (bitrate == 0) {
+                i++;
+                continue;
+            }
+            int samples = v1 ? 1152 : 576;
+            int frameLength = samples / 8 * bitrate / sampleRate + ((b2 >> 1) & 1);
+            micros += samples * 1_000_000L / sampleRate;
+            i += frameLength;
+        }
+        return (int) (micros / 1000);
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated audio pack");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
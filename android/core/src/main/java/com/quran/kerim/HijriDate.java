@@ -0,0 +1,133 @@
+package com.quran.kerim;
+
+/**
+ * Hicri tarih. Android'e bağımlı değildir; android.icu.util.IslamicCalendar
+ * API 24 istediği için elle hesaplanır.
+ *
+ * 1440-1480 yılları için Ümmü'l-Kurâ ay uzunlukları tablodan okunur (tablo
+ * JDK'nın Hijrah-umalqura verisinden üretildi). Aralık dışında aritmetik
+ * ("Kuveyt") takvime düşülür; o da gözleme dayalı takvimlerden en fazla bir
+ * gün sapar.
+ */
+public final class HijriDate {
+
+    public static final String[] MONTHS = {
+        "Muharrem", "Safer", "Rebiülevvel", "Rebiülahir", "Cemaziyelevvel", "Cemaziyelahir",
+        "Recep", "Şaban", "Ramazan", "Şevval", "Zilkade", "Zilhicce"
+    };
+
+    // 1 Muharrem 1 (16 Temmuz 622, Jülyen) ile 1 Ocak 1970 arasındaki gün farkı
+    private static final int EPOCH_OFFSET = 492148;
+    private static final int CYCLE_DAYS = 10631; // 30 yıl
+
+    private static final int TABLE_FIRST_YEAR = 1440;
+    private static final int TABLE_START_EPOCH_DAY = 17785; // 1 Muharrem 1440 = 11 Eylül 2018
+    // Yıl başına 12 bit: bit (ay - 1) set ise ay 30, değilse 29 gün
+    private static final short[] MONTH_MASKS = {
+        0x2BA, 0x5B5, 0x5AA, 0xD55, 0xA9A, 0x92E, 0x26E, 0x55D,
+        0xADA, 0x6D4, 0x6A5, 0xB27, 0xA4D, 0x4AD, 0x56D, 0xB5A,
+        0x754, 0xF49, 0xE92, 0xD26, 0xA56, 0x356, 0x6B5, 0xBAA,
+        0xB92, 0xB25, 0x68B, 0xA9B, 0x55A, 0xADA, 0x5B4, 0xDA9,
+        0xB52, 0xA9A, 0x536, 0x276, 0x575, 0xAF2, 0x6D4, 0x6A9,
+        0x555
+    };
+    private static final int TABLE_END_EPOCH_DAY = tableEndEpochDay();
+
+    public final int year;
+    public final int month; // 1-12
+    public final int day;
+
+    private HijriDate(int year, int month, int day) {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+    }
+
+    /** Yerel epoch gününe ({@link PrayerTimetable#localEpochDay}) karşılık gelen Hicri tarih. */
+    public static HijriDate fromEpochDay(int epochDay) {
+        if (epochDay >= TABLE_START_EPOCH_DAY && epochDay < TABLE_END_EPOCH_DAY) {
+            return fromTable(epochDay - TABLE_START_EPOCH_DAY);
+        }
+        return arithmetic(epochDay);
+    }
+
+    private static HijriDate fromTable(int rem) {
+        int index = 0;
+        int yearLength = tableYearLength(index);
+        while (rem >= yearLength) {
+            rem -= yearLength;
+            index++;
+            yearLength = tableYearLength(index);
+        }
+        int mask = MONTH_MASKS[index];
+        int month = 1;
+        int monthLength = 29 + (mask & 1);
+        while (rem >= monthLength) {
+            rem -= monthLength;
+            month++;
+            monthLength = 29 + ((mask >> (month - 1)) & 1);
+        }
+        return new HijriDate(TABLE_FIRST_YEAR + index, month, rem + 1);
+    }
+
+    private static int tableYearLength(int index) {
+        return 348 + Integer.bitCount(MONTH_MASKS[index]);
+    }
+
+    private static int tableEndEpochDay() {
+        int end = TABLE_START_EPOCH_DAY;
+        for (int i = 0; i < MONTH_MASKS.length; i++) {
+            end += tableYearLength(i);
+        }
+        return end;
+    }
+
+    /** Aritmetik takvim: 30 yıllık döngüde 11 artık yıl. */
+    private static HijriDate arithmetic(int epochDay) {
+        int days = epochDay + EPOCH_OFFSET;
+        int cycles = days / CYCLE_DAYS;
+        int rem = days - cycles * CYCLE_DAYS;
+
+        int year = cycles * 30 + 1;
+        int yearLength = yearLength(year);
+        while (rem >= yearLength) {
+            rem -= yearLength;
+            year++;
+            yearLength = yearLength(year);
+        }
+
+        int month = 1;
+        int monthLength = monthLength(year, month);
+        while (rem >= monthLength) {
+            rem -= monthLength;
+            month++;
+            monthLength = monthLength(year, month);
+        }
+        return new HijriDate(year, month, rem + 1);
+    }
+
+    static boolean isLeapYear(int year) {
+        return (14 + 11 * year) % 30 < 11;
+    }
+
+    private static int yearLength(int year) {
+        return isLeapYear(year) ? 355 : 354;
+    }
+
+    private static int monthLength(int year, int month) {
+        if (month == 12) {
+            return isLeapYear(year) ? 30 : 29;
+        }
+        return month % 2 == 1 ? 30 : 29;
+    }
+
+    public String monthName() {
+        return MONTHS[month - 1];
+    }
+
+    /** "8 Recep 1442" */
+    @Override
+    public String toString() {
+        return day + " " + monthName() + " " + year;
+    }
+}
@@ -0,0 +1,270 @@
+package com.quran.kerim;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sürüm derlemelerinde de açık kalacak kadar ucuz performans ölçümleri.
+ * Android'e bağımlı değildir.
+ *
+ * Sayaçlar ve gecikme histogramları kilitsizdir (AtomicLongArray); kayıt bellek
+ * ayırmaz. Histogram kovaları ikinin kuvvetleridir (ms): [0,1), [1,2), [2,4) ...
+ * Son olaylar sabit boyutlu bir halka tamponda tutulur; eşzamanlı yazımda bir
+ * olayın alanları karışabilir, ölçüm için bu kabul edilir.
+ *
+ * Toplamlar {@link #write} ile dosyaya yazılır ve süreç yeniden başladığında
+ * {@link #load} ile eklenir; halka tampon yalnızca bellektedir.
+ */
+public final class Metrics {
+
+    // Sayaçlar
+    public static final int WIDGET_WAKEUP = 0;
+    public static final int WIDGET_REFRESH = 1;
+    public static final int NOTIFICATION_POST = 2;
+    public static final int PRAYER_ALARM = 3;
+    public static final int ALARM_RESCHEDULE = 4;
+    public static final int BRIDGE_UPDATE_WIDGET = 5;
+    public static final int SYNC_RUN = 6;
+    public static final int SYNC_FAILURE = 7;
+    public static final int WIDGET_REFRESH_COALESCED = 8;
+    public static final int BACKGROUND_TIMEOUT = 9;
+    public static final String[] COUNTER_NAMES = {
+        "widgetWakeup", "widgetRefresh", "notificationPost", "prayerAlarm",
+        "alarmReschedule", "bridgeUpdateWidget", "syncRun", "syncFailure",
+        "widgetRefreshCoalesced", "backgroundTimeout"
+    };
+
+    // Gecikme histogramları (ms)
+    public static final int WIDGET_REFRESH_MS = 0;
+    public static final int WIDGET_WAKEUP_LATENESS_MS = 1;
+    public static final int PRAYER_ALARM_LATENESS_MS = 2;
+    public static final int ALARM_RESCHEDULE_MS = 3;
+    public static final int BRIDGE_UPDATE_WIDGET_MS = 4;
+    public static final int SYNC_MS = 5;
+    public static final int WIDGET_UPDATE_WORK_MS = 6;
+    public static final String[] HISTOGRAM_NAMES = {
+        "widgetRefreshMs", "widgetWakeupLatenessMs", "prayerAlarmLatenessMs",
+        "alarmRescheduleMs", "bridgeUpdateWidgetMs", "syncMs", "widgetUpdateWorkMs"
+    };
+
+    public static final int BUCKETS = 20;
+    public static final int RING_SIZE = 128;
+
+    private static final int MAGIC = 0x3154454D; // "MET1"
+    // Histogram başına: kovalar, toplam, en büyük
+    private static final int HISTOGRAM_STRIDE = BUCKETS + 2;
+
+    private static final AtomicLongArray counters = new AtomicLongArray(COUNTER_NAMES.length);
+    private static final AtomicLongArray histograms =
+            new AtomicLongArray(HISTOGRAM_NAMES.length * HISTOGRAM_STRIDE);
+    private static final AtomicLong since = new AtomicLong(System.currentTimeMillis());
+
+    // Olay halkası: sıra numarası & (RING_SIZE - 1) yuvası
+    private static final AtomicLong eventSequence = new AtomicLong();
+    private static final long[] eventTimes = new long[RING_SIZE];
+    private static final int[] eventKinds = new int[RING_SIZE];
+    private static final long[] eventValues = new long[RING_SIZE];
+
+    private Metrics() {
+    }
+
+    public static void count(int counter) {
+        counters.incrementAndGet(counter);
+    }
+
+    /** Ölçülecek işin başında; sonuç {@link #stop}'a verilir. */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /** {@link #start}'tan bu yana geçen süreyi kaydeder. */
+    public static void stop(int histogram, long startNanos) {
+        record(histogram, (System.nanoTime() - startNanos) / 1_000_000L);
+    }
+
+    public static void record(int histogram, long millis) {
+        long value = Math.max(0, millis);
+        int base = histogram * HISTOGRAM_STRIDE;
+        histograms.incrementAndGet(base + bucket(value));
+        histograms.addAndGet(base + BUCKETS, value);
+        int maxIndex = base + BUCKETS + 1;
+        long max;
+        while (value > (max = histograms.get(maxIndex))) {
+            if (histograms.compareAndSet(maxIndex, max, value)) {
+                break;
+            }
+        }
+        event(histogram, value);
+    }
+
+    /** Halka tampona olay ekler (tür: histogram indeksi, değer: ms). */
+    public static void event(int kind, long value) {
+        int slot = (int) (eventSequence.getAndIncrement() & (RING_SIZE - 1));
+        eventTimes[slot] = System.currentTimeMillis();
+        eventKinds[slot] = kind;
+        eventValues[slot] = value;
+    }
+
+    public static int bucket(long millis) {
+        if (millis <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+    }
+
+    /** Kovanın üst sınırı (ms); son kova için Long.MAX_VALUE. */
+    public static long bucketLimit(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    public static long counter(int counter) {
+        return counters.get(counter);
+    }
+
+    public static long histogramCount(int histogram) {
+        int base = histogram * HISTOGRAM_STRIDE;
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += histograms.get(base + i);
+        }
+        return total;
+    }
+
+    /**
+     * Yüzdelik (0-100) tahmini: değerin düştüğü kovanın üst sınırı (ms).
+     * Örnek yoksa 0.
+     */
+    public static long percentile(int histogram, int percent) {
+        int base = histogram * HISTOGRAM_STRIDE;
+        long total = histogramCount(histogram);
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (total * percent + 99) / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histograms.get(base + i);
+            if (seen >= rank) {
+                return i == BUCKETS - 1 ? histograms.get(base + BUCKETS + 1) : bucketLimit(i);
+            }
+        }
+        return histograms.get(base + BUCKETS + 1);
+    }
+
+    /** Tüm ölçümler JSON olarak; günlük oranlar {@code now}'a göre hesaplanır. */
+    public static String toJson(long now) {
+        long start = since.get();
+        double days = Math.max(1.0 / 24, (now - start) / 86400000.0);
+        StringBuilder json = new StringBuilder(2048);
+        json.append("{\"since\":").append(start).append(",\"counters\":{");
+        for (int i = 0; i < COUNTER_NAMES.length; i++) {
+            long value = counters.get(i);
+            json.append(i > 0 ? "," : "").append('"').append(COUNTER_NAMES[i]).append("\":{\"total\":")
+                    .append(value).append(",\"perDay\":")
+                    .append(String.format(Locale.US, "%.1f", value / days)).append('}');
+        }
+        json.append("},\"histograms\":{");
+        for (int h = 0; h < HISTOGRAM_NAMES.length; h++) {
+            int base = h * HISTOGRAM_STRIDE;
+            long count = histogramCount(h);
+            json.append(h > 0 ? "," : "").append('"').append(HISTOGRAM_NAMES[h]).append("\":{\"count\":").append(count)
+                    .append(",\"mean\":").append(count > 0 ? histograms.get(base + BUCKETS) / count : 0)
+                    .append(",\"p50\":").append(percentile(h, 50))
+                    .append(",\"p95\":").append(percentile(h, 95))
+                    .append(",\"max\":").append(histograms.get(base + BUCKETS + 1))
+                    .append(",\"buckets\":[");
+            for (int i = 0; i < BUCKETS; i++) {
+                json.append(i > 0 ? "," : "").append(histograms.get(base + i));
+            }
+            json.append("]}");
+        }
+        json.append("},\"events\":[");
+        long end = eventSequence.get();
+        boolean first = true;
+        // En yeni olay önce
+        for (long seq = end - 1; seq >= 0 && seq >= end - RING_SIZE; seq--) {
+            int slot = (int) (seq & (RING_SIZE - 1));
+            int kind = eventKinds[slot];
+            json.append(first ? "" : ",").append("{\"time\":").append(eventTimes[slot])
+                    .append(",\"kind\":\"").append(kind < HISTOGRAM_NAMES.length ? HISTOGRAM_NAMES[kind] : "?")
+                    .append("\",\"value\":").append(eventValues[slot]).append('}');
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    /** Toplamları geçici dosyaya yazıp yeniden adlandırır. */
+    public static void write(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+            out.writeInt(MAGIC);
+            out.writeLong(since.get());
+            out.writeShort(counters.length());
+            for (int i = 0; i < counters.length(); i++) {
+                out.writeLong(counters.get(i));
+            }
+            out.writeShort(histograms.length());
+            for (int i = 0; i < histograms.length(); i++) {
+                out.writeLong(histograms.get(i));
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Önceki süreçlerin toplamlarını bellektekilere ekler. Yeni eklenen ölçümler
+     * (dosyada olmayanlar) sıfırdan başlar.
+     */
+    public static void load(File file) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Unknown metrics format");
+            }
+            long fileSince = in.readLong();
+            since.accumulateAndGet(fileSince, Math::min);
+            int counterCount = in.readShort();
+            for (int i = 0; i < counterCount; i++) {
+                long value = in.readLong();
+                if (i < counters.length()) {
+                    counters.addAndGet(i, value);
+                }
+            }
+            int histogramLength = in.readShort();
+            for (int i = 0; i < histogramLength; i++) {
+                long value = in.readLong();
+                if (i >= histograms.length()) {
+                    continue;
+                }
+                if (i % HISTOGRAM_STRIDE == BUCKETS + 1) {
+                    int index = i;
+                    histograms.getAndUpdate(index, current -> Math.max(current, value));
+                } else {
+                    histograms.addAndGet(i, value);
+                }
+            }
+        }
+    }
+
+    public static void reset() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        for (int i = 0; i < histograms.length(); i++) {
+            histograms.set(i, 0);
+        }
+        since.set(System.currentTimeMillis());
+        eventSequence.set(0);
+    }
+}
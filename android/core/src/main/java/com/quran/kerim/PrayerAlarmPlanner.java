@@ -0,0 +1,157 @@
+package com.quran.kerim;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Önümüzdeki günlerin vakit alarmlarını planlar ve önceki planla farkını çıkarır.
+ * Android'e bağımlı değildir.
+ *
+ * Alarm kimliği gün ve vakitten türetilir ({@link #alarmId}); aynı vakit her
+ * planlamada aynı kimliği alır, böylece yalnızca zamanı değişen alarmlar
+ * yeniden kurulur, değişmeyenlere dokunulmaz.
+ */
+final class PrayerAlarmPlanner {
+
+    static final int BASE_ID = 3000;
+    /** Kimlik uzayı bu kadar günde bir döner; pencere bundan kısa olmalı. */
+    static final int SLOT_DAYS = 16;
+    static final int MAX_DAYS = SLOT_DAYS - 2;
+
+    private static final long MINUTE = 60000L;
+    private static final long DAY = 86400000L;
+
+    /** Gün ofsetine göre (0 = bugün) vakitleri gece yarısından itibaren dakika olarak verir. */
+    interface MinutesSource {
+        void minutes(int dayOffset, int[] out);
+    }
+
+    static final class Alarm {
+        final int id;
+        final int prayer;
+        final int epochDay;
+        final int wallMinute;
+        final int adjustment;
+        final long triggerAt;
+
+        Alarm(int id, int prayer, int epochDay, int wallMinute, int adjustment, long triggerAt) {
+            this.id = id;
+            this.prayer = prayer;
+            this.epochDay = epochDay;
+            this.wallMinute = wallMinute;
+            this.adjustment = adjustment;
+            this.triggerAt = triggerAt;
+        }
+    }
+
+    /** Önceki plana göre iptal edilecek kimlikler ve (yeniden) kurulacak alarmlar. */
+    static final class Diff {
+        final List<Integer> cancel = new ArrayList<>();
+        final List<Alarm> arm = new ArrayList<>();
+    }
+
+    private PrayerAlarmPlanner() {
+    }
+
+    static int alarmId(int epochDay, int prayer) {
+        int slot = epochDay % SLOT_DAYS;
+        if (slot < 0) {
+            slot += SLOT_DAYS;
+        }
+        return BASE_ID + slot * PrayerTimeCalculator.PRAYER_COUNT + prayer;
+    }
+
+    /**
+     * Bugünden başlayarak {@code days} günlük pencerede, {@code nowMillis}'ten sonra
+     * çalacak alarmları zaman sırasıyla döner.
+     *
+     * @param enabled vakit başına açık/kapalı (6 adet)
+     * @param adjustments vakit başına dakika farkı; eksi önce, artı sonra (6 adet)
+     */
+    static List<Alarm> plan(long nowMillis, TimeZone timeZone, MinutesSource source,
+                            boolean[] enabled, int[] adjustments, int days) {
+        days = Math.max(1, Math.min(MAX_DAYS, days));
+        int today = PrayerTimetable.localEpochDay(timeZone, nowMillis);
+        int[] minutes = new int[PrayerTimeCalculator.PRAYER_COUNT];
+        List<Alarm> alarms = new ArrayList<>();
+        for (int offset = 0; offset < days; offset++) {
+            source.minutes(offset, minutes);
+            int epochDay = today + offset;
+            long wallMidnight = epochDay * DAY;
+            for (int prayer = 0; prayer < PrayerTimeCalculator.PRAYER_COUNT; prayer++) {
+                if (!enabled[prayer]) {
+                    continue;
+                }
+                long triggerAt = PrayerSchedule.toUtc(
+                        wallMidnight + (minutes[prayer] + adjustments[prayer]) * MINUTE, timeZone);
+                if (triggerAt > nowMillis) {
+                    alarms.add(new Alarm(alarmId(epochDay, prayer), prayer, epochDay,
+                            minutes[prayer], adjustments[prayer], triggerAt));
+                }
+            }
+        }
+        // Eksi düzeltmeler vakit sırasını bozabilir
+        alarms.sort((a, b) -> Long.compare(a.triggerAt, b.triggerAt));
+        return alarms;
+    }
+
+    /** Kurulu alarmlar (kimlik → zaman) ile yeni plan arasındaki fark. */
+    static Diff diff(Map<Integer, Long> armed, List<Alarm> planned) {
+        Diff diff = new Diff();
+        Map<Integer, Long> remaining = new HashMap<>(armed);
+        for (Alarm alarm : planned) {
+            Long previous = remaining.remove(alarm.id);
+            if (previous == null || previous != alarm.triggerAt) {
+                diff.arm.add(alarm);
+            }
+        }
+        diff.cancel.addAll(remaining.keySet());
+        return diff;
+    }
+
+    /** Kurulu alarmları tercih dosyasında saklamak için: "kimlik:zaman;..." */
+    static String encode(List<Alarm> alarms) {
+        StringBuilder sb = new StringBuilder(alarms.size() * 20);
+        for (Alarm alarm : alarms) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(alarm.id).append(':').append(alarm.triggerAt);
+        }
+        return sb.toString();
+    }
+
+    static Map<Integer, Long> decode(String value) {
+        Map<Integer, Long> armed = new HashMap<>();
+        if (value == null || value.isEmpty()) {
+            return armed;
+        }
+        for (String entry : value.split(";")) {
+            int colon = entry.indexOf(':');
+            try {
+                armed.put(Integer.parseInt(entry.substring(0, colon)), Long.parseLong(entry.substring(colon + 1)));
+            } catch (RuntimeException e) {
+                // bozuk girdi atlanır; karşılığı olan alarm bir sonraki planda yeniden kurulur
+            }
+        }
+        return armed;
+    }
+
+    /** Bildirim metni; JS'teki createNotificationMessage ile aynı kurallar. */
+    static String message(int prayer, int adjustment, String template) {
+        String name = PrayerSchedule.name(prayer);
+        if (template != null && !template.isEmpty()) {
+            return template.replace("{prayer}", name).replace("{minutes}", String.valueOf(Math.abs(adjustment)));
+        }
+        if (adjustment == 0) {
+            return name + " namazı vakti girdi! 🕌";
+        } else if (adjustment < 0) {
+            return String.format(Locale.US, "%s namazına %d dakika kaldı", name, -adjustment);
+        }
+        return String.format(Locale.US, "%s namazı vakti gireli %d dakika oldu", name, adjustment);
+    }
+}
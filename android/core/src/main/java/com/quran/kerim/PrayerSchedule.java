@@ -0,0 +1,133 @@
+package com.quran.kerim;
+
+import java.util.TimeZone;
+
+/**
+ * Bir günün vakitleri ve mevcut/sonraki vakit çözümleyicisi.
+ *
+ * Vakitler iki biçimde tutulur: gösterim için duvar saati dakikası (HH:mm) ve
+ * karşılaştırma için yerel gece yarısından itibaren geçen gerçek dakika. İkisi
+ * yalnızca yaz saati geçişi olan günlerde farklıdır. Yatsı'dan sonraki vakit
+ * yarının İmsak'ıdır (indeks {@link #TOMORROW_IMSAK}).
+ *
+ * Nesne yeniden kullanılabilir; {@link #set} ve sorgular bellek ayırmaz.
+ */
+public final class PrayerSchedule {
+
+    public static final int COUNT = PrayerTimeCalculator.PRAYER_COUNT;
+    public static final int TOMORROW_IMSAK = COUNT;
+    public static final String[] NAMES = {"İmsak", "Güneş", "Öğle", "İkindi", "Akşam", "Yatsı"};
+
+    private static final long MINUTE = 60000L;
+    private static final long DAY = 86400000L;
+
+    // 0..5 bugün, 6 yarının İmsak'ı
+    private final int[] wall = new int[COUNT + 1];
+    private final int[] elapsed = new int[COUNT + 1];
+    private long midnightMillis;
+    private int dayLength;
+    private int epochDay = Integer.MIN_VALUE;
+
+    /**
+     * @param todayWall bugünün vakitleri, duvar saati dakikası (6 adet)
+     * @param tomorrowImsakWall yarının İmsak'ı, duvar saati dakikası
+     * @param localEpochDay bugünün yerel epoch günü
+     */
+    public PrayerSchedule set(int[] todayWall, int tomorrowImsakWall, int localEpochDay, TimeZone timeZone) {
+        long wallMidnight = localEpochDay * DAY;
+        midnightMillis = toUtc(wallMidnight, timeZone);
+        int midnightOffset = timeZone.getOffset(midnightMillis);
+
+        for (int i = 0; i < COUNT; i++) {
+            wall[i] = todayWall[i];
+            elapsed[i] = toElapsed(todayWall[i], wallMidnight, midnightOffset, timeZone);
+        }
+        wall[TOMORROW_IMSAK] = tomorrowImsakWall;
+        elapsed[TOMORROW_IMSAK] = toElapsed(1440 + tomorrowImsakWall, wallMidnight, midnightOffset, timeZone);
+
+        dayLength = (int) ((toUtc(wallMidnight + DAY, timeZone) - midnightMillis) / MINUTE);
+        epochDay = localEpochDay;
+        return this;
+    }
+
+    private static int toElapsed(int wallMinute, long wallMidnight, int midnightOffset, TimeZone timeZone) {
+        long instant = toUtc(wallMidnight + wallMinute * MINUTE, timeZone);
+        return wallMinute - (timeZone.getOffset(instant) - midnightOffset) / 60000;
+    }
+
+    /** Yerel duvar saatini UTC anına çevirir (saat dilimi farkı iki adımda bulunur). */
+    static long toUtc(long wallMillis, TimeZone timeZone) {
+        long guess = wallMillis - timeZone.getOffset(wallMillis);
+        return wallMillis - timeZone.getOffset(guess);
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    /** {@code nowMillis} bu günün içinde mi? Değilse çağıran yeni günü yüklemeli. */
+    public boolean covers(long nowMillis) {
+        long diff = nowMillis - midnightMillis;
+        return diff >= 0 && diff < dayLength * MINUTE;
+    }
+
+    /** Yerel gece yarısından bu yana geçen gerçek dakika. */
+    public int minuteOf(long nowMillis) {
+        return (int) ((nowMillis - midnightMillis) / MINUTE);
+    }
+
+    /** Vakti girmiş (zamanı {@code minute} veya öncesinde olan) bugünkü vakit sayısı. */
+    private int passedCount(int minute) {
+        int[] e = elapsed;
+        return (minute >= e[0] ? 1 : 0) + (minute >= e[1] ? 1 : 0) + (minute >= e[2] ? 1 : 0)
+                + (minute >= e[3] ? 1 : 0) + (minute >= e[4] ? 1 : 0) + (minute >= e[5] ? 1 : 0);
+    }
+
+    /** İçinde bulunulan vakit (0-5). İmsak'tan önce dünün Yatsı'sı sürer. */
+    public int currentIndex(int minute) {
+        int passed = passedCount(minute);
+        return passed == 0 ? COUNT - 1 : passed - 1;
+    }
+
+    /** Sıradaki vakit (0-5) ya da Yatsı'dan sonra {@link #TOMORROW_IMSAK}. */
+    public int nextIndex(int minute) {
+        return passedCount(minute);
+    }
+
+    /** Vaktin duvar saati dakikası (gösterim için). */
+    public int wallTime(int index) {
+        return wall[index];
+    }
+
+    /** {@code index} vaktine kalan gerçek dakika. */
+    public int minutesUntil(int index, int minute) {
+        return elapsed[index] - minute;
+    }
+
+    /** {@code index} vaktinin başladığı an (epoch ms); sistemin çizdiği geri sayımın hedefi. */
+    public long millisOf(int index) {
+        return midnightMillis + elapsed[index] * MINUTE;
+    }
+
+    /** Vakit adı; {@link #TOMORROW_IMSAK} için de "İmsak". */
+    public static String name(int index) {
+        return NAMES[index % COUNT];
+    }
+
+    /** Widget metinleri {ad, saat, kalan}: sıradaki vakit; Yatsı'dan sonra yarının İmsak'ı. */
+    public String[] describeNext(int minute) {
+        int next = nextIndex(minute);
+        return new String[]{
+            name(next),
+            PrayerTimeCalculator.formatMinutes(wall[next]),
+            formatRemaining(minutesUntil(next, minute))
+        };
+    }
+
+    /** Geri sayım metni ("2s 5dk", "45dk"). */
+    public static String formatRemaining(int diffMinutes) {
+        int hours = diffMinutes / 60;
+        int minutes = diffMinutes % 60;
+        return hours > 0 ? hours + "s " + minutes + "dk" : minutes + "dk";
+    }
+}
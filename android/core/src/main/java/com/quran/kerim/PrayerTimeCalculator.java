@@ -0,0 +1,309 @@
+package com.quran.kerim;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Cihaz üzerinde namaz vakti hesaplayıcı.
+ *
+ * Aladhan API'nin kullandığı astronomik formülleri (PrayTimes) uygular, böylece
+ * aynı "method" numaralarıyla ağ bağlantısı olmadan aynı vakitler elde edilir.
+ * Sonuçlar gün başına 6 adet "gece yarısından itibaren dakika" değeri olarak
+ * döner: İmsak, Güneş, Öğle, İkindi, Akşam, Yatsı (widget sırası).
+ */
+public final class PrayerTimeCalculator {
+
+    public static final int IMSAK = 0;
+    public static final int GUNES = 1;
+    public static final int OGLE = 2;
+    public static final int IKINDI = 3;
+    public static final int AKSAM = 4;
+    public static final int YATSI = 5;
+    public static final int PRAYER_COUNT = 6;
+
+    public static final int METHOD_DIYANET = 13;
+
+    public static final int SCHOOL_STANDARD = 0;
+    public static final int SCHOOL_HANAFI = 1;
+
+    private static final double SUNRISE_ANGLE = 0.833;
+
+    /**
+     * Aladhan "method" parametresinin karşılığı olan hesaplama ayarları.
+     * Açı yerine dakika kullanan yöntemlerde ilgili açı alanı NaN olur.
+     */
+    public static final class Method {
+        public final int id;
+        public final String name;
+        final double fajrAngle;
+        final double ishaAngle;
+        final int ishaMinutes;
+        final double maghribAngle;
+        final int maghribMinutes;
+        /** Aladhan'ın Imsak'ı Fajr'dan kaç dakika önce verdiği (Diyanet'te 0). */
+        public final int imsakMinutes;
+        /** Vakit sırasına göre dakika düzeltmeleri (Diyanet temkinleri gibi). */
+        final int[] offsets;
+
+        Method(int id, String name, double fajrAngle, double ishaAngle, int ishaMinutes,
+               double maghribAngle, int maghribMinutes, int imsakMinutes, int[] offsets) {
+            this.id = id;
+            this.name = name;
+            this.fajrAngle = fajrAngle;
+            this.ishaAngle = ishaAngle;
+            this.ishaMinutes = ishaMinutes;
+            this.maghribAngle = maghribAngle;
+            this.maghribMinutes = maghribMinutes;
+            this.imsakMinutes = imsakMinutes;
+            this.offsets = offsets;
+        }
+    }
+
+    private static final int[] NO_OFFSETS = {0, 0, 0, 0, 0, 0};
+    private static final double NONE = Double.NaN;
+
+    private static final Method[] METHODS = {
+        new Method(0, "Shia Ithna-Ashari", 16, 14, 0, 4, 0, 10, NO_OFFSETS),
+        new Method(1, "Karachi", 18, 18, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(2, "ISNA", 15, 15, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(3, "Muslim World League", 18, 17, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(4, "Umm Al-Qura", 18.5, NONE, 90, NONE, 0, 10, NO_OFFSETS),
+        new Method(5, "Egypt", 19.5, 17.5, 0, NONE, 0, 10, NO_OFFSETS),
+        null,
+        new Method(7, "Tehran", 17.7, 14, 0, 4.5, 0, 10, NO_OFFSETS),
+        new Method(8, "Gulf Region", 19.5, NONE, 90, NONE, 0, 10, NO_OFFSETS),
+        new Method(9, "Kuwait", 18, 17.5, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(10, "Qatar", 18, NONE, 90, NONE, 0, 10, NO_OFFSETS),
+        new Method(11, "Singapore", 20, 18, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(12, "France", 12, 12, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(13, "Diyanet", 18, 17, 0, NONE, 0, 0, new int[]{0, -7, 5, 4, 7, 0}),
+        new Method(14, "Russia", 16, 15, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(15, "Moonsighting Committee", 18, 18, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(16, "Dubai", 18.2, 18.2, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(17, "JAKIM", 20, 18, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(18, "Tunisia", 18, 18, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(19, "Algeria", 18, 17, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(20, "KEMENAG", 20, 18, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(21, "Morocco", 19, 17, 0, NONE, 0, 10, NO_OFFSETS),
+        new Method(22, "Portugal", 18, NONE, 77, NONE, 3, 10, NO_OFFSETS),
+        new Method(23, "Jordan", 18, 18, 0, NONE, 5, 10, NO_OFFSETS)
+    };
+
+    /** Bilinmeyen yöntem numaralarında Diyanet'e düşer. */
+    public static Method method(int id) {
+        if (id >= 0 && id < METHODS.length && METHODS[id] != null) {
+            return METHODS[id];
+        }
+        return METHODS[METHOD_DIYANET];
+    }
+
+    private final double latitude;
+    private final double longitude;
+    private final TimeZone timeZone;
+    private final Method method;
+    private final int asrFactor;
+
+    public PrayerTimeCalculator(double latitude, double longitude, TimeZone timeZone,
+                                Method method, int school) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timeZone = timeZone;
+        this.method = method;
+        this.asrFactor = school == SCHOOL_HANAFI ? 2 : 1;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /** Tek günün vakitlerini dakika cinsinden döner (month: 1-12). */
+    public int[] computeDay(int year, int month, int day) {
+        int[] out = new int[PRAYER_COUNT];
+        Calendar cal = Calendar.getInstance(timeZone);
+        cal.clear();
+        cal.set(year, month - 1, day, 12, 0, 0);
+        computeDay(year, month, day, zoneHours(cal), out, 0);
+        return out;
+    }
+
+    /**
+     * {@code start} gününden itibaren {@code days} günün vakitlerini tek bir
+     * düz diziye yazar: gün i, vakit p için indeks i * 6 + p.
+     */
+    public int[] computeRange(int year, int month, int day, int days) {
+        int[] out = new int[days * PRAYER_COUNT];
+        Calendar cal = Calendar.getInstance(timeZone);
+        cal.clear();
+        cal.set(year, month - 1, day, 12, 0, 0);
+        for (int i = 0; i < days; i++) {
+            computeDay(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1,
+                    cal.get(Calendar.DAY_OF_MONTH), zoneHours(cal), out, i * PRAYER_COUNT);
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return out;
+    }
+
+    /** Bir yılın tüm günleri (365 ya da 366 gün). */
+    public int[] computeYear(int year) {
+        Calendar cal = Calendar.getInstance(timeZone);
+        cal.clear();
+        cal.set(year, Calendar.JANUARY, 1);
+        return computeRange(year, 1, 1, cal.getActualMaximum(Calendar.DAY_OF_YEAR));
+    }
+
+    /** O günün öğlen saatindeki UTC farkı (yaz saati dahil). */
+    private double zoneHours(Calendar localNoon) {
+        return timeZone.getOffset(localNoon.getTimeInMillis()) / 3600000.0;
+    }
+
+    private void computeDay(int year, int month, int day, double zone, int[] out, int offset) {
+        double jDate = julian(year, month, day) - longitude / (15 * 24.0);
+
+        // Sabit ilk tahminler (gün kesri olarak); her vakit bu andaki güneş konumuyla
+        // tek geçişte hesaplanır, yineleme yapılmaz
+        double fajr = 5 / 24.0, sunrise = 6 / 24.0, dhuhr = 12 / 24.0, asr = 13 / 24.0;
+        double sunset = 18 / 24.0, maghrib = 18 / 24.0, isha = 18 / 24.0;
+
+        fajr = sunAngleTime(jDate, method.fajrAngle, fajr, true);
+        sunrise = sunAngleTime(jDate, SUNRISE_ANGLE, sunrise, true);
+        dhuhr = midDay(jDate, dhuhr);
+        asr = asrTime(jDate, asrFactor, asr);
+        sunset = sunAngleTime(jDate, SUNRISE_ANGLE, sunset, false);
+        maghrib = Double.isNaN(method.maghribAngle)
+                ? sunset : sunAngleTime(jDate, method.maghribAngle, maghrib, false);
+        isha = Double.isNaN(method.ishaAngle)
+                ? sunset : sunAngleTime(jDate, method.ishaAngle, isha, false);
+
+        // Boylam ve saat dilimi düzeltmesi
+        double adjust = zone - longitude / 15.0;
+        fajr += adjust;
+        sunrise += adjust;
+        dhuhr += adjust;
+        asr += adjust;
+        sunset += adjust;
+        maghrib += adjust;
+        isha += adjust;
+
+        if (Double.isNaN(method.maghribAngle)) {
+            maghrib = sunset + method.maghribMinutes / 60.0;
+        }
+        if (method.ishaMinutes > 0) {
+            isha = maghrib + method.ishaMinutes / 60.0;
+        }
+
+        // Yüksek enlemler: açıya dayalı düzeltme (Aladhan varsayılanı)
+        double night = timeDiff(sunset, sunrise);
+        fajr = adjustHighLat(fajr, sunrise, method.fajrAngle, night, true);
+        if (!Double.isNaN(method.ishaAngle)) {
+            isha = adjustHighLat(isha, sunset, method.ishaAngle, night, false);
+        }
+        if (!Double.isNaN(method.maghribAngle)) {
+            maghrib = adjustHighLat(maghrib, sunset, method.maghribAngle, night, false);
+        }
+
+        int[] offsets = method.offsets;
+        out[offset + IMSAK] = toMinutes(fajr, offsets[IMSAK]);
+        out[offset + GUNES] = toMinutes(sunrise, offsets[GUNES]);
+        out[offset + OGLE] = toMinutes(dhuhr, offsets[OGLE]);
+        out[offset + IKINDI] = toMinutes(asr, offsets[IKINDI]);
+        out[offset + AKSAM] = toMinutes(maghrib, offsets[AKSAM]);
+        out[offset + YATSI] = toMinutes(isha, offsets[YATSI]);
+    }
+
+    private static int toMinutes(double hours, int offsetMinutes) {
+        int minutes = (int) Math.floor(fixHour(hours) * 60 + 0.5) + offsetMinutes;
+        return ((minutes % 1440) + 1440) % 1440;
+    }
+
+    private static double adjustHighLat(double time, double base, double angle, double night, boolean ccw) {
+        double portion = angle / 60.0 * night;
+        double diff = ccw ? timeDiff(time, base) : timeDiff(base, time);
+        if (Double.isNaN(time) || diff > portion) {
+            return base + (ccw ? -portion : portion);
+        }
+        return time;
+    }
+
+    // --- Astronomi ---
+
+    private double midDay(double jDate, double dayFraction) {
+        double eqt = sunEquation(jDate + dayFraction);
+        return fixHour(12 - eqt);
+    }
+
+    private double sunAngleTime(double jDate, double angle, double dayFraction, boolean ccw) {
+        double decl = sunDeclination(jDate + dayFraction);
+        double noon = midDay(jDate, dayFraction);
+        double cosT = (-dsin(angle) - dsin(decl) * dsin(latitude)) / (dcos(decl) * dcos(latitude));
+        double t = darccos(cosT) / 15.0;
+        return noon + (ccw ? -t : t);
+    }
+
+    private double asrTime(double jDate, int factor, double dayFraction) {
+        double decl = sunDeclination(jDate + dayFraction);
+        double angle = -darccot(factor + dtan(Math.abs(latitude - decl)));
+        return sunAngleTime(jDate, angle, dayFraction, false);
+    }
+
+    private static double sunDeclination(double jd) {
+        double d = jd - 2451545.0;
+        double g = fixAngle(357.529 + 0.98560028 * d);
+        double q = fixAngle(280.459 + 0.98564736 * d);
+        double l = fixAngle(q + 1.915 * dsin(g) + 0.020 * dsin(2 * g));
+        double e = 23.439 - 0.00000036 * d;
+        return darcsin(dsin(e) * dsin(l));
+    }
+
+    private static double sunEquation(double jd) {
+        double d = jd - 2451545.0;
+        double g = fixAngle(357.529 + 0.98560028 * d);
+        double q = fixAngle(280.459 + 0.98564736 * d);
+        double l = fixAngle(q + 1.915 * dsin(g) + 0.020 * dsin(2 * g));
+        double e = 23.439 - 0.00000036 * d;
+        double ra = darctan2(dcos(e) * dsin(l), dcos(l)) / 15.0;
+        return q / 15.0 - fixHour(ra);
+    }
+
+    static double julian(int year, int month, int day) {
+        if (month <= 2) {
+            year -= 1;
+            month += 12;
+        }
+        double a = Math.floor(year / 100.0);
+        double b = 2 - a + Math.floor(a / 4.0);
+        return Math.floor(365.25 * (year + 4716)) + Math.floor(30.6001 * (month + 1)) + day + b - 1524.5;
+    }
+
+    private static double timeDiff(double from, double to) {
+        return fixHour(to - from);
+    }
+
+    private static double fixAngle(double a) {
+        a = a - 360.0 * Math.floor(a / 360.0);
+        return a < 0 ? a + 360.0 : a;
+    }
+
+    private static double fixHour(double h) {
+        h = h - 24.0 * Math.floor(h / 24.0);
+        return h < 0 ? h + 24.0 : h;
+    }
+
+    private static double dsin(double d) { return Math.sin(Math.toRadians(d)); }
+    private static double dcos(double d) { return Math.cos(Math.toRadians(d)); }
+    private static double dtan(double d) { return Math.tan(Math.toRadians(d)); }
+    private static double darcsin(double x) { return Math.toDegrees(Math.asin(x)); }
+    private static double darccos(double x) { return Math.toDegrees(Math.acos(x)); }
+    private static double darctan2(double y, double x) { return Math.toDegrees(Math.atan2(y, x)); }
+    private static double darccot(double x) { return Math.toDegrees(Math.atan(1 / x)); }
+
+    /** "HH:mm" biçimi (Aladhan ile aynı). */
+    public static String formatMinutes(int minutes) {
+        int h = minutes / 60;
+        int m = minutes % 60;
+        char[] c = {
+            (char) ('0' + h / 10), (char) ('0' + h % 10), ':',
+            (char) ('0' + m / 10), (char) ('0' + m % 10)
+        };
+        return new String(c);
+    }
+}
@@ -0,0 +1,181 @@
+package com.quran.kerim;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aladhan takvim uç noktasından bir ayın vakitlerini tek istekle alır.
+ * Android'e bağımlı değildir.
+ *
+ * İstekler koşulludur: önceki yanıtın ETag / Last-Modified değerleri gönderilir,
+ * değişmemişse sunucu 304 döner ve gövde indirilmez. Vakitler PrayerTimetable ile
+ * aynı düzende (gün * 6 dakika) döner; İmsak sütunu yöntemin İmsak farkı
+ * uygulanmış İmsak'tır.
+ */
+final class PrayerTimeSync {
+
+    static final String DEFAULT_BASE_URL = "https://api.aladhan.com/v1";
+
+    // Hata sonrası bekleme: 15 dk'dan başlar, her hatada ikiye katlanır, en fazla 12 saat
+    static final long BACKOFF_BASE_MS = 15 * 60_000L;
+    static final long BACKOFF_MAX_MS = 12 * 3_600_000L;
+
+    private static final String[] KEYS = {"Fajr", "Sunrise", "Dhuhr", "Asr", "Maghrib", "Isha"};
+    private static final Pattern TIMINGS = Pattern.compile("\"timings\"\\s*:\\s*\\{([^}]*)\\}");
+    private static final int MAX_BODY = 512 * 1024;
+
+    /** Bir ayın sonucu. {@code minutes} yalnızca {@code modified} ise doludur. */
+    static final class Month {
+        final boolean modified;
+        final short[] minutes;
+        final String etag;
+        final String lastModified;
+
+        Month(boolean modified, short[] minutes, String etag, String lastModified) {
+            this.modified = modified;
+            this.minutes = minutes;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final String baseUrl;
+
+    PrayerTimeSync(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    String calendarUrl(int year, int month, double latitude, double longitude, int method, int school,
+                       TimeZone timeZone) {
+        try {
+            return String.format(Locale.US,
+                    "%s/calendar/%d/%d?latitude=%.6f&longitude=%.6f&method=%d&school=%d&timezonestring=%s",
+                    baseUrl, year, month, latitude, longitude, method, school,
+                    URLEncoder.encode(timeZone.getID(), "UTF-8"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ayı indirir. {@code etag} / {@code lastModified} önceki yanıttan (yoksa null);
+     * sunucu 304 dönerse {@code modified} false olur. Ağ ya da biçim hatasında IOException.
+     */
+    Month fetchMonth(int year, int month, double latitude, double longitude, int methodId, int school,
+                     TimeZone timeZone, String etag, String lastModified) throws IOException {
+        String url = calendarUrl(year, month, latitude, longitude, methodId, school, timeZone);
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(15000);
+        connection.setReadTimeout(30000);
+        connection.setRequestProperty("Accept", "application/json");
+        if (etag != null) {
+            connection.setRequestProperty("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            connection.setRequestProperty("If-Modified-Since", lastModified);
+        }
+        try {
+            int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return new Month(false, null, etag, lastModified);
+            }
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new IOException(url + ": HTTP " + code);
+            }
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = readBody(in);
+            }
+            short[] minutes = parseCalendar(body, daysInMonth(year, month),
+                    PrayerTimeCalculator.method(methodId).imsakMinutes);
+            return new Month(true, minutes, connection.getHeaderField("ETag"),
+                    connection.getHeaderField("Last-Modified"));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Takvim yanıtındaki her günün "timings" nesnesini sırayla okur. Gün sayısı
+     * tutmazsa ya da bir vakit okunamazsa IOException; yarım ay saklanmaz.
+     */
+    static short[] parseCalendar(String json, int days, int imsakMinutes) throws IOException {
+        short[] minutes = new short[days * PrayerTimeCalculator.PRAYER_COUNT];
+        Matcher day = TIMINGS.matcher(json);
+        int index = 0;
+        while (day.find()) {
+            if (index == days) {
+                throw new IOException("Takvimde fazla gün var");
+            }
+            String timings = day.group(1);
+            for (int prayer = 0; prayer < KEYS.length; prayer++) {
+                int value = parseTime(timings, KEYS[prayer]);
+                if (prayer == PrayerTimeCalculator.IMSAK) {
+                    value = (value - imsakMinutes + 1440) % 1440;
+                }
+                minutes[index * PrayerTimeCalculator.PRAYER_COUNT + prayer] = (short) value;
+            }
+            index++;
+        }
+        if (index != days) {
+            throw new IOException("Takvimde " + index + " gün var, " + days + " bekleniyordu");
+        }
+        return minutes;
+    }
+
+    /** "Fajr": "05:12 (+03)" biçiminden gece yarısından itibaren dakika. */
+    private static int parseTime(String timings, String key) throws IOException {
+        Matcher matcher = Pattern.compile("\"" + key + "\"\\s*:\\s*\"(\\d{1,2}):(\\d{2})").matcher(timings);
+        if (!matcher.find()) {
+            throw new IOException(key + " okunamadı");
+        }
+        int hours = Integer.parseInt(matcher.group(1));
+        int mins = Integer.parseInt(matcher.group(2));
+        if (hours > 23 || mins > 59) {
+            throw new IOException(key + " geçersiz: " + hours + ":" + mins);
+        }
+        return hours * 60 + mins;
+    }
+
+    /**
+     * {@code failures}. ardışık hatadan sonra beklenecek süre: üstel artış ve
+     * yarısı rastgele (eşit jitter), böylece tüm cihazlar aynı anda yeniden denemez.
+     */
+    static long backoffMillis(int failures, Random random) {
+        int shift = Math.max(0, Math.min(failures - 1, 16));
+        long delay = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << shift);
+        long half = delay / 2;
+        return half + (long) (random.nextDouble() * half);
+    }
+
+    static int daysInMonth(int year, int month) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(year, month - 1, 1);
+        return cal.getActualMaximum(Calendar.DAY_OF_MONTH);
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        byte[] buffer = new byte[16 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (out.size() + read > MAX_BODY) {
+                throw new IOException("Yanıt çok büyük");
+            }
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,210 @@
+package com.quran.kerim;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Bir konum için önceden hesaplanmış, yıllık namaz vakti tablosu.
+ *
+ * Dosya biçimi (little-endian):
+ * <pre>
+ *   0  int    magic "PTT1"
+ *   4  short  sürüm
+ *   6  byte   method
+ *   7  byte   school
+ *   8  double enlem
+ *  16  double boylam
+ *  24  int    ilk günün yerel epoch günü
+ *  28  short  gün sayısı
+ *  30  short  saat dilimi kimliği uzunluğu (n)
+ *  32  ...    saat dilimi kimliği (UTF-8, n bayt, kısaltılmaz)
+ *  32+n short[gün * 6]  gece yarısından itibaren dakika
+ * </pre>
+ * Okuma tek bir NIO okumasıyla yapılır; vakit arama yalnızca indeks hesabıdır.
+ * Sürüm 1 dosyalar (sabit 33 baytlık kimlik alanı) okunmaz, yeniden üretilir.
+ */
+public final class PrayerTimetable {
+
+    static final int MAGIC = 0x31545450; // "PTT1"
+    static final short VERSION = 2;
+    /** Saat dilimi kimliğinden önceki sabit başlık. */
+    static final int HEADER_SIZE = 32;
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    public final int method;
+    public final int school;
+    public final double latitude;
+    public final double longitude;
+    public final TimeZone timeZone;
+    public final int startEpochDay;
+    public final int dayCount;
+    private final short[] minutes;
+
+    private PrayerTimetable(int method, int school, double latitude, double longitude,
+                            TimeZone timeZone, int startEpochDay, short[] minutes) {
+        this.method = method;
+        this.school = school;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timeZone = timeZone;
+        this.startEpochDay = startEpochDay;
+        this.dayCount = minutes.length / PrayerTimeCalculator.PRAYER_COUNT;
+        this.minutes = minutes;
+    }
+
+    /**
+     * {@code startMillis} anının yerel gününden başlayarak {@code days} günlük
+     * tablo hesaplar. İmsak sütunu yöntemin İmsak farkı uygulanmış hâlidir.
+     */
+    public static PrayerTimetable generate(double latitude, double longitude, int methodId, int school,
+                                           TimeZone timeZone, long startMillis, int days) {
+        PrayerTimeCalculator.Method method = PrayerTimeCalculator.method(methodId);
+        PrayerTimeCalculator calculator = new PrayerTimeCalculator(latitude, longitude, timeZone, method, school);
+        Calendar cal = Calendar.getInstance(timeZone);
+        cal.setTimeInMillis(startMillis);
+        int[] computed = calculator.computeRange(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1,
+                cal.get(Calendar.DAY_OF_MONTH), days);
+
+        short[] packed = new short[computed.length];
+        for (int i = 0; i < computed.length; i++) {
+            int value = computed[i];
+            if (i % PrayerTimeCalculator.PRAYER_COUNT == PrayerTimeCalculator.IMSAK) {
+                value = (value - method.imsakMinutes + 1440) % 1440;
+            }
+            packed[i] = (short) value;
+        }
+        return new PrayerTimetable(method.id, school, latitude, longitude, timeZone,
+                localEpochDay(timeZone, startMillis), packed);
+    }
+
+    /** Dışarıdan alınmış vakitlerden (ör. senkronlanan ay) tablo oluşturur. */
+    static PrayerTimetable of(int method, int school, double latitude, double longitude,
+                              TimeZone timeZone, int startEpochDay, short[] minutes) {
+        return new PrayerTimetable(method, school, latitude, longitude, timeZone, startEpochDay, minutes);
+    }
+
+    public static PrayerTimetable read(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+            int size = (int) channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Timetable too short: " + size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // tek okuma çoğu durumda yeterli; kısa okumalarda devam et
+            }
+            buffer.flip();
+            return decode(buffer);
+        }
+    }
+
+    static PrayerTimetable decode(ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            throw new IOException("Unknown timetable format");
+        }
+        int method = buffer.get(6);
+        int school = buffer.get(7);
+        double latitude = buffer.getDouble(8);
+        double longitude = buffer.getDouble(16);
+        int startEpochDay = buffer.getInt(24);
+        int days = buffer.getShort(28) & 0xFFFF;
+        int zoneLength = buffer.getShort(30) & 0xFFFF;
+        int count = days * PrayerTimeCalculator.PRAYER_COUNT;
+        if (buffer.limit() < HEADER_SIZE + zoneLength + count * 2) {
+            throw new IOException("Truncated timetable");
+        }
+        byte[] zone = new byte[zoneLength];
+        buffer.position(HEADER_SIZE);
+        buffer.get(zone);
+        short[] minutes = new short[count];
+        buffer.asShortBuffer().get(minutes);
+        return new PrayerTimetable(method, school, latitude, longitude,
+                TimeZone.getTimeZone(new String(zone, StandardCharsets.UTF_8)), startEpochDay, minutes);
+    }
+
+    ByteBuffer encode() {
+        byte[] zone = timeZone.getID().getBytes(StandardCharsets.UTF_8);
+        if (zone.length > 0xFFFF) {
+            throw new IllegalArgumentException("Time zone id too long: " + zone.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + zone.length + minutes.length * 2)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .put((byte) method)
+                .put((byte) school)
+                .putDouble(latitude)
+                .putDouble(longitude)
+                .putInt(startEpochDay)
+                .putShort((short) dayCount)
+                .putShort((short) zone.length)
+                .put(zone);
+        buffer.asShortBuffer().put(minutes);
+        buffer.position(0);
+        return buffer;
+    }
+
+    /**
+     * Geçici dosyaya yazıp yeniden adlandırır; okuyucular yarım dosya görmez. Geçici
+     * dosya adı her yazımda farklıdır, aynı dosyaya eşzamanlı iki yazım birbirini bozmaz.
+     */
+    public void write(File file) throws IOException {
+        File tmp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            try (FileOutputStream out = new FileOutputStream(tmp); FileChannel channel = out.getChannel()) {
+                ByteBuffer buffer = encode();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Could not replace " + file);
+            }
+        } finally {
+            // Başarılı yeniden adlandırmadan sonra geçici dosya zaten yok
+            tmp.delete();
+        }
+    }
+
+    public static int localEpochDay(TimeZone timeZone, long millis) {
+        long local = millis + timeZone.getOffset(millis);
+        long day = local / MILLIS_PER_DAY;
+        // Math.floorDiv API 24 gerektirir (minSdk 23)
+        if (local < 0 && day * MILLIS_PER_DAY != local) {
+            day--;
+        }
+        return (int) day;
+    }
+
+    /** Tablo dışındaysa -1. */
+    public int dayIndex(long millis) {
+        int index = localEpochDay(timeZone, millis) - startEpochDay;
+        return index >= 0 && index < dayCount ? index : -1;
+    }
+
+    /** Gün {@code dayIndex} için yerel gece yarısından itibaren dakika. */
+    public int minutes(int dayIndex, int prayer) {
+        return minutes[dayIndex * PrayerTimeCalculator.PRAYER_COUNT + prayer];
+    }
+
+    /** Tablonun bitmesine kalan gün sayısı (bugün dahil). */
+    public int remainingDays(long millis) {
+        return startEpochDay + dayCount - localEpochDay(timeZone, millis);
+    }
+
+    public boolean matches(double latitude, double longitude, int method, int school, TimeZone timeZone) {
+        return this.method == method && this.school == school
+                && Math.abs(this.latitude - latitude) < 1e-4 && Math.abs(this.longitude - longitude) < 1e-4
+                && this.timeZone.getID().equals(timeZone.getID());
+    }
+}
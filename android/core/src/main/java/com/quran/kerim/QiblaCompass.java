@@ -0,0 +1,95 @@
+package com.quran.kerim;
+
+/**
+ * Kıble açısı ve pusula yönünün yumuşatılması. Android'e bağımlı değildir.
+ *
+ * Yön açıları dairesel olduğundan aritmetik ortalama 359°/0° geçişinde bozulur
+ * (ör. 350 ile 10'un ortalaması 180 çıkar). Bu yüzden süzgeç açının sinüs ve
+ * kosinüsünü ayrı ayrı alçak geçirenle süzer, yönü atan2 ile geri hesaplar.
+ */
+final class QiblaCompass {
+
+    static final double KAABA_LATITUDE = 21.4225;
+    static final double KAABA_LONGITUDE = 39.8262;
+
+    private final double smoothing;
+    private final double threshold;
+    private double sin;
+    private double cos;
+    private boolean primed;
+    private double lastEmitted = Double.NaN;
+
+    /**
+     * @param smoothing yeni ölçümün ağırlığı (0-1]; küçüldükçe iğne daha sakin
+     * @param threshold bu kadar dereceden küçük değişimler JS'e gönderilmez
+     */
+    QiblaCompass(double smoothing, double threshold) {
+        if (smoothing <= 0 || smoothing > 1) {
+            throw new IllegalArgumentException("smoothing 0-1 arasında olmalı: " + smoothing);
+        }
+        this.smoothing = smoothing;
+        this.threshold = Math.max(0, threshold);
+    }
+
+    /** Konumdan Kabe'ye büyük daire başlangıç açısı, kuzeyden saat yönünde derece. */
+    static double qiblaBearing(double latitude, double longitude) {
+        double lat1 = Math.toRadians(latitude);
+        double lat2 = Math.toRadians(KAABA_LATITUDE);
+        double dLng = Math.toRadians(KAABA_LONGITUDE - longitude);
+        double y = Math.sin(dLng) * Math.cos(lat2);
+        double x = Math.cos(lat1) * Math.sin(lat2) - Math.sin(lat1) * Math.cos(lat2) * Math.cos(dLng);
+        return normalize(Math.toDegrees(Math.atan2(y, x)));
+    }
+
+    /** Açıyı [0, 360) aralığına getirir. */
+    static double normalize(double degrees) {
+        double value = degrees % 360;
+        return value < 0 ? value + 360 : value;
+    }
+
+    /** {@code from}'dan {@code to}'ya en kısa yönlü fark, (-180, 180]. */
+    static double difference(double from, double to) {
+        double delta = normalize(to - from);
+        return delta > 180 ? delta - 360 : delta;
+    }
+
+    /** Ham yönü (manyetik sapma düzeltilmiş, derece) süzgeçten geçirir. */
+    void update(double heading) {
+        double rad = Math.toRadians(heading);
+        if (!primed) {
+            sin = Math.sin(rad);
+            cos = Math.cos(rad);
+            primed = true;
+            return;
+        }
+        sin += smoothing * (Math.sin(rad) - sin);
+        cos += smoothing * (Math.cos(rad) - cos);
+    }
+
+    /** Süzülmüş yön; henüz ölçüm yoksa NaN. */
+    double heading() {
+        return primed ? normalize(Math.toDegrees(Math.atan2(sin, cos))) : Double.NaN;
+    }
+
+    /**
+     * Süzülmüş yön son gönderilenden eşik kadar ayrıldıysa true döner ve onu
+     * gönderilmiş sayar. İlk ölçüm her zaman gönderilir.
+     */
+    boolean shouldEmit() {
+        double current = heading();
+        if (Double.isNaN(current)) {
+            return false;
+        }
+        if (Double.isNaN(lastEmitted) || Math.abs(difference(lastEmitted, current)) >= threshold) {
+            lastEmitted = current;
+            return true;
+        }
+        return false;
+    }
+
+    /** Sensör yeniden başlarken eski ölçümleri unutur. */
+    void reset() {
+        primed = false;
+        lastEmitted = Double.NaN;
+    }
+}
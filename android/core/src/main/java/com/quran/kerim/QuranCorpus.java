@@ -0,0 +1,349 @@
+package com.quran.kerim;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Kur'an metinlerinin (Arapça, tecvidli Arapça, mealler) tek dosyalık yerel deposu.
+ * Her metin kaynağı bir "baskı" (edition) olarak saklanır; her baskı sure başına
+ * bir bloktan oluşur ve blok isteğe bağlı olarak Deflate ile sıkıştırılır.
+ *
+ * Dosya biçimi (little-endian, konumlar dosya başından bayt):
+ * <pre>
+ *   0  int    magic "QCP1"
+ *   4  short  sürüm
+ *   6  short  baskı sayısı
+ *   8  int    ayet sayısı (6236)
+ *  12  int    ayrılmış
+ *  16  baskı dizini, baskı başına 48 bayt:
+ *        byte[32] ad (UTF-8, sıfırla doldurulmuş), int bayraklar (1 = Deflate),
+ *        int blok tablosu konumu, int ayet tablosu konumu, int ayrılmış
+ *  ...  her baskı için:
+ *        ayet tablosu: sure başına (ayet sayısı + 1) int, açılmış blok içinde ayet ofsetleri
+ *        blok tablosu: int[115] blok konumları (sonuncusu bitiş)
+ *        bloklar: sure başına UTF-8 metin (ham ya da sıkıştırılmış)
+ * </pre>
+ * Dosya bellek eşlemeli açılır; bir sure okumak yalnızca o surenin bloğunu çözer.
+ */
+public final class QuranCorpus {
+
+    public static final int SURAH_COUNT = 114;
+    public static final int AYAH_COUNT = 6236;
+
+    static final int MAGIC = 0x31504351; // "QCP1"
+    static final short VERSION = 1;
+    static final int FLAG_DEFLATE = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int DIR_ENTRY_SIZE = 48;
+    private static final int NAME_SIZE = 32;
+
+    private static final int[] AYAH_COUNTS = {
+        7, 286, 200, 176, 120, 165, 206, 75, 129, 109, 123, 111, 43, 52, 99, 128, 111, 110, 98, 135,
+        112, 78, 118, 64, 77, 227, 93, 88, 69, 60, 34, 30, 73, 54, 45, 83, 182, 88, 75, 85,
+        54, 53, 89, 59, 37, 35, 38, 29, 18, 45, 60, 49, 62, 55, 78, 96, 29, 22, 24, 13,
+        14, 11, 11, 18, 12, 12, 30, 52, 52, 44, 28, 28, 20, 56, 40, 31, 50, 40, 46, 42,
+        29, 19, 36, 25, 22, 17, 19, 26, 30, 20, 15, 21, 11, 8, 8, 19, 5, 8, 8, 11,
+        11, 8, 3, 9, 5, 4, 7, 3, 6, 3, 5, 4, 5, 6
+    };
+    // Surenin ilk ayetinin 0 tabanlı genel sırası; SURAH_START[114] = 6236
+    private static final int[] SURAH_START = new int[SURAH_COUNT + 1];
+
+    static {
+        for (int s = 0; s < SURAH_COUNT; s++) {
+            SURAH_START[s + 1] = SURAH_START[s] + AYAH_COUNTS[s];
+        }
+    }
+
+    private final ByteBuffer buffer;
+    private final Map<String, Edition> editions = new LinkedHashMap<>();
+
+    private static final class Edition {
+        final int flags;
+        final int blockTable;
+        final int ayahTable;
+
+        Edition(int flags, int blockTable, int ayahTable) {
+            this.flags = flags;
+            this.blockTable = blockTable;
+            this.ayahTable = ayahTable;
+        }
+    }
+
+    private QuranCorpus(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION
+                || buffer.getInt(8) != AYAH_COUNT) {
+            throw new IOException("Unknown corpus format");
+        }
+        int count = buffer.getShort(6);
+        if (buffer.limit() < HEADER_SIZE + count * DIR_ENTRY_SIZE) {
+            throw new IOException("Truncated corpus");
+        }
+        for (int e = 0; e < count; e++) {
+            int entry = HEADER_SIZE + e * DIR_ENTRY_SIZE;
+            int nameLength = 0;
+            while (nameLength < NAME_SIZE && buffer.get(entry + nameLength) != 0) {
+                nameLength++;
+            }
+            byte[] name = new byte[nameLength];
+            for (int i = 0; i < nameLength; i++) {
+                name[i] = buffer.get(entry + i);
+            }
+            Edition edition = new Edition(buffer.getInt(entry + NAME_SIZE),
+                    buffer.getInt(entry + NAME_SIZE + 4), buffer.getInt(entry + NAME_SIZE + 8));
+            if (buffer.getInt(edition.blockTable + SURAH_COUNT * 4) > buffer.limit()) {
+                throw new IOException("Truncated corpus");
+            }
+            editions.put(new String(name, StandardCharsets.UTF_8), edition);
+        }
+    }
+
+    /** Dosyayı salt okunur bellek eşlemesiyle açar. */
+    public static QuranCorpus open(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+            return new QuranCorpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static QuranCorpus decode(ByteBuffer buffer) throws IOException {
+        return new QuranCorpus(buffer);
+    }
+
+    /** 1 tabanlı sure numarası için ayet sayısı. */
+    public static int ayahCount(int surah) {
+        return AYAH_COUNTS[surah - 1];
+    }
+
+    /** Ayetin 1 tabanlı genel numarası (1:1 = 1, 114:6 = 6236). */
+    public static int globalNumber(int surah, int ayah) {
+        return SURAH_START[surah - 1] + ayah;
+    }
+
+    public List<String> editions() {
+        return Collections.unmodifiableList(new ArrayList<>(editions.keySet()));
+    }
+
+    public boolean hasEdition(String name) {
+        return editions.containsKey(name);
+    }
+
+    /** Surenin tüm ayetleri; baskı yoksa null. */
+    public String[] surah(String edition, int surah) {
+        return range(edition, surah, 1, ayahCount(surah));
+    }
+
+    public String ayah(String edition, int surah, int ayah) {
+        String[] range = range(edition, surah, ayah, ayah);
+        return range != null ? range[0] : null;
+    }
+
+    /** {@code fromAyah}..{@code toAyah} (dahil, 1 tabanlı) arası ayetler; baskı yoksa null. */
+    public String[] range(String edition, int surah, int fromAyah, int toAyah) {
+        Edition e = editions.get(edition);
+        if (e == null) {
+            return null;
+        }
+        if (surah < 1 || surah > SURAH_COUNT || fromAyah < 1 || toAyah > ayahCount(surah) || fromAyah > toAyah) {
+            throw new IllegalArgumentException("Invalid range " + surah + ":" + fromAyah + "-" + toAyah);
+        }
+        int s = surah - 1;
+        // Sure s'nin ayet ofsetleri tablonun SURAH_START[s] + s konumundan başlar
+        int offsets = e.ayahTable + (SURAH_START[s] + s) * 4;
+        int blockStart = buffer.getInt(e.blockTable + s * 4);
+        int blockEnd = buffer.getInt(e.blockTable + s * 4 + 4);
+
+        byte[] block;
+        int base;
+        if ((e.flags & FLAG_DEFLATE) != 0) {
+            block = inflate(blockStart, blockEnd - blockStart, buffer.getInt(offsets + ayahCount(surah) * 4));
+            base = 0;
+        } else {
+            // Ham blokta yalnızca istenen aralık kopyalanır
+            int from = buffer.getInt(offsets + (fromAyah - 1) * 4);
+            int to = buffer.getInt(offsets + toAyah * 4);
+            block = new byte[to - from];
+            for (int i = 0; i < block.length; i++) {
+                block[i] = buffer.get(blockStart + from + i);
+            }
+            base = from;
+        }
+
+        String[] texts = new String[toAyah - fromAyah + 1];
+        for (int a = fromAyah; a <= toAyah; a++) {
+            int start = buffer.getInt(offsets + (a - 1) * 4) - base;
+            int end = buffer.getInt(offsets + a * 4) - base;
+            texts[a - fromAyah] = new String(block, start, end - start, StandardCharsets.UTF_8);
+        }
+        return texts;
+    }
+
+    private byte[] inflate(int position, int length, int inflatedLength) {
+        byte[] compressed = new byte[length];
+        for (int i = 0; i < length; i++) {
+            compressed[i] = buffer.get(position + i);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] out = new byte[inflatedLength];
+            int done = 0;
+            while (done < inflatedLength && !inflater.finished()) {
+                int n = inflater.inflate(out, done, inflatedLength - done);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                done += n;
+            }
+            if (done != inflatedLength) {
+                throw new IllegalStateException("Corrupt corpus block");
+            }
+            return out;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt corpus block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Baskıları toplayıp dosyayı yazar. Var olan bir depodaki baskılar
+     * {@link #copyFrom} ile taşınabilir; aynı adlı baskı yenisiyle değiştirilir.
+     */
+    public static final class Builder {
+        private final Map<String, String[]> texts = new LinkedHashMap<>();
+        private final Map<String, Boolean> compressed = new LinkedHashMap<>();
+
+        /** @param ayahs genel sırada 6236 ayet metni */
+        public Builder put(String edition, String[] ayahs, boolean compress) {
+            if (ayahs.length != AYAH_COUNT) {
+                throw new IllegalArgumentException(edition + ": expected " + AYAH_COUNT + " ayahs, got " + ayahs.length);
+            }
+            if (edition.getBytes(StandardCharsets.UTF_8).length >= NAME_SIZE) {
+                throw new IllegalArgumentException("Edition name too long: " + edition);
+            }
+            texts.put(edition, ayahs);
+            compressed.put(edition, compress);
+            return this;
+        }
+
+        /** {@code corpus} içindeki, bu builder'da henüz olmayan baskıları ekler. */
+        public Builder copyFrom(QuranCorpus corpus) {
+            for (String edition : corpus.editions()) {
+                if (texts.containsKey(edition)) {
+                    continue;
+                }
+                String[] ayahs = new String[AYAH_COUNT];
+                for (int s = 1; s <= SURAH_COUNT; s++) {
+                    String[] surah = corpus.surah(edition, s);
+                    System.arraycopy(surah, 0, ayahs, SURAH_START[s - 1], surah.length);
+                }
+                put(edition, ayahs, (corpus.editions.get(edition).flags & FLAG_DEFLATE) != 0);
+            }
+            return this;
+        }
+
+        ByteBuffer encode() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int dirSize = HEADER_SIZE + texts.size() * DIR_ENTRY_SIZE;
+            out.write(new byte[dirSize], 0, dirSize);
+            ByteBuffer dir = ByteBuffer.allocate(dirSize).order(ByteOrder.LITTLE_ENDIAN);
+            dir.putInt(MAGIC).putShort(VERSION).putShort((short) texts.size()).putInt(AYAH_COUNT).putInt(0);
+
+            for (Map.Entry<String, String[]> entry : texts.entrySet()) {
+                boolean compress = compressed.get(entry.getKey());
+                String[] ayahs = entry.getValue();
+
+                ByteBuffer ayahTable = ByteBuffer.allocate((AYAH_COUNT + SURAH_COUNT) * 4)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+                int[] blockOffsets = new int[SURAH_COUNT + 1];
+                for (int s = 0; s < SURAH_COUNT; s++) {
+                    ByteArrayOutputStream block = new ByteArrayOutputStream();
+                    for (int a = SURAH_START[s]; a < SURAH_START[s + 1]; a++) {
+                        ayahTable.putInt(block.size());
+                        byte[] bytes = (ayahs[a] != null ? ayahs[a] : "").getBytes(StandardCharsets.UTF_8);
+                        block.write(bytes, 0, bytes.length);
+                    }
+                    ayahTable.putInt(block.size());
+                    byte[] raw = block.toByteArray();
+                    byte[] stored = compress ? deflate(raw) : raw;
+                    blockOffsets[s] = blocks.size();
+                    blocks.write(stored, 0, stored.length);
+                }
+                blockOffsets[SURAH_COUNT] = blocks.size();
+
+                int ayahTablePosition = out.size();
+                out.write(ayahTable.array(), 0, ayahTable.capacity());
+                int blockTablePosition = out.size();
+                int blocksPosition = blockTablePosition + (SURAH_COUNT + 1) * 4;
+                ByteBuffer blockTable = ByteBuffer.allocate((SURAH_COUNT + 1) * 4).order(ByteOrder.LITTLE_ENDIAN);
+                for (int offset : blockOffsets) {
+                    blockTable.putInt(blocksPosition + offset);
+                }
+                out.write(blockTable.array(), 0, blockTable.capacity());
+                byte[] blockBytes = blocks.toByteArray();
+                out.write(blockBytes, 0, blockBytes.length);
+
+                byte[] name = new byte[NAME_SIZE];
+                byte[] nameBytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(nameBytes, 0, name, 0, nameBytes.length);
+                dir.put(name)
+                        .putInt(compress ? FLAG_DEFLATE : 0)
+                        .putInt(blockTablePosition)
+                        .putInt(ayahTablePosition)
+                        .putInt(0);
+            }
+
+            byte[] bytes = out.toByteArray();
+            System.arraycopy(dir.array(), 0, bytes, 0, dirSize);
+            return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private static byte[] deflate(byte[] raw) {
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 16);
+                byte[] chunk = new byte[8192];
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(chunk);
+                    out.write(chunk, 0, n);
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        /** Geçici dosyaya yazıp yeniden adlandırır; okuyucular yarım dosya görmez. */
+        public void write(File file) throws IOException {
+            File tmp = new File(file.getPath() + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(tmp); FileChannel channel = out.getChannel()) {
+                ByteBuffer buffer = encode();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Could not replace " + file);
+            }
+        }
+    }
+}
@@ -0,0 +1,665 @@
+package com.quran.kerim;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kur'an ayetleri için ters indeks (inverted index). Her ayet bir belgedir; Türkçe
+ * meal ve Arapça metin ayrı alanlar olarak indekslenir ve metinlerin kendisi de
+ * sonuç göstermek için dosyada saklanır.
+ *
+ * Dosya biçimi (little-endian, konumlar dosya başından bayt):
+ * <pre>
+ *   0  int    magic "QSI1"
+ *   4  short  sürüm
+ *   6  short  alan sayısı (2)
+ *   8  int    belge (ayet) sayısı
+ *  12  int    belge tablosu konumu: short[belge * 2] (sure, ayet)
+ *  16  int[9] alan başına dizin (bkz. FIELD_*), her alan için:
+ *        terim sayısı, toplam kelime sayısı,
+ *        terim ofsetleri (int[terim + 1]), terim baytları (UTF-8, bayt sırasına göre sıralı),
+ *        posting ofsetleri (int[terim + 1]), posting baytları,
+ *        belge uzunlukları (short[belge]), metin ofsetleri (int[belge + 1]), metin baytları
+ * </pre>
+ * Bir terimin posting listesi varint dizisidir: belge sayısı, ardından her belge
+ * için belge farkı, tekrar sayısı ve tekrar sayısı kadar konum farkı.
+ *
+ * Dosya bellek eşlemeli açılır; terimler ve metinler yalnızca gerektiğinde
+ * çözülür. Sorgular yalnızca mutlak okuma yapar, aynı nesne iş parçacıkları
+ * arasında paylaşılabilir.
+ */
+public final class QuranSearchIndex {
+
+    public static final int FIELD_TURKISH = 0;
+    public static final int FIELD_ARABIC = 1;
+    static final int FIELD_COUNT = 2;
+
+    static final int MAGIC = 0x31495351; // "QSI1"
+    static final short VERSION = 1;
+    private static final int FIELD_DIR = 16;
+    private static final int FIELD_DIR_INTS = 9;
+    private static final int HEADER_SIZE = FIELD_DIR + FIELD_COUNT * FIELD_DIR_INTS * 4;
+
+    // Önek genişletmesinde en fazla bu kadar terim birleştirilir ("a*" gibi kısa önekler için)
+    static final int MAX_PREFIX_TERMS = 512;
+
+    // BM25
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final ByteBuffer buffer;
+    public final int docCount;
+    private final int docTable;
+    private final Field[] fields = new Field[FIELD_COUNT];
+
+    private static final class Field {
+        int termCount;
+        float avgLength;
+        int termOffsets;
+        int termBytes;
+        int postingOffsets;
+        int postingBytes;
+        int docLengths;
+        int textOffsets;
+        int textBytes;
+    }
+
+    private QuranSearchIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION
+                || buffer.getShort(6) != FIELD_COUNT) {
+            throw new IOException("Unknown search index format");
+        }
+        docCount = buffer.getInt(8);
+        docTable = buffer.getInt(12);
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            int dir = FIELD_DIR + f * FIELD_DIR_INTS * 4;
+            Field field = new Field();
+            field.termCount = buffer.getInt(dir);
+            field.avgLength = docCount > 0 ? (float) buffer.getInt(dir + 4) / docCount : 1f;
+            field.termOffsets = buffer.getInt(dir + 8);
+            field.termBytes = buffer.getInt(dir + 12);
+            field.postingOffsets = buffer.getInt(dir + 16);
+            field.postingBytes = buffer.getInt(dir + 20);
+            field.docLengths = buffer.getInt(dir + 24);
+            field.textOffsets = buffer.getInt(dir + 28);
+            field.textBytes = buffer.getInt(dir + 32);
+            if (field.textOffsets + (docCount + 1) * 4 > buffer.limit()) {
+                throw new IOException("Truncated search index");
+            }
+            fields[f] = field;
+        }
+    }
+
+    /** Dosyayı salt okunur bellek eşlemesiyle açar. */
+    public static QuranSearchIndex open(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+            return new QuranSearchIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static QuranSearchIndex decode(ByteBuffer buffer) throws IOException {
+        return new QuranSearchIndex(buffer);
+    }
+
+    public int surah(int doc) {
+        return buffer.getShort(docTable + doc * 4);
+    }
+
+    public int ayah(int doc) {
+        return buffer.getShort(docTable + doc * 4 + 2);
+    }
+
+    public String text(int field, int doc) {
+        Field f = fields[field];
+        int start = buffer.getInt(f.textOffsets + doc * 4);
+        int end = buffer.getInt(f.textOffsets + doc * 4 + 4);
+        return utf8(f.textBytes + start, end - start);
+    }
+
+    private String utf8(int position, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ---- Sorgu ----
+
+    /** Sıralı arama sonucu. {@code docs} en yüksek puandan başlar. */
+    public static final class Result {
+        public final int total;
+        public final int[] docs;
+        public final float[] scores;
+
+        Result(int total, int[] docs, float[] scores) {
+            this.total = total;
+            this.docs = docs;
+            this.scores = scores;
+        }
+    }
+
+    /**
+     * Sorgudaki tüm parçaları içeren ayetleri BM25 puanına göre sıralar; ifadeler
+     * kelime sayısı kadar ağırlık alır. En fazla {@code limit} sonuç döner,
+     * {@link Result#total} tüm eşleşme sayısıdır.
+     */
+    public Result search(SearchQuery query, int field, int limit) {
+        if (query.isEmpty()) {
+            return new Result(0, new int[0], new float[0]);
+        }
+        Field f = fields[field];
+        float[] scores = new float[docCount];
+        int[] hits = new int[docCount];
+
+        for (SearchQuery.Clause clause : query.clauses) {
+            Postings postings = clausePostings(f, clause);
+            if (postings.size == 0) {
+                return new Result(0, new int[0], new float[0]);
+            }
+            float idf = idf(postings.size);
+            float weight = clause.terms.length;
+            for (int i = 0; i < postings.size; i++) {
+                int doc = postings.docs[i];
+                float tf = postings.tf[i];
+                float norm = 1 - B + B * docLength(f, doc) / f.avgLength;
+                scores[doc] += weight * idf * tf * (K1 + 1) / (tf + K1 * norm);
+                hits[doc]++;
+            }
+        }
+
+        // Puan (pozitif float bitleri int olarak da sıralıdır) üst 32 bit, ters belge no alt 32 bit
+        int clauseCount = query.clauses.size();
+        long[] keys = new long[docCount];
+        int total = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (hits[doc] == clauseCount) {
+                keys[total++] = ((long) Float.floatToIntBits(scores[doc]) << 32) | (Integer.MAX_VALUE - doc);
+            }
+        }
+        Arrays.sort(keys, 0, total);
+
+        int count = Math.min(limit, total);
+        int[] docs = new int[count];
+        float[] top = new float[count];
+        for (int i = 0; i < count; i++) {
+            long key = keys[total - 1 - i];
+            docs[i] = Integer.MAX_VALUE - (int) key;
+            top[i] = Float.intBitsToFloat((int) (key >>> 32));
+        }
+        return new Result(total, docs, top);
+    }
+
+    private float idf(int df) {
+        return (float) Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+    }
+
+    private int docLength(Field f, int doc) {
+        return buffer.getShort(f.docLengths + doc * 2) & 0xFFFF;
+    }
+
+    private Postings clausePostings(Field f, SearchQuery.Clause clause) {
+        Postings first = termPostings(f, clause.terms[0]);
+        if (!clause.isPhrase()) {
+            return first;
+        }
+        Postings[] parts = new Postings[clause.terms.length];
+        parts[0] = first;
+        for (int i = 1; i < parts.length; i++) {
+            parts[i] = termPostings(f, clause.terms[i]);
+        }
+        return phrase(parts, docCount);
+    }
+
+    private Postings termPostings(Field f, SearchQuery.Term term) {
+        byte[] key = term.text.getBytes(StandardCharsets.UTF_8);
+        int lo = lowerBound(f, key);
+        if (!term.prefix) {
+            return lo < f.termCount && compareTerm(f, lo, key, false) == 0 ? decode(f, lo) : Postings.EMPTY;
+        }
+        List<Postings> expanded = new ArrayList<>();
+        for (int t = lo; t < f.termCount && expanded.size() < MAX_PREFIX_TERMS
+                && compareTerm(f, t, key, true) == 0; t++) {
+            expanded.add(decode(f, t));
+        }
+        if (expanded.isEmpty()) {
+            return Postings.EMPTY;
+        }
+        return expanded.size() == 1 ? expanded.get(0) : union(expanded, docCount);
+    }
+
+    /** {@code key}'den küçük olmayan ilk terim. */
+    private int lowerBound(Field f, byte[] key) {
+        int lo = 0;
+        int hi = f.termCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareTerm(f, mid, key, false) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Terim baytlarını {@code key} ile işaretsiz karşılaştırır; önekte yalnızca key uzunluğu kadar. */
+    private int compareTerm(Field f, int term, byte[] key, boolean prefix) {
+        int start = buffer.getInt(f.termOffsets + term * 4);
+        int length = buffer.getInt(f.termOffsets + term * 4 + 4) - start;
+        int position = f.termBytes + start;
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int diff = (buffer.get(position + i) & 0xFF) - (key[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        if (prefix) {
+            return length >= key.length ? 0 : -1;
+        }
+        return length - key.length;
+    }
+
+    String term(int field, int term) {
+        Field f = fields[field];
+        int start = buffer.getInt(f.termOffsets + term * 4);
+        return utf8(f.termBytes + start, buffer.getInt(f.termOffsets + term * 4 + 4) - start);
+    }
+
+    int termCount(int field) {
+        return fields[field].termCount;
+    }
+
+    private Postings decode(Field f, int term) {
+        int position = f.postingBytes + buffer.getInt(f.postingOffsets + term * 4);
+        VarintReader in = new VarintReader(buffer, position);
+        int df = in.next();
+        Postings p = new Postings(df, df * 2);
+        int doc = 0;
+        for (int i = 0; i < df; i++) {
+            doc += in.next();
+            int tf = in.next();
+            p.docs[i] = doc;
+            p.tf[i] = tf;
+            p.posStart[i] = p.positionCount;
+            int pos = 0;
+            for (int k = 0; k < tf; k++) {
+                pos += in.next();
+                p.addPosition(pos);
+            }
+        }
+        p.size = df;
+        return p;
+    }
+
+    // ---- Posting listeleri ----
+
+    /** Çözülmüş posting listesi: belge i'nin konumları positions[posStart[i] .. posStart[i] + tf[i]). */
+    static final class Postings {
+        static final Postings EMPTY = new Postings(0, 0);
+
+        int size;
+        final int[] docs;
+        final int[] tf;
+        final int[] posStart;
+        int[] positions;
+        int positionCount;
+
+        Postings(int capacity, int positionCapacity) {
+            docs = new int[capacity];
+            tf = new int[capacity];
+            posStart = new int[capacity];
+            positions = new int[Math.max(positionCapacity, 1)];
+        }
+
+        void addPosition(int position) {
+            if (positionCount == positions.length) {
+                positions = Arrays.copyOf(positions, positionCount * 2);
+            }
+            positions[positionCount++] = position;
+        }
+
+        boolean hasPosition(int index, int position) {
+            return Arrays.binarySearch(positions, posStart[index], posStart[index] + tf[index], position) >= 0;
+        }
+    }
+
+    /** Önek genişletmesi: terimlerin listelerini belge başına konumları birleştirerek tek listeye indirir. */
+    static Postings union(List<Postings> lists, int docCount) {
+        int[] counts = new int[docCount];
+        for (Postings p : lists) {
+            for (int i = 0; i < p.size; i++) {
+                counts[p.docs[i]] += p.tf[i];
+            }
+        }
+        int size = 0;
+        int positionTotal = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                size++;
+                positionTotal += count;
+            }
+        }
+
+        Postings out = new Postings(size, positionTotal);
+        int[] index = new int[docCount];
+        int[] cursor = new int[size];
+        int i = 0;
+        int start = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (counts[doc] > 0) {
+                out.docs[i] = doc;
+                out.tf[i] = counts[doc];
+                out.posStart[i] = start;
+                cursor[i] = start;
+                index[doc] = i;
+                start += counts[doc];
+                i++;
+            }
+        }
+        out.size = size;
+        out.positionCount = positionTotal;
+        for (Postings p : lists) {
+            for (int k = 0; k < p.size; k++) {
+                int target = index[p.docs[k]];
+                System.arraycopy(p.positions, p.posStart[k], out.positions, cursor[target], p.tf[k]);
+                cursor[target] += p.tf[k];
+            }
+        }
+        for (int k = 0; k < size; k++) {
+            Arrays.sort(out.positions, out.posStart[k], out.posStart[k] + out.tf[k]);
+        }
+        return out;
+    }
+
+    /** Ardışık konumlarda geçen ifadeler; tf ifadenin kaç kez geçtiğidir. */
+    static Postings phrase(Postings[] parts, int docCount) {
+        int[][] where = new int[parts.length][];
+        for (int k = 1; k < parts.length; k++) {
+            if (parts[k].size == 0) {
+                return Postings.EMPTY;
+            }
+            int[] map = new int[docCount];
+            for (int i = 0; i < parts[k].size; i++) {
+                map[parts[k].docs[i]] = i + 1;
+            }
+            where[k] = map;
+        }
+
+        Postings first = parts[0];
+        Postings out = new Postings(first.size, first.size);
+        int size = 0;
+        for (int i = 0; i < first.size; i++) {
+            int doc = first.docs[i];
+            boolean inAll = true;
+            for (int k = 1; k < parts.length && inAll; k++) {
+                inAll = where[k][doc] != 0;
+            }
+            if (!inAll) {
+                continue;
+            }
+            int occurrences = 0;
+            int posStart = out.positionCount;
+            for (int p = first.posStart[i]; p < first.posStart[i] + first.tf[i]; p++) {
+                int position = first.positions[p];
+                boolean match = true;
+                for (int k = 1; k < parts.length && match; k++) {
+                    match = parts[k].hasPosition(where[k][doc] - 1, position + k);
+                }
+                if (match) {
+                    out.addPosition(position);
+                    occurrences++;
+                }
+            }
+            if (occurrences > 0) {
+                out.docs[size] = doc;
+                out.tf[size] = occurrences;
+                out.posStart[size] = posStart;
+                size++;
+            }
+        }
+        out.size = size;
+        return out;
+    }
+
+    private static final class VarintReader {
+        private final ByteBuffer buffer;
+        private int position;
+
+        VarintReader(ByteBuffer buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int next() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    // ---- Üretim ----
+
+    /** Ayetler sırayla eklenir (belge numarası ekleme sırasıdır), sonra tek seferde yazılır. */
+    public static final class Builder {
+        private final List<short[]> refs = new ArrayList<>();
+        private final List<List<String>> texts = new ArrayList<>();
+
+        public Builder() {
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                texts.add(new ArrayList<String>());
+            }
+        }
+
+        public Builder add(int surah, int ayah, String turkish, String arabic) {
+            refs.add(new short[]{(short) surah, (short) ayah});
+            texts.get(FIELD_TURKISH).add(turkish != null ? turkish : "");
+            texts.get(FIELD_ARABIC).add(arabic != null ? arabic : "");
+            return this;
+        }
+
+        public int size() {
+            return refs.size();
+        }
+
+        ByteBuffer encode() {
+            int docs = refs.size();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] header = new byte[HEADER_SIZE];
+            out.write(header, 0, header.length);
+            ByteBuffer dir = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            dir.putInt(MAGIC).putShort(VERSION).putShort((short) FIELD_COUNT).putInt(docs);
+
+            ByteBuffer docTable = ByteBuffer.allocate(docs * 4).order(ByteOrder.LITTLE_ENDIAN);
+            for (short[] ref : refs) {
+                docTable.putShort(ref[0]).putShort(ref[1]);
+            }
+            dir.putInt(out.size());
+            write(out, docTable);
+
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                encodeField(texts.get(f), out, dir);
+            }
+
+            byte[] bytes = out.toByteArray();
+            System.arraycopy(dir.array(), 0, bytes, 0, HEADER_SIZE);
+            return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private static void encodeField(List<String> docs, ByteArrayOutputStream out, ByteBuffer dir) {
+            Map<String, TermWriter> terms = new HashMap<>();
+            short[] lengths = new short[docs.size()];
+            int totalTokens = 0;
+
+            for (int doc = 0; doc < docs.size(); doc++) {
+                List<String> tokens = SearchNormalizer.tokenize(docs.get(doc));
+                lengths[doc] = (short) Math.min(tokens.size(), 0xFFFF);
+                totalTokens += tokens.size();
+                Map<String, List<Integer>> positions = new LinkedHashMap<>();
+                for (int pos = 0; pos < tokens.size(); pos++) {
+                    List<Integer> list = positions.get(tokens.get(pos));
+                    if (list == null) {
+                        list = new ArrayList<>();
+                        positions.put(tokens.get(pos), list);
+                    }
+                    list.add(pos);
+                }
+                for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+                    TermWriter writer = terms.get(entry.getKey());
+                    if (writer == null) {
+                        writer = new TermWriter(entry.getKey());
+                        terms.put(entry.getKey(), writer);
+                    }
+                    writer.add(doc, entry.getValue());
+                }
+            }
+
+            // Okuyucu terimleri UTF-8 baytlarıyla karşılaştırır; sıralama da bayt sırasıyla
+            TermWriter[] sorted = terms.values().toArray(new TermWriter[0]);
+            Arrays.sort(sorted, new Comparator<TermWriter>() {
+                @Override
+                public int compare(TermWriter a, TermWriter b) {
+                    return compareBytes(a.bytes, b.bytes);
+                }
+            });
+
+            ByteArrayOutputStream termBytes = new ByteArrayOutputStream();
+            ByteArrayOutputStream postingBytes = new ByteArrayOutputStream();
+            ByteBuffer termOffsets = ByteBuffer.allocate((sorted.length + 1) * 4).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer postingOffsets = ByteBuffer.allocate((sorted.length + 1) * 4).order(ByteOrder.LITTLE_ENDIAN);
+            for (TermWriter term : sorted) {
+                termOffsets.putInt(termBytes.size());
+                termBytes.write(term.bytes, 0, term.bytes.length);
+                postingOffsets.putInt(postingBytes.size());
+                writeVarint(postingBytes, term.df);
+                byte[] postings = term.postings.toByteArray();
+                postingBytes.write(postings, 0, postings.length);
+            }
+            termOffsets.putInt(termBytes.size());
+            postingOffsets.putInt(postingBytes.size());
+
+            ByteBuffer docLengths = ByteBuffer.allocate(lengths.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+            docLengths.asShortBuffer().put(lengths);
+            ByteArrayOutputStream textBytes = new ByteArrayOutputStream();
+            ByteBuffer textOffsets = ByteBuffer.allocate((docs.size() + 1) * 4).order(ByteOrder.LITTLE_ENDIAN);
+            for (String text : docs) {
+                textOffsets.putInt(textBytes.size());
+                byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                textBytes.write(bytes, 0, bytes.length);
+            }
+            textOffsets.putInt(textBytes.size());
+
+            dir.putInt(sorted.length).putInt(totalTokens);
+            dir.putInt(out.size());
+            write(out, termOffsets);
+            dir.putInt(out.size());
+            write(out, termBytes);
+            dir.putInt(out.size());
+            write(out, postingOffsets);
+            dir.putInt(out.size());
+            write(out, postingBytes);
+            dir.putInt(out.size());
+            write(out, docLengths);
+            dir.putInt(out.size());
+            write(out, textOffsets);
+            dir.putInt(out.size());
+            write(out, textBytes);
+        }
+
+        /**
+         * Geçici dosyaya yazıp yeniden adlandırır; okuyucular yarım dosya görmez. Geçici
+         * dosya adı her yazımda farklıdır, eşzamanlı iki derleme birbirinin dosyasını bozmaz.
+         */
+        public void write(File file) throws IOException {
+            File tmp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+            try {
+                try (FileOutputStream out = new FileOutputStream(tmp); FileChannel channel = out.getChannel()) {
+                    ByteBuffer buffer = encode();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                if (!tmp.renameTo(file)) {
+                    throw new IOException("Could not replace " + file);
+                }
+            } finally {
+                // Başarılı yeniden adlandırmadan sonra geçici dosya zaten yok
+                tmp.delete();
+            }
+        }
+
+        private static void write(ByteArrayOutputStream out, ByteBuffer buffer) {
+            out.write(buffer.array(), 0, buffer.capacity());
+        }
+
+        private static void write(ByteArrayOutputStream out, ByteArrayOutputStream bytes) {
+            byte[] array = bytes.toByteArray();
+            out.write(array, 0, array.length);
+        }
+    }
+
+    private static final class TermWriter {
+        final byte[] bytes;
+        final ByteArrayOutputStream postings = new ByteArrayOutputStream();
+        int df;
+        int lastDoc;
+
+        TermWriter(String term) {
+            bytes = term.getBytes(StandardCharsets.UTF_8);
+        }
+
+        void add(int doc, List<Integer> positions) {
+            writeVarint(postings, doc - lastDoc);
+            writeVarint(postings, positions.size());
+            int last = 0;
+            for (int position : positions) {
+                writeVarint(postings, position - last);
+                last = position;
+            }
+            lastDoc = doc;
+            df++;
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int compareBytes(byte[] a, byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++) {
+            int diff = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return a.length - b.length;
+    }
+}
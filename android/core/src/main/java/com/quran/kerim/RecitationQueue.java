@@ -0,0 +1,115 @@
+package com.quran.kerim;
+
+/**
+ * Bir suredeki ayet aralığının çalma sırası; ezber için ayet ve aralık tekrarı.
+ * Android'e bağımlı değildir.
+ *
+ * Her ayet {@code ayahRepeats} kez, aralığın tamamı {@code rangeRepeats} kez çalınır;
+ * 0 sonsuz demektir. Örneğin (1-5, ayet 3, aralık 2): 1,1,1,2,2,2,...,5,5,5,1,1,1,...
+ */
+final class RecitationQueue {
+
+    final int surah;
+    final int from;
+    final int to;
+    final int ayahRepeats;
+    final int rangeRepeats;
+
+    private int ayah;
+    private int ayahPass = 1;
+    private int rangePass = 1;
+
+    RecitationQueue(int surah, int from, int to, int ayahRepeats, int rangeRepeats) {
+        if (from < 1 || to < from) {
+            throw new IllegalArgumentException("Geçersiz aralık " + from + "-" + to);
+        }
+        this.surah = surah;
+        this.from = from;
+        this.to = to;
+        this.ayahRepeats = Math.max(0, ayahRepeats);
+        this.rangeRepeats = Math.max(0, rangeRepeats);
+        this.ayah = from;
+    }
+
+    private RecitationQueue(RecitationQueue other) {
+        this(other.surah, other.from, other.to, other.ayahRepeats, other.rangeRepeats);
+        ayah = other.ayah;
+        ayahPass = other.ayahPass;
+        rangePass = other.rangePass;
+    }
+
+    int current() {
+        return ayah;
+    }
+
+    /** Sıradaki çalmaya geçer (tekrarlar dahil). Sıra bittiyse false, konum değişmez. */
+    boolean advance() {
+        if (ayahRepeats == 0 || ayahPass < ayahRepeats) {
+            ayahPass++;
+            return true;
+        }
+        return skipToNext();
+    }
+
+    /** Kalan tekrarları atlayıp sonraki ayete geçer; aralık tekrarı varsa başa döner. */
+    boolean skipToNext() {
+        if (ayah < to) {
+            ayah++;
+        } else if (rangeRepeats == 0 || rangePass < rangeRepeats) {
+            rangePass++;
+            ayah = from;
+        } else {
+            return false;
+        }
+        ayahPass = 1;
+        return true;
+    }
+
+    /** Önceki ayete döner; aralığın başındaysa ayeti baştan çalar. */
+    void skipToPrevious() {
+        if (ayah > from) {
+            ayah--;
+        }
+        ayahPass = 1;
+    }
+
+    /** Aralık içindeki bir ayete atlar. */
+    void jumpTo(int target) {
+        ayah = Math.max(from, Math.min(to, target));
+        ayahPass = 1;
+    }
+
+    /** Bir sonraki çalmanın ayeti; sıra bitiyorsa -1. Konumu değiştirmez. */
+    int peekNext() {
+        RecitationQueue copy = new RecitationQueue(this);
+        return copy.advance() ? copy.ayah : -1;
+    }
+
+    /**
+     * Şu anki ayetten sonra sırayla gelecek, birbirinden farklı en fazla
+     * {@code count} ayet (önbelleğe önceden almak için). Yazılan sayıyı döner.
+     */
+    int upcomingAyahs(int[] out, int count) {
+        RecitationQueue copy = new RecitationQueue(this);
+        int written = 0;
+        int last = ayah;
+        // Sonsuz ayet tekrarında sıra aynı ayette kalır
+        int maxSteps = ayahRepeats == 0 ? 0 : count * ayahRepeats;
+        for (int step = 0; step < maxSteps && written < count && copy.advance(); step++) {
+            if (copy.ayah != last && copy.ayah != ayah && !contains(out, written, copy.ayah)) {
+                out[written++] = copy.ayah;
+            }
+            last = copy.ayah;
+        }
+        return written;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,256 @@
+package com.quran.kerim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Kullanıcının kaydettiği konumlar (ev, ailenin şehri...) ve her biri için
+ * "prayer_timetable_&lt;id&gt;.bin" dosyasında tutulan yıllık vakit tablosu.
+ *
+ * Liste tek bir metin olarak saklanır; her satır bir konumdur:
+ * {@code id \t enlem \t boylam \t method \t school \t ad}. Kimlik 0, uygulamanın
+ * kendi (GPS ya da seçili şehir) konumuna ayrılmıştır ve listede yer almaz.
+ */
+public final class SavedLocations {
+
+    /** Uygulamanın o anki konumu; widget'lar için varsayılan. */
+    public static final int PRIMARY = 0;
+    public static final int MAX_LOCATIONS = 8;
+
+    private static final String FILE_PREFIX = "prayer_timetable_";
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    public static final class Location {
+        public final int id;
+        public final String name;
+        public final double latitude;
+        public final double longitude;
+        public final int method;
+        public final int school;
+
+        public Location(int id, String name, double latitude, double longitude, int method, int school) {
+            this.id = id;
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.method = method;
+            this.school = school;
+        }
+
+        /** Tablo dosyası bu konum için ve en az {@code refreshDays} gün daha geçerli mi? */
+        public boolean isCurrent(PrayerTimetable table, TimeZone timeZone, long now, int refreshDays) {
+            return table != null && table.matches(latitude, longitude, method, school, timeZone)
+                    && table.remainingDays(now) >= refreshDays;
+        }
+    }
+
+    private final List<Location> locations = new ArrayList<>();
+    // Tablosu üretilmekte olan konumlar: üst üste gelen refresh çağrıları aynı işi kuyruğa almaz
+    private final Set<Integer> inFlight = new HashSet<>();
+
+    public static SavedLocations decode(String encoded) {
+        SavedLocations saved = new SavedLocations();
+        if (encoded == null || encoded.isEmpty()) {
+            return saved;
+        }
+        for (String line : encoded.split("\n")) {
+            String[] fields = line.split("\t", 6);
+            if (fields.length < 6) {
+                continue;
+            }
+            try {
+                saved.locations.add(new Location(Integer.parseInt(fields[0]), fields[5],
+                        Double.parseDouble(fields[1]), Double.parseDouble(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4])));
+            } catch (NumberFormatException e) {
+                // Bozuk satır atlanır; kalan konumlar kullanılabilir
+            }
+        }
+        return saved;
+    }
+
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        for (Location location : locations) {
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(location.id).append('\t')
+                    .append(location.latitude).append('\t')
+                    .append(location.longitude).append('\t')
+                    .append(location.method).append('\t')
+                    .append(location.school).append('\t')
+                    .append(location.name);
+        }
+        return sb.toString();
+    }
+
+    public List<Location> all() {
+        return Collections.unmodifiableList(locations);
+    }
+
+    /** Yoksa null. */
+    public Location get(int id) {
+        for (Location location : locations) {
+            if (location.id == id) {
+                return location;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Konumu ekler ya da aynı koordinat ve yöntemle kayıtlıysa adını günceller.
+     * Liste doluysa null.
+     */
+    public Location add(String name, double latitude, double longitude, int method, int school) {
+        String cleanName = name == null ? "" : name.replace('\t', ' ').replace('\n', ' ').trim();
+        int nextId = PRIMARY + 1;
+        for (int i = 0; i < locations.size(); i++) {
+            Location existing = locations.get(i);
+            if (existing.method == method && existing.school == school
+                    && Math.abs(existing.latitude - latitude) < 1e-4
+                    && Math.abs(existing.longitude - longitude) < 1e-4) {
+                Location renamed = new Location(existing.id, cleanName, latitude, longitude, method, school);
+                locations.set(i, renamed);
+                return renamed;
+            }
+            nextId = Math.max(nextId, existing.id + 1);
+        }
+        if (locations.size() >= MAX_LOCATIONS) {
+            return null;
+        }
+        Location location = new Location(nextId, cleanName, latitude, longitude, method, school);
+        locations.add(location);
+        return location;
+    }
+
+    public boolean remove(int id) {
+        for (int i = 0; i < locations.size(); i++) {
+            if (locations.get(i).id == id) {
+                locations.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static File timetableFile(File dir, int id) {
+        return new File(dir, String.format(Locale.US, "%s%d.bin", FILE_PREFIX, id));
+    }
+
+    /** Dosyayı okur; yoksa ya da bozuksa null. */
+    public static PrayerTimetable readTimetable(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return PrayerTimetable.read(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Eksik, eskimiş ya da başka bir saat dilimiyle üretilmiş tabloları {@code executor}
+     * üzerinde paralel üretir. Her konum ayrı bir iş olduğundan eşzamanlılık
+     * executor'un iş parçacığı sayısıyla sınırlıdır. En az bir tablo yazıldıysa tüm
+     * işler bittikten sonra {@code onChanged} bir kez (son işin iş parçacığında) çağrılır.
+     * Önceki bir çağrının işi hâlâ bekleyen ya da çalışan konumlar atlanır.
+     *
+     * Liste kopyası çağıran iş parçacığında alınır; çağıran, {@link #add}/{@link #remove}
+     * ile aynı kilidi tutmalıdır.
+     *
+     * Executor bir işi reddederse o ve sonraki konumlar bekleyen listesinden çıkarılır.
+     *
+     * @return sıraya alınan iş sayısı
+     */
+    public int refresh(File dir, TimeZone timeZone, long now, int days, int refreshDays,
+                       Executor executor, Runnable onChanged) {
+        List<Location> snapshot = new ArrayList<>();
+        synchronized (inFlight) {
+            for (Location location : locations) {
+                if (inFlight.add(location.id)) {
+                    snapshot.add(location);
+                }
+            }
+        }
+        AtomicInteger remaining = new AtomicInteger(snapshot.size());
+        AtomicBoolean changed = new AtomicBoolean();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Location location = snapshot.get(i);
+            Runnable task = () -> {
+                try {
+                    File file = timetableFile(dir, location.id);
+                    if (!location.isCurrent(readTimetable(file), timeZone, now, refreshDays)) {
+                        // Dünden başla: gece yarısından sonra dünün Yatsı'sı hâlâ gerekebilir
+                        PrayerTimetable.generate(location.latitude, location.longitude, location.method,
+                                location.school, timeZone, now - MILLIS_PER_DAY, days).write(file);
+                        changed.set(true);
+                    }
+                } catch (IOException e) {
+                    // Tablo yazılamadı: widget bu konum için uygulama konumuna düşer
+                } finally {
+                    synchronized (inFlight) {
+                        inFlight.remove(location.id);
+                    }
+                    if (remaining.decrementAndGet() == 0 && changed.get() && onChanged != null) {
+                        onChanged.run();
+                    }
+                }
+            };
+            try {
+                executor.execute(task);
+            } catch (RuntimeException e) {
+                // Sıraya girmeyen konumlar bırakılır; yoksa sonraki yenilemeler onları hep atlar
+                List<Location> skipped = snapshot.subList(i, snapshot.size());
+                synchronized (inFlight) {
+                    for (Location pending : skipped) {
+                        inFlight.remove(pending.id);
+                    }
+                }
+                if (remaining.addAndGet(-skipped.size()) == 0 && changed.get() && onChanged != null) {
+                    onChanged.run();
+                }
+                if (e instanceof RejectedExecutionException) {
+                    return i;
+                }
+                throw e;
+            }
+        }
+        return snapshot.size();
+    }
+
+    /** Listede olmayan konumların tablo dosyalarını siler. */
+    public void deleteOrphans(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.startsWith(FILE_PREFIX) || !name.endsWith(".bin")) {
+                continue;
+            }
+            try {
+                int id = Integer.parseInt(name.substring(FILE_PREFIX.length(), name.length() - 4));
+                if (get(id) == null) {
+                    file.delete();
+                }
+            } catch (NumberFormatException e) {
+                // Sayısal olmayan ad: bu sınıfın dosyası değil
+            }
+        }
+    }
+}
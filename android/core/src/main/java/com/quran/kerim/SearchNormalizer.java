@@ -0,0 +1,97 @@
+package com.quran.kerim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arama için metin normalleştirme ve kelimelere ayırma. Android'e bağımlı değildir.
+ *
+ * İndeks ve sorgu aynı kuralları kullanır, bu yüzden her iki dil için tek kural
+ * kümesi vardır:
+ * - Türkçe büyük/küçük harf: I → ı, İ → i (Locale'den bağımsız); â, î, û → a, i, u
+ * - Arapça: harekeler, Kur'an işaretleri, tatvil ve tek hemze atılır; elif, ye,
+ *   vav ve te merbuta biçimleri tek harfe indirilir
+ * - Harf ve rakam dışındaki her şey (kesme işareti dahil) ayırıcıdır
+ */
+final class SearchNormalizer {
+
+    static final char DROP = 0;
+    static final char SEPARATOR = ' ';
+
+    private SearchNormalizer() {
+    }
+
+    /** Tek karakterin normal hâli; atılacaksa {@link #DROP}, ayırıcıysa {@link #SEPARATOR}. */
+    static char fold(char c) {
+        switch (c) {
+            case 'I':
+                return 'ı';
+            case 'İ':
+                return 'i';
+            case 'â':
+            case 'Â':
+                return 'a';
+            case 'î':
+            case 'Î':
+                return 'i';
+            case 'û':
+            case 'Û':
+                return 'u';
+            case '\u0307': // İ küçültülünce kalan birleşik nokta
+            case '\u0640': // tatvil
+            case '\u0670': // üstün elif
+            case '\u0621': // tek hemze (Kur'an imlasında ءا = آ)
+                return DROP;
+            case '\u0622': // elif medde
+            case '\u0623': // elif hemze (üst)
+            case '\u0625': // elif hemze (alt)
+            case '\u0671': // elif vasla
+                return '\u0627';
+            case '\u0649': // elif maksura
+            case '\u0626': // ye hemze
+                return '\u064A';
+            case '\u0624': // vav hemze
+                return '\u0648';
+            case '\u0629': // te merbuta
+                return '\u0647';
+            default:
+                break;
+        }
+        // Harekeler (U+064B-065F) ve Kur'an vakıf işaretleri (U+06D6-06ED);
+        // rub-ül hizb ve secde işaretleri ayırıcıdır
+        if ((c >= '\u064B' && c <= '\u065F')
+                || (c >= '\u06D6' && c <= '\u06ED' && c != '\u06DE' && c != '\u06E9')) {
+            return DROP;
+        }
+        if (Character.getType(c) == Character.NON_SPACING_MARK) {
+            return DROP;
+        }
+        if (!Character.isLetterOrDigit(c)) {
+            return SEPARATOR;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    static List<String> tokenize(CharSequence text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            if (c == DROP) {
+                continue;
+            }
+            if (c == SEPARATOR) {
+                if (token.length() > 0) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+            } else {
+                token.append(c);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
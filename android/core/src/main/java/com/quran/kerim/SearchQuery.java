@@ -0,0 +1,141 @@
+package com.quran.kerim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Arama sorgusu. Sözdizimi:
+ * <pre>
+ *   rahmet merhamet      her iki kelimeyi de içeren ayetler
+ *   merhamet*            "merhamet" ile başlayan kelimeler (önek)
+ *   "alemlerin rabbi"    ardışık kelimeler (ifade); ifade içinde önek de olabilir
+ * </pre>
+ * Tüm parçalar birlikte aranır (VE). Kelimeler {@link SearchNormalizer} ile
+ * indeksle aynı biçimde normalleştirilir.
+ */
+public final class SearchQuery {
+
+    public static final class Term {
+        public final String text;
+        public final boolean prefix;
+
+        Term(String text, boolean prefix) {
+            this.text = text;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public String toString() {
+            return prefix ? text + "*" : text;
+        }
+    }
+
+    /** Tek kelime ya da ardışık kelimelerden oluşan ifade. */
+    public static final class Clause {
+        public final Term[] terms;
+
+        Clause(Term[] terms) {
+            this.terms = terms;
+        }
+
+        public boolean isPhrase() {
+            return terms.length > 1;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (Term term : terms) {
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(term);
+            }
+            return isPhrase() ? "\"" + sb + "\"" : sb.toString();
+        }
+    }
+
+    public final List<Clause> clauses;
+
+    private SearchQuery(List<Clause> clauses) {
+        this.clauses = Collections.unmodifiableList(clauses);
+    }
+
+    public boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+
+    public static SearchQuery parse(String raw) {
+        Parser parser = new Parser();
+        for (int i = 0; i < raw.length(); i++) {
+            parser.accept(raw.charAt(i));
+        }
+        parser.flush(false);
+        parser.endPhrase();
+        return new SearchQuery(parser.clauses);
+    }
+
+    private static final class Parser {
+        final List<Clause> clauses = new ArrayList<>();
+        final StringBuilder token = new StringBuilder();
+        List<Term> phrase; // tırnak içindeyken null değil
+
+        void accept(char raw) {
+            if (raw == '"') {
+                flush(false);
+                if (phrase == null) {
+                    phrase = new ArrayList<>();
+                } else {
+                    endPhrase();
+                }
+                return;
+            }
+            if (raw == '*') {
+                flush(true);
+                return;
+            }
+            char c = SearchNormalizer.fold(raw);
+            if (c == SearchNormalizer.DROP) {
+                return;
+            }
+            if (c == SearchNormalizer.SEPARATOR) {
+                flush(false);
+            } else {
+                token.append(c);
+            }
+        }
+
+        void flush(boolean prefix) {
+            if (token.length() == 0) {
+                return;
+            }
+            Term term = new Term(token.toString(), prefix);
+            token.setLength(0);
+            if (phrase != null) {
+                phrase.add(term);
+            } else {
+                clauses.add(new Clause(new Term[]{term}));
+            }
+        }
+
+        void endPhrase() {
+            if (phrase != null && !phrase.isEmpty()) {
+                clauses.add(new Clause(phrase.toArray(new Term[0])));
+            }
+            phrase = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Clause clause : clauses) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(clause);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,460 @@
+package com.quran.kerim;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Yer imi, not, ayarlar ve son okunan yer için yalnızca sona eklenen kayıt günlüğü.
+ *
+ * Her değişiklik tek bir kayıt olarak eklenir (atomik; yarım kalan son kayıt
+ * açılışta CRC ile fark edilip kesilir). Bellekte (sure, ayet) ve kategori
+ * indeksleri tutulur. Ölü kayıtlar canlı verinin boyutunu geçince günlük
+ * sıkıştırılır (yalnızca güncel kayıtlarla yeniden yazılır).
+ *
+ * Dosya biçimi (little-endian):
+ * <pre>
+ *   0  int    magic "UDL1"
+ *   4  short  sürüm
+ *   6  short  ayrılmış
+ *   8  kayıtlar: {int gövde uzunluğu, int crc32(gövde), gövde}
+ *      gövde: byte işlem, byte tür, short sure, short ayet,
+ *             short kategori uzunluğu, kategori (UTF-8), int veri uzunluğu, veri (UTF-8 JSON)
+ * </pre>
+ */
+public final class UserDataStore {
+
+    static final int MAGIC = 0x314C4455; // "UDL1"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    public static final int KIND_BOOKMARK = 1;
+    public static final int KIND_NOTE = 2;
+    public static final int KIND_SETTINGS = 3;
+    public static final int KIND_LAST_READ = 4;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final int FIXED_BODY_SIZE = 12;
+    private static final int MAX_BODY_SIZE = 1 << 20;
+    private static final long COMPACT_MIN_GARBAGE = 64 * 1024;
+
+    public static final class Record {
+        public final int kind;
+        public final int surah;
+        public final int ayah;
+        public final String category;
+        public final String json;
+        final int encodedSize;
+
+        Record(int kind, int surah, int ayah, String category, String json, int encodedSize) {
+            this.kind = kind;
+            this.surah = surah;
+            this.ayah = ayah;
+            this.category = category;
+            this.json = json;
+            this.encodedSize = encodedSize;
+        }
+    }
+
+    private final File file;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    // tür -> (sure, ayet) sıralı kayıtlar
+    private final Map<Integer, TreeMap<Integer, Record>> byPosition = new HashMap<>();
+    // tür -> kategori -> (sure, ayet) sıralı kayıtlar
+    private final Map<Integer, Map<String, TreeMap<Integer, Record>>> byCategory = new HashMap<>();
+    private long liveBytes;
+    private long garbageBytes;
+
+    private UserDataStore(File file) {
+        this.file = file;
+    }
+
+    public static UserDataStore open(File file) throws IOException {
+        UserDataStore store = new UserDataStore(file);
+        store.load();
+        return store;
+    }
+
+    public synchronized Record get(int kind, int surah, int ayah) {
+        TreeMap<Integer, Record> records = byPosition.get(kind);
+        return records != null ? records.get(position(surah, ayah)) : null;
+    }
+
+    /** Kaydı ekler ya da aynı (tür, sure, ayet) kaydının yerine yazar. */
+    public synchronized void put(int kind, int surah, int ayah, String category, String json) throws IOException {
+        checkKey(kind, surah, ayah);
+        Record record = append(OP_PUT, kind, surah, ayah, category != null ? category : "", json);
+        Record previous = index(record);
+        liveBytes += record.encodedSize;
+        if (previous != null) {
+            liveBytes -= previous.encodedSize;
+            garbageBytes += previous.encodedSize;
+        }
+        compactIfNeeded();
+    }
+
+    /** {@link #putAll} için kayıt; anahtar burada denetlenir. */
+    public static Record newRecord(int kind, int surah, int ayah, String category, String json) {
+        checkKey(kind, surah, ayah);
+        String safeCategory = category != null ? category : "";
+        int size = encode(OP_PUT, kind, surah, ayah, safeCategory, json).remaining();
+        return new Record(kind, surah, ayah, safeCategory, json, size);
+    }
+
+    /**
+     * Kayıtları tek bir anlık görüntüyle ekler: dosya ya hepsini içerir ya hiçbirini
+     * (geçici dosya + yeniden adlandırma). Aynı (tür, sure, ayet) kayıtlarının yerine
+     * geçer. Yarıda kalan bir toplu taşıma depoyu yarı dolu bırakmamalıdır.
+     */
+    public synchronized void putAll(List<Record> records) throws IOException {
+        Map<Long, Record> merged = new LinkedHashMap<>();
+        for (TreeMap<Integer, Record> existing : byPosition.values()) {
+            for (Record record : existing.values()) {
+                merged.put(key(record), record);
+            }
+        }
+        for (Record record : records) {
+            merged.put(key(record), record);
+        }
+        List<Record> live = new ArrayList<>(merged.values());
+        raf.close();
+        try {
+            writeSnapshot(live);
+        } finally {
+            // Yazılamadıysa eski dosya ve bellekteki indeksler olduğu gibi kalır
+            openChannel();
+        }
+        byPosition.clear();
+        byCategory.clear();
+        liveBytes = 0;
+        garbageBytes = 0;
+        for (Record record : live) {
+            index(record);
+            liveBytes += record.encodedSize;
+        }
+    }
+
+    /**
+     * Dosya bu biçimde mi? Yalnızca tanınmayan başlık false döner (kısa ya da olmayan
+     * dosya açılışta boş depo olarak yazılır); okuma hataları fırlatılır.
+     */
+    public static boolean hasValidHeader(File file) throws IOException {
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return true;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileInputStream in = new FileInputStream(file); FileChannel input = in.getChannel()) {
+            while (header.hasRemaining() && input.read(header) != -1) {
+                // başlığın tamamı okunana kadar
+            }
+        }
+        return header.getInt(0) == MAGIC && header.getShort(4) == VERSION;
+    }
+
+    public synchronized boolean delete(int kind, int surah, int ayah) throws IOException {
+        Record previous = get(kind, surah, ayah);
+        if (previous == null) {
+            return false;
+        }
+        Record tombstone = append(OP_DELETE, kind, surah, ayah, "", "");
+        unindex(previous);
+        liveBytes -= previous.encodedSize;
+        garbageBytes += previous.encodedSize + tombstone.encodedSize;
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * (sure, ayet) sırasıyla sayfalı sorgu. {@code category} null ise tüm kategoriler,
+     * {@code surah} 0 ise tüm sureler.
+     */
+    public synchronized List<Record> query(int kind, String category, int surah, int offset, int limit) {
+        TreeMap<Integer, Record> source = records(kind, category);
+        Collection<Record> range = surah > 0
+                ? source.subMap(position(surah, 0), true, position(surah, 0x1FF), true).values()
+                : source.values();
+        List<Record> page = new ArrayList<>(Math.min(limit, range.size()));
+        int skipped = 0;
+        for (Record record : range) {
+            if (skipped++ < offset) {
+                continue;
+            }
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(record);
+        }
+        return page;
+    }
+
+    public synchronized int count(int kind, String category) {
+        return records(kind, category).size();
+    }
+
+    /** Kategori -> kayıt sayısı. */
+    public synchronized Map<String, Integer> categoryCounts(int kind) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Map<String, TreeMap<Integer, Record>> categories = byCategory.get(kind);
+        if (categories != null) {
+            for (Map.Entry<String, TreeMap<Integer, Record>> entry : categories.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().size());
+            }
+        }
+        return counts;
+    }
+
+    public synchronized List<Record> all(int kind) {
+        TreeMap<Integer, Record> records = byPosition.get(kind);
+        return records != null ? new ArrayList<>(records.values()) : Collections.<Record>emptyList();
+    }
+
+    /** Günlük dosyasının diskteki boyutu (sıkıştırma dahil). */
+    public synchronized long fileSize() throws IOException {
+        return channel.size();
+    }
+
+    public synchronized void close() throws IOException {
+        raf.close();
+    }
+
+    private TreeMap<Integer, Record> records(int kind, String category) {
+        TreeMap<Integer, Record> records;
+        if (category == null) {
+            records = byPosition.get(kind);
+        } else {
+            Map<String, TreeMap<Integer, Record>> categories = byCategory.get(kind);
+            records = categories != null ? categories.get(category) : null;
+        }
+        return records != null ? records : new TreeMap<Integer, Record>();
+    }
+
+    private static int position(int surah, int ayah) {
+        return (surah << 9) | ayah;
+    }
+
+    private static long key(Record record) {
+        return ((long) record.kind << 32) | position(record.surah, record.ayah);
+    }
+
+    private static void checkKey(int kind, int surah, int ayah) {
+        if (kind < KIND_BOOKMARK || kind > KIND_LAST_READ || surah < 0 || surah > QuranCorpus.SURAH_COUNT
+                || ayah < 0 || ayah > 0x1FF) {
+            throw new IllegalArgumentException("key: " + kind + "/" + surah + ":" + ayah);
+        }
+    }
+
+    private Record index(Record record) {
+        int position = position(record.surah, record.ayah);
+        TreeMap<Integer, Record> records = byPosition.get(record.kind);
+        if (records == null) {
+            records = new TreeMap<>();
+            byPosition.put(record.kind, records);
+        }
+        Record previous = records.put(position, record);
+        if (previous != null) {
+            removeFromCategory(previous);
+        }
+        Map<String, TreeMap<Integer, Record>> categories = byCategory.get(record.kind);
+        if (categories == null) {
+            categories = new HashMap<>();
+            byCategory.put(record.kind, categories);
+        }
+        TreeMap<Integer, Record> inCategory = categories.get(record.category);
+        if (inCategory == null) {
+            inCategory = new TreeMap<>();
+            categories.put(record.category, inCategory);
+        }
+        inCategory.put(position, record);
+        return previous;
+    }
+
+    private void unindex(Record record) {
+        byPosition.get(record.kind).remove(position(record.surah, record.ayah));
+        removeFromCategory(record);
+    }
+
+    private void removeFromCategory(Record record) {
+        Map<String, TreeMap<Integer, Record>> categories = byCategory.get(record.kind);
+        TreeMap<Integer, Record> inCategory = categories.get(record.category);
+        inCategory.remove(position(record.surah, record.ayah));
+        if (inCategory.isEmpty()) {
+            categories.remove(record.category);
+        }
+    }
+
+    private static ByteBuffer encode(byte op, int kind, int surah, int ayah, String category, String json) {
+        byte[] categoryBytes = category.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+        int bodySize = FIXED_BODY_SIZE + categoryBytes.length + payload.length;
+        if (bodySize > MAX_BODY_SIZE || categoryBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Record too large");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8 + bodySize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(bodySize).putInt(0);
+        buffer.put(op).put((byte) kind).putShort((short) surah).putShort((short) ayah);
+        buffer.putShort((short) categoryBytes.length).put(categoryBytes);
+        buffer.putInt(payload.length).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 8, bodySize);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    private Record append(byte op, int kind, int surah, int ayah, String category, String json) throws IOException {
+        ByteBuffer buffer = encode(op, kind, surah, ayah, category, json);
+        int size = buffer.remaining();
+        long end = channel.size();
+        try {
+            channel.position(end);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Yarım kayıt kalırsa sonraki eklemeler onun arkasına yazılır ve
+            // açılışta CRC taraması orada durup hepsini atar
+            try {
+                channel.truncate(end);
+            } catch (IOException truncateError) {
+                e.addSuppressed(truncateError);
+            }
+            throw e;
+        }
+        return new Record(kind, surah, ayah, category, json, size);
+    }
+
+    private void load() throws IOException {
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            writeSnapshot(Collections.<Record>emptyList());
+            openChannel();
+            return;
+        }
+        ByteBuffer buffer;
+        try (FileInputStream in = new FileInputStream(file); FileChannel input = in.getChannel()) {
+            buffer = ByteBuffer.allocate((int) input.size());
+            while (buffer.hasRemaining() && input.read(buffer) != -1) {
+                // tamamı okunana kadar
+            }
+        }
+        buffer.flip();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION) {
+            throw new IOException("Unknown user data format");
+        }
+
+        int position = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (position + 8 <= buffer.limit()) {
+            int bodySize = buffer.getInt(position);
+            if (bodySize < FIXED_BODY_SIZE || bodySize > MAX_BODY_SIZE || position + 8 + bodySize > buffer.limit()) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.array(), position + 8, bodySize);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            int body = position + 8;
+            byte op = buffer.get(body);
+            int kind = buffer.get(body + 1);
+            int surah = buffer.getShort(body + 2);
+            int ayah = buffer.getShort(body + 4);
+            int categoryLength = buffer.getShort(body + 6);
+            String category = new String(buffer.array(), body + 8, categoryLength, StandardCharsets.UTF_8);
+            int payloadLength = buffer.getInt(body + 8 + categoryLength);
+            String json = new String(buffer.array(), body + 12 + categoryLength, payloadLength, StandardCharsets.UTF_8);
+            int encodedSize = 8 + bodySize;
+
+            if (op == OP_PUT) {
+                Record previous = index(new Record(kind, surah, ayah, category, json, encodedSize));
+                liveBytes += encodedSize;
+                if (previous != null) {
+                    liveBytes -= previous.encodedSize;
+                    garbageBytes += previous.encodedSize;
+                }
+            } else {
+                Record previous = get(kind, surah, ayah);
+                if (previous != null) {
+                    unindex(previous);
+                    liveBytes -= previous.encodedSize;
+                    garbageBytes += previous.encodedSize;
+                }
+                garbageBytes += encodedSize;
+            }
+            position += encodedSize;
+        }
+
+        openChannel();
+        if (position < channel.size()) {
+            // Yazılırken kesilmiş son kayıt
+            channel.truncate(position);
+        }
+        compactIfNeeded();
+    }
+
+    private void openChannel() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (garbageBytes < COMPACT_MIN_GARBAGE || garbageBytes < liveBytes) {
+            return;
+        }
+        List<Record> live = new ArrayList<>();
+        for (TreeMap<Integer, Record> records : byPosition.values()) {
+            live.addAll(records.values());
+        }
+        raf.close();
+        try {
+            writeSnapshot(live);
+            garbageBytes = 0;
+        } finally {
+            // Anlık görüntü yazılamadıysa eski dosyayla devam edilir
+            openChannel();
+        }
+    }
+
+    private void writeSnapshot(List<Record> records) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile out = new RandomAccessFile(tmp, "rw"); FileChannel tmpChannel = out.getChannel()) {
+            tmpChannel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+            header.flip();
+            tmpChannel.write(header);
+            for (Record record : records) {
+                ByteBuffer buffer = encode(OP_PUT, record.kind, record.surah, record.ayah, record.category, record.json);
+                while (buffer.hasRemaining()) {
+                    tmpChannel.write(buffer);
+                }
+            }
+            tmpChannel.force(true);
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.quran.kerim;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Widget'larda ve kalıcı bildirimde görünen bir şeyin bir sonraki değişeceği
+ * anı hesaplar. Android'e bağımlı değildir.
+ *
+ * - Geri sayım gösteriliyorsa: bir sonraki dakika başı
+ * - Aksi hâlde: bir sonraki vakit geçişi ya da gece yarısı (tarih değişimi)
+ */
+final class WidgetRefreshPlanner {
+
+    private static final long MINUTE = 60000L;
+
+    private WidgetRefreshPlanner() {
+    }
+
+    /**
+     * @param todayMinutes bugünün vakitleri, gece yarısından itibaren dakika (6 adet)
+     * @param countdownVisible dakika hassasiyetinde geri sayım gösteren bir yüzey var mı
+     */
+    static long nextRefresh(long nowMillis, TimeZone timeZone, int[] todayMinutes, boolean countdownVisible) {
+        if (countdownVisible) {
+            return (nowMillis / MINUTE + 1) * MINUTE;
+        }
+
+        Calendar cal = Calendar.getInstance(timeZone);
+        cal.setTimeInMillis(nowMillis);
+        int nowMinute = cal.get(Calendar.HOUR_OF_DAY) * 60 + cal.get(Calendar.MINUTE);
+
+        for (int prayerMinute : todayMinutes) {
+            if (prayerMinute > nowMinute) {
+                cal.set(Calendar.HOUR_OF_DAY, prayerMinute / 60);
+                cal.set(Calendar.MINUTE, prayerMinute % 60);
+                cal.set(Calendar.SECOND, 0);
+                cal.set(Calendar.MILLISECOND, 0);
+                return cal.getTimeInMillis();
+            }
+        }
+
+        cal.add(Calendar.DAY_OF_MONTH, 1);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        return cal.getTimeInMillis();
+    }
+}
@@ -0,0 +1,179 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AudioCacheTest {
+
+    private static final String RECITER = "Alafasy_128kbps";
+
+    private File root;
+
+    @Before
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("audio_cache").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private void store(AudioCache cache, int surah, int ayah, int size, boolean pinned) throws IOException {
+        File file = cache.fileFor(RECITER, surah, ayah);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), new byte[size]);
+        cache.put(RECITER, surah, ayah, size, pinned);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedUnpinnedEntries() throws Exception {
+        AudioCache cache = AudioCache.open(root, 300);
+        store(cache, 2, 1, 100, false);
+        store(cache, 2, 2, 100, false);
+        store(cache, 2, 3, 100, false);
+        assertNotNull(cache.get(RECITER, 2, 1));
+
+        store(cache, 2, 4, 100, false);
+
+        assertFalse(cache.contains(RECITER, 2, 2));
+        assertFalse(cache.fileFor(RECITER, 2, 2).exists());
+        assertTrue(cache.contains(RECITER, 2, 1));
+        assertEquals(300, cache.totalBytes());
+        assertEquals(3, cache.cachedCount(RECITER, 2));
+    }
+
+    @Test
+    public void neverEvictsPinnedEntries() throws Exception {
+        AudioCache cache = AudioCache.open(root, 250);
+        store(cache, 1, 1, 100, true);
+        store(cache, 1, 2, 100, true);
+        store(cache, 36, 1, 100, false);
+
+        assertFalse(cache.contains(RECITER, 36, 1));
+        assertEquals(200, cache.totalBytes());
+        assertEquals(200, cache.pinnedBytes());
+
+        store(cache, 1, 3, 100, true);
+        assertEquals(300, cache.totalBytes());
+        assertEquals(3, cache.cachedCount(RECITER, 1));
+    }
+
+    @Test
+    public void pinsDownloadedSurahsAndRemovesThem() throws Exception {
+        AudioCache cache = AudioCache.open(root, 1000);
+        store(cache, 1, 2, 50, false);
+        AudioManifest manifest = new AudioManifest(7);
+        for (int ayah = 1; ayah <= 7; ayah++) {
+            manifest.put(ayah, 60, ayah);
+        }
+        cache.pinSurah(RECITER, 1, manifest);
+
+        assertEquals(420, cache.pinnedBytes());
+        assertEquals(420, cache.totalBytes());
+        Map<Integer, List<Integer>> pinned = cache.pinnedAyahs(RECITER);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7), pinned.get(1));
+
+        cache.setBudget(0);
+        assertEquals(7, cache.cachedCount(RECITER, 1));
+
+        cache.removeSurah(RECITER, 1);
+        assertEquals(0, cache.totalBytes());
+        assertEquals(0, cache.cachedCount(RECITER, 1));
+        assertFalse(cache.surahDir(RECITER, 1).exists());
+    }
+
+    @Test
+    public void persistsIndexInUsageOrder() throws Exception {
+        AudioCache cache = AudioCache.open(root, 300);
+        store(cache, 2, 1, 100, false);
+        store(cache, 2, 2, 100, false);
+        store(cache, 2, 3, 100, true);
+        cache.get(RECITER, 2, 1);
+        cache.flush();
+
+        AudioCache reopened = AudioCache.open(root, 300);
+        assertEquals(300, reopened.totalBytes());
+        assertEquals(100, reopened.pinnedBytes());
+        store(reopened, 3, 1, 100, false);
+        // 2:2 en uzun süredir kullanılmayandı
+        assertFalse(reopened.contains(RECITER, 2, 2));
+        assertTrue(reopened.contains(RECITER, 2, 1));
+    }
+
+    @Test
+    public void rebuildsIndexFromDirectoryWhenMissing() throws Exception {
+        AudioCache cache = AudioCache.open(root, 10000);
+        store(cache, 1, 1, 80, false);
+        store(cache, 1, 2, 90, false);
+        store(cache, 112, 1, 70, false);
+        AudioManifest manifest = new AudioManifest(7);
+        manifest.put(2, 90, 0);
+        manifest.write(AudioDownloader.manifestFile(cache.surahDir(RECITER, 1)));
+
+        AudioCache rebuilt = AudioCache.open(root, 10000);
+        assertEquals(240, rebuilt.totalBytes());
+        assertEquals(90, rebuilt.pinnedBytes());
+        assertEquals(2, rebuilt.cachedCount(RECITER, 1));
+        assertEquals(1, rebuilt.cachedCount(RECITER, 112));
+        assertNull(rebuilt.get("other", 1, 1));
+    }
+
+    @Test
+    public void packsCompleteSurahsAndKeepsThemAcrossRebuild() throws Exception {
+        AudioCache cache = AudioCache.open(root, 0);
+        File dir = cache.surahDir(RECITER, 112);
+        dir.mkdirs();
+        for (int ayah = 1; ayah <= 4; ayah++) {
+            byte[] data = AudioPackTest.mp3(ayah, ayah, true, false);
+            Files.write(AudioDownloader.ayahFile(dir, ayah).toPath(), data);
+            cache.put(RECITER, 112, ayah, data.length, true);
+        }
+
+        cache.packSurah(RECITER, 112);
+        AudioPack pack = cache.getPack(RECITER, 112);
+        assertNotNull(pack);
+        assertFalse(AudioDownloader.ayahFile(dir, 1).exists());
+        assertTrue(cache.contains(RECITER, 112, 3));
+        // Paketteki ayet ayrı dosya olarak verilmez
+        assertNull(cache.get(RECITER, 112, 3));
+        assertEquals(10 * 417, cache.pinnedBytes());
+        assertNull(cache.getPack(RECITER, 1));
+
+        new File(root, AudioCache.INDEX_FILE).delete();
+        AudioCache rebuilt = AudioCache.open(root, 0);
+        assertEquals(4, rebuilt.cachedCount(RECITER, 112));
+        assertEquals(10 * 417, rebuilt.pinnedBytes());
+        assertEquals(pack.offset(4), rebuilt.getPack(RECITER, 112).offset(4));
+
+        rebuilt.removeSurah(RECITER, 112);
+        assertNull(rebuilt.getPack(RECITER, 112));
+        assertFalse(dir.exists());
+    }
+
+    @Test
+    public void ignoresOutOfRangeAyahs() {
+        AudioCache cache = AudioCache.open(root, 1000);
+        assertNull(cache.get(RECITER, 1, 8));
+        assertFalse(cache.contains(RECITER, 115, 1));
+    }
+}
@@ -0,0 +1,238 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Yerel bir HTTP sunucusuna (everyayah.com yerine) karşı indirme testleri. */
+public class AudioDownloaderTest {
+
+    private static final int AYAHS = 20;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private File dir;
+    private final byte[][] files = new byte[AYAHS][];
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    private final Set<Integer> truncateOnce = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> missing = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        Random random = new Random(7);
+        for (int i = 0; i < AYAHS; i++) {
+            files[i] = new byte[20000 + random.nextInt(50000)];
+            random.nextBytes(files[i]);
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", this::serve);
+        server.start();
+        dir = Files.createTempDirectory("audio").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        File[] children = dir.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                child.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            String name = exchange.getRequestURI().getPath().substring(1);
+            int ayah = Integer.parseInt(name.substring(0, name.indexOf('.')));
+            if (missing.contains(ayah)) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = files[ayah - 1];
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            int start = 0;
+            if (range != null) {
+                ranges.add(ayah + ":" + range);
+                start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+                exchange.getResponseHeaders().add("Content-Range",
+                        "bytes " + start + "-" + (body.length - 1) + "/" + body.length);
+            }
+            boolean truncate = truncateOnce.remove(ayah);
+            if (truncate) {
+                exchange.getResponseHeaders().add("Connection", "close");
+            }
+            Thread.sleep(5);
+            exchange.sendResponseHeaders(range != null ? 206 : 200, body.length - start);
+            try (OutputStream out = exchange.getResponseBody()) {
+                if (truncate) {
+                    // Bağlantı yarıda kopar
+                    out.write(body, start, (body.length - start) / 2);
+                    out.flush();
+                    throw new IOException("drop");
+                }
+                out.write(body, start, body.length - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private String[] urls() {
+        String[] urls = new String[AYAHS];
+        for (int i = 0; i < AYAHS; i++) {
+            urls[i] = "http://127.0.0.1:" + server.getAddress().getPort() + "/" + (i + 1) + ".mp3";
+        }
+        return urls;
+    }
+
+    private void assertDownloaded(int ayah) throws IOException {
+        assertArrayEquals(files[ayah - 1], Files.readAllBytes(AudioDownloader.ayahFile(dir, ayah).toPath()));
+    }
+
+    @Test
+    public void downloadsInParallelWithinConnectionLimit() throws Exception {
+        AtomicInteger lastCompleted = new AtomicInteger();
+        AudioDownloader.Result result = new AudioDownloader(4, 2)
+                .downloadSurah(dir, urls(), (completed, total, bytes) -> lastCompleted.accumulateAndGet(completed, Math::max));
+
+        assertEquals(AYAHS, result.completed);
+        assertEquals(0, result.failed.length);
+        assertEquals(AYAHS, lastCompleted.get());
+        assertTrue("max " + maxInFlight.get(), maxInFlight.get() <= 4);
+        for (int ayah = 1; ayah <= AYAHS; ayah++) {
+            assertDownloaded(ayah);
+        }
+        AudioManifest manifest = AudioManifest.readOrCreate(AudioDownloader.manifestFile(dir), AYAHS);
+        assertTrue(manifest.isComplete());
+        assertTrue(manifest.verify(5, AudioDownloader.ayahFile(dir, 5)));
+    }
+
+    @Test
+    public void resumesInterruptedTransferWithRange() throws Exception {
+        truncateOnce.add(3);
+        AudioDownloader.Result result = new AudioDownloader(2, 3).downloadSurah(dir, urls(), null);
+
+        assertEquals(0, result.failed.length);
+        assertDownloaded(3);
+        assertEquals(1, ranges.size());
+        assertTrue(ranges.get(0), ranges.get(0).startsWith("3:bytes="));
+        assertFalse(ranges.get(0).equals("3:bytes=0-"));
+        AudioManifest manifest = AudioManifest.readOrCreate(AudioDownloader.manifestFile(dir), AYAHS);
+        assertTrue(manifest.verify(3, AudioDownloader.ayahFile(dir, 3)));
+    }
+
+    @Test
+    public void resumesPartialFileLeftByKilledProcess() throws Exception {
+        byte[] head = new byte[1000];
+        System.arraycopy(files[6], 0, head, 0, head.length);
+        Files.write(new File(AudioDownloader.ayahFile(dir, 7).getPath() + ".part").toPath(), head);
+
+        new AudioDownloader(4, 1).downloadSurah(dir, urls(), null);
+
+        assertEquals(Collections.singletonList("7:bytes=1000-"), ranges);
+        assertDownloaded(7);
+        assertTrue(AudioManifest.readOrCreate(AudioDownloader.manifestFile(dir), AYAHS)
+                .verify(7, AudioDownloader.ayahFile(dir, 7)));
+    }
+
+    @Test
+    public void concurrentWritersOfTheSameAyahShareOneTransfer() throws Exception {
+        // Servis indirmesi ile dinlerken önbelleğe alma aynı .part dosyasına yazmamalı
+        File target = AudioDownloader.ayahFile(dir, 9);
+        String url = urls()[8];
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(writers.submit(() -> {
+                    start.await();
+                    return new AudioDownloader(1, 1).downloadFile(url, target);
+                }));
+            }
+            start.countDown();
+            assertArrayEquals(results.get(0).get(), results.get(1).get());
+        } finally {
+            writers.shutdownNow();
+        }
+        assertDownloaded(9);
+        assertEquals(1, requests.get());
+        assertTrue(ranges.isEmpty());
+    }
+
+    @Test
+    public void skipsAyahsAlreadyDownloaded() throws Exception {
+        new AudioDownloader(4, 1).downloadSurah(dir, urls(), null);
+        int first = requests.get();
+        AudioDownloader.Result again = new AudioDownloader(4, 1).downloadSurah(dir, urls(), null);
+        assertEquals(AYAHS, first);
+        assertEquals(first, requests.get());
+        assertEquals(AYAHS, again.completed);
+    }
+
+    @Test
+    public void reportsFailedAyahsAndKeepsTheRest() throws Exception {
+        missing.add(4);
+        missing.add(11);
+        AudioDownloader.Result result = new AudioDownloader(4, 2).downloadSurah(dir, urls(), null);
+
+        assertArrayEquals(new int[]{4, 11}, result.failed);
+        assertEquals(AYAHS - 2, result.completed);
+        AudioManifest manifest = AudioManifest.readOrCreate(AudioDownloader.manifestFile(dir), AYAHS);
+        assertFalse(manifest.has(4));
+        assertTrue(manifest.has(12));
+        assertEquals(AYAHS - 2, manifest.completedCount());
+    }
+
+    @Test
+    public void manifestRoundTripsAndRejectsUnknownFormat() throws Exception {
+        AudioManifest manifest = new AudioManifest(7);
+        manifest.put(1, 1234, 0xCAFEBABE);
+        manifest.put(7, 99, 5);
+        AudioManifest decoded = AudioManifest.decode(manifest.encode());
+        assertEquals(7, decoded.ayahCount);
+        assertEquals(0xCAFEBABE, decoded.checksum(1));
+        assertEquals(1333, decoded.totalBytes());
+        assertFalse(decoded.has(2));
+        try {
+            AudioManifest.decode(ByteBuffer.allocate(64));
+            fail();
+        } catch (IOException expected) {
+            // magic yok
+        }
+    }
+}
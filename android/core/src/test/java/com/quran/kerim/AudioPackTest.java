@@ -0,0 +1,147 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AudioPackTest {
+
+    // MPEG-1 Layer III, 128 kbps, 44.1 kHz, dolgu yok: 417 bayt, 1152 örnek
+    private static final int FRAME_LENGTH = 417;
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("audio_pack").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    /** {@code frames} çerçeveli ses; her çerçevenin gövdesi {@code fill} ile dolu. */
+    static byte[] mp3(int frames, int fill, boolean id3v2, boolean id3v1) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (id3v2) {
+            // 20 baytlık etiket gövdesi
+            out.write(new byte[] {'I', 'D', '3', 3, 0, 0, 0, 0, 0, 20}, 0, 10);
+            out.write(new byte[20], 0, 20);
+        }
+        for (int i = 0; i < frames; i++) {
+            byte[] frame = new byte[FRAME_LENGTH];
+            Arrays.fill(frame, (byte) fill);
+            frame[0] = (byte) 0xFF;
+            frame[1] = (byte) 0xFB;
+            frame[2] = (byte) 0x90;
+            frame[3] = 0x00;
+            out.write(frame, 0, frame.length);
+        }
+        if (id3v1) {
+            byte[] tag = new byte[128];
+            tag[0] = 'T';
+            tag[1] = 'A';
+            tag[2] = 'G';
+            out.write(tag, 0, tag.length);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeAyah(int ayah, byte[] data) throws IOException {
+        Files.write(AudioDownloader.ayahFile(dir, ayah).toPath(), data);
+    }
+
+    @Test
+    public void measuresLayerThreeDuration() {
+        byte[] data = mp3(100, 1, false, false);
+        // 100 x 1152 / 44100 s
+        assertEquals(2612, AudioPack.durationMillis(data, 0, data.length));
+    }
+
+    @Test
+    public void stripsTagsAndIndexesAyahs() throws Exception {
+        writeAyah(1, mp3(10, 1, true, true));
+        writeAyah(2, mp3(20, 2, false, true));
+        writeAyah(3, mp3(5, 3, true, false));
+
+        AudioPack built = AudioPack.build(dir, 3);
+        AudioPack pack = AudioPack.open(AudioPack.packFile(dir));
+        assertEquals(3, pack.ayahCount);
+        for (int ayah = 1; ayah <= 3; ayah++) {
+            assertTrue(pack.has(ayah));
+            assertEquals(built.offset(ayah), pack.offset(ayah));
+        }
+        assertEquals(10 * FRAME_LENGTH, pack.length(1));
+        assertEquals(20 * FRAME_LENGTH, pack.length(2));
+        assertEquals(pack.offset(1) + pack.length(1), pack.offset(2));
+        assertEquals(261, pack.durationMillis(1));
+        assertEquals(522, pack.durationMillis(2));
+        assertEquals(261 + 522, pack.startMillis(3));
+        assertFalse(pack.has(4));
+
+        // Ayet aralığı, dosyanın geri kalanı okunmadan tek başına geçerli bir MP3'tür
+        try (RandomAccessFile file = new RandomAccessFile(pack.file, "r")) {
+            byte[] segment = new byte[pack.length(2)];
+            file.seek(pack.offset(2));
+            file.readFully(segment);
+            assertEquals((byte) 0xFF, segment[0]);
+            assertEquals((byte) 2, segment[4]);
+            assertEquals((byte) 2, segment[segment.length - 1]);
+        }
+
+        File copy = new File(dir, "copy.mp3");
+        pack.copyAyah(3, copy);
+        assertEquals(5 * FRAME_LENGTH, copy.length());
+    }
+
+    @Test
+    public void refusesIncompleteSurahs() throws Exception {
+        writeAyah(1, mp3(3, 1, false, false));
+        try {
+            AudioPack.build(dir, 2);
+            fail();
+        } catch (IOException expected) {
+            // 2. ayet yok
+        }
+        assertFalse(AudioPack.packFile(dir).exists());
+    }
+
+    @Test
+    public void rejectsUnknownOrTruncatedFiles() throws Exception {
+        File file = AudioPack.packFile(dir);
+        Files.write(file.toPath(), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        try {
+            AudioPack.open(file);
+            fail();
+        } catch (IOException expected) {
+            // magic yok
+        }
+
+        writeAyah(1, mp3(4, 1, false, false));
+        AudioPack.build(dir, 1);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 10);
+        }
+        try {
+            AudioPack.open(file);
+            fail();
+        } catch (IOException expected) {
+            // son ayet dosya sonunu aşıyor
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class HijriDateTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static HijriDate on(int year, int month, int day) {
+        Calendar cal = Calendar.getInstance(UTC);
+        cal.clear();
+        cal.set(year, month - 1, day);
+        return HijriDate.fromEpochDay(PrayerTimetable.localEpochDay(UTC, cal.getTimeInMillis()));
+    }
+
+    private static void assertHijri(int year, int month, int day, HijriDate actual) {
+        assertEquals(year, actual.year);
+        assertEquals(month, actual.month);
+        assertEquals(day, actual.day);
+    }
+
+    @Test
+    public void matchesUmmAlQuraWithinTable() {
+        assertHijri(1440, 1, 1, on(2018, 9, 11));
+        assertHijri(1442, 7, 8, on(2021, 2, 20));
+        assertHijri(1446, 1, 1, on(2024, 7, 7));
+        assertHijri(1446, 9, 1, on(2025, 3, 1));
+        assertHijri(1446, 10, 1, on(2025, 3, 30));
+    }
+
+    @Test
+    public void monthBoundariesAreContinuous() {
+        HijriDate previous = on(2020, 1, 1);
+        Calendar cal = Calendar.getInstance(UTC);
+        cal.clear();
+        cal.set(2020, Calendar.JANUARY, 2);
+        for (int i = 0; i < 3000; i++) {
+            HijriDate current = HijriDate.fromEpochDay(PrayerTimetable.localEpochDay(UTC, cal.getTimeInMillis()));
+            if (current.day == 1) {
+                assertTrue(previous.day == 29 || previous.day == 30);
+                assertEquals(previous.month % 12 + 1, current.month);
+            } else {
+                assertEquals(previous.day + 1, current.day);
+                assertEquals(previous.month, current.month);
+            }
+            previous = current;
+            cal.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    @Test
+    public void fallsBackToArithmeticOutsideTable() {
+        assertHijri(1389, 10, 22, on(1970, 1, 1));
+    }
+
+    @Test
+    public void formatsWithTurkishMonthNames() {
+        assertEquals("8 Recep 1442", on(2021, 2, 20).toString());
+        assertEquals("Ramazan", on(2025, 3, 1).monthName());
+    }
+}
@@ -0,0 +1,93 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsTest {
+
+    @Before
+    public void setUp() {
+        Metrics.reset();
+    }
+
+    @Test
+    public void bucketsArePowersOfTwo() {
+        assertEquals(0, Metrics.bucket(0));
+        assertEquals(1, Metrics.bucket(1));
+        assertEquals(2, Metrics.bucket(2));
+        assertEquals(2, Metrics.bucket(3));
+        assertEquals(11, Metrics.bucket(1500));
+        assertEquals(Metrics.BUCKETS - 1, Metrics.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentilesFollowRecordedLatencies() {
+        for (int i = 0; i < 95; i++) {
+            Metrics.record(Metrics.WIDGET_REFRESH_MS, 3);
+        }
+        for (int i = 0; i < 5; i++) {
+            Metrics.record(Metrics.WIDGET_REFRESH_MS, 900);
+        }
+        assertEquals(100, Metrics.histogramCount(Metrics.WIDGET_REFRESH_MS));
+        assertEquals(4, Metrics.percentile(Metrics.WIDGET_REFRESH_MS, 50));
+        assertEquals(4, Metrics.percentile(Metrics.WIDGET_REFRESH_MS, 95));
+        assertEquals(1024, Metrics.percentile(Metrics.WIDGET_REFRESH_MS, 99));
+        assertEquals(0, Metrics.percentile(Metrics.SYNC_MS, 50));
+    }
+
+    @Test
+    public void countsFromManyThreadsWithoutLoss() throws Exception {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    Metrics.count(Metrics.WIDGET_WAKEUP);
+                    Metrics.record(Metrics.PRAYER_ALARM_LATENESS_MS, i % 50);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, Metrics.counter(Metrics.WIDGET_WAKEUP));
+        assertEquals(40000, Metrics.histogramCount(Metrics.PRAYER_ALARM_LATENESS_MS));
+    }
+
+    @Test
+    public void jsonListsNewestEventsFromBoundedRing() {
+        for (int i = 0; i < Metrics.RING_SIZE + 10; i++) {
+            Metrics.record(Metrics.BRIDGE_UPDATE_WIDGET_MS, i);
+        }
+        String json = Metrics.toJson(System.currentTimeMillis());
+        int events = json.split("\"time\":", -1).length - 1;
+        assertEquals(Metrics.RING_SIZE, events);
+        int newest = json.indexOf("\"value\":" + (Metrics.RING_SIZE + 9) + "}");
+        assertTrue(newest > json.indexOf("\"events\""));
+        assertFalse(json.contains("\"value\":9}"));
+    }
+
+    @Test
+    public void loadAddsPersistedTotals() throws Exception {
+        File file = File.createTempFile("metrics", ".bin");
+        try {
+            Metrics.count(Metrics.NOTIFICATION_POST);
+            Metrics.record(Metrics.SYNC_MS, 700);
+            Metrics.write(file);
+
+            Metrics.reset();
+            Metrics.count(Metrics.NOTIFICATION_POST);
+            Metrics.record(Metrics.SYNC_MS, 20);
+            Metrics.load(file);
+
+            assertEquals(2, Metrics.counter(Metrics.NOTIFICATION_POST));
+            assertEquals(2, Metrics.histogramCount(Metrics.SYNC_MS));
+            assertTrue(Metrics.toJson(System.currentTimeMillis()).contains("\"max\":700"));
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class PrayerAlarmPlannerTest {
+
+    private static final TimeZone ISTANBUL = TimeZone.getTimeZone("Europe/Istanbul");
+    private static final int[] TIMES = {300, 420, 780, 960, 1110, 1200};
+    private static final boolean[] ALL = {true, true, true, true, true, true};
+    private static final int[] NO_ADJUSTMENT = new int[6];
+
+    private static long at(TimeZone timeZone, int year, int month, int day, int hour, int minute) {
+        Calendar cal = Calendar.getInstance(timeZone);
+        cal.clear();
+        cal.set(year, month - 1, day, hour, minute, 0);
+        return cal.getTimeInMillis();
+    }
+
+    private static PrayerAlarmPlanner.MinutesSource fixed(int[] times) {
+        return (offset, out) -> System.arraycopy(times, 0, out, 0, out.length);
+    }
+
+    @Test
+    public void plansWindowSkippingPastAndDisabledPrayers() {
+        long now = at(ISTANBUL, 2025, 6, 10, 10, 0);
+        boolean[] enabled = {true, false, true, true, true, true};
+        List<PrayerAlarmPlanner.Alarm> alarms = PrayerAlarmPlanner.plan(now, ISTANBUL, fixed(TIMES),
+                enabled, NO_ADJUSTMENT, 3);
+
+        assertEquals(4 + 2 * 5, alarms.size());
+        assertEquals(at(ISTANBUL, 2025, 6, 10, 13, 0), alarms.get(0).triggerAt);
+        assertEquals(PrayerTimeCalculator.OGLE, alarms.get(0).prayer);
+        assertEquals(at(ISTANBUL, 2025, 6, 12, 20, 0), alarms.get(alarms.size() - 1).triggerAt);
+        for (PrayerAlarmPlanner.Alarm alarm : alarms) {
+            assertTrue(alarm.prayer != PrayerTimeCalculator.GUNES);
+        }
+    }
+
+    @Test
+    public void idsAreStableAcrossPlansAndUniqueWithinWindow() {
+        long now = at(ISTANBUL, 2025, 6, 10, 0, 1);
+        List<PrayerAlarmPlanner.Alarm> first = PrayerAlarmPlanner.plan(now, ISTANBUL, fixed(TIMES),
+                ALL, NO_ADJUSTMENT, PrayerAlarmPlanner.MAX_DAYS);
+        Set<Integer> ids = new HashSet<>();
+        for (PrayerAlarmPlanner.Alarm alarm : first) {
+            assertTrue("tekrar eden kimlik " + alarm.id, ids.add(alarm.id));
+            assertEquals(PrayerAlarmPlanner.alarmId(alarm.epochDay, alarm.prayer), alarm.id);
+        }
+        assertEquals(PrayerAlarmPlanner.MAX_DAYS * 6, ids.size());
+
+        List<PrayerAlarmPlanner.Alarm> later = PrayerAlarmPlanner.plan(now + 3 * 86400000L, ISTANBUL,
+                fixed(TIMES), ALL, NO_ADJUSTMENT, 2);
+        assertEquals(first.get(18).id, later.get(0).id);
+        assertEquals(first.get(18).triggerAt, later.get(0).triggerAt);
+    }
+
+    @Test
+    public void adjustmentsShiftAndReorderAlarms() {
+        long now = at(ISTANBUL, 2025, 6, 10, 0, 1);
+        int[] adjustments = {-10, -135, 0, 0, 0, 15};
+        List<PrayerAlarmPlanner.Alarm> alarms = PrayerAlarmPlanner.plan(now, ISTANBUL, fixed(TIMES),
+                ALL, adjustments, 1);
+
+        assertEquals(PrayerTimeCalculator.GUNES, alarms.get(0).prayer);
+        assertEquals(at(ISTANBUL, 2025, 6, 10, 4, 45), alarms.get(0).triggerAt);
+        assertEquals(at(ISTANBUL, 2025, 6, 10, 4, 50), alarms.get(1).triggerAt);
+        assertEquals(at(ISTANBUL, 2025, 6, 10, 20, 15), alarms.get(5).triggerAt);
+        assertEquals(1200, alarms.get(5).wallMinute);
+    }
+
+    @Test
+    public void diffTouchesOnlyChangedAlarms() {
+        long now = at(ISTANBUL, 2025, 6, 10, 10, 0);
+        List<PrayerAlarmPlanner.Alarm> before = PrayerAlarmPlanner.plan(now, ISTANBUL, fixed(TIMES),
+                ALL, NO_ADJUSTMENT, 2);
+        Map<Integer, Long> armed = PrayerAlarmPlanner.decode(PrayerAlarmPlanner.encode(before));
+        assertEquals(before.size(), armed.size());
+
+        int[] moved = TIMES.clone();
+        moved[PrayerTimeCalculator.IKINDI] = 965;
+        long later = at(ISTANBUL, 2025, 6, 10, 14, 0);
+        int today = PrayerTimetable.localEpochDay(ISTANBUL, later);
+        List<PrayerAlarmPlanner.Alarm> after = PrayerAlarmPlanner.plan(later, ISTANBUL,
+                (offset, out) -> System.arraycopy(offset == 0 ? moved : TIMES, 0, out, 0, out.length),
+                ALL, NO_ADJUSTMENT, 2);
+        PrayerAlarmPlanner.Diff diff = PrayerAlarmPlanner.diff(armed, after);
+
+        assertEquals(1, diff.cancel.size());
+        assertEquals(PrayerAlarmPlanner.alarmId(today, PrayerTimeCalculator.OGLE), (int) diff.cancel.get(0));
+        assertEquals(1, diff.arm.size());
+        assertEquals(PrayerAlarmPlanner.alarmId(today, PrayerTimeCalculator.IKINDI), diff.arm.get(0).id);
+        assertEquals(at(ISTANBUL, 2025, 6, 10, 16, 5), diff.arm.get(0).triggerAt);
+    }
+
+    @Test
+    public void usesWallClockAcrossDaylightSavingChange() {
+        TimeZone berlin = TimeZone.getTimeZone("Europe/Berlin");
+        long now = at(berlin, 2025, 3, 29, 21, 0);
+        List<PrayerAlarmPlanner.Alarm> alarms = PrayerAlarmPlanner.plan(now, berlin, fixed(TIMES),
+                ALL, NO_ADJUSTMENT, 2);
+        // 30 Mart'ta saatler ileri alınır; İmsak yine yerel 05:00'te çalmalı
+        assertEquals(at(berlin, 2025, 3, 30, 5, 0), alarms.get(0).triggerAt);
+        assertEquals(at(berlin, 2025, 3, 30, 20, 0), alarms.get(5).triggerAt);
+    }
+
+    @Test
+    public void formatsMessagesLikeJs() {
+        assertEquals("Öğle namazı vakti girdi! 🕌", PrayerAlarmPlanner.message(PrayerTimeCalculator.OGLE, 0, null));
+        assertEquals("Akşam namazına 10 dakika kaldı", PrayerAlarmPlanner.message(PrayerTimeCalculator.AKSAM, -10, null));
+        assertEquals("Yatsı namazı vakti gireli 5 dakika oldu", PrayerAlarmPlanner.message(PrayerTimeCalculator.YATSI, 5, ""));
+        assertEquals("İmsak: 15", PrayerAlarmPlanner.message(PrayerTimeCalculator.IMSAK, -15, "{prayer}: {minutes}"));
+        assertTrue(PrayerAlarmPlanner.decode("3001:5;bozuk;3002:x").containsKey(3001));
+    }
+}
@@ -0,0 +1,129 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class PrayerScheduleTest {
+
+    private static final TimeZone TURKEY = TimeZone.getTimeZone("Europe/Istanbul");
+    private static final TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+    // 05:30, 07:00, 13:15, 16:00, 18:30, 20:00
+    private static final int[] TODAY = {330, 420, 795, 960, 1110, 1200};
+
+    private static long at(TimeZone zone, int year, int month, int day, int hour, int minute) {
+        Calendar cal = Calendar.getInstance(zone);
+        cal.clear();
+        cal.set(year, month - 1, day, hour, minute, 0);
+        return cal.getTimeInMillis();
+    }
+
+    private static PrayerSchedule schedule(TimeZone zone, int[] today, int tomorrowImsak, long dayMillis) {
+        return new PrayerSchedule().set(today, tomorrowImsak, PrayerTimetable.localEpochDay(zone, dayMillis), zone);
+    }
+
+    @Test
+    public void resolvesCurrentAndNextDuringDay() {
+        long now = at(TURKEY, 2025, 5, 10, 14, 0);
+        PrayerSchedule s = schedule(TURKEY, TODAY, 328, now);
+        int minute = s.minuteOf(now);
+        assertEquals(14 * 60, minute);
+        assertEquals(PrayerTimeCalculator.OGLE, s.currentIndex(minute));
+        assertEquals(PrayerTimeCalculator.IKINDI, s.nextIndex(minute));
+        assertEquals(120, s.minutesUntil(s.nextIndex(minute), minute));
+    }
+
+    @Test
+    public void describesNextPrayerForWidgets() {
+        long now = at(TURKEY, 2025, 5, 10, 14, 0);
+        PrayerSchedule s = schedule(TURKEY, TODAY, 328, now);
+        assertArrayEquals(new String[]{"İkindi", "16:00", "2s 0dk"}, s.describeNext(s.minuteOf(now)));
+
+        long late = at(TURKEY, 2025, 5, 10, 23, 20);
+        assertArrayEquals(new String[]{"İmsak", "05:28", "6s 8dk"}, s.describeNext(s.minuteOf(late)));
+    }
+
+    @Test
+    public void givesEpochTimeOfPrayersForCountdowns() {
+        long now = at(TURKEY, 2025, 5, 10, 14, 0);
+        PrayerSchedule s = schedule(TURKEY, TODAY, 328, now);
+        assertEquals(at(TURKEY, 2025, 5, 10, 16, 0), s.millisOf(PrayerTimeCalculator.IKINDI));
+        assertEquals(at(TURKEY, 2025, 5, 11, 5, 28), s.millisOf(PrayerSchedule.TOMORROW_IMSAK));
+
+        // Yaz saatine geçilen gün: 02:00-03:00 yok, duvar saati yine doğru ana düşer
+        long spring = at(BERLIN, 2025, 3, 30, 12, 0);
+        PrayerSchedule b = schedule(BERLIN, TODAY, 328, spring);
+        assertEquals(at(BERLIN, 2025, 3, 30, 5, 30), b.millisOf(PrayerTimeCalculator.IMSAK));
+        assertEquals(at(BERLIN, 2025, 3, 30, 20, 0), b.millisOf(PrayerTimeCalculator.YATSI));
+    }
+
+    @Test
+    public void prayerStartsExactlyAtItsMinute() {
+        long now = at(TURKEY, 2025, 5, 10, 13, 15);
+        PrayerSchedule s = schedule(TURKEY, TODAY, 328, now);
+        assertEquals(PrayerTimeCalculator.OGLE, s.currentIndex(s.minuteOf(now)));
+        assertEquals(PrayerTimeCalculator.IKINDI, s.nextIndex(s.minuteOf(now)));
+    }
+
+    @Test
+    public void afterMidnightBeforeImsakIsYesterdaysYatsi() {
+        long now = at(TURKEY, 2025, 5, 10, 0, 0);
+        PrayerSchedule s = schedule(TURKEY, TODAY, 328, now);
+        int minute = s.minuteOf(now);
+        assertEquals(0, minute);
+        assertEquals(PrayerTimeCalculator.YATSI, s.currentIndex(minute));
+        assertEquals(PrayerTimeCalculator.IMSAK, s.nextIndex(minute));
+        assertEquals(330, s.minutesUntil(PrayerTimeCalculator.IMSAK, minute));
+    }
+
+    @Test
+    public void afterYatsiRollsOverToTomorrowsImsak() {
+        long now = at(TURKEY, 2025, 5, 10, 23, 59);
+        PrayerSchedule s = schedule(TURKEY, TODAY, 328, now);
+        int minute = s.minuteOf(now);
+        assertEquals(PrayerTimeCalculator.YATSI, s.currentIndex(minute));
+        assertEquals(PrayerSchedule.TOMORROW_IMSAK, s.nextIndex(minute));
+        assertEquals("İmsak", PrayerSchedule.name(s.nextIndex(minute)));
+        assertEquals(328, s.wallTime(PrayerSchedule.TOMORROW_IMSAK));
+        assertEquals(1 + 328, s.minutesUntil(PrayerSchedule.TOMORROW_IMSAK, minute));
+        assertTrue(s.covers(now));
+        assertFalse(s.covers(now + 60000L));
+    }
+
+    @Test
+    public void springForwardShortensCountdown() {
+        // Berlin, 30 Mart 2025: 02:00 -> 03:00, gün 23 saat
+        long now = at(BERLIN, 2025, 3, 30, 1, 30);
+        int[] today = {270, 390, 795, 960, 1170, 1260}; // İmsak 04:30
+        PrayerSchedule s = schedule(BERLIN, today, 268, now);
+        int minute = s.minuteOf(now);
+        assertEquals(90, minute);
+        assertEquals(PrayerTimeCalculator.IMSAK, s.nextIndex(minute));
+        // 01:30 -> 04:30 duvar saatinde 3 saat, gerçekte 2 saat
+        assertEquals(120, s.minutesUntil(PrayerTimeCalculator.IMSAK, minute));
+        assertEquals(270, s.wallTime(PrayerTimeCalculator.IMSAK));
+        assertTrue(s.covers(at(BERLIN, 2025, 3, 30, 23, 59)));
+        assertFalse(s.covers(at(BERLIN, 2025, 3, 31, 0, 0)));
+    }
+
+    @Test
+    public void fallBackLengthensCountdown() {
+        // Berlin, 26 Ekim 2025: 03:00 -> 02:00, gün 25 saat
+        long now = at(BERLIN, 2025, 10, 26, 1, 0);
+        int[] today = {330, 450, 760, 900, 1050, 1140};
+        PrayerSchedule s = schedule(BERLIN, today, 331, now);
+        int minute = s.minuteOf(now);
+        assertEquals(60, minute);
+        assertEquals(330 + 60 - minute, s.minutesUntil(PrayerTimeCalculator.IMSAK, minute));
+        assertTrue(s.covers(at(BERLIN, 2025, 10, 26, 23, 59)));
+    }
+
+    @Test
+    public void formatsRemaining() {
+        assertEquals("45dk", PrayerSchedule.formatRemaining(45));
+        assertEquals("2s 5dk", PrayerSchedule.formatRemaining(125));
+        assertEquals("1s 0dk", PrayerSchedule.formatRemaining(60));
+    }
+}
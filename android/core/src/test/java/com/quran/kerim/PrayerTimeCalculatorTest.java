@@ -0,0 +1,273 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.util.TimeZone;
+import org.junit.Test;
+
+/**
+ * Diyanet (method 13) hesaplamasını 81 il merkezi için doğrular.
+ *
+ * Referans değerler NOAA güneş konumu formüllerinden bağımsız olarak hesaplanır ve
+ * altı vaktin hepsini kapsar. Diyanet temkinleri ({0, -7, +5, +4, +7, 0} dk)
+ * çıkarıldığında: İmsak güneşin ufkun 18° altına yükseldiği, Güneş/Akşam gerçek gün
+ * doğumu ve batımı, Öğle meridyen geçişi, İkindi gölgenin öğle gölgesi + cisim boyu
+ * olduğu, Yatsı güneşin ufkun 17° altına indiği an olmalıdır.
+ */
+public class PrayerTimeCalculatorTest {
+
+    private static final TimeZone TURKEY = TimeZone.getTimeZone("Europe/Istanbul");
+    // NOAA yaklaşık formülleri ve dakikaya yuvarlama birlikte ~3 dk sapma üretebilir
+    private static final int TOLERANCE_MINUTES = 3;
+    // Alacakaranlık açılarında güneş ufka yatık ilerler; aynı sapma daha çok dakikaya dönüşür
+    private static final int TWILIGHT_TOLERANCE_MINUTES = 4;
+
+    // src/utils/prayerTimesApi.js -> turkishCities
+    private static final Object[][] CITIES = {
+        {"Adana", 37.0, 35.3213},
+        {"Adıyaman", 37.7648, 38.2786},
+        {"Afyonkarahisar", 38.7507, 30.5567},
+        {"Ağrı", 39.7191, 43.0503},
+        {"Aksaray", 38.3687, 34.0370},
+        {"Amasya", 40.6499, 35.8353},
+        {"Ankara", 39.9334, 32.8597},
+        {"Antalya", 36.8969, 30.7133},
+        {"Ardahan", 41.1105, 42.7022},
+        {"Artvin", 41.1828, 41.8183},
+        {"Aydın", 37.8560, 27.8416},
+        {"Balıkesir", 39.6484, 27.8826},
+        {"Bartın", 41.5811, 32.4610},
+        {"Batman", 37.8812, 41.1351},
+        {"Bayburt", 40.2552, 40.2249},
+        {"Bilecik", 40.0567, 30.0665},
+        {"Bingöl", 39.0626, 40.7696},
+        {"Bitlis", 38.3938, 42.1232},
+        {"Bolu", 40.5760, 31.5788},
+        {"Burdur", 37.4613, 30.0665},
+        {"Bursa", 40.2669, 29.0634},
+        {"Çanakkale", 40.1553, 26.4142},
+        {"Çankırı", 40.6013, 33.6134},
+        {"Çorum", 40.5506, 34.9556},
+        {"Denizli", 37.7765, 29.0864},
+        {"Diyarbakır", 37.9144, 40.2306},
+        {"Düzce", 40.8438, 31.1565},
+        {"Edirne", 41.6818, 26.5623},
+        {"Elazığ", 38.6810, 39.2264},
+        {"Erzincan", 39.7500, 39.5000},
+        {"Erzurum", 39.9000, 41.2700},
+        {"Eskişehir", 39.7767, 30.5206},
+        {"Gaziantep", 37.0662, 37.3833},
+        {"Giresun", 40.9128, 38.3895},
+        {"Gümüşhane", 40.4386, 39.5086},
+        {"Hakkari", 37.5833, 43.7333},
+        {"Hatay", 36.4018, 36.3498},
+        {"Iğdır", 39.8880, 44.0048},
+        {"Isparta", 37.7648, 30.5566},
+        {"İstanbul", 41.0082, 28.9784},
+        {"İzmir", 38.4192, 27.1287},
+        {"Kahramanmaraş", 37.5858, 36.9371},
+        {"Karabük", 41.2061, 32.6204},
+        {"Karaman", 37.1759, 33.2287},
+        {"Kars", 40.6167, 43.1000},
+        {"Kastamonu", 41.3887, 33.7827},
+        {"Kayseri", 38.7312, 35.4787},
+        {"Kilis", 36.7184, 37.1212},
+        {"Kırıkkale", 39.8468, 33.5153},
+        {"Kırklareli", 41.7333, 27.2167},
+        {"Kırşehir", 39.1425, 34.1709},
+        {"Kocaeli", 40.8533, 29.8815},
+        {"Konya", 37.8667, 32.4833},
+        {"Kütahya", 39.4167, 29.9833},
+        {"Malatya", 38.3552, 38.3095},
+        {"Manisa", 38.6191, 27.4289},
+        {"Mardin", 37.3212, 40.7245},
+        {"Mersin", 36.8121, 34.6415},
+        {"Muğla", 37.2153, 28.3636},
+        {"Muş", 38.9462, 41.7539},
+        {"Nevşehir", 38.6939, 34.6857},
+        {"Niğde", 37.9667, 34.6833},
+        {"Ordu", 40.9839, 37.8764},
+        {"Osmaniye", 37.2130, 36.1763},
+        {"Rize", 41.0201, 40.5234},
+        {"Sakarya", 40.6940, 30.4358},
+        {"Samsun", 41.2928, 36.3313},
+        {"Şanlıurfa", 37.1591, 38.7969},
+        {"Siirt", 37.9333, 41.9500},
+        {"Sinop", 42.0231, 35.1531},
+        {"Şırnak", 37.4187, 42.4918},
+        {"Sivas", 39.7477, 37.0179},
+        {"Tekirdağ", 40.9833, 27.5167},
+        {"Tokat", 40.3167, 36.5500},
+        {"Trabzon", 41.0015, 39.7178},
+        {"Tunceli", 39.3074, 39.4388},
+        {"Uşak", 38.6823, 29.4082},
+        {"Van", 38.4891, 43.4089},
+        {"Yalova", 40.6500, 29.2667},
+        {"Yozgat", 39.8181, 34.8147},
+        {"Zonguldak", 41.4564, 31.7987}
+    };
+
+    private static final int[][] DATES = {
+        {2025, 1, 15}, {2025, 3, 20}, {2025, 6, 21}, {2025, 9, 23}, {2025, 12, 21}
+    };
+
+    @Test
+    public void allCitiesMatchSolarReferenceForAllSixTimes() {
+        assertEquals(81, CITIES.length);
+        for (Object[] city : CITIES) {
+            double lat = (Double) city[1];
+            double lng = (Double) city[2];
+            PrayerTimeCalculator calculator = diyanet(lat, lng);
+            for (int[] date : DATES) {
+                int[] t = calculator.computeDay(date[0], date[1], date[2]);
+                int doy = dayOfYear(date[0], date[1], date[2]);
+                String where = city[0] + " " + date[0] + "-" + date[1] + "-" + date[2];
+
+                assertNear(where + " imsak", referenceSunEvent(lat, lng, doy, 108, true),
+                        t[PrayerTimeCalculator.IMSAK], TWILIGHT_TOLERANCE_MINUTES);
+                assertNear(where + " güneş", referenceSunEvent(lat, lng, doy, 90.833, true),
+                        t[PrayerTimeCalculator.GUNES] + 7, TOLERANCE_MINUTES);
+                assertNear(where + " öğle", referenceNoon(lng, doy),
+                        t[PrayerTimeCalculator.OGLE] - 5, TOLERANCE_MINUTES);
+                assertNear(where + " ikindi", referenceAsr(lat, lng, doy),
+                        t[PrayerTimeCalculator.IKINDI] - 4, TOLERANCE_MINUTES);
+                assertNear(where + " akşam", referenceSunEvent(lat, lng, doy, 90.833, false),
+                        t[PrayerTimeCalculator.AKSAM] - 7, TOLERANCE_MINUTES);
+                assertNear(where + " yatsı", referenceSunEvent(lat, lng, doy, 107, false),
+                        t[PrayerTimeCalculator.YATSI], TWILIGHT_TOLERANCE_MINUTES);
+            }
+        }
+    }
+
+    @Test
+    public void diyanetTemkinAndAnglesAreFixed() {
+        // Yukarıdaki karşılaştırma temkinleri çıkarır; tablo burada ayrıca sabitlenir
+        PrayerTimeCalculator.Method diyanet = PrayerTimeCalculator.method(PrayerTimeCalculator.METHOD_DIYANET);
+        assertArrayEquals(new int[]{0, -7, 5, 4, 7, 0}, diyanet.offsets);
+        assertEquals(18.0, diyanet.fajrAngle, 0);
+        assertEquals(17.0, diyanet.ishaAngle, 0);
+    }
+
+    @Test
+    public void absoluteDiyanetTimesArePinned() {
+        // Temkinler dahil mutlak vakitler (İmsak, Güneş, Öğle, İkindi, Akşam, Yatsı).
+        // Yayımlanmış Diyanet takvimi çevrimdışı doğrulanamadığından bu değerler bugünkü
+        // hesaptan sabitlenmiştir; temkin tablosu ya da formüldeki bir değişiklik burada yakalanır.
+        Object[][] rows = {
+            {"İstanbul", 41.0082, 28.9784, new int[]{2025, 6, 21}, "03:24 05:25 13:11 17:11 20:47 22:38"},
+            {"İstanbul", 41.0082, 28.9784, new int[]{2025, 12, 21}, "06:46 08:19 13:07 15:25 17:46 19:13"},
+            {"Ankara", 39.9334, 32.8597, new int[]{2025, 3, 20}, "05:21 06:45 13:01 16:26 19:08 20:26"},
+        };
+        for (Object[] row : rows) {
+            int[] date = (int[]) row[3];
+            int[] t = diyanet((Double) row[1], (Double) row[2]).computeDay(date[0], date[1], date[2]);
+            StringBuilder actual = new StringBuilder();
+            for (int minutes : t) {
+                if (actual.length() > 0) {
+                    actual.append(' ');
+                }
+                actual.append(PrayerTimeCalculator.formatMinutes(minutes));
+            }
+            assertEquals(row[0] + " " + date[1] + "/" + date[2], row[4], actual.toString());
+        }
+    }
+
+    @Test
+    public void prayersAreOrderedEveryDayOfTheYear() {
+        for (Object[] city : CITIES) {
+            int[] year = diyanet((Double) city[1], (Double) city[2]).computeYear(2024);
+            assertEquals(366 * PrayerTimeCalculator.PRAYER_COUNT, year.length);
+            for (int day = 0; day < 366; day++) {
+                int base = day * PrayerTimeCalculator.PRAYER_COUNT;
+                for (int p = 1; p < PrayerTimeCalculator.PRAYER_COUNT; p++) {
+                    assertTrue(city[0] + " gün " + day + " vakit " + p, year[base + p - 1] < year[base + p]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void hanafiAsrIsLater() {
+        PrayerTimeCalculator standard = diyanet(39.9334, 32.8597);
+        PrayerTimeCalculator hanafi = new PrayerTimeCalculator(39.9334, 32.8597, TURKEY,
+                PrayerTimeCalculator.method(13), PrayerTimeCalculator.SCHOOL_HANAFI);
+        int[] s = standard.computeDay(2025, 6, 21);
+        int[] h = hanafi.computeDay(2025, 6, 21);
+        assertTrue(h[PrayerTimeCalculator.IKINDI] > s[PrayerTimeCalculator.IKINDI] + 30);
+        assertEquals(s[PrayerTimeCalculator.OGLE], h[PrayerTimeCalculator.OGLE]);
+    }
+
+    @Test
+    public void unknownMethodFallsBackToDiyanet() {
+        assertEquals(PrayerTimeCalculator.METHOD_DIYANET, PrayerTimeCalculator.method(6).id);
+        assertEquals(PrayerTimeCalculator.METHOD_DIYANET, PrayerTimeCalculator.method(99).id);
+        assertEquals(3, PrayerTimeCalculator.method(3).id);
+    }
+
+    @Test
+    public void formatsMinutes() {
+        assertEquals("00:00", PrayerTimeCalculator.formatMinutes(0));
+        assertEquals("05:07", PrayerTimeCalculator.formatMinutes(307));
+        assertEquals("23:59", PrayerTimeCalculator.formatMinutes(1439));
+    }
+
+    private static PrayerTimeCalculator diyanet(double lat, double lng) {
+        return new PrayerTimeCalculator(lat, lng, TURKEY,
+                PrayerTimeCalculator.method(PrayerTimeCalculator.METHOD_DIYANET),
+                PrayerTimeCalculator.SCHOOL_STANDARD);
+    }
+
+    private static void assertNear(String message, double expected, int actual, int tolerance) {
+        assertTrue(message + ": beklenen " + expected + ", gelen " + actual,
+                Math.abs(expected - actual) <= tolerance);
+    }
+
+    private static int dayOfYear(int year, int month, int day) {
+        java.util.Calendar cal = java.util.Calendar.getInstance(TURKEY);
+        cal.clear();
+        cal.set(year, month - 1, day);
+        return cal.get(java.util.Calendar.DAY_OF_YEAR);
+    }
+
+    /**
+     * NOAA "General Solar Position Calculations", yerel saat (UTC+3) dakikası.
+     * {@code zenith}: güneşin başucu açısı (gün doğumu 90.833, İmsak 108, Yatsı 107).
+     */
+    private static double referenceSunEvent(double lat, double lng, int doy, double zenith, boolean rise) {
+        double gamma = 2 * Math.PI / 365 * (doy - 1);
+        double ha = hourAngle(lat, declination(gamma), zenith);
+        double utc = 720 - 4 * (lng + (rise ? ha : -ha)) - equationOfTime(gamma);
+        return utc + 180;
+    }
+
+    /** İkindi (gölge boyu = öğle gölgesi + cisim boyu), aynı formüllerle. */
+    private static double referenceAsr(double lat, double lng, int doy) {
+        double gamma = 2 * Math.PI / 365 * (doy - 1);
+        double decl = declination(gamma);
+        double altitude = Math.atan(1 / (1 + Math.tan(Math.abs(Math.toRadians(lat) - decl))));
+        double ha = hourAngle(lat, decl, 90 - Math.toDegrees(altitude));
+        return 720 - 4 * (lng - ha) - equationOfTime(gamma) + 180;
+    }
+
+    private static double hourAngle(double lat, double decl, double zenith) {
+        double latR = Math.toRadians(lat);
+        return Math.toDegrees(Math.acos(Math.cos(Math.toRadians(zenith)) / (Math.cos(latR) * Math.cos(decl))
+                - Math.tan(latR) * Math.tan(decl)));
+    }
+
+    private static double referenceNoon(double lng, int doy) {
+        double gamma = 2 * Math.PI / 365 * (doy - 1);
+        return 720 - 4 * lng - equationOfTime(gamma) + 180;
+    }
+
+    private static double equationOfTime(double g) {
+        return 229.18 * (0.000075 + 0.001868 * Math.cos(g) - 0.032077 * Math.sin(g)
+                - 0.014615 * Math.cos(2 * g) - 0.040849 * Math.sin(2 * g));
+    }
+
+    private static double declination(double g) {
+        return 0.006918 - 0.399912 * Math.cos(g) + 0.070257 * Math.sin(g)
+                - 0.006758 * Math.cos(2 * g) + 0.000907 * Math.sin(2 * g)
+                - 0.002697 * Math.cos(3 * g) + 0.00148 * Math.sin(3 * g);
+    }
+}
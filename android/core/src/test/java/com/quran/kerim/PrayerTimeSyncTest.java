@@ -0,0 +1,149 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Yerel bir HTTP sunucusuna (api.aladhan.com yerine) karşı takvim senkronu testleri. */
+public class PrayerTimeSyncTest {
+
+    private static final TimeZone ISTANBUL = TimeZone.getTimeZone("Europe/Istanbul");
+    private static final String ETAG = "\"takvim-1\"";
+
+    private HttpServer server;
+    private PrayerTimeSync sync;
+    private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger status = new AtomicInteger(200);
+    private volatile int days = 30;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::serve);
+        server.start();
+        sync = new PrayerTimeSync("http://127.0.0.1:" + server.getAddress().getPort() + "/v1");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        queries.add(exchange.getRequestURI().toString());
+        if (status.get() != 200) {
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+            return;
+        }
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = calendar(days).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        exchange.getResponseHeaders().set("Last-Modified", "Sun, 01 Jun 2025 00:00:00 GMT");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String calendar(int days) {
+        StringBuilder json = new StringBuilder("{\"code\":200,\"status\":\"OK\",\"data\":[");
+        for (int day = 1; day <= days; day++) {
+            if (day > 1) {
+                json.append(',');
+            }
+            json.append("{\"timings\":{\"Fajr\":\"03:").append(String.format("%02d", 20 + day % 10))
+                    .append(" (+03)\",\"Sunrise\":\"05:30 (+03)\",\"Dhuhr\":\"13:05 (+03)\",")
+                    .append("\"Asr\":\"17:00 (+03)\",\"Sunset\":\"20:30 (+03)\",\"Maghrib\":\"20:35 (+03)\",")
+                    .append("\"Isha\":\"22:15 (+03)\",\"Imsak\":\"03:10 (+03)\",\"Midnight\":\"00:50 (+03)\"},")
+                    .append("\"date\":{\"gregorian\":{\"date\":\"").append(String.format("%02d", day))
+                    .append("-06-2025\"}}}");
+        }
+        return json.append("]}").toString();
+    }
+
+    @Test
+    public void fetchesWholeMonthInOneRequest() throws IOException {
+        PrayerTimeSync.Month month = sync.fetchMonth(2025, 6, 41.0082, 28.9784,
+                PrayerTimeCalculator.METHOD_DIYANET, 0, ISTANBUL, null, null);
+
+        assertTrue(month.modified);
+        assertEquals(ETAG, month.etag);
+        assertEquals(30 * PrayerTimeCalculator.PRAYER_COUNT, month.minutes.length);
+        assertEquals(3 * 60 + 21, month.minutes[PrayerTimeCalculator.IMSAK]);
+        assertEquals(13 * 60 + 5, month.minutes[PrayerTimeCalculator.OGLE]);
+        assertEquals(22 * 60 + 15, month.minutes[29 * PrayerTimeCalculator.PRAYER_COUNT + PrayerTimeCalculator.YATSI]);
+        assertEquals(1, queries.size());
+        assertTrue(queries.get(0), queries.get(0).startsWith("/v1/calendar/2025/6?latitude=41.008200"));
+        assertTrue(queries.get(0), queries.get(0).contains("timezonestring=Europe%2FIstanbul"));
+    }
+
+    @Test
+    public void revalidatesWithEtag() throws IOException {
+        PrayerTimeSync.Month first = sync.fetchMonth(2025, 6, 41.0, 29.0, 13, 0, ISTANBUL, null, null);
+        PrayerTimeSync.Month second = sync.fetchMonth(2025, 6, 41.0, 29.0, 13, 0, ISTANBUL,
+                first.etag, first.lastModified);
+        assertFalse(second.modified);
+        assertNull(second.minutes);
+        assertEquals(ETAG, second.etag);
+    }
+
+    @Test
+    public void appliesImsakOffsetOfMethod() throws IOException {
+        // Karachi (1): İmsak, Fajr'dan 10 dakika önce
+        PrayerTimeSync.Month month = sync.fetchMonth(2025, 6, 41.0, 29.0, 1, 0, ISTANBUL, null, null);
+        assertEquals(3 * 60 + 11, month.minutes[PrayerTimeCalculator.IMSAK]);
+    }
+
+    @Test
+    public void rejectsServerErrorsAndPartialMonths() {
+        status.set(503);
+        try {
+            sync.fetchMonth(2025, 6, 41.0, 29.0, 13, 0, ISTANBUL, null, null);
+            fail("503 kabul edildi");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("503"));
+        }
+        status.set(200);
+        days = 29;
+        try {
+            sync.fetchMonth(2025, 6, 41.0, 29.0, 13, 0, ISTANBUL, null, null);
+            fail("eksik ay kabul edildi");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("29"));
+        }
+    }
+
+    @Test
+    public void backoffGrowsWithJitterUpToCap() {
+        Random random = new Random(3);
+        long previousMax = 0;
+        for (int failures = 1; failures <= 8; failures++) {
+            long max = Math.min(PrayerTimeSync.BACKOFF_MAX_MS, PrayerTimeSync.BACKOFF_BASE_MS << (failures - 1));
+            long delay = PrayerTimeSync.backoffMillis(failures, random);
+            assertTrue(delay >= max / 2 && delay <= max);
+            assertTrue(max >= previousMax);
+            previousMax = max;
+        }
+        assertTrue(PrayerTimeSync.backoffMillis(100, random) <= PrayerTimeSync.BACKOFF_MAX_MS);
+        assertEquals(29, PrayerTimeSync.daysInMonth(2024, 2));
+    }
+}
@@ -0,0 +1,100 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Calendar;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class PrayerTimetableTest {
+
+    private static final TimeZone TURKEY = TimeZone.getTimeZone("Europe/Istanbul");
+
+    private static long localMillis(int year, int month, int day, int hour, int minute) {
+        Calendar cal = Calendar.getInstance(TURKEY);
+        cal.clear();
+        cal.set(year, month - 1, day, hour, minute, 0);
+        return cal.getTimeInMillis();
+    }
+
+    @Test
+    public void writeAndReadRoundTrip() throws Exception {
+        long start = localMillis(2025, 1, 1, 12, 0);
+        PrayerTimetable table = PrayerTimetable.generate(41.0082, 28.9784, 13, 0, TURKEY, start, 366);
+        File file = File.createTempFile("timetable", ".bin");
+        try {
+            table.write(file);
+            assertEquals(PrayerTimetable.HEADER_SIZE + "Europe/Istanbul".length() + 366 * 6 * 2, file.length());
+
+            PrayerTimetable read = PrayerTimetable.read(file);
+            assertEquals(366, read.dayCount);
+            assertEquals(table.startEpochDay, read.startEpochDay);
+            assertEquals("Europe/Istanbul", read.timeZone.getID());
+            assertTrue(read.matches(41.0082, 28.9784, 13, 0, TURKEY));
+            for (int day = 0; day < 366; day++) {
+                for (int p = 0; p < PrayerTimeCalculator.PRAYER_COUNT; p++) {
+                    assertEquals(table.minutes(day, p), read.minutes(day, p));
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void longZoneIdIsStoredInFull() throws Exception {
+        // Eski biçim kimliği 33 baytta kesiyordu; çözülen kimlik GMT'ye düşüyordu
+        String id = "Custom/Very/Long/Zone/Identifier/Istanbul";
+        TimeZone zone = new SimpleTimeZone(3 * 3600000, id);
+        PrayerTimetable table = PrayerTimetable.generate(41.0082, 28.9784, 13, 0, zone,
+                localMillis(2025, 1, 1, 12, 0), 2);
+        File file = File.createTempFile("timetable", ".bin");
+        try {
+            table.write(file);
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            assertEquals(PrayerTimetable.HEADER_SIZE + id.length() + 2 * 6 * 2, bytes.length);
+            assertEquals(id, new String(bytes, PrayerTimetable.HEADER_SIZE, id.length(),
+                    StandardCharsets.UTF_8));
+            assertEquals(table.minutes(1, 5), PrayerTimetable.read(file).minutes(1, 5));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void matchesCalculatorOutput() {
+        long start = localMillis(2025, 6, 1, 0, 30);
+        PrayerTimetable table = PrayerTimetable.generate(39.9334, 32.8597, 13, 0, TURKEY, start, 30);
+        int[] expected = new PrayerTimeCalculator(39.9334, 32.8597, TURKEY,
+                PrayerTimeCalculator.method(13), 0).computeDay(2025, 6, 15);
+        for (int p = 0; p < PrayerTimeCalculator.PRAYER_COUNT; p++) {
+            assertEquals(expected[p], table.minutes(14, p));
+        }
+    }
+
+    @Test
+    public void dayIndexFollowsLocalMidnight() {
+        long start = localMillis(2025, 3, 10, 12, 0);
+        PrayerTimetable table = PrayerTimetable.generate(41.0, 29.0, 13, 0, TURKEY, start, 3);
+        assertEquals(0, table.dayIndex(localMillis(2025, 3, 10, 0, 0)));
+        assertEquals(0, table.dayIndex(localMillis(2025, 3, 10, 23, 59)));
+        assertEquals(1, table.dayIndex(localMillis(2025, 3, 11, 0, 0)));
+        assertEquals(2, table.dayIndex(localMillis(2025, 3, 12, 6, 0)));
+        assertEquals(-1, table.dayIndex(localMillis(2025, 3, 13, 0, 0)));
+        assertEquals(-1, table.dayIndex(localMillis(2025, 3, 9, 23, 59)));
+        assertEquals(1, table.remainingDays(localMillis(2025, 3, 12, 6, 0)));
+    }
+
+    @Test
+    public void nonDiyanetImsakIsBeforeFajr() {
+        long start = localMillis(2025, 6, 1, 12, 0);
+        PrayerTimetable mwl = PrayerTimetable.generate(41.0, 29.0, 3, 0, TURKEY, start, 1);
+        int fajr = new PrayerTimeCalculator(41.0, 29.0, TURKEY, PrayerTimeCalculator.method(3), 0)
+                .computeDay(2025, 6, 1)[PrayerTimeCalculator.IMSAK];
+        assertEquals(fajr - 10, mwl.minutes(0, PrayerTimeCalculator.IMSAK));
+    }
+}
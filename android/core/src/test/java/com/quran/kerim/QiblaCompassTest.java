@@ -0,0 +1,49 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class QiblaCompassTest {
+
+    @Test
+    public void computesKnownQiblaBearings() {
+        assertEquals(151.6, QiblaCompass.qiblaBearing(41.0082, 28.9784), 0.2);
+        assertEquals(58.5, QiblaCompass.qiblaBearing(40.7128, -74.0060), 0.2);
+        assertEquals(295.2, QiblaCompass.qiblaBearing(-6.2088, 106.8456), 0.2);
+    }
+
+    @Test
+    public void filterAveragesAcrossNorthWithoutJumping() {
+        QiblaCompass compass = new QiblaCompass(0.5, 1);
+        compass.update(350);
+        compass.update(10);
+        double heading = compass.heading();
+        assertTrue("kuzeyde kalmalı: " + heading, heading > 355 || heading < 5);
+        assertEquals(0, QiblaCompass.difference(0, heading), 0.5);
+    }
+
+    @Test
+    public void emitsOnlyWhenChangeExceedsThreshold() {
+        QiblaCompass compass = new QiblaCompass(1, 2);
+        assertFalse(compass.shouldEmit());
+        compass.update(100);
+        assertTrue(compass.shouldEmit());
+        compass.update(101.5);
+        assertFalse(compass.shouldEmit());
+        compass.update(102.5);
+        assertTrue(compass.shouldEmit());
+        compass.update(359);
+        assertTrue(compass.shouldEmit());
+        compass.update(0.5);
+        assertFalse(compass.shouldEmit());
+    }
+
+    @Test
+    public void differenceTakesShortestSignedPath() {
+        assertEquals(20, QiblaCompass.difference(350, 10), 1e-9);
+        assertEquals(-20, QiblaCompass.difference(10, 350), 1e-9);
+        assertEquals(180, QiblaCompass.difference(0, 180), 1e-9);
+        assertEquals(270, QiblaCompass.normalize(-90), 1e-9);
+    }
+}
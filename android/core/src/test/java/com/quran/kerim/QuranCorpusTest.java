@@ -0,0 +1,107 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QuranCorpusTest {
+
+    private QuranCorpus corpus;
+
+    private static String[] edition(String tag) {
+        String[] ayahs = new String[QuranCorpus.AYAH_COUNT];
+        int global = 0;
+        for (int s = 1; s <= QuranCorpus.SURAH_COUNT; s++) {
+            for (int a = 1; a <= QuranCorpus.ayahCount(s); a++) {
+                ayahs[global++] = tag + " " + s + ":" + a;
+            }
+        }
+        return ayahs;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        String[] arabic = edition("بِسْمِ");
+        arabic[0] = "بِسْمِ ٱللَّهِ ٱلرَّحْمَٰنِ ٱلرَّحِيمِ";
+        corpus = QuranCorpus.decode(new QuranCorpus.Builder()
+                .put("quran-simple", arabic, false)
+                .put("tr.diyanet", edition("meal"), false)
+                .put("quran-tajweed", edition("<tajweed class=ham_wasl>ٱ</tajweed>"), true)
+                .encode());
+    }
+
+    @Test
+    public void mapsSurahAndAyahToGlobalNumbers() {
+        assertEquals(1, QuranCorpus.globalNumber(1, 1));
+        assertEquals(8, QuranCorpus.globalNumber(2, 1));
+        assertEquals(255 + 7, QuranCorpus.globalNumber(2, 255));
+        assertEquals(QuranCorpus.AYAH_COUNT, QuranCorpus.globalNumber(114, 6));
+        assertEquals(286, QuranCorpus.ayahCount(2));
+    }
+
+    @Test
+    public void readsWholeSurahs() {
+        String[] fatiha = corpus.surah("quran-simple", 1);
+        assertEquals(7, fatiha.length);
+        assertEquals("بِسْمِ ٱللَّهِ ٱلرَّحْمَٰنِ ٱلرَّحِيمِ", fatiha[0]);
+        assertEquals("meal 114:6", corpus.surah("tr.diyanet", 114)[5]);
+    }
+
+    @Test
+    public void readsRangesFromRawAndCompressedBlocks() {
+        assertArrayEquals(new String[]{"meal 2:255", "meal 2:256", "meal 2:257"},
+                corpus.range("tr.diyanet", 2, 255, 257));
+        assertEquals("<tajweed class=ham_wasl>ٱ</tajweed> 36:40", corpus.ayah("quran-tajweed", 36, 40));
+        assertEquals(83, corpus.surah("quran-tajweed", 36).length);
+    }
+
+    @Test
+    public void reportsMissingEditionsAndRejectsBadRanges() {
+        assertNull(corpus.surah("en.sahih", 1));
+        assertEquals(Arrays.asList("quran-simple", "tr.diyanet", "quran-tajweed"), corpus.editions());
+        try {
+            corpus.range("tr.diyanet", 1, 1, 8);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // Fatiha 7 ayet
+        }
+    }
+
+    @Test
+    public void copiesExistingEditionsWhenAddingOne() throws Exception {
+        QuranCorpus extended = QuranCorpus.decode(new QuranCorpus.Builder()
+                .put("tr.diyanet", edition("yeni"), false)
+                .copyFrom(corpus)
+                .encode());
+        assertEquals("yeni 1:1", extended.ayah("tr.diyanet", 1, 1));
+        assertEquals("<tajweed class=ham_wasl>ٱ</tajweed> 2:3", extended.ayah("quran-tajweed", 2, 3));
+        assertTrue(extended.hasEdition("quran-simple"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsIncompleteEditions() {
+        new QuranCorpus.Builder().put("tr.diyanet", new String[10], false);
+    }
+
+    @Test
+    public void roundTripsThroughMappedFile() throws Exception {
+        File file = File.createTempFile("quran_corpus", ".bin");
+        try {
+            new QuranCorpus.Builder().copyFrom(corpus).write(file);
+            QuranCorpus mapped = QuranCorpus.open(file);
+            assertArrayEquals(corpus.surah("quran-tajweed", 18), mapped.surah("quran-tajweed", 18));
+            assertArrayEquals(corpus.surah("tr.diyanet", 2), mapped.surah("tr.diyanet", 2));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void rejectsUnknownFormat() throws Exception {
+        QuranCorpus.decode(ByteBuffer.allocate(64));
+    }
+}
@@ -0,0 +1,126 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QuranSearchIndexTest {
+
+    private QuranSearchIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = QuranSearchIndex.decode(corpus().encode());
+    }
+
+    private static QuranSearchIndex.Builder corpus() {
+        return new QuranSearchIndex.Builder()
+                .add(1, 1, "Rahmân ve Rahîm olan Allah'ın adıyla.",
+                        "بِسْمِ ٱللَّهِ ٱلرَّحْمَٰنِ ٱلرَّحِيمِ")
+                .add(1, 2, "Hamd, âlemlerin Rabbi Allah'a mahsustur.",
+                        "ٱلْحَمْدُ لِلَّهِ رَبِّ ٱلْعَٰلَمِينَ")
+                .add(1, 3, "O, Rahmân'dır, Rahîm'dir.",
+                        "ٱلرَّحْمَٰنِ ٱلرَّحِيمِ")
+                .add(2, 153, "Ey iman edenler! Sabır ve namaz ile Allah'tan yardım dileyin. "
+                        + "Şüphesiz Allah sabredenlerle beraberdir.",
+                        "يَٰٓأَيُّهَا ٱلَّذِينَ ءَامَنُوا۟ ٱسْتَعِينُوا۟ بِٱلصَّبْرِ وَٱلصَّلَوٰةِ")
+                .add(103, 3, "Ancak iman edip salih amel işleyenler, birbirlerine hakkı tavsiye "
+                        + "edenler ve sabrı tavsiye edenler başka.",
+                        "إِلَّا ٱلَّذِينَ ءَامَنُوا۟ وَعَمِلُوا۟ ٱلصَّٰلِحَٰتِ");
+    }
+
+    private int[] search(String query, int field) {
+        return index.search(SearchQuery.parse(query), field, 100).docs;
+    }
+
+    @Test
+    public void storesReferencesAndTexts() {
+        assertEquals(5, index.docCount);
+        assertEquals(2, index.surah(3));
+        assertEquals(153, index.ayah(3));
+        assertEquals("O, Rahmân'dır, Rahîm'dir.", index.text(QuranSearchIndex.FIELD_TURKISH, 2));
+        assertEquals("ٱلرَّحْمَٰنِ ٱلرَّحِيمِ", index.text(QuranSearchIndex.FIELD_ARABIC, 2));
+    }
+
+    @Test
+    public void termsAreSortedByUtf8Bytes() {
+        for (int field = 0; field < QuranSearchIndex.FIELD_COUNT; field++) {
+            for (int t = 1; t < index.termCount(field); t++) {
+                assertTrue(QuranSearchIndex.compareBytes(
+                        index.term(field, t - 1).getBytes(StandardCharsets.UTF_8),
+                        index.term(field, t).getBytes(StandardCharsets.UTF_8)) < 0);
+            }
+        }
+    }
+
+    @Test
+    public void matchesTermsCaseInsensitively() {
+        assertEquals(3, search("ALLAH", QuranSearchIndex.FIELD_TURKISH).length);
+        assertEquals(0, search("cennet", QuranSearchIndex.FIELD_TURKISH).length);
+    }
+
+    @Test
+    public void requiresAllClauses() {
+        int[] docs = search("iman sabır", QuranSearchIndex.FIELD_TURKISH);
+        assertEquals(1, docs.length);
+        assertEquals(3, docs[0]);
+    }
+
+    @Test
+    public void expandsPrefixes() {
+        int[] docs = search("sab*", QuranSearchIndex.FIELD_TURKISH);
+        assertEquals(2, docs.length); // sabır, sabredenlerle / sabrı
+        assertEquals(0, search("sabz*", QuranSearchIndex.FIELD_TURKISH).length);
+    }
+
+    @Test
+    public void matchesPhrasesInOrderOnly() {
+        assertArrayEquals(new int[]{1}, search("\"alemlerin rabbi\"", QuranSearchIndex.FIELD_TURKISH));
+        assertEquals(0, search("\"rabbi alemlerin\"", QuranSearchIndex.FIELD_TURKISH).length);
+        assertArrayEquals(new int[]{4}, search("\"tavsiye eden*\"", QuranSearchIndex.FIELD_TURKISH));
+    }
+
+    @Test
+    public void ranksRepeatedAndShorterMatchesFirst() {
+        QuranSearchIndex.Result result = index.search(SearchQuery.parse("rahim"), QuranSearchIndex.FIELD_TURKISH, 10);
+        assertEquals(2, result.total);
+        // Kısa olan 1:3 önce gelir
+        assertEquals(2, result.docs[0]);
+        assertTrue(result.scores[0] >= result.scores[1]);
+
+        QuranSearchIndex.Result limited = index.search(SearchQuery.parse("allah"), QuranSearchIndex.FIELD_TURKISH, 1);
+        assertEquals(3, limited.total);
+        assertEquals(1, limited.docs.length);
+    }
+
+    @Test
+    public void searchesArabicWithoutDiacritics() {
+        int[] docs = search("الرحمن الرحيم", QuranSearchIndex.FIELD_ARABIC);
+        assertEquals(2, docs.length);
+        assertArrayEquals(new int[]{1}, search("\"رب العلمين\"", QuranSearchIndex.FIELD_ARABIC));
+        assertEquals(2, search("امنوا", QuranSearchIndex.FIELD_ARABIC).length);
+    }
+
+    @Test
+    public void roundTripsThroughMappedFile() throws Exception {
+        File file = File.createTempFile("quran_search", ".idx");
+        try {
+            corpus().write(file);
+            QuranSearchIndex mapped = QuranSearchIndex.open(file);
+            assertEquals(5, mapped.docCount);
+            assertArrayEquals(search("allah", QuranSearchIndex.FIELD_TURKISH),
+                    mapped.search(SearchQuery.parse("allah"), QuranSearchIndex.FIELD_TURKISH, 100).docs);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void rejectsUnknownFormat() throws Exception {
+        QuranSearchIndex.decode(ByteBuffer.allocate(128));
+    }
+}
@@ -0,0 +1,70 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class RecitationQueueTest {
+
+    private static List<Integer> drain(RecitationQueue queue, int limit) {
+        List<Integer> played = new ArrayList<>();
+        played.add(queue.current());
+        while (played.size() < limit && queue.advance()) {
+            played.add(queue.current());
+        }
+        return played;
+    }
+
+    @Test
+    public void playsRangeOnceByDefault() {
+        RecitationQueue queue = new RecitationQueue(1, 3, 5, 1, 1);
+        assertEquals(Arrays.asList(3, 4, 5), drain(queue, 100));
+        assertEquals(5, queue.current());
+        assertEquals(-1, queue.peekNext());
+    }
+
+    @Test
+    public void repeatsEachAyahThenTheWholeRange() {
+        RecitationQueue queue = new RecitationQueue(112, 1, 2, 2, 2);
+        assertEquals(Arrays.asList(1, 1, 2, 2, 1, 1, 2, 2), drain(queue, 100));
+    }
+
+    @Test
+    public void skipsRemainingRepeatsOfInfiniteAyahLoop() {
+        RecitationQueue queue = new RecitationQueue(2, 255, 257, 0, 1);
+        assertEquals(Arrays.asList(255, 255, 255, 255), drain(queue, 4));
+        assertTrue(queue.skipToNext());
+        assertEquals(256, queue.current());
+        queue.skipToPrevious();
+        queue.skipToPrevious();
+        assertEquals(255, queue.current());
+        queue.jumpTo(300);
+        assertEquals(257, queue.current());
+        assertFalse(queue.skipToNext());
+    }
+
+    @Test
+    public void listsDistinctUpcomingAyahsForPrefetch() {
+        int[] out = new int[3];
+        RecitationQueue queue = new RecitationQueue(36, 1, 4, 3, 0);
+        assertEquals(3, queue.upcomingAyahs(out, 3));
+        assertArrayEquals(new int[]{2, 3, 4}, out);
+        assertEquals(1, queue.peekNext());
+
+        queue.jumpTo(4);
+        assertEquals(3, queue.upcomingAyahs(out, 3));
+        assertArrayEquals(new int[]{1, 2, 3}, out);
+
+        RecitationQueue looping = new RecitationQueue(36, 1, 4, 0, 1);
+        assertEquals(0, looping.upcomingAyahs(out, 3));
+        assertEquals(1, looping.peekNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyRange() {
+        new RecitationQueue(1, 5, 4, 1, 1);
+    }
+}
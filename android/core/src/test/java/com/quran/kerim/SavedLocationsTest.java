@@ -0,0 +1,194 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SavedLocationsTest {
+
+    private static final TimeZone TURKEY = TimeZone.getTimeZone("Europe/Istanbul");
+    private static final long NOW = 1750000000000L; // 15 Haziran 2025
+
+    @Test
+    public void encodeAndDecodeRoundTrip() {
+        SavedLocations saved = new SavedLocations();
+        saved.add("İstanbul", 41.0082, 28.9784, 13, 0);
+        saved.add("Konya\tMerkez", 37.8746, 32.4932, 13, 1);
+
+        SavedLocations read = SavedLocations.decode(saved.encode());
+        assertEquals(2, read.all().size());
+        SavedLocations.Location konya = read.get(2);
+        assertEquals("Konya Merkez", konya.name);
+        assertEquals(37.8746, konya.latitude, 1e-9);
+        assertEquals(32.4932, konya.longitude, 1e-9);
+        assertEquals(1, konya.school);
+    }
+
+    @Test
+    public void addingSamePlaceRenamesInsteadOfDuplicating() {
+        SavedLocations saved = new SavedLocations();
+        SavedLocations.Location first = saved.add("Ev", 41.0082, 28.9784, 13, 0);
+        SavedLocations.Location again = saved.add("İstanbul", 41.00821, 28.97841, 13, 0);
+        assertEquals(first.id, again.id);
+        assertEquals(1, saved.all().size());
+        assertEquals("İstanbul", saved.get(first.id).name);
+
+        SavedLocations.Location ankara = saved.add("Ankara", 39.9334, 32.8597, 13, 0);
+        assertEquals(first.id + 1, ankara.id);
+        assertTrue(saved.remove(ankara.id));
+        assertNull(saved.get(ankara.id));
+        assertFalse(saved.remove(ankara.id));
+    }
+
+    @Test
+    public void listIsBounded() {
+        SavedLocations saved = new SavedLocations();
+        for (int i = 0; i < SavedLocations.MAX_LOCATIONS; i++) {
+            assertNotNull(saved.add("L" + i, 36 + i, 30, 13, 0));
+        }
+        assertNull(saved.add("Fazla", 50, 30, 13, 0));
+    }
+
+    @Test
+    public void decodeSkipsBrokenLines() {
+        SavedLocations read = SavedLocations.decode("1\t41.0\t29.0\t13\t0\tEv\nbozuk\nx\t1\t2\t3\t4\tAd");
+        assertEquals(1, read.all().size());
+        assertEquals("Ev", read.get(1).name);
+        assertTrue(SavedLocations.decode(null).all().isEmpty());
+    }
+
+    @Test
+    public void refreshGeneratesMissingTablesInParallelAndSkipsCurrentOnes() throws Exception {
+        File dir = Files.createTempDirectory("locations").toFile();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            SavedLocations saved = new SavedLocations();
+            saved.add("İstanbul", 41.0082, 28.9784, 13, 0);
+            saved.add("Ankara", 39.9334, 32.8597, 13, 0);
+            saved.add("İzmir", 38.4237, 27.1428, 13, 0);
+
+            AtomicInteger changed = new AtomicInteger();
+            assertEquals(3, saved.refresh(dir, TURKEY, NOW, 40, 30, executor, changed::incrementAndGet));
+            waitFor(changed, 1);
+            for (SavedLocations.Location location : saved.all()) {
+                PrayerTimetable table = SavedLocations.readTimetable(SavedLocations.timetableFile(dir, location.id));
+                assertNotNull(table);
+                assertTrue(table.matches(location.latitude, location.longitude, 13, 0, TURKEY));
+                assertEquals(39, table.remainingDays(NOW));
+            }
+
+            // Tablolar güncel: yeniden yazılmaz, geri çağrı çalışmaz
+            long modified = SavedLocations.timetableFile(dir, 1).lastModified();
+            saved.refresh(dir, TURKEY, NOW, 40, 30, executor, changed::incrementAndGet);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(1, changed.get());
+            assertEquals(modified, SavedLocations.timetableFile(dir, 1).lastModified());
+
+            // Silinen konumun dosyası kalmaz
+            saved.remove(2);
+            saved.deleteOrphans(dir);
+            assertFalse(SavedLocations.timetableFile(dir, 2).exists());
+            assertTrue(SavedLocations.timetableFile(dir, 3).exists());
+        } finally {
+            executor.shutdownNow();
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void rejectedRefreshReleasesLocationsThatWereNotQueued() throws Exception {
+        File dir = Files.createTempDirectory("locations").toFile();
+        try {
+            SavedLocations saved = new SavedLocations();
+            saved.add("İstanbul", 41.0082, 28.9784, 13, 0);
+            saved.add("Ankara", 39.9334, 32.8597, 13, 0);
+
+            // Kuyruk ilk işten sonra dolu: ikinci konum reddedilir
+            List<Runnable> queued = new ArrayList<>();
+            Executor full = task -> {
+                if (!queued.isEmpty()) {
+                    throw new RejectedExecutionException("dolu");
+                }
+                queued.add(task);
+            };
+            assertEquals(1, saved.refresh(dir, TURKEY, NOW, 40, 30, full, null));
+
+            // Reddedilen konum bekleyen sayılmaz; sıradaki çağrı onu yeniden alır
+            List<Runnable> retried = new ArrayList<>();
+            assertEquals(1, saved.refresh(dir, TURKEY, NOW, 40, 30, retried::add, null));
+            queued.get(0).run();
+            assertEquals(1, saved.refresh(dir, TURKEY, NOW, 40, 30, retried::add, null));
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void overlappingRefreshSkipsLocationsStillInFlight() throws Exception {
+        File dir = Files.createTempDirectory("locations").toFile();
+        try {
+            SavedLocations saved = new SavedLocations();
+            saved.add("İstanbul", 41.0082, 28.9784, 13, 0);
+            saved.add("Ankara", 39.9334, 32.8597, 13, 0);
+
+            // İşler elle çalıştırılır: ilk çağrının işleri henüz bitmedi
+            List<Runnable> queued = new ArrayList<>();
+            AtomicInteger changed = new AtomicInteger();
+            assertEquals(2, saved.refresh(dir, TURKEY, NOW, 40, 30, queued::add, changed::incrementAndGet));
+            assertEquals(0, saved.refresh(dir, TURKEY, NOW, 40, 30, queued::add, changed::incrementAndGet));
+            assertEquals(2, queued.size());
+
+            for (Runnable task : queued) {
+                task.run();
+            }
+            assertEquals(1, changed.get());
+            assertNotNull(SavedLocations.readTimetable(SavedLocations.timetableFile(dir, 1)));
+            // Geçici dosya kalmaz
+            assertEquals(2, dir.listFiles().length);
+
+            // Bitenler yeniden kuyruğa alınabilir
+            queued.clear();
+            assertEquals(2, saved.refresh(dir, TURKEY, NOW, 40, 30, queued::add, null));
+        } finally {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    private static void waitFor(AtomicInteger counter, int value) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (counter.get() < value && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(value, counter.get());
+    }
+}
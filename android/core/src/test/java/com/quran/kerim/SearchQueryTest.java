@@ -0,0 +1,60 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class SearchQueryTest {
+
+    @Test
+    public void splitsIntoTermClauses() {
+        SearchQuery query = SearchQuery.parse("rahmet  merhamet");
+        assertEquals(2, query.clauses.size());
+        assertEquals("rahmet", query.clauses.get(0).terms[0].text);
+        assertFalse(query.clauses.get(0).isPhrase());
+        assertEquals("rahmet merhamet", query.toString());
+    }
+
+    @Test
+    public void foldsTurkishCaseIndependentOfLocale() {
+        assertEquals("ışık istanbul ilah", SearchQuery.parse("IŞIK İSTANBUL İlâh").toString());
+        assertEquals(Arrays.asList("allah", "ın", "resul"), SearchNormalizer.tokenize("Allah'ın Resûl"));
+    }
+
+    @Test
+    public void stripsArabicDiacriticsAndUnifiesLetters() {
+        // بِسْمِ ٱللَّهِ -> بسم الله
+        assertEquals(Arrays.asList("بسم", "الله"),
+                SearchNormalizer.tokenize("بِسْمِ ٱللَّهِ"));
+        // إِيمَان -> ايمان, رَحْمَة -> رحمه
+        assertEquals("ايمان رحمه", SearchQuery.parse("إِيمَان رَحْمَة").toString());
+    }
+
+    @Test
+    public void parsesPrefixTerms() {
+        SearchQuery query = SearchQuery.parse("merhamet* rab");
+        assertTrue(query.clauses.get(0).terms[0].prefix);
+        assertFalse(query.clauses.get(1).terms[0].prefix);
+        assertEquals("merhamet* rab", query.toString());
+    }
+
+    @Test
+    public void parsesPhrasesWithPrefix() {
+        SearchQuery query = SearchQuery.parse("sabır \"Âlemlerin Rabb*\"");
+        assertEquals(2, query.clauses.size());
+        SearchQuery.Clause phrase = query.clauses.get(1);
+        assertTrue(phrase.isPhrase());
+        assertEquals("alemlerin", phrase.terms[0].text);
+        assertTrue(phrase.terms[1].prefix);
+        assertEquals("sabır \"alemlerin rabb*\"", query.toString());
+    }
+
+    @Test
+    public void toleratesUnterminatedQuotesAndStrayOperators() {
+        assertEquals("\"hamd allah\"", SearchQuery.parse("\"hamd allah").toString());
+        assertTrue(SearchQuery.parse(" * \"\" ").isEmpty());
+        assertEquals(1, SearchQuery.parse("\"tek\"").clauses.size());
+        assertFalse(SearchQuery.parse("\"tek\"").clauses.get(0).isPhrase());
+    }
+}
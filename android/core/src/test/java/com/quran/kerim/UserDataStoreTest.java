@@ -0,0 +1,175 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UserDataStoreTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("user_data", ".log");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+
+    private static String bookmark(int surah, int ayah, String category) {
+        return "{\"surahNumber\":" + surah + ",\"ayahNumber\":" + ayah + ",\"category\":\"" + category + "\"}";
+    }
+
+    @Test
+    public void putsReplacesAndDeletesByAyah() throws Exception {
+        UserDataStore store = UserDataStore.open(file);
+        store.put(UserDataStore.KIND_BOOKMARK, 2, 255, "dua", bookmark(2, 255, "dua"));
+        store.put(UserDataStore.KIND_BOOKMARK, 2, 255, "genel", bookmark(2, 255, "genel"));
+        store.put(UserDataStore.KIND_NOTE, 2, 255, null, "{\"note\":\"Ayetel Kürsi\"}");
+
+        assertEquals("genel", store.get(UserDataStore.KIND_BOOKMARK, 2, 255).category);
+        assertEquals(1, store.count(UserDataStore.KIND_BOOKMARK, null));
+        assertEquals(0, store.count(UserDataStore.KIND_BOOKMARK, "dua"));
+        assertEquals("{\"note\":\"Ayetel Kürsi\"}", store.get(UserDataStore.KIND_NOTE, 2, 255).json);
+
+        assertTrue(store.delete(UserDataStore.KIND_BOOKMARK, 2, 255));
+        assertFalse(store.delete(UserDataStore.KIND_BOOKMARK, 2, 255));
+        assertNull(store.get(UserDataStore.KIND_BOOKMARK, 2, 255));
+        assertNotNull(store.get(UserDataStore.KIND_NOTE, 2, 255));
+        store.close();
+    }
+
+    @Test
+    public void pagesInAyahOrderWithinCategoryAndSurah() throws Exception {
+        UserDataStore store = UserDataStore.open(file);
+        for (int ayah = 10; ayah >= 1; ayah--) {
+            String category = ayah % 2 == 0 ? "dua" : "genel";
+            store.put(UserDataStore.KIND_BOOKMARK, 3, ayah, category, bookmark(3, ayah, category));
+        }
+        store.put(UserDataStore.KIND_BOOKMARK, 1, 5, "dua", bookmark(1, 5, "dua"));
+
+        List<UserDataStore.Record> page = store.query(UserDataStore.KIND_BOOKMARK, "dua", 0, 1, 3);
+        assertEquals(3, page.size());
+        assertEquals(3, page.get(0).surah);
+        assertEquals(2, page.get(0).ayah);
+        assertEquals(6, page.get(2).ayah);
+
+        List<UserDataStore.Record> surah = store.query(UserDataStore.KIND_BOOKMARK, null, 3, 8, 10);
+        assertEquals(2, surah.size());
+        assertEquals(9, surah.get(0).ayah);
+        assertEquals(Integer.valueOf(6), store.categoryCounts(UserDataStore.KIND_BOOKMARK).get("dua"));
+        store.close();
+    }
+
+    @Test
+    public void reloadsLogAndDropsTornTail() throws Exception {
+        UserDataStore store = UserDataStore.open(file);
+        store.put(UserDataStore.KIND_BOOKMARK, 18, 10, "genel", bookmark(18, 10, "genel"));
+        store.put(UserDataStore.KIND_SETTINGS, 0, 0, null, "{\"darkMode\":true}");
+        store.delete(UserDataStore.KIND_BOOKMARK, 18, 10);
+        store.put(UserDataStore.KIND_BOOKMARK, 36, 1, "genel", bookmark(36, 1, "genel"));
+        store.close();
+        long intact = file.length();
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{40, 0, 0, 0, 1, 2, 3});
+        }
+
+        UserDataStore reopened = UserDataStore.open(file);
+        assertNull(reopened.get(UserDataStore.KIND_BOOKMARK, 18, 10));
+        assertNotNull(reopened.get(UserDataStore.KIND_BOOKMARK, 36, 1));
+        assertEquals("{\"darkMode\":true}", reopened.get(UserDataStore.KIND_SETTINGS, 0, 0).json);
+        assertEquals(intact, reopened.fileSize());
+        reopened.put(UserDataStore.KIND_NOTE, 1, 1, null, "{}");
+        reopened.close();
+        assertNotNull(UserDataStore.open(file).get(UserDataStore.KIND_NOTE, 1, 1));
+    }
+
+    @Test
+    public void compactsWhenMostOfTheLogIsGarbage() throws Exception {
+        UserDataStore store = UserDataStore.open(file);
+        StringBuilder settings = new StringBuilder("{\"x\":\"");
+        for (int i = 0; i < 200; i++) {
+            settings.append("ayar");
+        }
+        settings.append("\"}");
+        for (int i = 0; i < 500; i++) {
+            store.put(UserDataStore.KIND_SETTINGS, 0, 0, null, settings.toString());
+            store.put(UserDataStore.KIND_BOOKMARK, 2, 1 + i % 200, "genel", bookmark(2, 1 + i % 200, "genel"));
+        }
+        assertTrue("size " + store.fileSize(), store.fileSize() < 100 * 1024);
+        assertEquals(200, store.count(UserDataStore.KIND_BOOKMARK, "genel"));
+        store.close();
+
+        UserDataStore reopened = UserDataStore.open(file);
+        assertEquals(200, reopened.count(UserDataStore.KIND_BOOKMARK, null));
+        assertEquals(settings.toString(), reopened.get(UserDataStore.KIND_SETTINGS, 0, 0).json);
+        reopened.close();
+    }
+
+    @Test
+    public void putAllWritesEverythingOrNothing() throws Exception {
+        UserDataStore store = UserDataStore.open(file);
+        store.put(UserDataStore.KIND_BOOKMARK, 1, 1, "genel", bookmark(1, 1, "genel"));
+        List<UserDataStore.Record> batch = Arrays.asList(
+                UserDataStore.newRecord(UserDataStore.KIND_BOOKMARK, 2, 255, "dua", bookmark(2, 255, "dua")),
+                UserDataStore.newRecord(UserDataStore.KIND_NOTE, 2, 255, null, "{\"note\":\"x\"}"));
+
+        // Geçici dosya yolu bir dizin: anlık görüntü yazılamaz
+        File tmp = new File(file.getPath() + ".tmp");
+        assertTrue(tmp.mkdir());
+        try {
+            store.putAll(batch);
+            fail("yazım başarısız olmalıydı");
+        } catch (IOException expected) {
+            // Ne bellekte ne dosyada yarım taşıma kalır
+            assertEquals(1, store.count(UserDataStore.KIND_BOOKMARK, null));
+            assertNull(store.get(UserDataStore.KIND_NOTE, 2, 255));
+        } finally {
+            tmp.delete();
+        }
+
+        store.putAll(batch);
+        store.put(UserDataStore.KIND_LAST_READ, 3, 1, null, "{}");
+        store.close();
+
+        UserDataStore reopened = UserDataStore.open(file);
+        assertEquals(2, reopened.count(UserDataStore.KIND_BOOKMARK, null));
+        assertEquals("dua", reopened.get(UserDataStore.KIND_BOOKMARK, 2, 255).category);
+        assertNotNull(reopened.get(UserDataStore.KIND_NOTE, 2, 255));
+        assertNotNull(reopened.get(UserDataStore.KIND_LAST_READ, 3, 1));
+        reopened.close();
+    }
+
+    @Test
+    public void onlyUnknownHeaderIsReportedAsInvalid() throws Exception {
+        assertTrue(UserDataStore.hasValidHeader(file));
+        UserDataStore.open(file).close();
+        assertTrue(UserDataStore.hasValidHeader(file));
+
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{'n', 'o', 't', ' ', 'l', 'o', 'g', '!'});
+        }
+        assertFalse(UserDataStore.hasValidHeader(file));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidKeys() throws Exception {
+        UserDataStore store = UserDataStore.open(file);
+        try {
+            store.put(UserDataStore.KIND_BOOKMARK, 115, 1, "genel", "{}");
+        } finally {
+            store.close();
+        }
+    }
+}
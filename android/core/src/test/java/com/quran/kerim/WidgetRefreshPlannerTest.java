@@ -0,0 +1,60 @@
+package com.quran.kerim;
+
+import static org.junit.Assert.*;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class WidgetRefreshPlannerTest {
+
+    private static final TimeZone TURKEY = TimeZone.getTimeZone("Europe/Istanbul");
+    private static final TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+    // 05:30, 07:00, 13:15, 16:00, 18:30, 20:00
+    private static final int[] TODAY = {330, 420, 795, 960, 1110, 1200};
+
+    private static long at(TimeZone zone, int year, int month, int day, int hour, int minute, int second) {
+        Calendar cal = Calendar.getInstance(zone);
+        cal.clear();
+        cal.set(year, month - 1, day, hour, minute, second);
+        return cal.getTimeInMillis();
+    }
+
+    @Test
+    public void countdownRefreshesAtNextMinuteBoundary() {
+        long now = at(TURKEY, 2025, 5, 10, 10, 15, 42);
+        assertEquals(at(TURKEY, 2025, 5, 10, 10, 16, 0),
+                WidgetRefreshPlanner.nextRefresh(now, TURKEY, TODAY, true));
+    }
+
+    @Test
+    public void withoutCountdownWaitsForNextPrayer() {
+        long now = at(TURKEY, 2025, 5, 10, 10, 15, 42);
+        assertEquals(at(TURKEY, 2025, 5, 10, 13, 15, 0),
+                WidgetRefreshPlanner.nextRefresh(now, TURKEY, TODAY, false));
+    }
+
+    @Test
+    public void exactlyAtPrayerMovesToFollowingOne() {
+        long now = at(TURKEY, 2025, 5, 10, 13, 15, 0);
+        assertEquals(at(TURKEY, 2025, 5, 10, 16, 0, 0),
+                WidgetRefreshPlanner.nextRefresh(now, TURKEY, TODAY, false));
+    }
+
+    @Test
+    public void afterYatsiWaitsForMidnight() {
+        long now = at(TURKEY, 2025, 5, 10, 21, 0, 0);
+        assertEquals(at(TURKEY, 2025, 5, 11, 0, 0, 0),
+                WidgetRefreshPlanner.nextRefresh(now, TURKEY, TODAY, false));
+    }
+
+    @Test
+    public void midnightBeforeDstChangeIsLocalMidnight() {
+        // Berlin, 30 Mart 2025 02:00 -> 03:00
+        long now = at(BERLIN, 2025, 3, 29, 22, 0, 0);
+        long next = WidgetRefreshPlanner.nextRefresh(now, BERLIN, TODAY, false);
+        assertEquals(at(BERLIN, 2025, 3, 30, 0, 0, 0), next);
+        long nextPrayer = WidgetRefreshPlanner.nextRefresh(next, BERLIN, TODAY, false);
+        assertEquals(at(BERLIN, 2025, 3, 30, 5, 30, 0), nextPrayer);
+    }
+}
@@ -26,12 +26,15 @@ import {
 } from './utils/audioStorage';
 import { 
   initNotificationService, 
-  scheduleNotifications 
+  scheduleNotifications,
+  PrayerAlarms,
+  usesNativeAlarms
 } from './utils/notificationService';
 import { 
   getPrayerTimesByCoordinates, 
   getUserLocation 
 } from './utils/prayerTimesApi';
+import { getSetting, updateSetting } from './utils/settingsStorage';
 
 const App = () => {
   const [highlightWord, setHighlightWord] = useState('');
@@ -39,8 +42,7 @@ const App = () => {
   const [currentView, setCurrentView] = useState('home');
   const [previousView, setPreviousView] = useState('home');
   const [darkMode, setDarkMode] = useState(() => {
-  const settings = JSON.parse(localStorage.getItem('quran_settings') || '{}');
-  return settings.darkMode || false;
+  return getSetting('darkMode') || false;
 });
   const [searchTerm, setSearchTerm] = useState('');
   const [selectedSurah, setSelectedSurah] = useState(null);
@@ -61,10 +63,8 @@ const App = () => {
   const newDarkMode = !darkMode;
   setDarkMode(newDarkMode);
   
-  // localStorage'a kaydet
-  const settings = JSON.parse(localStorage.getItem('quran_settings') || '{}');
-  settings.darkMode = newDarkMode;
-  localStorage.setItem('quran_settings', JSON.stringify(settings));
+  // Ayarlara kaydet
+  updateSetting('darkMode', newDarkMode);
 };
 
   const bg = darkMode ? '#1f2937' : '#f0fdf4';
@@ -194,6 +194,8 @@ const App = () => {
   useEffect(() => {
     let actionListener;
     let receiveListener;
+    let alarmListener;
+    let alarmOpenedListener;
 
     const setupNotificationListeners = async () => {
       actionListener = await LocalNotifications.addListener(
@@ -211,6 +213,18 @@ const App = () => {
           handleNotificationAction({ notification });
         }
       );
+
+      // Yerel vakit alarmları (Android): çaldığında ya da bildirime dokunulduğunda
+      if (usesNativeAlarms()) {
+        const showAlarm = (alarm) => handleNotificationAction({
+          notification: {
+            id: alarm.id,
+            extra: { prayerName: alarm.prayerName, prayerTime: alarm.prayerTime, action: 'SHOW_FULLSCREEN' }
+          }
+        });
+        alarmListener = await PrayerAlarms.addListener('alarm', showAlarm);
+        alarmOpenedListener = await PrayerAlarms.addListener('alarmOpened', showAlarm);
+      }
     };
 
     const handleNotificationAction = (data) => {
@@ -244,6 +258,12 @@ const App = () => {
       if (receiveListener && typeof receiveListener.remove === 'function') {
         receiveListener.remove();
       }
+      if (alarmListener && typeof alarmListener.remove === 'function') {
+        alarmListener.remove();
+      }
+      if (alarmOpenedListener && typeof alarmOpenedListener.remove === 'function') {
+        alarmOpenedListener.remove();
+      }
     };
   }, []);
 
@@ -292,9 +312,13 @@ const App = () => {
   const handleCloseFullScreen = async () => {
     if (notificationData?.notificationId) {
       try {
-        await LocalNotifications.cancel({
-          notifications: [{ id: notificationData.notificationId }]
-        });
+        if (usesNativeAlarms()) {
+          await PrayerAlarms.dismiss({ id: notificationData.notificationId });
+        } else {
+          await LocalNotifications.cancel({
+            notifications: [{ id: notificationData.notificationId }]
+          });
+        }
         console.log('🔇 Bildirim iptal edildi, ezan durdu:', notificationData.notificationId);
       } catch (error) {
         console.error('❌ Bildirim iptal hatası:', error);
@@ -383,6 +407,10 @@ const App = () => {
           <HomePage 
             darkMode={darkMode}
             onNavigate={handleNavigate}
+            onContinueReading={(surahNumber, ayahNumber) => {
+              setScrollToAyah(ayahNumber);
+              handleAyahClick(surahNumber, ayahNumber, 'home');
+            }}
           />
         )}
 
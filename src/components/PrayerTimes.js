@@ -13,7 +13,12 @@ import {
   initNotificationService,
   checkAndRefreshNotifications
 } from '../utils/notificationService';
-import { updatePrayerWidget } from '../utils/widgetBridge';
+import {
+  updatePrayerWidget,
+  getSavedLocations,
+  saveLocation,
+  removeSavedLocation
+} from '../utils/widgetBridge';
 import { 
   showOngoingNotification, 
   hideOngoingNotification 
@@ -32,6 +37,8 @@ const PrayerTimes = ({ darkMode }) => {
   const [nextPrayer, setNextPrayer] = useState(null);
   const [showPrayerAlert, setShowPrayerAlert] = useState(false);
   const [currentPrayerAlert, setCurrentPrayerAlert] = useState(null);
+  const [savedLocations, setSavedLocations] = useState([]);
+  const [placeName, setPlaceName] = useState('');
 
   const cardBg = darkMode ? '#374151' : 'white';
   const text = darkMode ? '#f3f4f6' : '#1f2937';
@@ -70,6 +77,10 @@ const PrayerTimes = ({ darkMode }) => {
     if (timings) setNextPrayer(getNextPrayer(timings));
   }, [timings]);
 
+  useEffect(() => {
+    getSavedLocations().then(setSavedLocations);
+  }, []);
+
   const checkPrayerTime = () => {
     if (!timings) return;
 
@@ -131,13 +142,14 @@ const PrayerTimes = ({ darkMode }) => {
       if (useGPS) {
         const coords = await getUserLocation();
         setLocation(coords);
+        setPlaceName('Konumum');
         const result = await getPrayerTimesByCoordinates(coords.latitude, coords.longitude);
         if (result.success) {
           setTimings(result.timings);
           await initNotificationService(result.timings, getPrayerTimingsProvider);
           
           // ✅ Widget'ı güncelle
-          await updatePrayerWidget(result.timings);
+          await updatePrayerWidget(result.timings, coords);
           
           console.log('✅ Bildirimler ve widget ayarlandı!');
         } else {
@@ -156,10 +168,11 @@ const PrayerTimes = ({ darkMode }) => {
           if (result.success) {
             setTimings(result.timings);
             setLocation({ latitude: city.latitude, longitude: city.longitude });
+            setPlaceName(city.name);
             await initNotificationService(result.timings, getPrayerTimingsProvider);
             
             // ✅ Widget'ı güncelle
-            await updatePrayerWidget(result.timings);
+            await updatePrayerWidget(result.timings, city);
             
             console.log('✅ Bildirimler ve widget ayarlandı!');
           } else {
@@ -174,6 +187,48 @@ const PrayerTimes = ({ darkMode }) => {
     }
   };
 
+  // Kayıtlı konuma geçiş: vakitler cihazda hesaplanır, widget tablosu native tarafta hazırdır
+  const loadSavedLocation = async (place) => {
+    setLoading(true);
+    setError(null);
+    try {
+      const result = await getPrayerTimesByCoordinates(place.latitude, place.longitude);
+      if (!result.success) throw new Error(result.error);
+      setUseGPS(false);
+      setSelectedCity(turkishCities.some(c => c.name === place.name) ? place.name : '');
+      setTimings(result.timings);
+      setLocation({ latitude: place.latitude, longitude: place.longitude });
+      setPlaceName(place.name);
+      await initNotificationService(result.timings, async () => {
+        const refreshed = await getPrayerTimesByCoordinates(place.latitude, place.longitude);
+        return refreshed.success ? refreshed.timings : null;
+      });
+      await updatePrayerWidget(result.timings, place);
+    } catch (err) {
+      setError(err.message);
+    } finally {
+      setLoading(false);
+    }
+  };
+
+  const handleSaveLocation = async () => {
+    if (!location) return;
+    try {
+      await saveLocation({ name: placeName || 'Konumum', ...location });
+      setSavedLocations(await getSavedLocations());
+    } catch (err) {
+      setError(err.message);
+    }
+  };
+
+  const handleRemoveLocation = async (id) => {
+    await removeSavedLocation(id);
+    setSavedLocations(await getSavedLocations());
+  };
+
+  const isSaved = location && savedLocations.some(l =>
+    Math.abs(l.latitude - location.latitude) < 1e-4 && Math.abs(l.longitude - location.longitude) < 1e-4);
+
   const loadWeeklyTimes = async () => {
     if (!location) return;
 
@@ -443,6 +498,74 @@ const PrayerTimes = ({ darkMode }) => {
             </select>
           )}
 
+          {savedLocations.length > 0 && (
+            <div style={{ display: 'flex', flexWrap: 'wrap', gap: '8px', marginBottom: '10px' }}>
+              {savedLocations.map((place) => (
+                <div
+                  key={place.id}
+                  style={{
+                    display: 'flex',
+                    alignItems: 'center',
+                    backgroundColor: placeName === place.name ? '#059669' : (darkMode ? '#374151' : 'white'),
+                    color: placeName === place.name ? 'white' : text,
+                    border: `1px solid ${darkMode ? '#6b7280' : '#d1d5db'}`,
+                    borderRadius: '16px',
+                    fontSize: '13px'
+                  }}
+                >
+                  <button
+                    onClick={() => loadSavedLocation(place)}
+                    disabled={loading}
+                    style={{
+                      background: 'none',
+                      border: 'none',
+                      color: 'inherit',
+                      padding: '6px 4px 6px 12px',
+                      cursor: 'pointer',
+                      fontSize: '13px'
+                    }}
+                  >
+                    📌 {place.name}
+                  </button>
+                  <button
+                    onClick={() => handleRemoveLocation(place.id)}
+                    title="Kaldır"
+                    style={{
+                      background: 'none',
+                      border: 'none',
+                      color: 'inherit',
+                      padding: '6px 10px 6px 4px',
+                      cursor: 'pointer',
+                      fontSize: '13px',
+                      opacity: 0.7
+                    }}
+                  >
+                    ✕
+                  </button>
+                </div>
+              ))}
+            </div>
+          )}
+
+          {location && !isSaved && (
+            <button
+              onClick={handleSaveLocation}
+              style={{
+                width: '100%',
+                padding: '10px',
+                backgroundColor: 'transparent',
+                color: darkMode ? '#6ee7b7' : '#059669',
+                border: `1px dashed ${darkMode ? '#6ee7b7' : '#059669'}`,
+                borderRadius: '6px',
+                cursor: 'pointer',
+                fontSize: '13px',
+                marginBottom: '10px'
+              }}
+            >
+              ⭐ {placeName || 'Bu konumu'} kaydet (widget'larda seçilebilir)
+            </button>
+          )}
+
           <button
             onClick={loadPrayerTimes}
             disabled={loading}
@@ -1,4 +1,9 @@
 import React, { useState, useEffect, useRef } from 'react';
+import { Capacitor, registerPlugin } from '@capacitor/core';
+
+// Android'de pusula yerel eklentidedir (dönme vektörü, sapma düzeltmesi, süzme)
+const QiblaNative = registerPlugin('Qibla');
+const isNative = () => Capacitor.isNativePlatform();
 
 const QiblaFinder = ({ darkMode }) => {
   const [location, setLocation] = useState(null);
@@ -11,6 +16,8 @@ const QiblaFinder = ({ darkMode }) => {
   // Yumuşatma için
   const headingHistory = useRef([]);
   const lastUpdate = useRef(Date.now());
+  // Ok 359°/0° geçişinde ters yönde tam tur dönmesin diye açı sürekli tutulur
+  const arrowRotation = useRef(0);
 
   // Kabe'nin koordinatları
   const KAABA = { lat: 21.4225, lng: 39.8262 };
@@ -46,10 +53,14 @@ const QiblaFinder = ({ darkMode }) => {
       (position) => {
         const { latitude, longitude } = position.coords;
         setLocation({ lat: latitude, lng: longitude });
-        const direction = calculateQiblaDirection(latitude, longitude);
-        setQiblaDirection(direction);
+        setQiblaDirection(calculateQiblaDirection(latitude, longitude));
         setLoading(false);
         setPermissionStatus('granted');
+        if (isNative()) {
+          QiblaNative.start({ latitude, longitude })
+            .then(result => setQiblaDirection(result.qibla))
+            .catch(err => console.error('Yerel pusula başlatılamadı:', err));
+        }
       },
       (err) => {
         setError('Konum alınamadı. Lütfen konum iznini kontrol edin.');
@@ -61,7 +72,8 @@ const QiblaFinder = ({ darkMode }) => {
     );
   };
 
-  // Yumuşatılmış ortalama hesapla
+  // Yumuşatılmış ortalama hesapla. Açılar dairesel: sinüs ve kosinüs ayrı
+  // ortalanır, yoksa 350° ile 10°'nin ortalaması 180° çıkar
   const smoothHeading = (newHeading) => {
     headingHistory.current.push(newHeading);
     
@@ -70,13 +82,30 @@ const QiblaFinder = ({ darkMode }) => {
       headingHistory.current.shift();
     }
     
-    // Ortalama al
-    const sum = headingHistory.current.reduce((a, b) => a + b, 0);
-    return sum / headingHistory.current.length;
+    let sin = 0;
+    let cos = 0;
+    headingHistory.current.forEach((deg) => {
+      sin += Math.sin((deg * Math.PI) / 180);
+      cos += Math.cos((deg * Math.PI) / 180);
+    });
+    return ((Math.atan2(sin, cos) * 180) / Math.PI + 360) % 360;
   };
 
-  // Pusula yönünü dinle
+  // Yerel pusula: yön yalnızca eşikten fazla değişince gelir, süzme yerelde yapılır
+  useEffect(() => {
+    if (!isNative()) return;
+    const handle = QiblaNative.addListener('heading', (event) => {
+      setDeviceHeading(event.heading);
+    });
+    return () => {
+      handle.then(h => h.remove());
+      QiblaNative.stop();
+    };
+  }, []);
+
+  // Pusula yönünü dinle (web)
   useEffect(() => {
+    if (isNative()) return;
     const handleOrientation = (event) => {
       // Throttle: 100ms'de bir güncelle
       const now = Date.now();
@@ -122,7 +151,11 @@ const QiblaFinder = ({ darkMode }) => {
   // Kıble okunu hesapla
   const calculateArrowRotation = () => {
     if (qiblaDirection === null) return 0;
-    return qiblaDirection - deviceHeading;
+    const target = qiblaDirection - deviceHeading;
+    // En kısa yoldan dön: önceki açıya (-180, 180] aralığındaki farkı ekle
+    const delta = ((((target - arrowRotation.current) % 360) + 540) % 360) - 180;
+    arrowRotation.current += delta;
+    return arrowRotation.current;
   };
 
   const styles = {
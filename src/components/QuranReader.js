@@ -3,15 +3,22 @@ import React, { useState, useEffect, useRef } from 'react';
 import { getAudio } from '../utils/audioStorage';
 import { addBookmark, removeBookmarkByAyah, isBookmarked } from '../utils/bookmarkStorage';
 import { getNote, saveNote } from '../utils/noteStorage';
-import { startReadingSession, endReadingSession } from '../utils/statsStorage';
+import { putLastRead } from '../utils/userDataStore';
+import { startReadingSession, endReadingSession, markAyahRead } from '../utils/statsStorage';
 import { getSettings } from '../utils/settingsStorage';
+import { loadLocalSurah, fetchNetworkSurah, prepareLocalCorpus } from '../utils/quranCorpus';
+import { Recitation, usesNativeRecitation, playRecitation, stopRecitation } from '../utils/recitationPlayer';
 import NoteModal from './quran/NoteModal';
 import Bismillah from './quran/Bismillah';
 import AyahCard from './quran/AyahCard';
+import VirtualAyahList from './quran/VirtualAyahList';
 
 // BUILD VERSION: 0.2.0 - UPDATED $(date)
 console.log('QuranReader Version 0.2.0 loaded!');
 
+// Yerel depodan önce bu kadar ayet okunup çizilir, kalanı ardından eklenir
+const FIRST_SCREEN_AYAHS = 10;
+
 const QuranReader = ({ surah, darkMode, onBack, highlightWord = '', scrollToAyah = null }) => {
   const [verses, setVerses] = useState([]);
   const [loading, setLoading] = useState(true);
@@ -27,7 +34,9 @@ const QuranReader = ({ surah, darkMode, onBack, highlightWord = '', scrollToAyah
   const [noteText, setNoteText] = useState('');
   const audioRef = useRef(null);
   const [appSettings, setAppSettings] = useState(getSettings());
-  const ayahRefs = useRef({});
+  const listRef = useRef(null);
+  const loadToken = useRef(0);
+  const pendingScroll = useRef(null);
 
   const cardBg = darkMode ? '#374151' : 'white';
   const text = darkMode ? '#f3f4f6' : '#1f2937';
@@ -47,14 +56,40 @@ const QuranReader = ({ surah, darkMode, onBack, highlightWord = '', scrollToAyah
 
   useEffect(() => {
     startReadingSession(surah.number, surah.name);
+    // Ana sayfadaki "Kaldığın yerden devam et" için
+    putLastRead({ surahNumber: surah.number, surahName: surah.name, ayahNumber: scrollToAyah || 1 });
     return () => {
       endReadingSession();
       if (audioRef.current) {
         audioRef.current.pause();
       }
+      if (usesNativeRecitation()) {
+        stopRecitation();
+      }
     };
   }, [surah.number, surah.name]);
 
+  // Yerel tilavette çalan ayet servisten gelir (vurgulama ve kaydırma için)
+  useEffect(() => {
+    if (!usesNativeRecitation()) return;
+    const handles = [
+      Recitation.addListener('ayah', (event) => {
+        if (event.surah === surah.number) setCurrentAyah(event.ayah);
+      }),
+      Recitation.addListener('state', (event) => {
+        if (!event.playing && event.surah === 0) setCurrentAyah(null);
+      }),
+      Recitation.addListener('complete', () => setCurrentAyah(null)),
+      Recitation.addListener('error', (event) => {
+        alert(`Ses dosyası yüklenemedi.\nSure: ${event.surah}, Ayet: ${event.ayah}`);
+        setCurrentAyah(null);
+      })
+    ];
+    return () => {
+      handles.forEach(handle => handle.then(h => h.remove()));
+    };
+  }, [surah.number]);
+
   useEffect(() => {
     if (verses.length > 0) {
       loadBookmarks();
@@ -62,21 +97,25 @@ const QuranReader = ({ surah, darkMode, onBack, highlightWord = '', scrollToAyah
     }
   }, [verses]);
 
-  // Belirli bir ayete scroll
   useEffect(() => {
-    if (scrollToAyah && ayahRefs.current[scrollToAyah]) {
+    pendingScroll.current = scrollToAyah;
+  }, [scrollToAyah, surah.number]);
+
+  // Belirli bir ayete scroll (ayet ilk ekranda değilse kalan ayetler gelince)
+  useEffect(() => {
+    const target = pendingScroll.current;
+    if (target && verses.some(ayah => ayah.number === target)) {
+      pendingScroll.current = null;
       setTimeout(() => {
-        ayahRefs.current[scrollToAyah].scrollIntoView({ 
-          behavior: 'smooth', 
-          block: 'center' 
-        });
+        if (listRef.current) listRef.current.scrollToAyah(target);
       }, 500);
     }
   }, [scrollToAyah, verses]);
 
   useEffect(() => {
-    if (currentAyah && ayahRefs.current[currentAyah]) {
-      ayahRefs.current[currentAyah].scrollIntoView({ behavior: 'smooth', block: 'center' });
+    if (currentAyah) markAyahRead(currentAyah);
+    if (currentAyah && listRef.current) {
+      listRef.current.scrollToAyah(currentAyah);
     }
   }, [currentAyah]);
 
@@ -100,55 +139,89 @@ const QuranReader = ({ surah, darkMode, onBack, highlightWord = '', scrollToAyah
   };
 
   const fetchSurah = async () => {
+    const token = ++loadToken.current;
+    const startedAt = performance.now();
+    const reportFirstAyahs = (count) => {
+      console.log(`📖 Sure ${surah.number}: ilk ${count} ayet ${Math.round(performance.now() - startedAt)}ms`);
+    };
     try {
       setLoading(true);
       const settings = getSettings();
 
-      if (settings.showTajweed) {
-        const response = await fetch(
-          `https://api.quran.com/api/v4/quran/verses/uthmani_tajweed?chapter_number=${surah.number}`
-        );
-        const data = await response.json();
-
-        const translationResponse = await fetch(
-          `https://api.alquran.cloud/v1/surah/${surah.number}/tr.diyanet`
-        );
-        const translationData = await translationResponse.json();
-
-        if (data && data.verses) {
-          const combined = data.verses.map((verse, index) => ({
-            number: verse.verse_number ? verse.verse_number : (index + 1),
-            arabic: verse.text_uthmani_tajweed,
-            turkish: translationData.data.ayahs[index]?.text || '',
-            globalNumber: verse.id
-          }));
-          setVerses(combined);
-        }
-      } else {
-        const response = await fetch(
-          `https://api.alquran.cloud/v1/surah/${surah.number}/editions/quran-simple,tr.diyanet`
-        );
-        const data = await response.json();
-
-        if (data.code === 200 && data.data && data.data.length >= 2) {
-          const arabic = data.data[0].ayahs;
-          const turkish = data.data[1].ayahs;
-
-          const combined = arabic.map((ayah, index) => ({
-            number: ayah.numberInSurah ? ayah.numberInSurah : (index + 1),
-            arabic: ayah.text,
-            turkish: turkish && turkish[index] ? turkish[index].text : '',
-            globalNumber: ayah.number
-          }));
-          setVerses(combined);
+      // Önce ilk ekran, sonra kalanı: uzun surelerde ilk ayetler tüm sureyi beklemez
+      const first = await loadLocalSurah(surah.number, settings.showTajweed, 1, FIRST_SCREEN_AYAHS);
+      if (token !== loadToken.current) return;
+      if (first) {
+        setVerses(first.ayahs);
+        setLoading(false);
+        reportFirstAyahs(first.ayahs.length);
+        if (first.ayahCount <= first.ayahs.length) return;
+        const rest = await loadLocalSurah(surah.number, settings.showTajweed,
+          first.ayahs.length + 1, first.ayahCount);
+        if (token !== loadToken.current) return;
+        if (rest) {
+          setVerses(first.ayahs.concat(rest.ayahs));
+          return;
         }
       }
+
+      const combined = await fetchSurahFromNetwork(settings.showTajweed);
+      if (token !== loadToken.current) return;
+      if (combined) {
+        setVerses(combined);
+        reportFirstAyahs(combined.length);
+      }
+      // Sonraki açılışlar ağ beklemesin
+      prepareLocalCorpus();
     } catch (error) {
       console.error('Sure yükleme hatası:', error);
-      setVerses([]);
+      if (token === loadToken.current) setVerses([]);
     } finally {
-      setLoading(false);
+      if (token === loadToken.current) setLoading(false);
+    }
+  };
+
+  // Android'de yanıt yerel tarafta akış halinde okunur (QuranCorpusPlugin.fetchSurah).
+  // Web'de ağ yanıtı hemen ayet başına küçük nesnelere indirgenir; ham yanıt tutulmaz
+  const fetchSurahFromNetwork = async (tajweed) => {
+    const streamed = await fetchNetworkSurah(surah.number, tajweed);
+    if (streamed) return streamed.ayahs;
+
+    if (tajweed) {
+      const response = await fetch(
+        `https://api.quran.com/api/v4/quran/verses/uthmani_tajweed?chapter_number=${surah.number}`
+      );
+      const data = await response.json();
+
+      const translationResponse = await fetch(
+        `https://api.alquran.cloud/v1/surah/${surah.number}/tr.diyanet`
+      );
+      const translationData = await translationResponse.json();
+
+      if (!data || !data.verses) return null;
+      return data.verses.map((verse, index) => ({
+        number: verse.verse_number ? verse.verse_number : (index + 1),
+        arabic: verse.text_uthmani_tajweed,
+        turkish: translationData.data.ayahs[index]?.text || '',
+        globalNumber: verse.id
+      }));
     }
+
+    const response = await fetch(
+      `https://api.alquran.cloud/v1/surah/${surah.number}/editions/quran-simple,tr.diyanet`
+    );
+    const data = await response.json();
+
+    if (data.code !== 200 || !data.data || data.data.length < 2) return null;
+    const arabic = data.data[0].ayahs;
+    const turkish = data.data[1].ayahs;
+
+    return arabic.map((ayah, index) => ({
+      number: ayah.numberInSurah ? ayah.numberInSurah : (index + 1),
+      arabic: ayah.text,
+      turkish: turkish && turkish[index] ? turkish[index].text : '',
+      globalNumber: ayah.number
+    }));
   };
 
   const playAyah = async (ayahNumber) => {
@@ -156,6 +229,18 @@ const QuranReader = ({ surah, darkMode, onBack, highlightWord = '', scrollToAyah
   setAppSettings(currentSettings);
 
   try {
+    if (usesNativeRecitation()) {
+      if (currentAyah === ayahNumber) {
+        await stopRecitation();
+        setCurrentAyah(null);
+        return;
+      }
+      const lastAyahNumber = verses[verses.length - 1]?.number || ayahNumber;
+      setCurrentAyah(ayahNumber);
+      await playRecitation(surah, ayahNumber, lastAyahNumber, currentSettings);
+      return;
+    }
+
     if (currentAyah === ayahNumber && audioRef.current && !audioRef.current.paused) {
       audioRef.current.pause();
       setCurrentAyah(null);
@@ -190,7 +275,8 @@ const QuranReader = ({ surah, darkMode, onBack, highlightWord = '', scrollToAyah
     const audio = new Audio();
     audio.crossOrigin = 'anonymous'; // CORS için
     audio.preload = 'auto';
-    audio.src = audioUrl;
+    // İndirilmiş ayet varsa yerel dosyadan çal
+    audio.src = (await getAudio(surah.number, ayahNumber)) || audioUrl;
     
     // 🎚️ SES HIZI AYARLA
     audio.playbackRate = currentSettings.audioSpeed || 1.0;
@@ -227,9 +313,7 @@ const QuranReader = ({ surah, darkMode, onBack, highlightWord = '', scrollToAyah
         if (nextAyahNumber && nextAyahNumber <= lastAyahNumber) {
           playAyah(nextAyahNumber);
           setTimeout(() => {
-            if (ayahRefs.current[nextAyahNumber]) {
-              ayahRefs.current[nextAyahNumber].scrollIntoView({ behavior: 'smooth', block: 'center' });
-            }
+            if (listRef.current) listRef.current.scrollToAyah(nextAyahNumber);
           }, 300);
         } else {
           setCurrentAyah(null);
@@ -393,30 +477,32 @@ const QuranReader = ({ surah, darkMode, onBack, highlightWord = '', scrollToAyah
         darkMode={darkMode}
       />
 
-      <div style={{ display: 'flex', flexDirection: 'column', gap: '20px' }}>
-        {verses.map((ayah) => (
-          <div ref={el => ayahRefs.current[ayah.number] = el} key={ayah.number}>
-            <AyahCard
-              key={ayah.number}
-              ayah={ayah}
-              surahName={surah.name}
-              fontSize={fontSize}
-              arabicFont={arabicFont}
-              showTajweed={showTajweed}
-              darkMode={darkMode}
-              currentAyah={currentAyah}
-              copiedAyah={copiedAyah}
-              isBookmarked={bookmarkedAyahs[ayah.number]}
-              note={notes[ayah.number]}
-              highlightWord={highlightWord}
-              onPlay={playAyah}
-              onCopy={copyAyah}
-              onToggleBookmark={toggleBookmark}
-              onOpenNote={openNoteModal}
-            />
-          </div>
-        ))}
-      </div>
+      {/* Yalnızca görünen ayetler çizilir (Bakara gibi uzun surelerde binlerce düğüm yerine birkaç düzine) */}
+      <VirtualAyahList
+        key={surah.number}
+        ref={listRef}
+        verses={verses}
+        fontSize={fontSize}
+        renderAyah={(ayah) => (
+          <AyahCard
+            ayah={ayah}
+            surahName={surah.name}
+            fontSize={fontSize}
+            arabicFont={arabicFont}
+            showTajweed={showTajweed}
+            darkMode={darkMode}
+            currentAyah={currentAyah}
+            copiedAyah={copiedAyah}
+            isBookmarked={bookmarkedAyahs[ayah.number]}
+            note={notes[ayah.number]}
+            highlightWord={highlightWord}
+            onPlay={playAyah}
+            onCopy={copyAyah}
+            onToggleBookmark={toggleBookmark}
+            onOpenNote={openNoteModal}
+          />
+        )}
+      />
 
       {showNoteModal && (
         <NoteModal
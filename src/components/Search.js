@@ -1,6 +1,6 @@
 // src/components/Search.js - PROPS DÜZELTİLDİ
 import React, { useState } from 'react';
-import { allSurahs } from '../data/surahs';
+import { searchQuran } from '../utils/quranSearch';
 
 const Search = ({ 
   darkMode, 
@@ -13,6 +13,7 @@ const Search = ({
   setSearchType
 }) => {
   const [searching, setSearching] = useState(false);
+  const [preparing, setPreparing] = useState(false);
 
   const cardBg = darkMode ? '#374151' : 'white';
   const text = darkMode ? '#f3f4f6' : '#1f2937';
@@ -28,64 +29,27 @@ const Search = ({
     setSearchResults([]);
 
     try {
-      const results = [];
-
-      for (const surah of allSurahs) {
-        try {
-          const response = await fetch(
-            `https://api.alquran.cloud/v1/surah/${surah.number}/editions/quran-simple,tr.diyanet`
-          );
-          const data = await response.json();
-
-          if (data.code === 200) {
-            const arabic = data.data[0].ayahs;
-            const turkish = data.data[1].ayahs;
-
-            arabic.forEach((ayah, index) => {
-              const searchLower = searchQuery.toLowerCase();
-              const turkishText = turkish[index].text.toLowerCase();
-              const arabicText = ayah.text;
-
-              let isMatch = false;
-
-              if (searchType === 'turkish' && turkishText.includes(searchLower)) {
-                isMatch = true;
-              } else if (searchType === 'arabic' && arabicText.includes(searchQuery)) {
-                isMatch = true;
-              }
-
-              if (isMatch) {
-                results.push({
-                  surahNumber: surah.number,
-                  surahName: surah.name,
-                  surahNameArabic: surah.nameArabic,
-                  ayahNumber: ayah.numberInSurah,
-                  arabicText: ayah.text,
-                  turkishText: turkish[index].text
-                });
-              }
-            });
-          }
-        } catch (error) {
-          console.error(`Sure ${surah.number} aramasında hata:`, error);
-        }
-      }
-
+      const results = await searchQuran(searchQuery, searchType, () => setPreparing(true));
       setSearchResults(results);
     } catch (error) {
       console.error('Arama hatası:', error);
       alert('Arama sırasında bir hata oluştu.');
     } finally {
       setSearching(false);
+      setPreparing(false);
     }
   };
 
   const highlightText = (text, query) => {
-    if (!query.trim()) return text;
+    // Tırnak ve * arama işleçleridir; her kelime ayrı vurgulanır
+    const words = query.replace(/["*]/g, ' ').split(/\s+/).filter(Boolean);
+    if (words.length === 0) return text;
 
-    const parts = text.split(new RegExp(`(${query})`, 'gi'));
+    const escaped = words.map(w => w.replace(/[.*+?^${}()|[\]\\]/g, '\\$&'));
+    const lowerWords = words.map(w => w.toLocaleLowerCase('tr'));
+    const parts = text.split(new RegExp(`(${escaped.join('|')})`, 'gi'));
     return parts.map((part, index) =>
-      part.toLowerCase() === query.toLowerCase() ? (
+      lowerWords.includes(part.toLocaleLowerCase('tr')) ? (
         <span
           key={index}
           style={{
@@ -212,7 +176,9 @@ const Search = ({
             Kuran-ı Kerim'de aranıyor...
           </div>
           <div style={{ fontSize: '14px' }}>
-            Bu işlem birkaç dakika sürebilir
+            {preparing
+              ? 'Arama indeksi hazırlanıyor (yalnızca ilk aramada)'
+              : 'Bu işlem birkaç dakika sürebilir'}
           </div>
         </div>
       )}
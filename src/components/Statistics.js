@@ -5,7 +5,7 @@ import {
   getMostReadSurahs, 
   getWeeklyStats,
   getMonthlyStats,
-  getReadingHistory,
+  getRollupSeries,
   resetStats
 } from '../utils/statsStorage';
 import { getTotalNotesCount } from '../utils/noteStorage';
@@ -18,6 +18,8 @@ const Statistics = ({ darkMode }) => {
   const [mostReadSurahs, setMostReadSurahs] = useState([]);
   const [weeklyStats, setWeeklyStats] = useState([]);
   const [monthlyStats, setMonthlyStats] = useState(null);
+  const [yearSeries, setYearSeries] = useState([]);
+  const [yearGranularity, setYearGranularity] = useState('month');
   const [notesCount, setNotesCount] = useState(0);
   const [bookmarksCount, setBookmarksCount] = useState(0);
   const [downloadsCount, setDownloadsCount] = useState(0);
@@ -30,6 +32,11 @@ const Statistics = ({ darkMode }) => {
     loadAllStats();
   }, []);
 
+  // Son 12 ay: aylık 12, haftalık 52 kova; geçmişin uzunluğundan bağımsız
+  useEffect(() => {
+    setYearSeries(getRollupSeries(yearGranularity, yearGranularity === 'month' ? 12 : 52));
+  }, [yearGranularity, stats]);
+
   const loadAllStats = async () => {
     // Okuma istatistikleri
     const generalStats = getStats();
@@ -144,7 +151,7 @@ setBookmarksCount(bookmarks.length);
           icon="🔥"
           title="Günlük Seri"
           value={stats.streakDays}
-          subtitle="gün"
+          subtitle={`gün · en uzun ${stats.longestStreak || stats.streakDays}`}
           darkMode={darkMode}
         />
         <StatCard
@@ -291,6 +298,75 @@ setBookmarksCount(bookmarks.length);
         </div>
       </div>
 
+      {/* Son 12 Ay */}
+      <div style={{
+        backgroundColor: darkMode ? '#4b5563' : '#f9fafb',
+        padding: '20px',
+        borderRadius: '10px',
+        marginBottom: '20px'
+      }}>
+        <div style={{
+          display: 'flex',
+          justifyContent: 'space-between',
+          alignItems: 'center',
+          marginBottom: '15px'
+        }}>
+          <h3 style={{ fontSize: '18px', color: text, margin: 0 }}>
+            📆 Son 12 Ay
+          </h3>
+          <div style={{ display: 'flex', gap: '6px' }}>
+            {[['month', 'Aylık'], ['week', 'Haftalık']].map(([value, label]) => (
+              <button
+                key={value}
+                onClick={() => setYearGranularity(value)}
+                style={{
+                  padding: '6px 12px',
+                  backgroundColor: yearGranularity === value ? '#059669' : (darkMode ? '#374151' : '#e5e7eb'),
+                  color: yearGranularity === value ? 'white' : text,
+                  border: 'none',
+                  borderRadius: '6px',
+                  cursor: 'pointer',
+                  fontSize: '12px'
+                }}
+              >
+                {label}
+              </button>
+            ))}
+          </div>
+        </div>
+        <div style={{ display: 'flex', alignItems: 'flex-end', gap: yearGranularity === 'month' ? '6px' : '2px', height: '120px' }}>
+          {yearSeries.map(bucket => {
+            const maxMinutes = Math.max(...yearSeries.map(b => b.minutes), 1);
+            return (
+              <div
+                key={bucket.key}
+                title={`${bucket.key}: ${bucket.minutes} dk, ${bucket.sessions} oturum, ${bucket.ayahs} ayet, ${bucket.surahs} sure`}
+                style={{
+                  flex: '1',
+                  height: `${Math.max((bucket.minutes / maxMinutes) * 100, bucket.sessions > 0 ? 3 : 0)}%`,
+                  backgroundColor: '#059669',
+                  borderRadius: '4px 4px 0 0'
+                }}
+              />
+            );
+          })}
+        </div>
+        {yearGranularity === 'month' && (
+          <div style={{ display: 'flex', gap: '6px', marginTop: '6px' }}>
+            {yearSeries.map(bucket => (
+              <div key={bucket.key} style={{ flex: '1', textAlign: 'center', fontSize: '10px', color: textSec }}>
+                {bucket.start.toLocaleDateString('tr-TR', { month: 'short' })}
+              </div>
+            ))}
+          </div>
+        )}
+        <div style={{ fontSize: '12px', color: textSec, marginTop: '10px' }}>
+          {formatDuration(yearSeries.reduce((sum, b) => sum + b.minutes, 0))} ·{' '}
+          {yearSeries.reduce((sum, b) => sum + b.sessions, 0)} oturum ·{' '}
+          {yearSeries.reduce((sum, b) => sum + b.ayahs, 0)} ayet
+        </div>
+      </div>
+
       {/* Aylık Özet */}
       {monthlyStats && (
         <div style={{
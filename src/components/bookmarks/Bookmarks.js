@@ -3,7 +3,7 @@ import React, { useState, useEffect } from 'react';
 import {
   getBookmarksGroupedBySurah,
   getCategories,
-  getBookmarksByCategory,
+  getBookmarksPage,
   getBookmarkStats,
   removeBookmark,
   updateBookmark
@@ -12,8 +12,11 @@ import BookmarkListView from './BookmarkListView';
 import BookmarkGroupedView from './BookmarkGroupedView';
 import BookmarkEditModal from './BookmarkEditModal';
 
+const PAGE_SIZE = 30;
+
 const Bookmarks = ({ darkMode, onAyahClick }) => {
   const [bookmarks, setBookmarks] = useState([]);
+  const [totalBookmarks, setTotalBookmarks] = useState(0);
   const [groupedBookmarks, setGroupedBookmarks] = useState([]);
   const [selectedCategory, setSelectedCategory] = useState('tümü');
   const [viewMode, setViewMode] = useState('list'); // list, grouped
@@ -25,12 +28,14 @@ const Bookmarks = ({ darkMode, onAyahClick }) => {
   const categories = getCategories();
 
   useEffect(() => {
-    loadBookmarks();
+    loadBookmarks(PAGE_SIZE);
   }, [selectedCategory, viewMode]);
 
-  const loadBookmarks = () => {
-    const allBookmarks = getBookmarksByCategory(selectedCategory);
-    setBookmarks(allBookmarks);
+  // Liste sayfa sayfa yüklenir; silme/düzenlemeden sonra açık olan kadarı yeniden okunur
+  const loadBookmarks = async (limit = Math.max(PAGE_SIZE, bookmarks.length)) => {
+    const page = await getBookmarksPage(selectedCategory, 0, limit);
+    setBookmarks(page.bookmarks);
+    setTotalBookmarks(page.total);
     
     if (viewMode === 'grouped') {
       const grouped = getBookmarksGroupedBySurah();
@@ -40,6 +45,12 @@ const Bookmarks = ({ darkMode, onAyahClick }) => {
     setStats(getBookmarkStats());
   };
 
+  const loadMoreBookmarks = async () => {
+    const page = await getBookmarksPage(selectedCategory, bookmarks.length, PAGE_SIZE);
+    setBookmarks(prev => [...prev, ...page.bookmarks]);
+    setTotalBookmarks(page.total);
+  };
+
   const handleDelete = (bookmarkId) => {
     if (window.confirm('Bu yer imini silmek istediğinize emin misiniz?')) {
       removeBookmark(bookmarkId);
@@ -185,14 +196,34 @@ const Bookmarks = ({ darkMode, onAyahClick }) => {
 
       {/* İçerik */}
       {viewMode === 'list' ? (
-        <BookmarkListView
-          bookmarks={bookmarks}
-          darkMode={darkMode}
-          onEdit={handleEdit}
-          onDelete={handleDelete}
-          onAyahClick={onAyahClick}
-          getCategoryIcon={getCategoryIcon}
-        />
+        <>
+          <BookmarkListView
+            bookmarks={bookmarks}
+            darkMode={darkMode}
+            onEdit={handleEdit}
+            onDelete={handleDelete}
+            onAyahClick={onAyahClick}
+            getCategoryIcon={getCategoryIcon}
+          />
+          {bookmarks.length < totalBookmarks && (
+            <button
+              onClick={loadMoreBookmarks}
+              style={{
+                width: '100%',
+                marginTop: '15px',
+                padding: '12px',
+                backgroundColor: darkMode ? '#4b5563' : '#e5e7eb',
+                color: text,
+                border: 'none',
+                borderRadius: '8px',
+                cursor: 'pointer',
+                fontSize: '14px'
+              }}
+            >
+              Daha fazla ({totalBookmarks - bookmarks.length})
+            </button>
+          )}
+        </>
       ) : (
         <BookmarkGroupedView
           groupedBookmarks={groupedBookmarks}
@@ -6,6 +6,8 @@ import {
   getNextPrayer,
   isPrayerTimePassed
 } from '../../utils/prayerTimesApi';
+import { getStartupSnapshot, isSnapshotForToday, reportFirstMeaningfulPaint } from '../../utils/startupSnapshot';
+import { getLastRead } from '../../utils/userDataStore';
 
 // Günlük Ayet ve Hadis Verileri
 const dailyVerses = [
@@ -98,25 +100,40 @@ const islamicDates = [
   { hijri: "10 Zilhicce", name: "Kurban Bayramı" }
 ];
 
-const HomePage = ({ darkMode, onNavigate }) => {
-  const [timings, setTimings] = useState(null);
-  const [loading, setLoading] = useState(true);
-  const [nextPrayer, setNextPrayer] = useState(null);
+// Android'de yerel açılış özeti; ilk çizim vakitleri ve Hicri tarihi beklemeden gösterir
+const readStartup = () => {
+  const snapshot = getStartupSnapshot();
+  return isSnapshotForToday(snapshot) ? snapshot : null;
+};
+
+const HomePage = ({ darkMode, onNavigate, onContinueReading }) => {
+  const [startup] = useState(readStartup);
+  const [timings, setTimings] = useState(startup?.timings || null);
+  const [loading, setLoading] = useState(!startup?.timings);
+  // Ağ yolundaki gibi getNextPrayer: Güneş atlanır, İmsak yerine Fajr gösterilir
+  const [nextPrayer, setNextPrayer] = useState(() => (startup?.timings ? getNextPrayer(startup.timings) : null));
   const [countdown, setCountdown] = useState('');
   const [dailyVerse, setDailyVerse] = useState(null);
   const [dailyHadith, setDailyHadith] = useState(null);
-  const [hijriDate, setHijriDate] = useState('');
+  const [hijriDate, setHijriDate] = useState(startup?.hijri?.text || '');
+  const [lastRead] = useState(() => (startup ? startup.lastRead : getLastRead()) || null);
 
   const cardBg = darkMode ? '#374151' : 'white';
   const text = darkMode ? '#f3f4f6' : '#1f2937';
   const textSec = darkMode ? '#9ca3af' : '#6b7280';
 
   useEffect(() => {
-    loadPrayerTimesWithCache();
+    // Özette bugünün vakitleri varsa ağ/hesap yolu atlanır
+    if (!startup?.timings) loadPrayerTimesWithCache();
     loadDailyContent();
-    calculateHijriDate();
+    if (!startup?.hijri) calculateHijriDate();
   }, []);
 
+  // Açılış ölçümü: vakitler (ya da yüklenemediyse boş hâl) ilk kez çizildi
+  useEffect(() => {
+    if (timings || !loading) reportFirstMeaningfulPaint();
+  }, [timings, loading]);
+
   useEffect(() => {
     // Geri sayımı her saniye güncelle
     if (nextPrayer && timings) {
@@ -312,10 +329,36 @@ const HomePage = ({ darkMode, onNavigate }) => {
           color: textSec,
           fontStyle: 'italic'
         }}>
-          Yaklaşık Hicri Tarih
+          {startup?.hijri ? 'Hicri Tarih (Ümmü\'l-Kurâ)' : 'Yaklaşık Hicri Tarih'}
         </div>
       </div>
 
+      {/* Kaldığın Yerden Devam Et */}
+      {lastRead && onContinueReading && (
+        <button
+          onClick={() => onContinueReading(lastRead.surahNumber, lastRead.ayahNumber)}
+          style={{
+            backgroundColor: cardBg,
+            borderRadius: '12px',
+            padding: '18px 20px',
+            boxShadow: '0 2px 8px rgba(0,0,0,0.1)',
+            border: 'none',
+            borderLeft: '4px solid #059669',
+            textAlign: 'left',
+            cursor: 'pointer',
+            color: text,
+            fontSize: '16px'
+          }}
+        >
+          <div style={{ fontSize: '13px', color: textSec, marginBottom: '5px' }}>
+            📖 Kaldığın yerden devam et
+          </div>
+          <div style={{ fontWeight: 'bold' }}>
+            {lastRead.surahName} Suresi, {lastRead.ayahNumber}. ayet
+          </div>
+        </button>
+      )}
+
       {/* Bir Sonraki Vakit + Geri Sayım */}
       {nextPrayer && timings && (
         <div style={{
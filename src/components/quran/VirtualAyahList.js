@@ -0,0 +1,167 @@
+// src/components/quran/VirtualAyahList.js
+// Uzun surelerde yalnızca ekranda ve yakınında olan ayet kartları DOM'da tutulur.
+// Kartların yüksekliği ölçüldükçe saklanır; henüz çizilmemiş kartlar metin uzunluğundan
+// tahmin edilen boşlukla yer tutar, böylece kaydırma çubuğu surenin tamamını gösterir.
+import React, { forwardRef, useCallback, useEffect, useImperativeHandle, useRef, useState } from 'react';
+
+const GAP = 20;
+// Görünür alanın üstünde ve altında önceden çizilen mesafe
+const OVERSCAN_PX = 1200;
+const INITIAL_COUNT = 10;
+
+const VirtualAyahList = forwardRef(({ verses, fontSize, renderAyah }, ref) => {
+  const containerRef = useRef(null);
+  const heights = useRef(new Map());
+  const elements = useRef(new Map());
+  const observerRef = useRef(null);
+  const frameRef = useRef(0);
+  const [range, setRange] = useState({ start: 0, end: Math.min(verses.length, INITIAL_COUNT) });
+  const [, setMeasured] = useState(0);
+
+  // Ölçülmüş yükseklik ya da tahmin (aralık dahil)
+  const heightOf = useCallback((ayah) => {
+    const measured = heights.current.get(ayah.number);
+    if (measured !== undefined) return measured;
+    const arabicLines = Math.ceil(ayah.arabic.length / 40);
+    const turkishLines = Math.ceil(ayah.turkish.length / 55);
+    return 110 + arabicLines * fontSize * 2 + turkishLines * 22 + GAP;
+  }, [fontSize]);
+
+  const updateRange = useCallback(() => {
+    frameRef.current = 0;
+    const container = containerRef.current;
+    if (!container) return;
+    const top = container.getBoundingClientRect().top;
+    const from = -top - OVERSCAN_PX;
+    const to = -top + window.innerHeight + OVERSCAN_PX;
+
+    let offset = 0;
+    let start = verses.length;
+    let end = verses.length;
+    for (let i = 0; i < verses.length; i++) {
+      if (offset >= to) {
+        end = i;
+        break;
+      }
+      const height = heightOf(verses[i]);
+      if (start === verses.length && offset + height > from) start = i;
+      offset += height;
+    }
+    start = Math.min(start, end);
+    setRange(prev => (prev.start === start && prev.end === end ? prev : { start, end }));
+  }, [verses, heightOf]);
+
+  const scheduleUpdate = useCallback(() => {
+    if (!frameRef.current) frameRef.current = requestAnimationFrame(updateRange);
+  }, [updateRange]);
+
+  useEffect(() => {
+    updateRange();
+    window.addEventListener('scroll', scheduleUpdate, { passive: true });
+    window.addEventListener('resize', scheduleUpdate);
+    return () => {
+      window.removeEventListener('scroll', scheduleUpdate);
+      window.removeEventListener('resize', scheduleUpdate);
+      cancelAnimationFrame(frameRef.current);
+      frameRef.current = 0;
+    };
+  }, [updateRange, scheduleUpdate]);
+
+  // Yazı boyutu değişince eski ölçümler geçersiz
+  useEffect(() => {
+    heights.current.clear();
+    setMeasured(version => version + 1);
+  }, [fontSize]);
+
+  const storeHeight = useCallback((element) => {
+    const number = Number(element.dataset.ayah);
+    const height = element.offsetHeight;
+    // Sayfadan ayrılmış kartlar 0 bildirir
+    if (height > 0 && heights.current.get(number) !== height) {
+      heights.current.set(number, height);
+      return true;
+    }
+    return false;
+  }, []);
+
+  useEffect(() => {
+    if (typeof ResizeObserver === 'undefined') return undefined;
+    const observer = new ResizeObserver(entries => {
+      let changed = false;
+      entries.forEach(entry => {
+        if (storeHeight(entry.target)) changed = true;
+      });
+      if (changed) {
+        setMeasured(version => version + 1);
+        scheduleUpdate();
+      }
+    });
+    observerRef.current = observer;
+    elements.current.forEach(element => observer.observe(element));
+    return () => {
+      observer.disconnect();
+      observerRef.current = null;
+    };
+  }, [storeHeight, scheduleUpdate]);
+
+  const setElement = (number, element) => {
+    const previous = elements.current.get(number);
+    if (previous && previous !== element) {
+      if (observerRef.current) observerRef.current.unobserve(previous);
+      elements.current.delete(number);
+    }
+    if (element && previous !== element) {
+      elements.current.set(number, element);
+      if (observerRef.current) {
+        observerRef.current.observe(element);
+      } else {
+        storeHeight(element);
+      }
+    }
+  };
+
+  // Çizili değilse önce tahmini konuma atlanır, kart çizilince tam ortalanır
+  const scrollToAyah = useCallback((number, behavior = 'smooth') => {
+    const index = verses.findIndex(ayah => ayah.number === number);
+    const container = containerRef.current;
+    if (index < 0 || !container) return;
+    const mounted = elements.current.get(number);
+    if (mounted) {
+      mounted.scrollIntoView({ behavior, block: 'center' });
+      return;
+    }
+    let offset = 0;
+    for (let i = 0; i < index; i++) offset += heightOf(verses[i]);
+    const target = container.getBoundingClientRect().top + window.scrollY + offset
+      - window.innerHeight / 2 + heightOf(verses[index]) / 2;
+    window.scrollTo({ top: Math.max(0, target), behavior: 'auto' });
+    requestAnimationFrame(() => requestAnimationFrame(() => {
+      const element = elements.current.get(number);
+      if (element) element.scrollIntoView({ behavior, block: 'center' });
+    }));
+  }, [verses, heightOf]);
+
+  useImperativeHandle(ref, () => ({ scrollToAyah }), [scrollToAyah]);
+
+  let paddingTop = 0;
+  for (let i = 0; i < range.start; i++) paddingTop += heightOf(verses[i]);
+  let paddingBottom = 0;
+  for (let i = range.end; i < verses.length; i++) paddingBottom += heightOf(verses[i]);
+
+  return (
+    <div ref={containerRef} style={{ paddingTop, paddingBottom }}>
+      {verses.slice(range.start, range.end).map(ayah => (
+        <div
+          key={ayah.number}
+          data-ayah={ayah.number}
+          ref={element => setElement(ayah.number, element)}
+          style={{ paddingBottom: `${GAP}px` }}
+        >
+          {renderAyah(ayah)}
+        </div>
+      ))}
+    </div>
+  );
+});
+
+export default VirtualAyahList;
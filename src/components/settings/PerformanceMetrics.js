@@ -0,0 +1,148 @@
+// src/components/settings/PerformanceMetrics.js
+// Hata ayıklama: yerel performans ölçümleri (yalnızca Android)
+import React, { useState, useEffect } from 'react';
+import {
+  getMetrics,
+  resetMetrics,
+  hasNativeMetrics,
+  COUNTER_LABELS,
+  HISTOGRAM_LABELS
+} from '../../utils/metrics';
+
+const formatMs = (ms) => (ms >= 1000 ? `${(ms / 1000).toFixed(1)} sn` : `${ms} ms`);
+
+const PerformanceMetrics = ({ darkMode }) => {
+  const [open, setOpen] = useState(false);
+  const [metrics, setMetrics] = useState(null);
+
+  const text = darkMode ? '#f3f4f6' : '#1f2937';
+  const textSec = darkMode ? '#9ca3af' : '#6b7280';
+  const rowBg = darkMode ? '#374151' : 'white';
+
+  const refresh = async () => setMetrics(await getMetrics());
+
+  useEffect(() => {
+    if (open) refresh();
+  }, [open]);
+
+  const handleReset = async () => {
+    if (window.confirm('Performans ölçümleri sıfırlansın mı?')) {
+      await resetMetrics();
+      refresh();
+    }
+  };
+
+  if (!hasNativeMetrics()) return null;
+
+  const row = (label, value, detail) => (
+    <div key={label} style={{
+      display: 'flex',
+      justifyContent: 'space-between',
+      alignItems: 'center',
+      padding: '8px 12px',
+      backgroundColor: rowBg,
+      borderRadius: '6px',
+      marginBottom: '6px',
+      fontSize: '13px'
+    }}>
+      <span style={{ color: text }}>{label}</span>
+      <span style={{ color: textSec, textAlign: 'right' }}>
+        <strong style={{ color: text }}>{value}</strong>
+        {detail && <div style={{ fontSize: '11px' }}>{detail}</div>}
+      </span>
+    </div>
+  );
+
+  return (
+    <div style={{
+      marginBottom: '30px',
+      padding: '20px',
+      backgroundColor: darkMode ? '#4b5563' : '#f9fafb',
+      borderRadius: '10px'
+    }}>
+      <h3
+        onClick={() => setOpen(!open)}
+        style={{ fontSize: '18px', color: text, margin: 0, cursor: 'pointer' }}
+      >
+        📊 Performans Ölçümleri {open ? '▲' : '▼'}
+      </h3>
+
+      {open && !metrics && (
+        <div style={{ color: textSec, fontSize: '13px', marginTop: '15px' }}>Yükleniyor...</div>
+      )}
+
+      {open && metrics && (
+        <div style={{ marginTop: '15px' }}>
+          <div style={{ fontSize: '12px', color: textSec, marginBottom: '10px' }}>
+            {new Date(metrics.since).toLocaleString('tr-TR')} tarihinden beri
+          </div>
+
+          {Object.keys(COUNTER_LABELS).map(key => {
+            const counter = metrics.counters[key];
+            return counter && row(COUNTER_LABELS[key], counter.total, `günde ${counter.perDay}`);
+          })}
+
+          <div style={{ height: '10px' }} />
+
+          {Object.keys(HISTOGRAM_LABELS).map(key => {
+            const histogram = metrics.histograms[key];
+            if (!histogram) return null;
+            return histogram.count === 0
+              ? row(HISTOGRAM_LABELS[key], '-')
+              : row(
+                  HISTOGRAM_LABELS[key],
+                  `p50 ≤ ${formatMs(histogram.p50)}`,
+                  `p95 ≤ ${formatMs(histogram.p95)} · en çok ${formatMs(histogram.max)} · ${histogram.count} örnek`
+                );
+          })}
+
+          {metrics.events.length > 0 && (
+            <details style={{ marginTop: '10px', color: text, fontSize: '12px' }}>
+              <summary style={{ cursor: 'pointer' }}>Son olaylar ({metrics.events.length})</summary>
+              {metrics.events.map((event, index) => (
+                <div key={index} style={{ color: textSec, padding: '2px 0' }}>
+                  {new Date(event.time).toLocaleTimeString('tr-TR')} · {HISTOGRAM_LABELS[event.kind] || event.kind} · {formatMs(event.value)}
+                </div>
+              ))}
+            </details>
+          )}
+
+          <div style={{ display: 'flex', gap: '10px', marginTop: '15px' }}>
+            <button
+              onClick={refresh}
+              style={{
+                flex: 1,
+                padding: '10px',
+                backgroundColor: '#059669',
+                color: 'white',
+                border: 'none',
+                borderRadius: '8px',
+                cursor: 'pointer',
+                fontSize: '13px'
+              }}
+            >
+              🔄 Yenile
+            </button>
+            <button
+              onClick={handleReset}
+              style={{
+                flex: 1,
+                padding: '10px',
+                backgroundColor: '#dc2626',
+                color: 'white',
+                border: 'none',
+                borderRadius: '8px',
+                cursor: 'pointer',
+                fontSize: '13px'
+              }}
+            >
+              Sıfırla
+            </button>
+          </div>
+        </div>
+      )}
+    </div>
+  );
+};
+
+export default PerformanceMetrics;
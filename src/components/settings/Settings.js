@@ -24,6 +24,7 @@ import NotificationSettings from './NotificationSettings';
 import FontSettings from './FontSettings';
 import AudioSettings from './AudioSettings';
 import ReadingSettings from './ReadingSettings';
+import PerformanceMetrics from './PerformanceMetrics';
 
 const Settings = ({ darkMode, onDarkModeToggle }) => {
   const [settings, setSettings] = useState(null);
@@ -284,6 +285,9 @@ const Settings = ({ darkMode, onDarkModeToggle }) => {
         </div>
       </div>
 
+      {/* PERFORMANS ÖLÇÜMLERİ - yalnızca Android */}
+      <PerformanceMetrics darkMode={darkMode} />
+
       {/* BUTONLAR */}
       <div style={{ display: 'flex', gap: '10px', flexWrap: 'wrap' }}>
         <button
@@ -4,13 +4,26 @@ import ReactDOM from 'react-dom/client';
 import './index.css';
 import App from './App';
 import * as serviceWorkerRegistration from './serviceWorkerRegistration';
+import { initUserData } from './utils/userDataStore';
+import { getStartupSnapshot, markStartup } from './utils/startupSnapshot';
+
+markStartup('jsStart');
 
 const root = ReactDOM.createRoot(document.getElementById('root'));
-root.render(
-  <React.StrictMode>
-    <App />
-  </React.StrictMode>
-);
+
+// Yer imleri, notlar ve ayarlar ilk çizimden önce belleğe alınır; okumalar senkron kalır
+const userDataReady = initUserData();
+// Yerel özet, kullanıcı verisi yerelde yüklenirken alınır (ikisi paralel)
+getStartupSnapshot();
+
+userDataReady.finally(() => {
+  markStartup('userDataReady');
+  root.render(
+    <React.StrictMode>
+      <App />
+    </React.StrictMode>
+  );
+});
 
 // ❌ Service Worker DEVRE DIŞI - Cache sorunu önlendi
 serviceWorkerRegistration.unregister();
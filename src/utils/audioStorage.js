@@ -1,4 +1,14 @@
 // src/utils/audioStorage.js
+// Android'de sesler yerel servisle (AudioDownloadPlugin) paralel ve kaldığı yerden
+// devam ederek doğrudan dosyaya indirilir. Web'de IndexedDB kullanılır; Android'de
+// geçişten önce IndexedDB'ye inmiş sesler silinene kadar oradan da okunur.
+import { Capacitor, registerPlugin } from '@capacitor/core';
+import { getSettings } from './settingsStorage';
+
+const AudioDownloadNative = registerPlugin('AudioDownload');
+const isNative = () => Capacitor.isNativePlatform();
+// Yerelde dosyalar kari dizininde tutulur; oynatılan kari ile aynı olmalı
+const currentReciter = () => getSettings().reciter || 'Alafasy_128kbps';
 
 const DB_NAME = 'QuranAudioDB';
 const DB_VERSION = 1;
@@ -98,8 +108,42 @@ export const downloadAudio = async (surahNumber, ayahNumber, onProgress) => {
   }
 };
 
+const downloadSurahNative = async (surahNumber, totalAyahs, onProgress) => {
+  let resolveComplete;
+  const completed = new Promise(resolve => { resolveComplete = resolve; });
+  const completeHandle = await AudioDownloadNative.addListener('complete', (event) => {
+    if (event.surah === surahNumber) resolveComplete(event);
+  });
+  const progressHandle = await AudioDownloadNative.addListener('progress', (event) => {
+    if (event.surah === surahNumber && onProgress) {
+      onProgress(Math.round(event.completed / event.total * 100), event.completed, event.total);
+    }
+  });
+
+  try {
+    await AudioDownloadNative.downloadSurah({
+      surah: surahNumber,
+      ayahCount: totalAyahs,
+      reciter: currentReciter()
+    });
+    const event = await completed;
+    if (event.cancelled) throw new Error('İndirme iptal edildi');
+    const failed = new Set(event.failed);
+    const results = [];
+    for (let i = 1; i <= totalAyahs; i++) {
+      results.push({ ayah: i, success: !failed.has(i) });
+    }
+    console.log(`✅ Sure ${surahNumber} indirildi, başarısız: ${event.failed.length}`);
+    return results;
+  } finally {
+    completeHandle.remove();
+    progressHandle.remove();
+  }
+};
+
 // Tüm sure seslerini indir
 export const downloadSurah = async (surahNumber, totalAyahs, onProgress) => {
+  if (isNative()) return downloadSurahNative(surahNumber, totalAyahs, onProgress);
   console.log(`🎵 Sure indirme başladı: Sure ${surahNumber}, ${totalAyahs} ayet`);
   const results = [];
   
@@ -120,8 +164,9 @@ export const downloadSurah = async (surahNumber, totalAyahs, onProgress) => {
   return results;
 };
 
-// Ses dosyasını getir
-export const getAudio = async (surahNumber, ayahNumber) => {
+// ---- IndexedDB (web; Android'de yerel indirmeden önceki kayıtlar) ----
+
+const idbGetAudio = async (surahNumber, ayahNumber) => {
   try {
     const db = await initDB();
     const transaction = db.transaction([STORE_NAME], 'readonly');
@@ -145,66 +190,44 @@ export const getAudio = async (surahNumber, ayahNumber) => {
   }
 };
 
-// Sure indirilmiş mi kontrol et
-export const isSurahDownloaded = async (surahNumber, totalAyahs) => {
-  try {
-    const db = await initDB();
-    const transaction = db.transaction([STORE_NAME], 'readonly');
-    const store = transaction.objectStore(STORE_NAME);
-    const index = store.index('surahNumber');
+const idbDeleteSurah = async (surahNumber, totalAyahs) => {
+  const db = await initDB();
+  const transaction = db.transaction([STORE_NAME], 'readwrite');
+  const store = transaction.objectStore(STORE_NAME);
 
-    return new Promise((resolve) => {
-      const request = index.getAll(surahNumber);
-      request.onsuccess = () => {
-        resolve(request.result.length === totalAyahs);
-      };
-      request.onerror = () => resolve(false);
-    });
-  } catch (error) {
-    return false;
+  for (let i = 1; i <= totalAyahs; i++) {
+    store.delete(`${surahNumber}-${i}`);
   }
-};
-
-// Sure seslerini sil
-export const deleteSurah = async (surahNumber, totalAyahs) => {
-  try {
-    const db = await initDB();
-    const transaction = db.transaction([STORE_NAME], 'readwrite');
-    const store = transaction.objectStore(STORE_NAME);
-
-    for (let i = 1; i <= totalAyahs; i++) {
-      store.delete(`${surahNumber}-${i}`);
-    }
+  // Bağlantı işlem bitince kapanır; açık bağlantı deleteDatabase'i bekletir
+  db.close();
 
-    return new Promise((resolve, reject) => {
-      transaction.oncomplete = () => resolve();
-      transaction.onerror = () => reject(transaction.error);
-    });
-  } catch (error) {
-    console.error('Silme hatası:', error);
-    throw error;
-  }
+  return new Promise((resolve, reject) => {
+    transaction.oncomplete = () => resolve();
+    transaction.onerror = () => reject(transaction.error);
+  });
 };
 
-// İndirilen sureleri listele
-export const getDownloadedSurahs = async () => {
+const idbDownloadedSurahs = async () => {
   try {
     const db = await initDB();
     const transaction = db.transaction([STORE_NAME], 'readonly');
     const store = transaction.objectStore(STORE_NAME);
 
     return new Promise((resolve) => {
-      const request = store.getAll();
+      // Yalnızca anahtarlar ("sure-ayet") okunur; ses blob'ları belleğe alınmaz
+      const request = store.getAllKeys();
+      db.close();
       request.onsuccess = () => {
-        const downloads = request.result;
-        console.log('📋 İndirilen dosyalar:', downloads.length);
+        const keys = request.result;
+        console.log('📋 İndirilen dosyalar:', keys.length);
         const surahMap = {};
 
-        downloads.forEach(audio => {
-          if (!surahMap[audio.surahNumber]) {
-            surahMap[audio.surahNumber] = [];
+        keys.forEach(key => {
+          const [surahNumber, ayahNumber] = String(key).split('-').map(Number);
+          if (!surahMap[surahNumber]) {
+            surahMap[surahNumber] = [];
           }
-          surahMap[audio.surahNumber].push(audio.ayahNumber);
+          surahMap[surahNumber].push(ayahNumber);
         });
 
         resolve(surahMap);
@@ -216,8 +239,7 @@ export const getDownloadedSurahs = async () => {
   }
 };
 
-// Toplam kullanılan disk alanını hesapla
-export const getTotalSize = async () => {
+const idbTotalSize = async () => {
   try {
     const db = await initDB();
     const transaction = db.transaction([STORE_NAME], 'readonly');
@@ -238,6 +260,121 @@ export const getTotalSize = async () => {
   }
 };
 
+// Android'de yerel indirmeden önce IndexedDB'ye inmiş sesler (hep Alafasy) kaybolmasın diye
+// okunmaya devam eder; kullanıcı hepsini silince veritabanı da silinir
+const LEGACY_RECITER = 'Alafasy_128kbps';
+let legacyCheck = null;
+
+// Kayıt kalmadıysa veritabanı silinir; sonraki çağrılar IndexedDB'yi hiç açmaz
+const legacyHasEntries = async () => {
+  const remaining = await idbDownloadedSurahs();
+  if (Object.keys(remaining).length > 0) return true;
+  indexedDB.deleteDatabase(DB_NAME);
+  return false;
+};
+
+const hasLegacyAudio = () => {
+  if (currentReciter() !== LEGACY_RECITER || typeof indexedDB === 'undefined') return Promise.resolve(false);
+  if (!legacyCheck) {
+    // databases() yoksa açıp bakılır (boşsa hemen silinir)
+    const exists = indexedDB.databases
+      ? indexedDB.databases().then(databases => databases.some(db => db.name === DB_NAME))
+      : Promise.resolve(true);
+    legacyCheck = exists.then(found => found && legacyHasEntries()).catch(() => false);
+  }
+  return legacyCheck;
+};
+
+const dropLegacyIfEmpty = async () => {
+  legacyCheck = legacyHasEntries().catch(() => false);
+  await legacyCheck;
+};
+
+// Ses dosyasını getir
+export const getAudio = async (surahNumber, ayahNumber) => {
+  if (isNative()) {
+    const { path } = await AudioDownloadNative.getAyahPath({
+      surah: surahNumber,
+      ayah: ayahNumber,
+      reciter: currentReciter()
+    });
+    if (path) return Capacitor.convertFileSrc(path);
+    if (await hasLegacyAudio()) {
+      const legacy = await idbGetAudio(surahNumber, ayahNumber);
+      if (legacy) return legacy;
+    }
+    // Akıştan çalınacak; bu ayet ve sıradaki arka planda önbelleğe alınır
+    AudioDownloadNative.prefetch({
+      surah: surahNumber,
+      ayahs: [ayahNumber, ayahNumber + 1],
+      reciter: currentReciter()
+    }).catch(() => {});
+    return null;
+  }
+  return idbGetAudio(surahNumber, ayahNumber);
+};
+
+// Sure indirilmiş mi kontrol et
+export const isSurahDownloaded = async (surahNumber, totalAyahs) => {
+  const downloaded = await getDownloadedSurahs();
+  return (downloaded[surahNumber] || []).length === totalAyahs;
+};
+
+// Sure seslerini sil
+export const deleteSurah = async (surahNumber, totalAyahs) => {
+  if (isNative()) {
+    await AudioDownloadNative.deleteSurah({ surah: surahNumber, reciter: currentReciter() });
+    if (await hasLegacyAudio()) {
+      await idbDeleteSurah(surahNumber, totalAyahs);
+      await dropLegacyIfEmpty();
+    }
+    return;
+  }
+  try {
+    await idbDeleteSurah(surahNumber, totalAyahs);
+  } catch (error) {
+    console.error('Silme hatası:', error);
+    throw error;
+  }
+};
+
+// İndirilen sureleri listele
+export const getDownloadedSurahs = async () => {
+  if (!isNative()) return idbDownloadedSurahs();
+  let surahs = {};
+  try {
+    ({ surahs } = await AudioDownloadNative.list({ reciter: currentReciter() }));
+  } catch (error) {
+    surahs = {};
+  }
+  if (!(await hasLegacyAudio())) return surahs;
+  // Yerel ve eski kayıtlar birleştirilir; aynı ayet bir kez sayılır
+  const legacy = await idbDownloadedSurahs();
+  const merged = { ...surahs };
+  Object.keys(legacy).forEach(surah => {
+    merged[surah] = [...new Set([...(merged[surah] || []), ...legacy[surah]])].sort((a, b) => a - b);
+  });
+  return merged;
+};
+
+// Toplam kullanılan disk alanını hesapla
+export const getTotalSize = async () => {
+  if (!isNative()) return idbTotalSize();
+  let bytes = 0;
+  try {
+    ({ bytes } = await AudioDownloadNative.getTotalSize());
+  } catch (error) {
+    bytes = 0;
+  }
+  return (await hasLegacyAudio()) ? bytes + await idbTotalSize() : bytes;
+};
+
+// Dinlerken önbelleğe alınan seslerin üst sınırı (yalnızca Android)
+export const setCacheBudget = async (bytes) => {
+  if (!isNative()) return;
+  await AudioDownloadNative.setCacheBudget({ bytes });
+};
+
 // Boyutu okunabilir formata çevir
 export const formatBytes = (bytes) => {
   if (bytes === 0) return '0 Bytes';
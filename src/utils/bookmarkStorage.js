@@ -1,6 +1,11 @@
 // src/utils/bookmarkStorage.js
-
-const BOOKMARKS_KEY = 'quran_bookmarks';
+import {
+  allBookmarks,
+  findBookmark,
+  putBookmark,
+  deleteBookmark,
+  queryBookmarks
+} from './userDataStore';
 
 // Yer imi yapısı:
 // {
@@ -16,27 +21,20 @@ const BOOKMARKS_KEY = 'quran_bookmarks';
 // }
 
 // Tüm yer imlerini getir
-export const getBookmarks = () => {
-  try {
-    const bookmarks = localStorage.getItem(BOOKMARKS_KEY);
-    return bookmarks ? JSON.parse(bookmarks) : [];
-  } catch (error) {
-    console.error('Yer imleri yüklenemedi:', error);
-    return [];
-  }
-};
+export const getBookmarks = () => allBookmarks();
+
+// Sayfalı liste (sure ve ayet sırasıyla): { total, bookmarks }
+export const getBookmarksPage = (category, offset, limit) =>
+  queryBookmarks({ category, offset, limit });
+
+const findBookmarkById = (bookmarkId) =>
+  allBookmarks().find(b => b.id === bookmarkId) || null;
 
 // Yer imi ekle
 export const addBookmark = (bookmark) => {
   try {
-    const bookmarks = getBookmarks();
-    
     // Aynı ayet zaten yer iminde mi kontrol et
-    const exists = bookmarks.some(
-      b => b.surahNumber === bookmark.surahNumber && b.ayahNumber === bookmark.ayahNumber
-    );
-    
-    if (exists) {
+    if (findBookmark(bookmark.surahNumber, bookmark.ayahNumber)) {
       throw new Error('Bu ayet zaten yer imlerinde');
     }
 
@@ -48,8 +46,7 @@ export const addBookmark = (bookmark) => {
       note: bookmark.note || ''
     };
 
-    bookmarks.push(newBookmark);
-    localStorage.setItem(BOOKMARKS_KEY, JSON.stringify(bookmarks));
+    putBookmark(newBookmark);
     
     return newBookmark;
   } catch (error) {
@@ -61,9 +58,10 @@ export const addBookmark = (bookmark) => {
 // Yer imi sil
 export const removeBookmark = (bookmarkId) => {
   try {
-    const bookmarks = getBookmarks();
-    const filtered = bookmarks.filter(b => b.id !== bookmarkId);
-    localStorage.setItem(BOOKMARKS_KEY, JSON.stringify(filtered));
+    const bookmark = findBookmarkById(bookmarkId);
+    if (bookmark) {
+      deleteBookmark(bookmark.surahNumber, bookmark.ayahNumber);
+    }
     return true;
   } catch (error) {
     console.error('Yer imi silinemedi:', error);
@@ -74,11 +72,7 @@ export const removeBookmark = (bookmarkId) => {
 // Ayete göre yer imi sil (sure ve ayet numarası ile)
 export const removeBookmarkByAyah = (surahNumber, ayahNumber) => {
   try {
-    const bookmarks = getBookmarks();
-    const filtered = bookmarks.filter(
-      b => !(b.surahNumber === surahNumber && b.ayahNumber === ayahNumber)
-    );
-    localStorage.setItem(BOOKMARKS_KEY, JSON.stringify(filtered));
+    deleteBookmark(surahNumber, ayahNumber);
     return true;
   } catch (error) {
     console.error('Yer imi silinemedi:', error);
@@ -88,30 +82,26 @@ export const removeBookmarkByAyah = (surahNumber, ayahNumber) => {
 
 // Ayet yer iminde mi kontrol et
 export const isBookmarked = (surahNumber, ayahNumber) => {
-  const bookmarks = getBookmarks();
-  return bookmarks.some(
-    b => b.surahNumber === surahNumber && b.ayahNumber === ayahNumber
-  );
+  return findBookmark(surahNumber, ayahNumber) !== null;
 };
 
 // Yer imi güncelle (not veya kategori değiştir)
 export const updateBookmark = (bookmarkId, updates) => {
   try {
-    const bookmarks = getBookmarks();
-    const index = bookmarks.findIndex(b => b.id === bookmarkId);
+    const bookmark = findBookmarkById(bookmarkId);
     
-    if (index === -1) {
+    if (!bookmark) {
       throw new Error('Yer imi bulunamadı');
     }
 
-    bookmarks[index] = {
-      ...bookmarks[index],
+    const updated = {
+      ...bookmark,
       ...updates,
       updatedAt: new Date().toISOString()
     };
 
-    localStorage.setItem(BOOKMARKS_KEY, JSON.stringify(bookmarks));
-    return bookmarks[index];
+    putBookmark(updated);
+    return updated;
   } catch (error) {
     console.error('Yer imi güncellenemedi:', error);
     throw error;
@@ -0,0 +1,46 @@
+// src/utils/metrics.js
+// Android'de widget, alarm ve eklenti ölçümleri (MetricsPlugin): sayaçlar, gecikme
+// histogramları ve son olaylar. Ayarlar'daki "Performans Ölçümleri" bölümü kullanır.
+import { Capacitor, registerPlugin } from '@capacitor/core';
+
+const Metrics = registerPlugin('Metrics');
+
+export const hasNativeMetrics = () => Capacitor.isNativePlatform();
+
+// Web'de ölçüm yok; null döner
+export const getMetrics = async () => {
+  if (!hasNativeMetrics()) return null;
+  try {
+    return await Metrics.get();
+  } catch (error) {
+    console.error('Ölçümler alınamadı:', error);
+    return null;
+  }
+};
+
+export const resetMetrics = async () => {
+  if (hasNativeMetrics()) await Metrics.reset();
+};
+
+export const COUNTER_LABELS = {
+  widgetWakeup: 'Widget alarm uyanması',
+  widgetRefresh: 'Widget yenileme',
+  notificationPost: 'Kalıcı bildirim güncelleme',
+  prayerAlarm: 'Vakit alarmı',
+  alarmReschedule: 'Alarm planlama',
+  bridgeUpdateWidget: 'updateWidget çağrısı',
+  syncRun: 'Vakit senkronu',
+  syncFailure: 'Senkron hatası',
+  widgetRefreshCoalesced: 'Birleştirilen widget yenilemesi',
+  backgroundTimeout: 'Arka plan iş zaman aşımı'
+};
+
+export const HISTOGRAM_LABELS = {
+  widgetRefreshMs: 'Widget yenileme süresi',
+  widgetWakeupLatenessMs: 'Widget alarm gecikmesi',
+  prayerAlarmLatenessMs: 'Vakit alarmı gecikmesi',
+  alarmRescheduleMs: 'Alarm planlama süresi',
+  bridgeUpdateWidgetMs: 'updateWidget süresi',
+  syncMs: 'Senkron süresi',
+  widgetUpdateWorkMs: 'updateWidget arka plan işi'
+};
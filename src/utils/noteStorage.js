@@ -1,47 +1,32 @@
 // src/utils/noteStorage.js
-
-const NOTES_KEY = 'quran_notes';
+import { allNotes, findNote, noteCount, putNote, removeNote } from './userDataStore';
 
 // Tüm notları al
-export const getAllNotes = () => {
-  try {
-    const notes = localStorage.getItem(NOTES_KEY);
-    return notes ? JSON.parse(notes) : {};
-  } catch (error) {
-    console.error('Notlar yüklenirken hata:', error);
-    return {};
-  }
-};
+export const getAllNotes = () => allNotes();
 
 // Belirli bir ayet için not al
 export const getNote = (surahNumber, ayahNumber) => {
-  const notes = getAllNotes();
-  const key = `${surahNumber}-${ayahNumber}`;
-  return notes[key] || null;
+  return findNote(surahNumber, ayahNumber);
 };
 
 // Not ekle veya güncelle
 export const saveNote = (surahNumber, ayahNumber, noteText, surahName) => {
   try {
-    const notes = getAllNotes();
-    const key = `${surahNumber}-${ayahNumber}`;
-    
     if (noteText.trim() === '') {
       // Boş not ise sil
-      delete notes[key];
+      removeNote(surahNumber, ayahNumber);
     } else {
       // Not kaydet
-      notes[key] = {
+      putNote({
         surahNumber,
         ayahNumber,
         surahName,
         note: noteText,
-        createdAt: notes[key]?.createdAt || new Date().toISOString(),
+        createdAt: findNote(surahNumber, ayahNumber)?.createdAt || new Date().toISOString(),
         updatedAt: new Date().toISOString()
-      };
+      });
     }
     
-    localStorage.setItem(NOTES_KEY, JSON.stringify(notes));
     return true;
   } catch (error) {
     console.error('Not kaydedilirken hata:', error);
@@ -52,10 +37,7 @@ export const saveNote = (surahNumber, ayahNumber, noteText, surahName) => {
 // Not sil
 export const deleteNote = (surahNumber, ayahNumber) => {
   try {
-    const notes = getAllNotes();
-    const key = `${surahNumber}-${ayahNumber}`;
-    delete notes[key];
-    localStorage.setItem(NOTES_KEY, JSON.stringify(notes));
+    removeNote(surahNumber, ayahNumber);
     return true;
   } catch (error) {
     console.error('Not silinirken hata:', error);
@@ -79,5 +61,5 @@ export const hasNote = (surahNumber, ayahNumber) => {
 
 // Toplam not sayısı
 export const getTotalNotesCount = () => {
-  return Object.keys(getAllNotes()).length;
+  return noteCount();
 };
\ No newline at end of file
@@ -1,5 +1,6 @@
 // src/utils/notificationService.js - TAMAMI (EXTRA DATA EKLENMİŞ)
 
+import { Capacitor, registerPlugin } from '@capacitor/core';
 import { LocalNotifications } from '@capacitor/local-notifications';
 import { 
   getNotificationSettings, 
@@ -8,6 +9,11 @@ import {
   getSoundPath
 } from './notificationStorage';
 
+// Android'de vakit alarmları yerel zamanlayıcıda (PrayerAlarmsPlugin): birkaç günlük
+// pencere, açılışta/saat değişiminde kendiliğinden yeniden kurulur, günlük JS yenilemesi gerekmez
+export const PrayerAlarms = registerPlugin('PrayerAlarms');
+export const usesNativeAlarms = () => Capacitor.getPlatform() === 'android';
+
 // ============================================
 // ANDROID BİLDİRİM KANALI
 // ============================================
@@ -155,9 +161,39 @@ const getNativeSound = (settings) => {
 // ⏰ TEST BİLDİRİMİ AKTİF/PASİF KONTROLÜ
 const ENABLE_TEST_NOTIFICATION = false; // true = aktif, false = pasif
 
+// Ayarları yerel zamanlayıcıya gönder; yalnızca değişen alarmlar yeniden kurulur
+const scheduleNativeAlarms = async (prayerTimings) => {
+  const settings = getNotificationSettings();
+
+  // Önceki sürümlerin LocalNotifications ile kurduğu bildirimler çift çalmasın
+  const pending = await LocalNotifications.getPending();
+  if (pending.notifications.length > 0) {
+    await LocalNotifications.cancel({ notifications: pending.notifications });
+  }
+
+  const result = await PrayerAlarms.configure({
+    enabled: settings.enabled,
+    prayers: settings.prayerNotifications,
+    sound: settings.sound,
+    soundType: settings.soundType,
+    selectedAdhan: settings.selectedAdhan,
+    selectedNotification: settings.selectedNotification,
+    vibration: settings.vibration,
+    customMessage: settings.customMessage,
+    messageTemplate: settings.messageTemplate,
+    timings: prayerTimings || undefined
+  });
+  console.log(`✅ ${result.scheduled} vakit alarmı kurulu`);
+  return calculateNotificationTimes(prayerTimings);
+};
+
 // Bildirimleri zamanla - GÜNCELLENDİ
 export const scheduleNotifications = async (prayerTimings) => {
   try {
+    if (usesNativeAlarms()) {
+      return await scheduleNativeAlarms(prayerTimings);
+    }
+
     const notificationTimes = calculateNotificationTimes(prayerTimings);
     
     if (notificationTimes.length === 0) {
@@ -355,6 +391,9 @@ export const sendTestNotification = async () => {
 // Tüm bildirimleri iptal et
 export const clearAllNotifications = async () => {
   try {
+    if (usesNativeAlarms()) {
+      await PrayerAlarms.cancelAll();
+    }
     const pending = await LocalNotifications.getPending();
     await LocalNotifications.cancel({ notifications: pending.notifications });
     console.log('✅ Tüm bildirimler temizlendi');
@@ -381,6 +420,9 @@ export const setupDailyRefresh = async (prayerTimingsProvider) => {
     clearTimeout(dailyRefreshTimer);
   }
 
+  // Yerel zamanlayıcı penceresini kendisi kaydırır
+  if (usesNativeAlarms()) return;
+
   const scheduleNextRefresh = async () => {
     const now = new Date();
     const tomorrow = new Date(now);
@@ -416,6 +458,12 @@ export const setupDailyRefresh = async (prayerTimingsProvider) => {
 // Uygulama açılışında bildirimleri kontrol et ve yenile
 export const checkAndRefreshNotifications = async (prayerTimings) => {
   try {
+    if (usesNativeAlarms()) {
+      // Fark yoksa yerel tarafta hiçbir alarm yeniden kurulmaz
+      await scheduleNotifications(prayerTimings);
+      return true;
+    }
+
     const pending = await LocalNotifications.getPending();
     const pendingCount = pending.notifications.length;
 
@@ -1,12 +1,51 @@
 import { Geolocation } from '@capacitor/geolocation';
+import { Capacitor, registerPlugin } from '@capacitor/core';
 
 // Aladhan API kullanarak namaz vakitlerini getir
 // Dökümantasyon: https://aladhan.com/prayer-times-api
+// Android'de vakitler cihaz üzerinde hesaplanır (PrayerTimesPlugin), API yalnızca web'de kullanılır
+
+const PrayerTimesNative = registerPlugin('PrayerTimes');
+
+const formatApiDate = (date) => {
+  const day = String(date.getDate()).padStart(2, '0');
+  const month = String(date.getMonth() + 1).padStart(2, '0');
+  return `${day}-${month}-${date.getFullYear()}`;
+};
+
+// Yerel hesaplama; başarısız olursa null döner ve API'ye düşülür
+const calculateNative = async (latitude, longitude, method, date, days) => {
+  if (!Capacitor.isNativePlatform()) return null;
+  try {
+    const result = await PrayerTimesNative.calculate({
+      latitude,
+      longitude,
+      method,
+      date: formatApiDate(date),
+      days
+    });
+    return result.days;
+  } catch (error) {
+    console.error('Yerel vakit hesaplaması başarısız:', error);
+    return null;
+  }
+};
 
 // Koordinatlara göre namaz vakitlerini getir
 export const getPrayerTimesByCoordinates = async (latitude, longitude, method = 13) => {
   try {
     const date = new Date();
+
+    const nativeDays = await calculateNative(latitude, longitude, method, date, 1);
+    if (nativeDays && nativeDays.length > 0) {
+      return {
+        success: true,
+        timings: nativeDays[0].timings,
+        date: { gregorian: { date: nativeDays[0].date } },
+        meta: { latitude, longitude, method: { id: method }, source: 'native' }
+      };
+    }
+
     const timestamp = Math.floor(date.getTime() / 1000);
     
     const url = `https://api.aladhan.com/v1/timings/${timestamp}?latitude=${latitude}&longitude=${longitude}&method=${method}`;
@@ -62,6 +101,20 @@ export const getWeeklyPrayerTimes = async (latitude, longitude, method = 13) =>
   try {
     const today = new Date();
     const weekly = [];
+
+    const nativeDays = await calculateNative(latitude, longitude, method, today, 7);
+    if (nativeDays) {
+      nativeDays.forEach((day, i) => {
+        const date = new Date(today);
+        date.setDate(today.getDate() + i);
+        weekly.push({
+          date: { gregorian: { date: day.date } },
+          timings: day.timings,
+          dayName: getDayName(date)
+        });
+      });
+      return { success: true, weekly };
+    }
     
     for (let i = 0; i < 7; i++) {
       const date = new Date(today);
@@ -0,0 +1,64 @@
+// src/utils/quranCorpus.js
+// Android'de sure metinleri cihazdaki tek dosyalık depodan okunur (QuranCorpusPlugin).
+// Depo ilk ağ yüklemesinden sonra arka planda bir kez indirilir; hazır değilse null döner.
+import { Capacitor, registerPlugin } from '@capacitor/core';
+
+const QuranCorpusNative = registerPlugin('QuranCorpus');
+
+const ARABIC = 'quran-simple';
+const TAJWEED = 'quran-tajweed';
+const TURKISH = 'tr.diyanet';
+
+let preparing = null;
+
+// QuranReader'ın beklediği biçim: { ayahs: [{ number, arabic, turkish, globalNumber }], ayahCount }
+const toReaderSurah = (result, arabicEdition) => ({
+  ayahs: result.ayahs.map(ayah => ({
+    number: ayah.number,
+    arabic: ayah.texts[arabicEdition],
+    turkish: ayah.texts[TURKISH] || '',
+    globalNumber: ayah.globalNumber
+  })),
+  ayahCount: result.ayahCount
+});
+
+// from/to verilirse yalnızca o aralık okunur (uzun surelerde önce ilk ekran); ayahCount surenin tamamıdır
+export const loadLocalSurah = async (surahNumber, tajweed, from, to) => {
+  if (!Capacitor.isNativePlatform()) return null;
+  const arabicEdition = tajweed ? TAJWEED : ARABIC;
+  try {
+    const result = await QuranCorpusNative.getSurah({
+      surah: surahNumber,
+      editions: [arabicEdition, TURKISH],
+      from,
+      to
+    });
+    return toReaderSurah(result, arabicEdition);
+  } catch (error) {
+    // NOT_READY: depo henüz indirilmedi, çağıran ağdan yükler
+    return null;
+  }
+};
+
+// Depo hazır değilken sure ağdan, yerel tarafta akış halinde ayrıştırılarak indirilir;
+// ham yanıt WebView'a gelmez. Web'de null: çağıran kendi ağ yolunu kullanır
+export const fetchNetworkSurah = async (surahNumber, tajweed) => {
+  if (!Capacitor.isNativePlatform()) return null;
+  const arabicEdition = tajweed ? TAJWEED : ARABIC;
+  const result = await QuranCorpusNative.fetchSurah({
+    surah: surahNumber,
+    editions: [arabicEdition, TURKISH]
+  });
+  return toReaderSurah(result, arabicEdition);
+};
+
+// Beklenmez; aynı oturumda yalnızca bir kez başlatılır
+export const prepareLocalCorpus = () => {
+  if (!Capacitor.isNativePlatform() || preparing) return;
+  preparing = QuranCorpusNative.prepare({ editions: [ARABIC, TURKISH, TAJWEED] })
+    .then(result => console.log(`📖 Yerel metin deposu hazır (${result.tookMs}ms)`))
+    .catch(error => {
+      console.warn('Yerel metin deposu hazırlanamadı:', error);
+      preparing = null;
+    });
+};
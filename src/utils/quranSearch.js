@@ -0,0 +1,81 @@
+// src/utils/quranSearch.js
+// Android'de arama cihaz üzerindeki indeksle yapılır (QuranSearchPlugin);
+// indeks ilk aramada bir kez indirilip üretilir. Web'de eski API taraması kullanılır.
+import { Capacitor, registerPlugin } from '@capacitor/core';
+import { allSurahs } from '../data/surahs';
+
+const QuranSearchNative = registerPlugin('QuranSearch');
+
+const withSurahInfo = (result) => {
+  const surah = allSurahs.find(s => s.number === result.surahNumber);
+  return {
+    ...result,
+    surahName: surah ? surah.name : '',
+    surahNameArabic: surah ? surah.nameArabic : ''
+  };
+};
+
+// onPreparing: indeks ilk kez hazırlanırken çağrılır (arayüzde bilgi göstermek için)
+const searchNative = async (query, searchType, onPreparing) => {
+  const status = await QuranSearchNative.status();
+  if (!status.ready) {
+    onPreparing && onPreparing();
+    await QuranSearchNative.prepare();
+  }
+  const result = await QuranSearchNative.search({
+    query,
+    language: searchType === 'arabic' ? 'arabic' : 'turkish'
+  });
+  console.log(`🔍 ${result.total} sonuç, ${result.tookMs}ms`);
+  return result.results.map(withSurahInfo);
+};
+
+const searchRemote = async (query, searchType) => {
+  const results = [];
+  const searchLower = query.toLowerCase();
+
+  for (const surah of allSurahs) {
+    try {
+      const response = await fetch(
+        `https://api.alquran.cloud/v1/surah/${surah.number}/editions/quran-simple,tr.diyanet`
+      );
+      const data = await response.json();
+
+      if (data.code === 200) {
+        const arabic = data.data[0].ayahs;
+        const turkish = data.data[1].ayahs;
+
+        arabic.forEach((ayah, index) => {
+          const isMatch = searchType === 'turkish'
+            ? turkish[index].text.toLowerCase().includes(searchLower)
+            : ayah.text.includes(query);
+
+          if (isMatch) {
+            results.push({
+              surahNumber: surah.number,
+              surahName: surah.name,
+              surahNameArabic: surah.nameArabic,
+              ayahNumber: ayah.numberInSurah,
+              arabicText: ayah.text,
+              turkishText: turkish[index].text
+            });
+          }
+        });
+      }
+    } catch (error) {
+      console.error(`Sure ${surah.number} aramasında hata:`, error);
+    }
+  }
+  return results;
+};
+
+export const searchQuran = async (query, searchType, onPreparing) => {
+  if (Capacitor.isNativePlatform()) {
+    try {
+      return await searchNative(query, searchType, onPreparing);
+    } catch (error) {
+      console.error('Yerel arama başarısız, API ile aranıyor:', error);
+    }
+  }
+  return searchRemote(query, searchType);
+};
@@ -0,0 +1,26 @@
+// src/utils/recitationPlayer.js
+// Android'de ayetler yerel servisle (RecitationPlugin) kesintisiz çalınır: sıradaki ayet
+// önceden hazırlanır, ekran kapalıyken ve kilit ekranından da kontrol edilir.
+// Web'de QuranReader kendi Audio nesnesini kullanır.
+import { Capacitor, registerPlugin } from '@capacitor/core';
+
+export const Recitation = registerPlugin('Recitation');
+
+export const usesNativeRecitation = () => Capacitor.isNativePlatform();
+
+// settings: getSettings() sonucu. autoPlay açıksa sure sonuna kadar, değilse tek ayet;
+// autoRepeat açıksa ayet sonsuz tekrarlanır (web davranışıyla aynı)
+export const playRecitation = (surah, fromAyah, lastAyah, settings) => {
+  return Recitation.play({
+    surah: surah.number,
+    title: surah.name,
+    from: fromAyah,
+    to: settings.autoPlay ? lastAyah : fromAyah,
+    reciter: settings.reciter || 'Alafasy_128kbps',
+    ayahRepeats: settings.autoRepeat ? 0 : 1,
+    rangeRepeats: 1,
+    speed: settings.audioSpeed || 1.0
+  });
+};
+
+export const stopRecitation = () => Recitation.stop();
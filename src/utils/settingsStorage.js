@@ -1,6 +1,5 @@
 // src/utils/settingsStorage.js
-
-const SETTINGS_KEY = 'quran_settings';
+import { storedSettings, putSettings, clearSettings } from './userDataStore';
 
 // Varsayılan ayarlar
 const getDefaultSettings = () => ({
@@ -123,19 +122,14 @@ export const arabicFonts = [
 
 // Ayarları al
 export const getSettings = () => {
-  try {
-    const settings = localStorage.getItem(SETTINGS_KEY);
-    return settings ? { ...getDefaultSettings(), ...JSON.parse(settings) } : getDefaultSettings();
-  } catch (error) {
-    console.error('Ayarlar yüklenirken hata:', error);
-    return getDefaultSettings();
-  }
+  const settings = storedSettings();
+  return settings ? { ...getDefaultSettings(), ...settings } : getDefaultSettings();
 };
 
 // Ayarları kaydet
 export const saveSettings = (settings) => {
   try {
-    localStorage.setItem(SETTINGS_KEY, JSON.stringify(settings));
+    putSettings(settings);
     return true;
   } catch (error) {
     console.error('Ayarlar kaydedilirken hata:', error);
@@ -158,7 +152,7 @@ export const getSetting = (key) => {
 
 // Ayarları sıfırla
 export const resetSettings = () => {
-  localStorage.removeItem(SETTINGS_KEY);
+  clearSettings();
   return getDefaultSettings();
 };
 
@@ -0,0 +1,55 @@
+// src/utils/startupSnapshot.js
+// Android'de ana sayfanın ilk çizimi için yerel özet (MainActivity / StartupSnapshot):
+// bugünün vakitleri, Hicri tarih, son okunan sure. Sıradaki vakit getNextPrayer ile
+// vakitlerden türetilir. WebView oluşurken hazırlanır ve eşzamanlı okunur; ilk çizim
+// ağ ya da hesap beklemez.
+// Açılış ölçümleri logcat'te "Startup" etiketiyle görülür.
+
+let snapshot;
+
+const nativeBridge = () => (typeof window !== 'undefined' ? window.Android : undefined);
+
+// Özet bir kez okunur; web'de ya da hazır değilse null
+export const getStartupSnapshot = () => {
+  if (snapshot !== undefined) return snapshot;
+  snapshot = null;
+  const bridge = nativeBridge();
+  if (bridge && typeof bridge.getStartupSnapshot === 'function') {
+    try {
+      const raw = bridge.getStartupSnapshot();
+      snapshot = raw ? JSON.parse(raw) : null;
+    } catch (error) {
+      console.error('Açılış özeti okunamadı:', error);
+    }
+  }
+  return snapshot;
+};
+
+// Bugünün özeti mi? (uygulama gece yarısını geçerek açık kaldıysa eski sayılır)
+export const isSnapshotForToday = (data) => {
+  if (!data || !data.date) return false;
+  const today = new Date();
+  const day = String(today.getDate()).padStart(2, '0');
+  const month = String(today.getMonth() + 1).padStart(2, '0');
+  return data.date === `${day}-${month}-${today.getFullYear()}`;
+};
+
+export const markStartup = (name) => {
+  if (typeof performance !== 'undefined' && performance.mark) performance.mark(name);
+  const bridge = nativeBridge();
+  if (bridge && typeof bridge.markStartup === 'function') bridge.markStartup(name);
+};
+
+let fullyDrawnReported = false;
+
+// Ana sayfa anlamlı içerikle ilk kez çizildiğinde bir kez çağrılır
+export const reportFirstMeaningfulPaint = () => {
+  if (fullyDrawnReported) return;
+  fullyDrawnReported = true;
+  // Çizimin ekrana yansıdığı kareden sonra
+  requestAnimationFrame(() => {
+    if (typeof performance !== 'undefined' && performance.mark) performance.mark('firstMeaningfulPaint');
+    const bridge = nativeBridge();
+    if (bridge && typeof bridge.reportFullyDrawn === 'function') bridge.reportFullyDrawn();
+  });
+};
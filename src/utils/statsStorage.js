@@ -1,42 +1,155 @@
 // src/utils/statsStorage.js
+// Okuma istatistikleri. Her oturum yalnızca eklenir (aylık parçalara bölünmüş oturum günlüğü)
+// ve günlük / haftalık / aylık özetler oturum bittiğinde artımlı güncellenir. Bir oturumun
+// yazılması, geçmiş ne kadar uzun olursa olsun, sabit sayıda küçük anahtara dokunur;
+// "son 12 ay, haftalık" gibi sorgular yalnızca ilgili özet kovalarını okur.
+//
+// Anahtarlar:
+//   quran_stats                 toplamlar ve seri (streak)
+//   quran_sessions_YYYY-MM      o ayın oturumları (eskiden yeniye)
+//   quran_stats_days_YYYY-MM    { gün: kova }
+//   quran_stats_weeks_YYYY      { ISO hafta: kova } (ISO hafta yılı)
+//   quran_stats_months_YYYY     { ay: kova }
+// Kova: { minutes, sessions, ayahs, surahs: [sure numaraları] }
 
 const STATS_KEY = 'quran_stats';
-const READING_HISTORY_KEY = 'quran_reading_history';
+const LEGACY_HISTORY_KEY = 'quran_reading_history';
+const SESSION_PREFIX = 'quran_sessions_';
+const DAY_PREFIX = 'quran_stats_days_';
+const WEEK_PREFIX = 'quran_stats_weeks_';
+const MONTH_PREFIX = 'quran_stats_months_';
+const STATS_VERSION = 2;
+const DAY_MS = 24 * 60 * 60 * 1000;
 
 // Varsayılan istatistikler
 const getDefaultStats = () => ({
+  version: STATS_VERSION,
   totalReadingSessions: 0,
   totalReadingTime: 0, // dakika cinsinden
   surahsRead: {}, // { surahNumber: readCount }
   lastReadDate: null,
   streakDays: 0,
-  lastStreakDate: null,
+  longestStreak: 0,
+  lastStreakDay: null, // yerel epoch günü
+  firstMonth: null, // 'YYYY-MM': günlüğün en eski parçası
   totalAyahsRead: 0,
   favoriteReciter: 'alafasy'
 });
 
-// Tüm istatistikleri al
-export const getStats = () => {
+const pad = (value) => String(value).padStart(2, '0');
+const monthKey = (date) => `${date.getFullYear()}-${pad(date.getMonth() + 1)}`;
+const dayKey = (date) => `${monthKey(date)}-${pad(date.getDate())}`;
+const localEpochDay = (date) => Math.floor(Date.UTC(date.getFullYear(), date.getMonth(), date.getDate()) / DAY_MS);
+
+// ISO 8601 haftası: hafta pazartesi başlar, yılın ilk perşembesini içeren hafta 1'dir
+const isoWeek = (date) => {
+  const thursday = new Date(date.getFullYear(), date.getMonth(), date.getDate());
+  thursday.setDate(thursday.getDate() - ((thursday.getDay() + 6) % 7) + 3);
+  const year = thursday.getFullYear();
+  const week = 1 + Math.floor((localEpochDay(thursday) - localEpochDay(new Date(year, 0, 1))) / 7);
+  return { year, week };
+};
+
+const readJson = (key, fallback) => {
   try {
-    const stats = localStorage.getItem(STATS_KEY);
-    return stats ? JSON.parse(stats) : getDefaultStats();
+    const value = localStorage.getItem(key);
+    return value ? JSON.parse(value) : fallback;
   } catch (error) {
-    console.error('İstatistikler yüklenirken hata:', error);
-    return getDefaultStats();
+    console.error(`${key} okunamadı:`, error);
+    return fallback;
   }
 };
 
-// İstatistikleri kaydet
-const saveStats = (stats) => {
+const writeJson = (key, value) => {
   try {
-    localStorage.setItem(STATS_KEY, JSON.stringify(stats));
+    localStorage.setItem(key, JSON.stringify(value));
     return true;
   } catch (error) {
-    console.error('İstatistikler kaydedilirken hata:', error);
+    console.error(`${key} kaydedilemedi:`, error);
     return false;
   }
 };
 
+const emptyBucket = () => ({ minutes: 0, sessions: 0, ayahs: 0, surahs: [] });
+
+const addToBucket = (bucket, session) => {
+  bucket.minutes += session.duration;
+  bucket.sessions++;
+  bucket.ayahs += session.ayahs || 0;
+  if (!bucket.surahs.includes(session.surahNumber)) bucket.surahs.push(session.surahNumber);
+};
+
+// Oturumu günlüğe ekler ve üç özet kovasını günceller (toplamlar hariç)
+const appendSession = (session) => {
+  const start = new Date(session.startTime);
+
+  const logKey = SESSION_PREFIX + monthKey(start);
+  const log = readJson(logKey, []);
+  log.push(session);
+  writeJson(logKey, log);
+
+  const days = readJson(DAY_PREFIX + monthKey(start), {});
+  const day = pad(start.getDate());
+  addToBucket(days[day] || (days[day] = emptyBucket()), session);
+  writeJson(DAY_PREFIX + monthKey(start), days);
+
+  const { year, week } = isoWeek(start);
+  const weeks = readJson(WEEK_PREFIX + year, {});
+  addToBucket(weeks[week] || (weeks[week] = emptyBucket()), session);
+  writeJson(WEEK_PREFIX + year, weeks);
+
+  const months = readJson(MONTH_PREFIX + start.getFullYear(), {});
+  const month = pad(start.getMonth() + 1);
+  addToBucket(months[month] || (months[month] = emptyBucket()), session);
+  writeJson(MONTH_PREFIX + start.getFullYear(), months);
+};
+
+// Seri O(1): yalnızca son okunan gün ile karşılaştırılır
+const updateStreak = (stats, date) => {
+  const today = localEpochDay(date);
+  if (stats.lastStreakDay === today) return;
+  stats.streakDays = stats.lastStreakDay === today - 1 ? stats.streakDays + 1 : 1;
+  stats.lastStreakDay = today;
+  stats.longestStreak = Math.max(stats.longestStreak || 0, stats.streakDays);
+};
+
+// Önceki sürümün tek parça kayıtları (toplamlar + son 100 oturum) bir kez taşınır
+const migrateLegacy = (legacy) => {
+  const stats = { ...getDefaultStats(), ...legacy, version: STATS_VERSION };
+  delete stats.lastStreakDate;
+  if (legacy.lastStreakDate) {
+    stats.lastStreakDay = localEpochDay(new Date(legacy.lastStreakDate));
+  }
+  stats.longestStreak = Math.max(legacy.longestStreak || 0, legacy.streakDays || 0);
+
+  // Geçmiş en yeniden eskiye tutuluyordu; günlüğe eskiden yeniye eklenir
+  const history = readJson(LEGACY_HISTORY_KEY, []);
+  history.slice().reverse().forEach(session => {
+    appendSession(session);
+    const month = monthKey(new Date(session.startTime));
+    if (!stats.firstMonth || month < stats.firstMonth) stats.firstMonth = month;
+  });
+  writeJson(STATS_KEY, stats);
+  localStorage.removeItem(LEGACY_HISTORY_KEY);
+  return stats;
+};
+
+// Kayıtlı toplamlar (gerekirse önceki sürümden taşınarak)
+const loadStats = () => {
+  const stored = readJson(STATS_KEY, null);
+  if (!stored) return getDefaultStats();
+  return stored.version === STATS_VERSION ? stored : migrateLegacy(stored);
+};
+
+// Tüm istatistikleri al
+export const getStats = () => {
+  const stats = loadStats();
+  // Dün ya da bugün okunmadıysa seri kırılmıştır
+  const today = localEpochDay(new Date());
+  const current = stats.lastStreakDay !== null && stats.lastStreakDay >= today - 1 ? stats.streakDays : 0;
+  return { ...stats, streakDays: current };
+};
+
 // Okuma oturumu başlat
 export const startReadingSession = (surahNumber, surahName) => {
   const session = {
@@ -44,48 +157,58 @@ export const startReadingSession = (surahNumber, surahName) => {
     surahName,
     startTime: new Date().toISOString(),
     endTime: null,
-    duration: 0
+    duration: 0,
+    ayahList: []
   };
-  
+
   sessionStorage.setItem('current_reading_session', JSON.stringify(session));
   return session;
 };
 
+// Oturumda okunan/dinlenen ayet (aynı ayet bir kez sayılır)
+export const markAyahRead = (ayahNumber) => {
+  try {
+    const sessionData = sessionStorage.getItem('current_reading_session');
+    if (!sessionData) return;
+    const session = JSON.parse(sessionData);
+    const ayahList = session.ayahList || [];
+    if (ayahList.includes(ayahNumber)) return;
+    session.ayahList = ayahList.concat(ayahNumber);
+    sessionStorage.setItem('current_reading_session', JSON.stringify(session));
+  } catch (error) {
+    console.error('Ayet kaydedilemedi:', error);
+  }
+};
+
 // Okuma oturumu bitir
 export const endReadingSession = () => {
   try {
     const sessionData = sessionStorage.getItem('current_reading_session');
     if (!sessionData) return null;
 
-    const session = JSON.parse(sessionData);
+    const { ayahList = [], ...session } = JSON.parse(sessionData);
     session.endTime = new Date().toISOString();
-    
+
     const startTime = new Date(session.startTime);
     const endTime = new Date(session.endTime);
     session.duration = Math.round((endTime - startTime) / 1000 / 60); // dakika
+    session.ayahs = ayahList.length;
+
+    const stats = loadStats();
 
-    // İstatistikleri güncelle
-    const stats = getStats();
+    // Toplamlar
     stats.totalReadingSessions++;
     stats.totalReadingTime += session.duration;
-    
-    // Sure okuma sayısını artır
-    if (!stats.surahsRead[session.surahNumber]) {
-      stats.surahsRead[session.surahNumber] = 0;
-    }
-    stats.surahsRead[session.surahNumber]++;
-    
-    // Son okuma tarihini güncelle
+    stats.totalAyahsRead += session.ayahs;
+    stats.surahsRead[session.surahNumber] = (stats.surahsRead[session.surahNumber] || 0) + 1;
     stats.lastReadDate = session.endTime;
-    
-    // Streak hesapla
-    updateStreak(stats);
-    
-    saveStats(stats);
-    
-    // Okuma geçmişine ekle
-    addToReadingHistory(session);
-    
+    const month = monthKey(startTime);
+    if (!stats.firstMonth || month < stats.firstMonth) stats.firstMonth = month;
+    updateStreak(stats, startTime);
+
+    appendSession(session);
+    writeJson(STATS_KEY, stats);
+
     sessionStorage.removeItem('current_reading_session');
     return session;
   } catch (error) {
@@ -94,61 +217,61 @@ export const endReadingSession = () => {
   }
 };
 
-// Streak güncelle
-const updateStreak = (stats) => {
-  const today = new Date();
-  today.setHours(0, 0, 0, 0);
-  
-  if (!stats.lastStreakDate) {
-    stats.streakDays = 1;
-    stats.lastStreakDate = today.toISOString();
-    return;
-  }
-  
-  const lastStreakDate = new Date(stats.lastStreakDate);
-  lastStreakDate.setHours(0, 0, 0, 0);
-  
-  const diffDays = Math.floor((today - lastStreakDate) / (1000 * 60 * 60 * 24));
-  
-  if (diffDays === 0) {
-    // Bugün zaten okumuş
-    return;
-  } else if (diffDays === 1) {
-    // Dün okumuş, streak devam
-    stats.streakDays++;
-    stats.lastStreakDate = today.toISOString();
-  } else {
-    // Streak kırıldı
-    stats.streakDays = 1;
-    stats.lastStreakDate = today.toISOString();
+// Son oturumlar (en yenisi başta); yalnızca gereken aylık parçalar okunur
+export const getReadingHistory = (limit = 100) => {
+  const { firstMonth } = loadStats();
+  const history = [];
+  if (!firstMonth) return history;
+  const cursor = new Date();
+  cursor.setDate(1);
+  while (history.length < limit && monthKey(cursor) >= firstMonth) {
+    const log = readJson(SESSION_PREFIX + monthKey(cursor), []);
+    for (let i = log.length - 1; i >= 0 && history.length < limit; i--) history.push(log[i]);
+    cursor.setMonth(cursor.getMonth() - 1);
   }
+  return history;
 };
 
-// Okuma geçmişi
-export const getReadingHistory = () => {
-  try {
-    const history = localStorage.getItem(READING_HISTORY_KEY);
-    return history ? JSON.parse(history) : [];
-  } catch (error) {
-    console.error('Okuma geçmişi yüklenirken hata:', error);
-    return [];
-  }
-};
+// Özet serisi: granularity 'day' | 'week' | 'month', eskiden yeniye count kova.
+// Her kova { key, start, minutes, sessions, ayahs, surahs } (surahs: farklı sure sayısı)
+export const getRollupSeries = (granularity, count, now = new Date()) => {
+  const shards = new Map();
+  const shard = (key) => {
+    if (!shards.has(key)) shards.set(key, readJson(key, {}));
+    return shards.get(key);
+  };
 
-const addToReadingHistory = (session) => {
-  try {
-    const history = getReadingHistory();
-    history.unshift(session); // En yenisi başta
-    
-    // Son 100 oturumu sakla
-    if (history.length > 100) {
-      history.splice(100);
+  const series = [];
+  for (let i = count - 1; i >= 0; i--) {
+    let start;
+    let key;
+    let bucket;
+    if (granularity === 'month') {
+      start = new Date(now.getFullYear(), now.getMonth() - i, 1);
+      key = monthKey(start);
+      bucket = shard(MONTH_PREFIX + start.getFullYear())[pad(start.getMonth() + 1)];
+    } else if (granularity === 'week') {
+      start = new Date(now.getFullYear(), now.getMonth(), now.getDate() - ((now.getDay() + 6) % 7) - i * 7);
+      const { year, week } = isoWeek(start);
+      key = `${year}-W${pad(week)}`;
+      bucket = shard(WEEK_PREFIX + year)[week];
+    } else {
+      start = new Date(now.getFullYear(), now.getMonth(), now.getDate() - i);
+      key = dayKey(start);
+      bucket = shard(DAY_PREFIX + monthKey(start))[pad(start.getDate())];
     }
-    
-    localStorage.setItem(READING_HISTORY_KEY, JSON.stringify(history));
-  } catch (error) {
-    console.error('Okuma geçmişi kaydedilirken hata:', error);
+    const value = bucket || emptyBucket();
+    series.push({
+      key,
+      start,
+      minutes: value.minutes,
+      sessions: value.sessions,
+      ayahs: value.ayahs,
+      surahs: value.surahs.length,
+      surahList: value.surahs
+    });
   }
+  return series;
 };
 
 // En çok okunan sureler
@@ -158,72 +281,41 @@ export const getMostReadSurahs = (limit = 5) => {
     number: parseInt(number),
     count
   }));
-  
+
   return surahsArray
     .sort((a, b) => b.count - a.count)
     .slice(0, limit);
 };
 
-// Haftalık okuma istatistikleri
-export const getWeeklyStats = () => {
-  const history = getReadingHistory();
-  const weekAgo = new Date();
-  weekAgo.setDate(weekAgo.getDate() - 7);
-  
-  const weekHistory = history.filter(session => 
-    new Date(session.startTime) >= weekAgo
-  );
-  
-  const dailyStats = {};
-  for (let i = 0; i < 7; i++) {
-    const date = new Date();
-    date.setDate(date.getDate() - i);
-    const dateStr = date.toISOString().split('T')[0];
-    dailyStats[dateStr] = {
-      sessions: 0,
-      duration: 0,
-      date: dateStr
-    };
-  }
-  
-  weekHistory.forEach(session => {
-    const dateStr = session.startTime.split('T')[0];
-    if (dailyStats[dateStr]) {
-      dailyStats[dateStr].sessions++;
-      dailyStats[dateStr].duration += session.duration;
-    }
-  });
-  
-  return Object.values(dailyStats).reverse();
-};
+// Haftalık okuma istatistikleri (son 7 gün, eskiden yeniye)
+export const getWeeklyStats = () => getRollupSeries('day', 7).map(day => ({
+  sessions: day.sessions,
+  duration: day.minutes,
+  date: day.key
+}));
 
-// Aylık okuma istatistikleri
+// Aylık okuma istatistikleri (son 30 gün)
 export const getMonthlyStats = () => {
-  const history = getReadingHistory();
-  const monthAgo = new Date();
-  monthAgo.setDate(monthAgo.getDate() - 30);
-  
-  const monthHistory = history.filter(session => 
-    new Date(session.startTime) >= monthAgo
-  );
-  
+  const days = getRollupSeries('day', 30);
+  const surahs = new Set();
+  days.forEach(day => day.surahList.forEach(number => surahs.add(number)));
   return {
-    totalSessions: monthHistory.length,
-    totalDuration: monthHistory.reduce((sum, s) => sum + s.duration, 0),
-    uniqueSurahs: new Set(monthHistory.map(s => s.surahNumber)).size
+    totalSessions: days.reduce((sum, day) => sum + day.sessions, 0),
+    totalDuration: days.reduce((sum, day) => sum + day.minutes, 0),
+    uniqueSurahs: surahs.size
   };
 };
 
-// Ayet okuma sayısını artır
-export const incrementAyahRead = () => {
-  const stats = getStats();
-  stats.totalAyahsRead++;
-  saveStats(stats);
-};
-
 // Tüm istatistikleri sıfırla
 export const resetStats = () => {
+  const prefixes = [SESSION_PREFIX, DAY_PREFIX, WEEK_PREFIX, MONTH_PREFIX];
+  const keys = [];
+  for (let i = 0; i < localStorage.length; i++) {
+    const key = localStorage.key(i);
+    if (prefixes.some(prefix => key.startsWith(prefix))) keys.push(key);
+  }
+  keys.forEach(key => localStorage.removeItem(key));
   localStorage.removeItem(STATS_KEY);
-  localStorage.removeItem(READING_HISTORY_KEY);
+  localStorage.removeItem(LEGACY_HISTORY_KEY);
   return getDefaultStats();
-};
\ No newline at end of file
+};
@@ -139,16 +139,120 @@ export const getTafsirsByType = (type) => {
   return tafsirs.filter(t => t.type === type);
 };
 
+// ---------------------------------------------------------------------------
+// Önbellek: her ayet metni ayrı bir localStorage anahtarında tutulur; en son
+// kullanım sırası ve boyutlar bellekteki bir Map'te (sıra = LRU) ve tek bir
+// dizin anahtarında saklanır. Okuma/yazma tüm önbelleği ayrıştırmaz.
+// ---------------------------------------------------------------------------
+const ENTRY_PREFIX = 'quran_tafsir:';
+const INDEX_KEY = 'quran_tafsir_index';
+// localStorage kotası (~5 MB) diğer verilerle paylaşılır; UTF-16 ile karakter başına 2 bayt
+const CACHE_BUDGET_BYTES = 2 * 1024 * 1024;
+// Tek surenin toplu kaydı bütçenin en fazla dörtte birini kullanır; uzun bir sure
+// diğer surelerin tefsirlerini tek seferde silmez
+const BULK_CACHE_BYTES = CACHE_BUDGET_BYTES / 4;
+const INDEX_SAVE_DELAY_MS = 1000;
+
+// Quran.com tefsir kaynak kimlikleri
+const resourceMap = {
+  'tr.muyassar': 161,  // Muyassar Tefsiri (Türkçe)
+  'tr.tafheem': 169,   // Tafheem-ul-Quran (Türkçe)
+  'en.maududi': 95,    // Tafhim-ul-Quran (English)
+  'en.jalalayn': 93,   // Tafsir al-Jalalayn
+  'ar.muyassar': 168,  // Tafsir Al-Muyassar (Arabic)
+  'ar.jalalayn': 74    // Tafsir al-Jalalayn (Arabic)
+};
+
+let cacheIndex = null;   // key -> bayt, eskiden yeniye
+let cacheBytes = 0;
+let saveTimer = null;
+const pendingSurahs = new Map();  // `${kaynak}:${sure}` -> Promise
+
+const entryKey = (surahNumber, ayahNumber, tafsirId) =>
+  `${ENTRY_PREFIX}${tafsirId}:${surahNumber}:${ayahNumber}`;
+
+const entryBytes = (key, text) => (key.length + text.length) * 2;
+
+const saveIndexLater = () => {
+  if (saveTimer) return;
+  saveTimer = setTimeout(() => {
+    saveTimer = null;
+    try {
+      localStorage.setItem(INDEX_KEY, JSON.stringify([...cacheIndex]));
+    } catch (error) {
+      console.error('Tefsir dizini kaydedilemedi:', error);
+    }
+  }, INDEX_SAVE_DELAY_MS);
+};
+
+// Eski tek parça önbellek (quran_tafsir_cache) ilk açılışta taşınır
+const migrateLegacyCache = () => {
+  const legacy = localStorage.getItem(TAFSIR_CACHE_KEY);
+  if (!legacy) return;
+  localStorage.removeItem(TAFSIR_CACHE_KEY);
+  try {
+    Object.entries(JSON.parse(legacy))
+      .sort((a, b) => new Date(a[1].cachedAt) - new Date(b[1].cachedAt))
+      .forEach(([key, value]) => {
+        const [surahNumber, ayahNumber, tafsirId] = key.split('-');
+        cacheTafsir(surahNumber, ayahNumber, tafsirId, value.text);
+      });
+  } catch (error) {
+    console.error('Eski tefsir önbelleği taşınamadı:', error);
+  }
+};
+
+const getIndex = () => {
+  if (cacheIndex) return cacheIndex;
+  cacheIndex = new Map();
+  cacheBytes = 0;
+  try {
+    const stored = localStorage.getItem(INDEX_KEY);
+    if (stored) {
+      JSON.parse(stored).forEach(([key, bytes]) => {
+        cacheIndex.set(key, bytes);
+        cacheBytes += bytes;
+      });
+    }
+  } catch (error) {
+    console.error('Tefsir dizini okunamadı:', error);
+  }
+  migrateLegacyCache();
+  return cacheIndex;
+};
+
+const removeEntry = (index, key) => {
+  cacheBytes -= index.get(key) || 0;
+  index.delete(key);
+  localStorage.removeItem(key);
+};
+
+const evictUntil = (index, budget) => {
+  // Map yineleme sırası en uzun süredir kullanılmayandan başlar
+  for (const key of index.keys()) {
+    if (cacheBytes <= budget) break;
+    removeEntry(index, key);
+  }
+};
+
 // Tefsir cache'inden al
 export const getCachedTafsir = (surahNumber, ayahNumber, tafsirId) => {
   try {
-    const cache = localStorage.getItem(TAFSIR_CACHE_KEY);
-    if (!cache) return null;
-    
-    const cacheData = JSON.parse(cache);
-    const key = `${surahNumber}-${ayahNumber}-${tafsirId}`;
-    
-    return cacheData[key] || null;
+    const index = getIndex();
+    const key = entryKey(surahNumber, ayahNumber, tafsirId);
+    if (!index.has(key)) return null;
+    const text = localStorage.getItem(key);
+    if (text === null) {
+      removeEntry(index, key);
+      saveIndexLater();
+      return null;
+    }
+    // En son kullanılan sona taşınır
+    const bytes = index.get(key);
+    index.delete(key);
+    index.set(key, bytes);
+    saveIndexLater();
+    return { text };
   } catch (error) {
     console.error('Tefsir cache okuma hatası:', error);
     return null;
@@ -158,33 +262,22 @@ export const getCachedTafsir = (surahNumber, ayahNumber, tafsirId) => {
 // Tefsir'i cache'e kaydet
 export const cacheTafsir = (surahNumber, ayahNumber, tafsirId, tafsirText) => {
   try {
-    let cache = {};
-    const existingCache = localStorage.getItem(TAFSIR_CACHE_KEY);
-    
-    if (existingCache) {
-      cache = JSON.parse(existingCache);
-    }
-    
-    const key = `${surahNumber}-${ayahNumber}-${tafsirId}`;
-    cache[key] = {
-      text: tafsirText,
-      cachedAt: new Date().toISOString()
-    };
-    
-    // Cache boyutunu kontrol et (max 100 tefsir)
-    const keys = Object.keys(cache);
-    if (keys.length > 100) {
-      // En eski 20 tanesini sil
-      const sortedKeys = keys
-        .map(k => ({ key: k, date: cache[k].cachedAt }))
-        .sort((a, b) => new Date(a.date) - new Date(b.date))
-        .slice(0, 20)
-        .map(item => item.key);
-      
-      sortedKeys.forEach(k => delete cache[k]);
+    const index = getIndex();
+    const key = entryKey(surahNumber, ayahNumber, tafsirId);
+    const text = tafsirText || '';
+    const bytes = entryBytes(key, text);
+    if (index.has(key)) removeEntry(index, key);
+    evictUntil(index, CACHE_BUDGET_BYTES - bytes);
+    try {
+      localStorage.setItem(key, text);
+    } catch (quotaError) {
+      // Kota dolu: önbelleğin yarısını boşaltıp bir kez daha dene
+      evictUntil(index, cacheBytes / 2);
+      localStorage.setItem(key, text);
     }
-    
-    localStorage.setItem(TAFSIR_CACHE_KEY, JSON.stringify(cache));
+    index.set(key, bytes);
+    cacheBytes += bytes;
+    saveIndexLater();
     return true;
   } catch (error) {
     console.error('Tefsir cache kaydetme hatası:', error);
@@ -192,49 +285,73 @@ export const cacheTafsir = (surahNumber, ayahNumber, tafsirId, tafsirText) => {
   }
 };
 
+const isMeal = (tafsirId) => meals.some(m => m.id === tafsirId);
+
+// Bir surenin tüm ayetleri için tek istek: [{ ayah, text }]
+const fetchSurahTexts = async (surahNumber, tafsirId) => {
+  if (isMeal(tafsirId)) {
+    const response = await fetch(`https://api.alquran.cloud/v1/surah/${surahNumber}/${tafsirId}`);
+    if (!response.ok) throw new Error('Meal yüklenemedi');
+    const data = await response.json();
+    return data.data.ayahs.map(ayah => ({ ayah: ayah.numberInSurah, text: ayah.text }));
+  }
+
+  const resourceId = resourceMap[tafsirId] || 161;
+  const response = await fetch(
+    `https://api.quran.com/api/v4/quran/tafsirs/${resourceId}?chapter_number=${surahNumber}`
+  );
+  if (!response.ok) throw new Error('Tefsir yüklenemedi');
+  const data = await response.json();
+  return (data.tafsirs || []).map((tafsir, index) => ({
+    ayah: tafsir.verse_key ? Number(tafsir.verse_key.split(':')[1]) : index + 1,
+    text: tafsir.text
+  }));
+};
+
+// fromAyah'tan başlayarak BULK_CACHE_BYTES dolana kadar kaydeder; kalanı okundukça yeniden istenir
+const cacheSurahItems = (surahNumber, tafsirId, items, fromAyah) => {
+  const start = Math.max(0, items.findIndex(item => item.ayah >= fromAyah));
+  let added = 0;
+  let count = 0;
+  for (const item of items.slice(start)) {
+    const bytes = entryBytes(entryKey(surahNumber, item.ayah, tafsirId), item.text || '');
+    if (added + bytes > BULK_CACHE_BYTES) break;
+    cacheTafsir(surahNumber, item.ayah, tafsirId, item.text);
+    added += bytes;
+    count++;
+  }
+  return count;
+};
+
+// Surenin tefsirini (veya mealini) önbelleğe alır; aynı anda gelen istekler birleştirilir
+export const prefetchSurahTafsir = (surahNumber, tafsirId, fromAyah = 1) => {
+  const pendingKey = `${tafsirId}:${surahNumber}`;
+  if (!pendingSurahs.has(pendingKey)) {
+    const pending = fetchSurahTexts(surahNumber, tafsirId)
+      .then(items => {
+        const count = cacheSurahItems(surahNumber, tafsirId, items, Number(fromAyah));
+        console.log(`📚 ${tafsirId}: Sure ${surahNumber} önbelleğe alındı (${count}/${items.length} ayet)`);
+        return items;
+      })
+      .finally(() => pendingSurahs.delete(pendingKey));
+    pendingSurahs.set(pendingKey, pending);
+  }
+  return pendingSurahs.get(pendingKey);
+};
+
 // API'den tefsir al
 export const fetchTafsir = async (surahNumber, ayahNumber, tafsirId = 'tr.ozturk') => {
   try {
-    // Önce cache'e bak
     const cached = getCachedTafsir(surahNumber, ayahNumber, tafsirId);
     if (cached) {
       return cached.text;
     }
-    
-    // Quran.com API kullan (daha fazla tefsir var)
-    // Resource ID'leri: 161 (Muyassar-TR), 169 (Tafheem-TR), vs.
-    
-    const resourceMap = {
-      'tr.muyassar': 161,  // Muyassar Tefsiri (Türkçe)
-      'tr.tafheem': 169,   // Tafheem-ul-Quran (Türkçe)
-      'en.maududi': 95,    // Tafhim-ul-Quran (English)
-      'en.jalalayn': 93,   // Tafsir al-Jalalayn
-      'ar.muyassar': 168,  // Tafsir Al-Muyassar (Arabic)
-      'ar.jalalayn': 74    // Tafsir al-Jalalayn (Arabic)
-    };
-    
-    const resourceId = resourceMap[tafsirId] || 161;
-    
-    const response = await fetch(
-      `https://api.quran.com/api/v4/quran/tafsirs/${resourceId}?verse_key=${surahNumber}:${ayahNumber}`
-    );
-    
-    if (!response.ok) {
-      throw new Error('Tefsir yüklenemedi');
-    }
-    
-    const data = await response.json();
-    
-    if (data && data.tafsirs && data.tafsirs[0]) {
-      const tafsirText = data.tafsirs[0].text;
-      
-      // Cache'e kaydet
-      cacheTafsir(surahNumber, ayahNumber, tafsirId, tafsirText);
-      
-      return tafsirText;
-    }
-    
-    return 'Tefsir bulunamadı.';
+
+    // İlk eksik ayette bütün sure gelir; bu ayetten itibaren toplu kayıt sınırına kadarki
+    // ayetler önbellekten okunur
+    const items = await prefetchSurahTafsir(surahNumber, tafsirId, ayahNumber);
+    const item = items.find(i => i.ayah === Number(ayahNumber));
+    return item && item.text ? item.text : 'Tefsir bulunamadı.';
   } catch (error) {
     console.error('Tefsir yükleme hatası:', error);
     throw error;
@@ -244,7 +361,11 @@ export const fetchTafsir = async (surahNumber, ayahNumber, tafsirId = 'tr.ozturk
 // Cache'i temizle
 export const clearTafsirCache = () => {
   try {
-    localStorage.removeItem(TAFSIR_CACHE_KEY);
+    const index = getIndex();
+    for (const key of [...index.keys()]) {
+      removeEntry(index, key);
+    }
+    localStorage.removeItem(INDEX_KEY);
     return true;
   } catch (error) {
     console.error('Tefsir cache temizleme hatası:', error);
@@ -252,14 +373,10 @@ export const clearTafsirCache = () => {
   }
 };
 
-// Cache boyutunu al
+// Cache boyutunu al (kayıt sayısı)
 export const getTafsirCacheSize = () => {
   try {
-    const cache = localStorage.getItem(TAFSIR_CACHE_KEY);
-    if (!cache) return 0;
-    
-    const cacheData = JSON.parse(cache);
-    return Object.keys(cacheData).length;
+    return getIndex().size;
   } catch (error) {
     return 0;
   }
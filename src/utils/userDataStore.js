@@ -0,0 +1,277 @@
+// src/utils/userDataStore.js
+// Yer imleri, notlar ve ayarlar bellekte tutulur; okumalar senkron kalır.
+// Android'de her değişiklik tek kayıt olarak UserDataPlugin'e yazılır (tüm liste yeniden yazılmaz).
+// Web'de eski localStorage anahtarları kullanılır; art arda yazımlar birleştirilir.
+import { Capacitor, registerPlugin } from '@capacitor/core';
+
+const UserDataNative = registerPlugin('UserData');
+
+const BOOKMARKS_KEY = 'quran_bookmarks';
+const NOTES_KEY = 'quran_notes';
+const SETTINGS_KEY = 'quran_settings';
+const WEB_FLUSH_DELAY = 300;
+
+const state = {
+  loaded: false,
+  bookmarks: new Map(), // "sure-ayet" -> yer imi
+  notes: new Map(),     // "sure-ayet" -> not
+  settings: null
+};
+
+const pendingWebKeys = new Set();
+let webFlushTimer = null;
+
+export const ayahKey = (surahNumber, ayahNumber) => `${surahNumber}-${ayahNumber}`;
+
+const readLocal = (key, fallback) => {
+  try {
+    const raw = localStorage.getItem(key);
+    return raw ? JSON.parse(raw) : fallback;
+  } catch (error) {
+    console.error('Kullanıcı verisi okunamadı:', key, error);
+    return fallback;
+  }
+};
+
+const fill = (bookmarks, notes, settings) => {
+  state.bookmarks = new Map(bookmarks.map(b => [ayahKey(b.surahNumber, b.ayahNumber), b]));
+  state.notes = new Map(notes.map(n => [ayahKey(n.surahNumber, n.ayahNumber), n]));
+  state.settings = settings || null;
+  state.loaded = true;
+};
+
+const loadFromLocalStorage = () => {
+  fill(
+    readLocal(BOOKMARKS_KEY, []),
+    Object.values(readLocal(NOTES_KEY, {})),
+    readLocal(SETTINGS_KEY, null)
+  );
+};
+
+const ensureLoaded = () => {
+  if (!state.loaded) loadFromLocalStorage();
+};
+
+// index.js render öncesi bekler. Android'de ilk açılışta localStorage verisi bir kez taşınır.
+export const initUserData = async () => {
+  if (!Capacitor.isNativePlatform()) {
+    loadFromLocalStorage();
+    return;
+  }
+  try {
+    const result = await UserDataNative.load();
+    const bookmarks = result.bookmarks || [];
+    const notes = result.notes || [];
+    if (bookmarks.length === 0 && notes.length === 0 && !result.settings) {
+      await migrateLocalStorage();
+      return;
+    }
+    fill(bookmarks, notes, result.settings);
+  } catch (error) {
+    console.error('Yerel kullanıcı deposu açılamadı, localStorage kullanılıyor:', error);
+    loadFromLocalStorage();
+  }
+};
+
+const migrateLocalStorage = async () => {
+  loadFromLocalStorage();
+  if (state.bookmarks.size === 0 && state.notes.size === 0 && !state.settings) return;
+  await UserDataNative.importAll({
+    bookmarks: [...state.bookmarks.values()],
+    notes: [...state.notes.values()],
+    settings: state.settings || undefined
+  });
+  // importAll tek anlık görüntüyle yazar: başarısızsa depo boş kalır ve bir sonraki açılışta
+  // yeniden denenir; başarılıysa eski bloblar silinir
+  localStorage.removeItem(BOOKMARKS_KEY);
+  localStorage.removeItem(NOTES_KEY);
+  localStorage.removeItem(SETTINGS_KEY);
+};
+
+const flushWeb = () => {
+  webFlushTimer = null;
+  pendingWebKeys.forEach(key => {
+    try {
+      if (key === BOOKMARKS_KEY) {
+        localStorage.setItem(key, JSON.stringify([...state.bookmarks.values()]));
+      } else if (key === NOTES_KEY) {
+        localStorage.setItem(key, JSON.stringify(Object.fromEntries(state.notes)));
+      } else if (state.settings) {
+        localStorage.setItem(key, JSON.stringify(state.settings));
+      } else {
+        localStorage.removeItem(key);
+      }
+    } catch (error) {
+      console.error('Kullanıcı verisi kaydedilemedi:', key, error);
+    }
+  });
+  pendingWebKeys.clear();
+};
+
+const scheduleWebFlush = (key) => {
+  pendingWebKeys.add(key);
+  if (!webFlushTimer) webFlushTimer = setTimeout(flushWeb, WEB_FLUSH_DELAY);
+};
+
+if (typeof window !== 'undefined') {
+  window.addEventListener('pagehide', () => {
+    if (webFlushTimer) {
+      clearTimeout(webFlushTimer);
+      flushWeb();
+    }
+  });
+}
+
+const writeNative = (method, options) => {
+  UserDataNative[method](options).catch(error => {
+    console.error('Kullanıcı verisi yazılamadı:', options.kind, error);
+  });
+};
+
+// ---- Yer imleri ----
+
+export const allBookmarks = () => {
+  ensureLoaded();
+  return [...state.bookmarks.values()];
+};
+
+export const findBookmark = (surahNumber, ayahNumber) => {
+  ensureLoaded();
+  return state.bookmarks.get(ayahKey(surahNumber, ayahNumber)) || null;
+};
+
+export const putBookmark = (bookmark) => {
+  ensureLoaded();
+  state.bookmarks.set(ayahKey(bookmark.surahNumber, bookmark.ayahNumber), bookmark);
+  if (Capacitor.isNativePlatform()) {
+    writeNative('put', {
+      kind: 'bookmark',
+      surah: bookmark.surahNumber,
+      ayah: bookmark.ayahNumber,
+      category: bookmark.category,
+      data: bookmark
+    });
+  } else {
+    scheduleWebFlush(BOOKMARKS_KEY);
+  }
+};
+
+export const deleteBookmark = (surahNumber, ayahNumber) => {
+  ensureLoaded();
+  if (!state.bookmarks.delete(ayahKey(surahNumber, ayahNumber))) return false;
+  if (Capacitor.isNativePlatform()) {
+    writeNative('remove', { kind: 'bookmark', surah: surahNumber, ayah: ayahNumber });
+  } else {
+    scheduleWebFlush(BOOKMARKS_KEY);
+  }
+  return true;
+};
+
+// Sayfalı liste: { total, bookmarks } (sure ve ayet sırasıyla). Android'de depo indeksinden gelir.
+export const queryBookmarks = async ({ category, offset = 0, limit = 50 } = {}) => {
+  ensureLoaded();
+  const filterCategory = category && category !== 'tümü' ? category : undefined;
+  if (Capacitor.isNativePlatform()) {
+    try {
+      const result = await UserDataNative.query({
+        kind: 'bookmark',
+        category: filterCategory,
+        offset,
+        limit
+      });
+      return { total: result.total, bookmarks: result.records };
+    } catch (error) {
+      console.error('Yer imi sorgusu başarısız, bellekten sayfalanıyor:', error);
+    }
+  }
+  const matching = allBookmarks()
+    .filter(b => !filterCategory || b.category === filterCategory)
+    .sort((a, b) => a.surahNumber - b.surahNumber || a.ayahNumber - b.ayahNumber);
+  return { total: matching.length, bookmarks: matching.slice(offset, offset + limit) };
+};
+
+// ---- Notlar ----
+
+export const allNotes = () => {
+  ensureLoaded();
+  return Object.fromEntries(state.notes);
+};
+
+export const findNote = (surahNumber, ayahNumber) => {
+  ensureLoaded();
+  return state.notes.get(ayahKey(surahNumber, ayahNumber)) || null;
+};
+
+export const noteCount = () => {
+  ensureLoaded();
+  return state.notes.size;
+};
+
+export const putNote = (note) => {
+  ensureLoaded();
+  state.notes.set(ayahKey(note.surahNumber, note.ayahNumber), note);
+  if (Capacitor.isNativePlatform()) {
+    writeNative('put', { kind: 'note', surah: note.surahNumber, ayah: note.ayahNumber, data: note });
+  } else {
+    scheduleWebFlush(NOTES_KEY);
+  }
+};
+
+export const removeNote = (surahNumber, ayahNumber) => {
+  ensureLoaded();
+  if (!state.notes.delete(ayahKey(surahNumber, ayahNumber))) return false;
+  if (Capacitor.isNativePlatform()) {
+    writeNative('remove', { kind: 'note', surah: surahNumber, ayah: ayahNumber });
+  } else {
+    scheduleWebFlush(NOTES_KEY);
+  }
+  return true;
+};
+
+// ---- Ayarlar ----
+
+export const storedSettings = () => {
+  ensureLoaded();
+  return state.settings;
+};
+
+export const putSettings = (settings) => {
+  ensureLoaded();
+  state.settings = { ...settings };
+  if (Capacitor.isNativePlatform()) {
+    writeNative('put', { kind: 'settings', data: state.settings });
+  } else {
+    scheduleWebFlush(SETTINGS_KEY);
+  }
+};
+
+export const clearSettings = () => {
+  ensureLoaded();
+  state.settings = null;
+  if (Capacitor.isNativePlatform()) {
+    writeNative('remove', { kind: 'settings' });
+  } else {
+    scheduleWebFlush(SETTINGS_KEY);
+  }
+};
+
+// ---- Son okunan yer ----
+// Android'de açılış özeti (StartupSnapshot) bunu yerel depodan okur
+
+const LAST_READ_KEY = 'quran_last_read';
+
+export const putLastRead = (entry) => {
+  const data = { ...entry, at: new Date().toISOString() };
+  if (Capacitor.isNativePlatform()) {
+    writeNative('put', { kind: 'lastRead', data });
+  } else {
+    try {
+      localStorage.setItem(LAST_READ_KEY, JSON.stringify(data));
+    } catch (error) {
+      console.error('Son okunan yer kaydedilemedi:', error);
+    }
+  }
+};
+
+// Yalnızca web; Android'de açılış özetindeki lastRead kullanılır
+export const getLastRead = () => readLocal(LAST_READ_KEY, null);
@@ -1,9 +1,11 @@
 // src/utils/widgetBridge.js
-import { registerPlugin } from '@capacitor/core';
+import { Capacitor, registerPlugin } from '@capacitor/core';
 
 const PrayerWidgetPlugin = registerPlugin('PrayerWidgetPlugin');
 
-export const updatePrayerWidget = async (prayerTimes) => {
+// location verilirse native taraf yıllık vakit tablosunu üretir ve widget'lar
+// JS çalışmadan gün/hafta değiştirebilir
+export const updatePrayerWidget = async (prayerTimes, location = null, method = 13) => {
   try {
     console.log('📱 Widget güncellemesi başlıyor:', prayerTimes);
     
@@ -13,11 +15,68 @@ export const updatePrayerWidget = async (prayerTimes) => {
       ogle: prayerTimes.Dhuhr,
       ikindi: prayerTimes.Asr,
       aksam: prayerTimes.Maghrib,
-      yatsi: prayerTimes.Isha
+      yatsi: prayerTimes.Isha,
+      ...(location && {
+        latitude: location.latitude,
+        longitude: location.longitude,
+        locationName: location.name,
+        method
+      })
     });
     
     console.log('✅ Widget güncellendi');
   } catch (error) {
     console.error('❌ Widget güncelleme hatası:', error);
   }
-};
\ No newline at end of file
+};
+
+// Kayıtlı konumlar (ev, ailenin şehri...): Android'de native tarafta tutulur ve her biri
+// için yıllık vakit tablosu üretilir; widget'lar eklenirken bu konumlardan biri seçilebilir.
+// Web'de yalnızca hızlı geçiş listesi olarak localStorage'da saklanır.
+const SAVED_LOCATIONS_KEY = 'saved_locations';
+
+const readWebLocations = () => {
+  try {
+    return JSON.parse(localStorage.getItem(SAVED_LOCATIONS_KEY)) || [];
+  } catch (error) {
+    return [];
+  }
+};
+
+export const getSavedLocations = async () => {
+  if (!Capacitor.isNativePlatform()) return readWebLocations();
+  try {
+    const { locations } = await PrayerWidgetPlugin.getSavedLocations();
+    return locations || [];
+  } catch (error) {
+    console.error('Kayıtlı konumlar alınamadı:', error);
+    return [];
+  }
+};
+
+// Aynı koordinat zaten kayıtlıysa adı güncellenir; kaydedilen konumu döner
+export const saveLocation = async ({ name, latitude, longitude }, method = 13) => {
+  if (Capacitor.isNativePlatform()) {
+    return PrayerWidgetPlugin.saveLocation({ name, latitude, longitude, method });
+  }
+  const locations = readWebLocations();
+  const existing = locations.find(l =>
+    Math.abs(l.latitude - latitude) < 1e-4 && Math.abs(l.longitude - longitude) < 1e-4);
+  if (existing) {
+    existing.name = name;
+  } else {
+    if (locations.length >= 8) throw new Error('En fazla 8 konum kaydedilebilir');
+    const id = locations.reduce((max, l) => Math.max(max, l.id), 0) + 1;
+    locations.push({ id, name, latitude, longitude, method, school: 0 });
+  }
+  localStorage.setItem(SAVED_LOCATIONS_KEY, JSON.stringify(locations));
+  return existing || locations[locations.length - 1];
+};
+
+export const removeSavedLocation = async (id) => {
+  if (Capacitor.isNativePlatform()) {
+    await PrayerWidgetPlugin.removeLocation({ id });
+    return;
+  }
+  localStorage.setItem(SAVED_LOCATIONS_KEY, JSON.stringify(readWebLocations().filter(l => l.id !== id)));
+};